@@ -5,6 +5,8 @@ import com.ldtteam.smithscore.common.events.AutomaticEventBusSubcriptionInjector
 import com.ldtteam.smithscore.common.player.management.PlayerManager;
 import com.ldtteam.smithscore.common.proxy.CoreCommonProxy;
 import com.ldtteam.smithscore.common.registry.CommonRegistry;
+import com.ldtteam.smithscore.common.structures.StructureRegistry;
+import com.ldtteam.smithscore.common.tileentity.TileEntitySynchronizationScheduler;
 import com.ldtteam.smithscore.util.CoreReferences;
 import net.minecraft.launchwrapper.Launch;
 import net.minecraftforge.fml.common.Loader;
@@ -14,6 +16,7 @@ import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -143,4 +146,11 @@ public class SmithsCore
     {
         PlayerManager.getInstance().onServerStart(event);
     }
+
+    @Mod.EventHandler
+    public void onServerStopped(FMLServerStoppedEvent event)
+    {
+        StructureRegistry.getServerInstance().onServerStopped();
+        TileEntitySynchronizationScheduler.getInstance().clear();
+    }
 }
@@ -3,6 +3,9 @@ package com.ldtteam.smithscore.client.book;
 import com.ldtteam.smithscore.client.book.data.IBook;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
 import com.ldtteam.smithscore.client.gui.management.IRenderManager;
 import com.ldtteam.smithscore.client.gui.management.StandardRenderManager;
@@ -25,7 +28,7 @@ import java.util.List;
 /**
  * Created by marcf on 7/30/2016.
  */
-public class GuiBookSmithsCore extends GuiScreen implements IGUIBasedComponentHost
+public class GuiBookSmithsCore extends GuiScreen implements IGUIBasedComponentHost, ILayoutCachingGuiComponent
 {
 
     boolean isInitialized = false;
@@ -38,6 +41,8 @@ public class GuiBookSmithsCore extends GuiScreen implements IGUIBasedComponentHo
     IGUIComponentState                   state      = new CoreComponentState(this);
     @Nonnull
     LinkedHashMap<String, IGUIComponent> components = new LinkedHashMap<>();
+    @Nonnull
+    final LayoutCache layout = new LayoutCache();
 
     IBook book;
 
@@ -109,6 +114,7 @@ public class GuiBookSmithsCore extends GuiScreen implements IGUIBasedComponentHo
         int yOffSet = (this.height - areaWithComponents.getHeigth()) / 2;
 
         this.contents = new Plane(new Coordinate2D(xOffSet, yOffSet), areaWithComponents.getWidth(), areaWithComponents.getHeigth());
+        invalidateGlobalCoordinate();
 
         super.initGui();
 
@@ -154,6 +160,8 @@ public class GuiBookSmithsCore extends GuiScreen implements IGUIBasedComponentHo
     public void registerNewComponent(@Nonnull IGUIComponent component)
     {
         this.components.put(component.getID(), component);
+
+        invalidateSize();
     }
 
     @Nonnull
@@ -287,14 +295,24 @@ public class GuiBookSmithsCore extends GuiScreen implements IGUIBasedComponentHo
     @Override
     public Plane getSize()
     {
-        Plane area = new Plane(0, 0, 0, 0);
-
-        for (IGUIComponent component : getAllComponents().values())
+        if (!layout.hasSize())
         {
-            area.IncludeCoordinate(new Plane(component.getLocalCoordinate(), component.getSize().getWidth(), component.getSize().getHeigth()));
+            layout.setSize(GuiLayout.getAreaOccupiedByComponents(getAllComponents().values()));
         }
 
-        return area;
+        return layout.getSize();
+    }
+
+    @Override
+    public void invalidateSize()
+    {
+        layout.invalidateSize();
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        GuiLayout.invalidateGlobalCoordinates(components.values());
     }
 
     /**
@@ -11,6 +11,11 @@ import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedLedgerHost;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedTabHost;
+import com.ldtteam.smithscore.client.gui.hosts.IIndexedComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.ComponentIdIndex;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.legders.core.IGUILedger;
 import com.ldtteam.smithscore.client.gui.legders.core.LedgerConnectionSide;
 import com.ldtteam.smithscore.client.gui.management.*;
@@ -38,7 +43,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 
-public abstract class GuiContainerSmithsCore extends GuiContainer implements IGUIBasedComponentHost, IGUIBasedLedgerHost, IGUIBasedTabHost
+public abstract class GuiContainerSmithsCore extends GuiContainer implements IGUIBasedComponentHost, IGUIBasedLedgerHost, IGUIBasedTabHost, ILayoutCachingGuiComponent, IIndexedComponentHost
 {
 
     private           boolean               isInitialized = false;
@@ -54,6 +59,14 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
     @Nonnull
     private ITabManager tabs = new StandardTabManager(this);
 
+    @Nonnull
+    private final LayoutCache layout = new LayoutCache();
+    private int layoutLeft = 0;
+    private int layoutTop  = 0;
+
+    @Nonnull
+    private final ComponentIdIndex componentIndex = new ComponentIdIndex();
+
     public GuiContainerSmithsCore(@Nonnull ContainerSmithsCore container)
     {
         super(container);
@@ -81,6 +94,7 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
         this.ySize = areaWithComponents.getHeigth();
 
         super.initGui();
+        updateLayoutOrigin();
 
         setIsInitialized(true);
 
@@ -278,14 +292,52 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
     @Override
     public Plane getSize()
     {
-        Plane area = new Plane(0, 0, 0, 0);
+        if (!layout.hasSize())
+        {
+            layout.setSize(GuiLayout.getAreaOccupiedByComponents(getAllComponents().values()));
+        }
+
+        return layout.getSize();
+    }
+
+    @Override
+    public void invalidateSize()
+    {
+        layout.invalidateSize();
+
+        //The right side ledgers are positioned based on the width of the gui.
+        GuiLayout.invalidateGlobalCoordinates(ledgers.getRightLedgers().values());
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        //Only the current tab is a sub component, but the others have to be updated as well.
+        GuiLayout.invalidateGlobalCoordinates(tabs.getTabs().values());
+        GuiLayout.invalidateGlobalCoordinates(ledgers.getLeftLedgers().values());
+        GuiLayout.invalidateGlobalCoordinates(ledgers.getRightLedgers().values());
+    }
+
+    @Override
+    public void invalidateComponentIndex()
+    {
+        componentIndex.invalidate();
+    }
 
-        for (IGUIComponent component : getAllComponents().values())
+    /**
+     * Notifies the components when the GuiContainer moved the gui since the last call.
+     */
+    private void updateLayoutOrigin()
+    {
+        if (guiLeft == layoutLeft && guiTop == layoutTop)
         {
-            area.IncludeCoordinate(new Plane(component.getLocalCoordinate(), component.getSize().getWidth(), component.getSize().getHeigth()));
+            return;
         }
 
-        return area;
+        layoutLeft = guiLeft;
+        layoutTop = guiTop;
+
+        invalidateGlobalCoordinate();
     }
 
     /**
@@ -304,6 +356,8 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
     @Override
     public void drawBackground(int mouseX, int mouseY)
     {
+        updateLayoutOrigin();
+
         renderer.renderBackgroundComponent(this, false);
         //renderer.renderToolTipComponent(this, mouseX - getLocalCoordinate().getXComponent(), mouseY - getLocalCoordinate().getYComponent());
     }
@@ -510,6 +564,7 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
     public void registerNewTab(@Nonnull IGUITab tab)
     {
         tabs.registerNewTab(tab);
+        invalidateComponentIndex();
     }
 
     /**
@@ -532,11 +587,15 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
     @Override
     public void onTabChanged(@Nonnull String newActiveTabID)
     {
+        invalidateSize();
+        invalidateComponentIndex();
+
         Plane areaWithComponents = getSize();
         this.xSize = areaWithComponents.getWidth();
         this.ySize = areaWithComponents.getHeigth();
 
         super.initGui();
+        updateLayoutOrigin();
     }
 
     public boolean isInitialized()
@@ -571,6 +630,8 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
     @Override
     public void registerNewLedger(@Nonnull IGUILedger ledger)
     {
+        invalidateComponentIndex();
+
         if (ledger.getPrimarySide() == LedgerConnectionSide.LEFT)
         {
             getLedgerManager().registerLedgerLeftSide(ledger);
@@ -672,69 +733,30 @@ public abstract class GuiContainerSmithsCore extends GuiContainer implements IGU
         return activeTabs;
     }
 
+    /**
+     * Method for outside systems to retrieve a UI Component based of its ID. The components are looked up in an index,
+     * which is rebuilt after components, tabs or ledgers have been registered or the active tab has changed.
+     *
+     * @param uniqueUIID The uniqueUIID that is being searched for.
+     * @return A IGUIComponent with then given ID or null if no child components exists with that ID.
+     */
     @Nullable
     public IGUIComponent getComponentByID(@Nonnull String uniqueUIID)
     {
-        if (getID().equals(uniqueUIID))
-        {
-            return this;
-        }
-
-        if (ledgers.getLeftLedgers().get(uniqueUIID) != null)
-        {
-            return ledgers.getLeftLedgers().get(uniqueUIID);
-        }
-
-        if (ledgers.getRightLedgers().get(uniqueUIID) != null)
+        if (!componentIndex.isValid())
         {
-            return ledgers.getRightLedgers().get(uniqueUIID);
-        }
-
-        if (getAllComponents().get(uniqueUIID) != null)
-        {
-            return getAllComponents().get(uniqueUIID);
-        }
-
-        for (IGUIComponent ledgerLeftComponent : ledgers.getLeftLedgers().values())
-        {
-            if (ledgerLeftComponent instanceof IGUIBasedComponentHost)
-            {
-                IGUIComponent foundComponent = ((IGUIBasedComponentHost) ledgerLeftComponent).getComponentByID(uniqueUIID);
-
-                if (foundComponent != null)
-                {
-                    return foundComponent;
-                }
-            }
-        }
-
-        for (IGUIComponent ledgerRightComponent : ledgers.getRightLedgers().values())
-        {
-            if (ledgerRightComponent instanceof IGUIBasedComponentHost)
-            {
-                IGUIComponent foundComponent = ((IGUIBasedComponentHost) ledgerRightComponent).getComponentByID(uniqueUIID);
-
-                if (foundComponent != null)
-                {
-                    return foundComponent;
-                }
-            }
-        }
-
-        for (IGUIComponent childComponent : getAllComponents().values())
-        {
-            if (childComponent instanceof IGUIBasedComponentHost)
-            {
-                IGUIComponent foundComponent = ((IGUIBasedComponentHost) childComponent).getComponentByID(uniqueUIID);
-
-                if (foundComponent != null)
-                {
-                    return foundComponent;
-                }
-            }
+            //Same order as the tree used to be searched in, the first component with an ID wins.
+            componentIndex.add(this);
+            componentIndex.addAll(ledgers.getLeftLedgers().values());
+            componentIndex.addAll(ledgers.getRightLedgers().values());
+            componentIndex.addAll(getAllComponents().values());
+            componentIndex.addSubComponents(ledgers.getLeftLedgers().values());
+            componentIndex.addSubComponents(ledgers.getRightLedgers().values());
+            componentIndex.addSubComponents(getAllComponents().values());
+            componentIndex.validate();
         }
 
-        return null;
+        return componentIndex.get(uniqueUIID);
     }
 
     /**
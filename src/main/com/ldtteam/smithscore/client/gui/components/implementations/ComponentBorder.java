@@ -2,6 +2,7 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
 import com.ldtteam.smithscore.client.gui.management.StandardRenderManager;
+import com.ldtteam.smithscore.client.gui.retained.IRetainedGuiComponent;
 import com.ldtteam.smithscore.client.gui.state.CoreComponentState;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
 import com.ldtteam.smithscore.util.client.CustomResource;
@@ -18,7 +19,7 @@ import javax.annotation.Nonnull;
 /**
  * Created by Marc on 21.12.2015.
  */
-public class ComponentBorder extends CoreComponent
+public class ComponentBorder extends CoreComponent implements IRetainedGuiComponent
 {
 
     private MinecraftColor color;
@@ -83,14 +84,32 @@ public class ComponentBorder extends CoreComponent
 
     @Override
     public void drawBackground(int mouseX, int mouseY)
+    {
+        drawStaticBackground();
+    }
+
+    @Override
+    public void drawStaticBackground()
     {
         StandardRenderManager.pushColorOnRenderStack(getColor());
 
-        renderWithDependentCorner(mouseX, mouseY);
+        renderWithDependentCorner();
 
         StandardRenderManager.popColorFromRenderStack();
     }
 
+    @Override
+    public void drawDynamicBackground(int mouseX, int mouseY)
+    {
+        //NOOP
+    }
+
+    @Override
+    public boolean hasDynamicBackground()
+    {
+        return false;
+    }
+
     @Override
     public void drawForeground(int mouseX, int mouseY)
     {
@@ -102,7 +121,7 @@ public class ComponentBorder extends CoreComponent
         return color;
     }
 
-    private void renderWithDependentCorner(int mouseX, int mouseY)
+    private void renderWithDependentCorner()
     {
         TextureComponent tCenterComponent = new TextureComponent(Textures.Gui.Basic.Border.CENTER, new UIRotation(false, false, false, 0), new Coordinate2D(0, 0));
 
@@ -3,6 +3,9 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IContentAreaHost;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.hosts.IHitTestableComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.ComponentHitTestGrid;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
 import com.ldtteam.smithscore.client.gui.management.IRenderManager;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
@@ -18,12 +21,14 @@ import java.util.List;
 /**
  * Created by Marc on 11.02.2016.
  */
-public class ComponentContentArea extends CoreComponent implements IGUIBasedComponentHost
+public class ComponentContentArea extends CoreComponent implements IHitTestableComponentHost
 {
 
     private IContentAreaHost contentHost;
     @Nonnull
     private LinkedHashMap<String, IGUIComponent> componentHashMap = new LinkedHashMap<String, IGUIComponent>();
+    @Nonnull
+    private final ComponentHitTestGrid hitTestGrid = new ComponentHitTestGrid();
 
     public ComponentContentArea(
       @Nonnull String uniqueID,
@@ -42,14 +47,26 @@ public class ComponentContentArea extends CoreComponent implements IGUIBasedComp
     @Override
     public Plane getSize()
     {
-        Plane area = new Plane(0, 0, 0, 0);
-
-        for (IGUIComponent component : getAllComponents().values())
+        if (!layout.hasSize())
         {
-            area.IncludeCoordinate(new Plane(component.getLocalCoordinate(), component.getSize().getWidth(), component.getSize().getHeigth()));
+            layout.setSize(GuiLayout.getAreaOccupiedByComponents(getAllComponents().values()));
         }
 
-        return area;
+        return layout.getSize();
+    }
+
+    @Override
+    public void invalidateSize()
+    {
+        hitTestGrid.invalidate();
+        super.invalidateSize();
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        super.invalidateGlobalCoordinate();
+        GuiLayout.invalidateGlobalCoordinates(getAllComponents().values());
     }
 
     @Override
@@ -95,6 +112,9 @@ public class ComponentContentArea extends CoreComponent implements IGUIBasedComp
         {
             ((IGUIBasedComponentHost) component).registerComponents((IGUIBasedComponentHost) component);
         }
+
+        invalidateSize();
+        GuiLayout.onComponentRegistered(this);
     }
 
     /**
@@ -131,6 +151,13 @@ public class ComponentContentArea extends CoreComponent implements IGUIBasedComp
         return componentHashMap;
     }
 
+    @Nonnull
+    @Override
+    public List<IGUIComponent> getComponentsAt(int localX, int localY)
+    {
+        return hitTestGrid.getComponentsAt(componentHashMap.values(), localX, localY);
+    }
+
     /**
      * Method for outside systems to retrieve a UI Component based of its ID.
      *
@@ -1,6 +1,7 @@
 package com.ldtteam.smithscore.client.gui.components.implementations;
 
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.retained.IRetainedGuiComponent;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
 import com.ldtteam.smithscore.util.client.CustomResource;
 import com.ldtteam.smithscore.util.client.gui.GuiHelper;
@@ -13,7 +14,7 @@ import javax.annotation.Nonnull;
 /**
  * Created by Marc on 09.01.2016.
  */
-public class ComponentImage extends CoreComponent
+public class ComponentImage extends CoreComponent implements IRetainedGuiComponent
 {
 
     private CustomResource image;
@@ -52,6 +53,12 @@ public class ComponentImage extends CoreComponent
      */
     @Override
     public void drawBackground(int mouseX, int mouseY)
+    {
+        drawStaticBackground();
+    }
+
+    @Override
+    public void drawStaticBackground()
     {
         GlStateManager.enableAlpha();
         GlStateManager.enableBlend();
@@ -61,6 +68,18 @@ public class ComponentImage extends CoreComponent
         GlStateManager.disableAlpha();
     }
 
+    @Override
+    public void drawDynamicBackground(int mouseX, int mouseY)
+    {
+        //NOOP
+    }
+
+    @Override
+    public boolean hasDynamicBackground()
+    {
+        return false;
+    }
+
     /**
      * Function used to draw this components foreground. Usually this will incorporate very few of teh components visual
      * Objects. A good example of a Component that only uses the drawForeground function is the GUIDescriptionLabel (The
@@ -32,6 +32,16 @@ public class ComponentItemStackDisplay extends CoreComponent
         this.stack = stack;
     }
 
+    /**
+     * Method to change the displayed stack.
+     *
+     * @param stack The new stack to display.
+     */
+    public void setStack(@Nonnull ItemStack stack)
+    {
+        this.stack = stack;
+    }
+
     @Override
     public void update(int mouseX, int mouseY, float partialTickTime)
     {
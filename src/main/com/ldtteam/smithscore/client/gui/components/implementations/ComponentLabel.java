@@ -55,6 +55,40 @@ public class ComponentLabel extends CoreComponent
         this.autoWrap = true;
     }
 
+    @Nonnull
+    public String getText()
+    {
+        return displayedText;
+    }
+
+    /**
+     * Changes the displayed text. The size of the label follows the text, so the host is notified of the change.
+     *
+     * @param displayedText The new text.
+     */
+    public void setText(@Nonnull String displayedText)
+    {
+        if (this.displayedText.equals(displayedText))
+        {
+            return;
+        }
+
+        this.displayedText = displayedText;
+
+        if (!autoWrap)
+        {
+            setSize(renderer.getStringWidth(displayedText), renderer.FONT_HEIGHT);
+        }
+        else
+        {
+            invalidateSize();
+        }
+    }
+
+    /**
+     * Labels that wrap their text are as high as the lines the text is wrapped into, which is cached until the text or
+     * the width changes.
+     */
     @Nonnull
     @Override
     public Plane getSize()
@@ -64,10 +98,13 @@ public class ComponentLabel extends CoreComponent
             return super.getSize();
         }
 
-        final List<String> split = renderer.listFormattedStringToWidth(displayedText, super.getSize().getWidth());
-        final int height = split.size() * (renderer.FONT_HEIGHT);
+        if (!layout.hasSize())
+        {
+            final List<String> split = renderer.listFormattedStringToWidth(displayedText, width);
+            layout.setSize(new Plane(0, 0, width, split.size() * (renderer.FONT_HEIGHT)));
+        }
 
-        return new Plane(0, 0, super.getSize().getWidth(), height);
+        return layout.getSize();
     }
 
     /**
@@ -3,6 +3,11 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 import com.ldtteam.smithscore.client.gui.components.core.ComponentConnectionType;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.hosts.IHitTestableComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.ComponentHitTestGrid;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
 import com.ldtteam.smithscore.client.gui.management.IRenderManager;
 import com.ldtteam.smithscore.client.gui.state.CoreComponentState;
@@ -24,7 +29,7 @@ import java.util.List;
 /**
  * Created by Marc on 22.12.2015.
  */
-public class ComponentPlayerInventory implements IGUIBasedComponentHost
+public class ComponentPlayerInventory implements IHitTestableComponentHost, ILayoutCachingGuiComponent
 {
 
     public static int DEFAULT_WIDTH  = ContainerSmithsCore.PLAYER_INVENTORY_COLUMNS * 18 + 2 * 7;
@@ -41,6 +46,10 @@ public class ComponentPlayerInventory implements IGUIBasedComponentHost
     private Coordinate2D rootAnchorPixel;
     private int          width;
     private int          height;
+    @Nonnull
+    private final LayoutCache          layout      = new LayoutCache();
+    @Nonnull
+    private final ComponentHitTestGrid hitTestGrid = new ComponentHitTestGrid();
 
     private MinecraftColor color;
 
@@ -162,6 +171,9 @@ public class ComponentPlayerInventory implements IGUIBasedComponentHost
         }
 
         componentHashMap.put(component.getID(), component);
+
+        invalidateSize();
+        GuiLayout.onComponentRegistered(this);
     }
 
     @Override
@@ -185,6 +197,13 @@ public class ComponentPlayerInventory implements IGUIBasedComponentHost
         return componentHashMap;
     }
 
+    @Nonnull
+    @Override
+    public List<IGUIComponent> getComponentsAt(int localX, int localY)
+    {
+        return hitTestGrid.getComponentsAt(componentHashMap.values(), localX, localY);
+    }
+
     @Nullable
     public IGUIComponent getComponentByID(@Nonnull String uniqueUIID)
     {
@@ -257,14 +276,20 @@ public class ComponentPlayerInventory implements IGUIBasedComponentHost
     @Override
     public void setComponentHost(@Nonnull final IGUIBasedComponentHost host)
     {
+        if (this.parent == host)
+        {
+            return;
+        }
+
         this.parent = host;
+        invalidateGlobalCoordinate();
     }
 
     @Nonnull
     @Override
     public Coordinate2D getGlobalCoordinate()
     {
-        return parent.getGlobalCoordinate().getTranslatedCoordinate(getLocalCoordinate());
+        return layout.getGlobalCoordinate(parent, getLocalCoordinate());
     }
 
     @Nonnull
@@ -278,6 +303,14 @@ public class ComponentPlayerInventory implements IGUIBasedComponentHost
     public void setLocalCoordinate(@Nonnull final Coordinate2D coordinate)
     {
         this.rootAnchorPixel = coordinate;
+
+        if (!layout.updateLocalCoordinate(coordinate))
+        {
+            return;
+        }
+
+        invalidateGlobalCoordinate();
+        GuiLayout.invalidateSize(parent);
     }
 
     @Nonnull
@@ -294,6 +327,20 @@ public class ComponentPlayerInventory implements IGUIBasedComponentHost
         return new Plane(0, 0, width, height);
     }
 
+    @Override
+    public void invalidateSize()
+    {
+        //The size of the inventory is fixed, but its slots might have moved.
+        hitTestGrid.invalidate();
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        layout.invalidateGlobalCoordinate();
+        GuiLayout.invalidateGlobalCoordinates(componentHashMap.values());
+    }
+
     /**
      * Method gets called before the component gets rendered, allows for animations to calculate through.
      *
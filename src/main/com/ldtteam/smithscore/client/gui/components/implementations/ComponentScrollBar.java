@@ -3,6 +3,11 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 import com.ldtteam.smithscore.client.gui.animation.IAnimatibleGuiComponent;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.hosts.IHitTestableComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.ComponentHitTestGrid;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
 import com.ldtteam.smithscore.client.gui.management.IRenderManager;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
@@ -25,7 +30,7 @@ import java.util.List;
 /**
  * Created by Marc on 08.02.2016.
  */
-public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost, IAnimatibleGuiComponent
+public class ComponentScrollBar implements IGUIComponent, IHitTestableComponentHost, IAnimatibleGuiComponent, ILayoutCachingGuiComponent
 {
 
     public static int WIDTH = 7;
@@ -37,6 +42,10 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
     private           ScrollBarComponentState state;
     private           Coordinate2D            rootAnchorPixel;
     private           int                     height;
+    @Nonnull
+    private final     LayoutCache             layout      = new LayoutCache();
+    @Nonnull
+    private final     ComponentHitTestGrid    hitTestGrid = new ComponentHitTestGrid();
 
     public ComponentScrollBar(
       @Nonnull String uniqueID,
@@ -92,6 +101,9 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
         {
             ((IGUIBasedComponentHost) component).registerComponents((IGUIBasedComponentHost) component);
         }
+
+        invalidateSize();
+        GuiLayout.onComponentRegistered(this);
     }
 
     /**
@@ -130,6 +142,13 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
         return componentHashMap;
     }
 
+    @Nonnull
+    @Override
+    public List<IGUIComponent> getComponentsAt(int localX, int localY)
+    {
+        return hitTestGrid.getComponentsAt(componentHashMap.values(), localX, localY);
+    }
+
     @Nullable
     public IGUIComponent getComponentByID(@Nonnull String uniqueUIID)
     {
@@ -219,7 +238,13 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
     @Override
     public void setComponentHost(@Nonnull final IGUIBasedComponentHost host)
     {
+        if (this.parent == host)
+        {
+            return;
+        }
+
         this.parent = host;
+        invalidateGlobalCoordinate();
     }
 
     /**
@@ -231,7 +256,7 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
     @Override
     public Coordinate2D getGlobalCoordinate()
     {
-        return parent.getGlobalCoordinate().getTranslatedCoordinate(rootAnchorPixel);
+        return layout.getGlobalCoordinate(parent, rootAnchorPixel);
     }
 
     /**
@@ -250,6 +275,14 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
     public void setLocalCoordinate(@Nonnull final Coordinate2D coordinate)
     {
         this.rootAnchorPixel = coordinate;
+
+        if (!layout.updateLocalCoordinate(coordinate))
+        {
+            return;
+        }
+
+        invalidateGlobalCoordinate();
+        GuiLayout.invalidateSize(parent);
     }
 
     /**
@@ -276,6 +309,20 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
         return new Plane(0, 0, WIDTH, height);
     }
 
+    @Override
+    public void invalidateSize()
+    {
+        //The size of the scrollbar does not depend on its buttons, but the drag button might have moved.
+        hitTestGrid.invalidate();
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        layout.invalidateGlobalCoordinate();
+        GuiLayout.invalidateGlobalCoordinates(componentHashMap.values());
+    }
+
     /**
      * Method gets called before the component gets rendered, allows for animations to calculate through.
      *
@@ -335,15 +382,9 @@ public class ComponentScrollBar implements IGUIComponent, IGUIBasedComponentHost
     @Override
     public boolean handleMouseClickedInside(int relativeMouseX, int relativeMouseY, int mouseButton)
     {
-        for (IGUIComponent component : getAllComponents().values())
+        for (IGUIComponent component : getComponentsAt(relativeMouseX, relativeMouseY))
         {
             Coordinate2D location = component.getLocalCoordinate();
-            Plane localOccupiedArea = component.getSize().Move(location.getXComponent(), location.getYComponent());
-
-            if (!localOccupiedArea.ContainsCoordinate(relativeMouseX, relativeMouseY))
-            {
-                continue;
-            }
 
             if (component.handleMouseClickedInside(relativeMouseX - location.getXComponent(), relativeMouseY - location.getYComponent(), mouseButton))
             {
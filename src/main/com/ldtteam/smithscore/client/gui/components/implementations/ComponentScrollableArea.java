@@ -3,6 +3,11 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IContentAreaHost;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.hosts.IHitTestableComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.ComponentHitTestGrid;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
 import com.ldtteam.smithscore.client.gui.management.IRenderManager;
 import com.ldtteam.smithscore.client.gui.scissoring.IScissoredGuiComponent;
@@ -22,7 +27,7 @@ import java.util.List;
 /**
  * Created by Marc on 08.02.2016.
  */
-public abstract class ComponentScrollableArea implements IGUIComponent, IContentAreaHost, IScissoredGuiComponent
+public abstract class ComponentScrollableArea implements IGUIComponent, IContentAreaHost, IHitTestableComponentHost, IScissoredGuiComponent, ILayoutCachingGuiComponent
 {
 
     ComponentContentArea contentArea;
@@ -35,6 +40,10 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
     private           Coordinate2D           rootAnchorPixel;
     private           int                    height;
     private           int                    width;
+    @Nonnull
+    private final     LayoutCache            layout      = new LayoutCache();
+    @Nonnull
+    private final     ComponentHitTestGrid   hitTestGrid = new ComponentHitTestGrid();
 
     public ComponentScrollableArea(
       @Nonnull String uniqueID,
@@ -99,7 +108,13 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
     @Override
     public void setComponentHost(@Nonnull final IGUIBasedComponentHost host)
     {
+        if (this.parent == host)
+        {
+            return;
+        }
+
         this.parent = host;
+        invalidateGlobalCoordinate();
     }
 
     /**
@@ -111,7 +126,7 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
     @Override
     public Coordinate2D getGlobalCoordinate()
     {
-        return getComponentHost().getGlobalCoordinate().getTranslatedCoordinate(getLocalCoordinate());
+        return layout.getGlobalCoordinate(getComponentHost(), getLocalCoordinate());
     }
 
     /**
@@ -130,6 +145,14 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
     public void setLocalCoordinate(@Nonnull final Coordinate2D coordinate)
     {
         this.rootAnchorPixel = coordinate;
+
+        if (!layout.updateLocalCoordinate(coordinate))
+        {
+            return;
+        }
+
+        invalidateGlobalCoordinate();
+        GuiLayout.invalidateSize(parent);
     }
 
     /**
@@ -156,6 +179,20 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
         return new Plane(0, 0, width, height);
     }
 
+    @Override
+    public void invalidateSize()
+    {
+        //The size of the area does not depend on its contents, but the content area moves while scrolling.
+        hitTestGrid.invalidate();
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        layout.invalidateGlobalCoordinate();
+        GuiLayout.invalidateGlobalCoordinates(componentHashMap.values());
+    }
+
     /**
      * Method gets called before the component gets rendered, allows for animations to calculate through.
      *
@@ -166,7 +203,12 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
     @Override
     public void update(int mouseX, int mouseY, float partialTickTime)
     {
-        contentArea.getLocalCoordinate().setYComponent(-1 * ((int) ((ScrollBarComponentState) scrollbar.getState()).getCurrent()));
+        int contentOffset = -1 * ((int) ((ScrollBarComponentState) scrollbar.getState()).getCurrent());
+
+        if (contentArea.getLocalCoordinate().getYComponent() != contentOffset)
+        {
+            contentArea.setLocalCoordinate(new Coordinate2D(contentArea.getLocalCoordinate().getXComponent(), contentOffset));
+        }
     }
 
     /**
@@ -213,15 +255,9 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
     @Override
     public boolean handleMouseClickedInside(int relativeMouseX, int relativeMouseY, int mouseButton)
     {
-        for (IGUIComponent component : componentHashMap.values())
+        for (IGUIComponent component : getComponentsAt(relativeMouseX, relativeMouseY))
         {
             Coordinate2D location = component.getLocalCoordinate();
-            Plane localOccupiedArea = component.getSize().Move(location.getXComponent(), location.getYComponent());
-
-            if (!localOccupiedArea.ContainsCoordinate(relativeMouseX, relativeMouseY))
-            {
-                continue;
-            }
 
             if (component.handleMouseClickedInside(relativeMouseX - location.getXComponent(), relativeMouseY - location.getYComponent(), mouseButton))
             {
@@ -350,6 +386,9 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
         {
             ((IGUIBasedComponentHost) component).registerComponents((IGUIBasedComponentHost) component);
         }
+
+        invalidateSize();
+        GuiLayout.onComponentRegistered(this);
     }
 
     /**
@@ -388,6 +427,13 @@ public abstract class ComponentScrollableArea implements IGUIComponent, IContent
         return componentHashMap;
     }
 
+    @Nonnull
+    @Override
+    public List<IGUIComponent> getComponentsAt(int localX, int localY)
+    {
+        return hitTestGrid.getComponentsAt(componentHashMap.values(), localX, localY);
+    }
+
     /**
      * Method for outside systems to retrieve a UI Component based of its ID.
      *
@@ -3,6 +3,7 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 import com.google.common.collect.Lists;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
 import com.ldtteam.smithscore.client.gui.management.StandardRenderManager;
+import com.ldtteam.smithscore.client.gui.retained.IRetainedGuiComponent;
 import com.ldtteam.smithscore.client.gui.state.SlotComponentState;
 import com.ldtteam.smithscore.util.client.Textures;
 import com.ldtteam.smithscore.util.client.color.MinecraftColor;
@@ -23,7 +24,7 @@ import java.util.ArrayList;
 /**
  * Created by Marc on 22.12.2015.
  */
-public class ComponentSlot extends CoreComponent
+public class ComponentSlot extends CoreComponent implements IRetainedGuiComponent
 {
     private MinecraftColor color;
 
@@ -64,6 +65,13 @@ public class ComponentSlot extends CoreComponent
 
     @Override
     public void drawBackground(int mouseX, int mouseY)
+    {
+        drawStaticBackground();
+        drawDynamicBackground(mouseX, mouseY);
+    }
+
+    @Override
+    public void drawStaticBackground()
     {
         GlStateManager.pushMatrix();
 
@@ -75,14 +83,33 @@ public class ComponentSlot extends CoreComponent
           1,
           1), 18, 18, new Coordinate2D(0, 0));
 
-        SlotComponentState state = (SlotComponentState) getState();
+        StandardRenderManager.popColorFromRenderStack();
 
-        if (state.requiresHoloRendering() && state.getHolographicSprite() != null)
+        GlStateManager.popMatrix();
+    }
+
+    /**
+     * Draws the holographic sprite of the slot, which depends on the contents of the slot.
+     *
+     * @param mouseX The current X-Coordinate of the mouse
+     * @param mouseY The current Y-Coordinate of the mouse
+     */
+    @Override
+    public void drawDynamicBackground(int mouseX, int mouseY)
+    {
+        SlotComponentState state = (SlotComponentState) getState();
+        if (!state.requiresHoloRendering() || state.getHolographicSprite() == null)
         {
-            GuiHelper.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-            GuiHelper.drawTexturedModelRectFromIcon(1, 1, 0, state.getHolographicSprite(), 16, 16);
+            return;
         }
 
+        GlStateManager.pushMatrix();
+
+        StandardRenderManager.pushColorOnRenderStack(color);
+
+        GuiHelper.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+        GuiHelper.drawTexturedModelRectFromIcon(1, 1, 0, state.getHolographicSprite(), 16, 16);
+
         StandardRenderManager.popColorFromRenderStack();
 
         GlStateManager.popMatrix();
@@ -3,6 +3,9 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 import com.ldtteam.smithscore.client.events.gui.GuiInputEvent;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
 import com.ldtteam.smithscore.client.gui.state.TextboxComponentState;
 import com.ldtteam.smithscore.util.client.CustomResource;
@@ -19,7 +22,7 @@ import java.util.ArrayList;
 /**
  * Author Marc (Created on: 14.06.2016)
  */
-public class ComponentTextbox extends GuiTextField implements IGUIComponent
+public class ComponentTextbox extends GuiTextField implements IGUIComponent, ILayoutCachingGuiComponent
 {
     protected           String                 uniqueID;
     protected           TextboxComponentState  state;
@@ -27,6 +30,8 @@ public class ComponentTextbox extends GuiTextField implements IGUIComponent
     protected           Coordinate2D           rootAnchorPixel;
     protected           int                    componentWidth;
     protected           int                    componentHeight;
+    @Nonnull
+    protected final     LayoutCache            layout = new LayoutCache();
 
     protected CustomResource secondaryBackground;
 
@@ -74,14 +79,20 @@ public class ComponentTextbox extends GuiTextField implements IGUIComponent
     @Override
     public void setComponentHost(@Nonnull final IGUIBasedComponentHost host)
     {
+        if (this.parent == host)
+        {
+            return;
+        }
+
         this.parent = host;
+        invalidateGlobalCoordinate();
     }
 
     @Nonnull
     @Override
     public Coordinate2D getGlobalCoordinate()
     {
-        return parent.getGlobalCoordinate().getTranslatedCoordinate(getLocalCoordinate());
+        return layout.getGlobalCoordinate(parent, getLocalCoordinate());
     }
 
     @Nonnull
@@ -95,6 +106,14 @@ public class ComponentTextbox extends GuiTextField implements IGUIComponent
     public void setLocalCoordinate(@Nonnull final Coordinate2D coordinate)
     {
         this.rootAnchorPixel = coordinate;
+
+        if (!layout.updateLocalCoordinate(coordinate))
+        {
+            return;
+        }
+
+        invalidateGlobalCoordinate();
+        GuiLayout.invalidateSize(parent);
     }
 
     @Nonnull
@@ -111,6 +130,18 @@ public class ComponentTextbox extends GuiTextField implements IGUIComponent
         return new Plane(0, 0, componentWidth, componentHeight);
     }
 
+    @Override
+    public void invalidateSize()
+    {
+        GuiLayout.invalidateSize(parent);
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        layout.invalidateGlobalCoordinate();
+    }
+
     @Override
     public void update(int mouseX, int mouseY, float partialTickTime)
     {
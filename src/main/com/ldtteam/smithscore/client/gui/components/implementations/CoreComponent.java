@@ -2,6 +2,9 @@ package com.ldtteam.smithscore.client.gui.components.implementations;
 
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
 import com.ldtteam.smithscore.util.common.positioning.Coordinate2D;
 import com.ldtteam.smithscore.util.common.positioning.Plane;
@@ -13,7 +16,7 @@ import java.util.ArrayList;
 /**
  * Created by marcf on 1/16/2016.
  */
-public abstract class CoreComponent implements IGUIComponent
+public abstract class CoreComponent implements IGUIComponent, ILayoutCachingGuiComponent
 {
     protected           String                 uniqueID;
     protected           IGUIComponentState     state;
@@ -21,6 +24,8 @@ public abstract class CoreComponent implements IGUIComponent
     protected           Coordinate2D           rootAnchorPixel;
     protected           int                    width;
     protected           int                    height;
+    @Nonnull
+    protected final     LayoutCache            layout = new LayoutCache();
 
     public CoreComponent(
       @Nonnull String uniqueID,
@@ -64,14 +69,20 @@ public abstract class CoreComponent implements IGUIComponent
     @Override
     public void setComponentHost(@Nonnull final IGUIBasedComponentHost host)
     {
+        if (this.parent == host)
+        {
+            return;
+        }
+
         this.parent = host;
+        invalidateGlobalCoordinate();
     }
 
     @Nonnull
     @Override
     public Coordinate2D getGlobalCoordinate()
     {
-        return parent.getGlobalCoordinate().getTranslatedCoordinate(getLocalCoordinate());
+        return layout.getGlobalCoordinate(parent, getLocalCoordinate());
     }
 
     @Nonnull
@@ -85,6 +96,15 @@ public abstract class CoreComponent implements IGUIComponent
     public void setLocalCoordinate(@Nonnull final Coordinate2D coordinate)
     {
         this.rootAnchorPixel = coordinate;
+
+        //Compares against the recorded values, as the coordinate can be the current one after it was changed in place.
+        if (!layout.updateLocalCoordinate(coordinate))
+        {
+            return;
+        }
+
+        invalidateGlobalCoordinate();
+        GuiLayout.invalidateSize(parent);
     }
 
     @Nonnull
@@ -101,6 +121,38 @@ public abstract class CoreComponent implements IGUIComponent
         return new Plane(0, 0, width, height);
     }
 
+    /**
+     * Method to change the size of this component from the outside.
+     *
+     * @param width  The new width.
+     * @param height The new height.
+     */
+    public void setSize(int width, int height)
+    {
+        if (this.width == width && this.height == height)
+        {
+            return;
+        }
+
+        this.width = width;
+        this.height = height;
+
+        invalidateSize();
+    }
+
+    @Override
+    public void invalidateSize()
+    {
+        layout.invalidateSize();
+        GuiLayout.invalidateSize(parent);
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        layout.invalidateGlobalCoordinate();
+    }
+
     @Override
     public abstract void update(@Nonnull int mouseX, @Nonnull int mouseY, @Nonnull float partialTickTime);
 
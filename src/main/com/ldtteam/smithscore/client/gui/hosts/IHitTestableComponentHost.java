@@ -0,0 +1,24 @@
+package com.ldtteam.smithscore.client.gui.hosts;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * A component host that keeps an index over the areas of its sub components, so that the components below the mouse
+ * can be found without testing all of them.
+ */
+public interface IHitTestableComponentHost extends IGUIBasedComponentHost
+{
+
+    /**
+     * Method to get the sub components of this host that contain the given coordinate.
+     *
+     * @param localX The X-Coordinate, relative to this host.
+     * @param localY The Y-Coordinate, relative to this host.
+     * @return A new list with the components at the coordinate, in registration order.
+     */
+    @Nonnull
+    List<IGUIComponent> getComponentsAt(int localX, int localY);
+}
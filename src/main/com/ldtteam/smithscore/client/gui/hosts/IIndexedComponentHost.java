@@ -0,0 +1,15 @@
+package com.ldtteam.smithscore.client.gui.hosts;
+
+/**
+ * A root gui object that keeps an index of the IDs of all its components, used to speed up
+ * {@link IGUIBasedComponentHost#getComponentByID(String)}.
+ */
+public interface IIndexedComponentHost extends IGUIBasedComponentHost
+{
+
+    /**
+     * Called when a component was registered somewhere in the component tree of this host. Drops the index, so that it
+     * is built again on the next lookup.
+     */
+    void invalidateComponentIndex();
+}
@@ -0,0 +1,194 @@
+package com.ldtteam.smithscore.client.gui.layout;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate2D;
+import com.ldtteam.smithscore.util.common.positioning.Plane;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Uniform grid over the areas of the sub components of a host, used to find the components below the mouse without
+ * testing every single one of them.
+ * <p>
+ * The grid is built from the local coordinates and sizes of the components the first time it is queried after it has
+ * been invalidated. Hosts invalidate it from {@link ILayoutCachingGuiComponent#invalidateSize()}, which is called
+ * whenever one of their components is registered, moved or resized. Components that do not implement
+ * {@link ILayoutCachingGuiComponent} can not report those changes, so their areas are compared against the grid on
+ * every query instead.
+ */
+public final class ComponentHitTestGrid
+{
+
+    private static final int MIN_CELL_SIZE = 16;
+    private static final int MAX_CELLS     = 64;
+
+    private final ArrayList<IGUIComponent> components = new ArrayList<>();
+    private final IntArrayList             areas      = new IntArrayList();
+    private final ArrayList<IntArrayList>  cells      = new ArrayList<>();
+    private final IntArrayList             untracked  = new IntArrayList();
+
+    private boolean valid = false;
+    private int     originX;
+    private int     originY;
+    private int     cellSize;
+    private int     columns;
+    private int     rows;
+
+    /**
+     * Drops the grid, so that it is built again on the next query.
+     */
+    public void invalidate()
+    {
+        valid = false;
+    }
+
+    /**
+     * Finds the components whose area contains the given coordinate. Areas include their right and lower edge, like
+     * {@link Plane#ContainsCoordinate(int, int)}.
+     *
+     * @param source The sub components of the host, used to build the grid when it is not valid.
+     * @param x      The X-Coordinate, relative to the host.
+     * @param y      The Y-Coordinate, relative to the host.
+     * @return A new list with the components at the coordinate, in the order of the source.
+     */
+    @Nonnull
+    public List<IGUIComponent> getComponentsAt(@Nonnull Collection<? extends IGUIComponent> source, int x, int y)
+    {
+        if (!valid || hasUntrackedChanges())
+        {
+            build(source);
+        }
+
+        int column = Math.floorDiv(x - originX, cellSize);
+        int row = Math.floorDiv(y - originY, cellSize);
+        if (column < 0 || column >= columns || row < 0 || row >= rows)
+        {
+            return new ArrayList<>(0);
+        }
+
+        IntArrayList cell = cells.get(row * columns + column);
+        List<IGUIComponent> result = new ArrayList<>(cell.size());
+        for (int entry = 0; entry < cell.size(); entry++)
+        {
+            int index = cell.getInt(entry);
+            int offset = index * 4;
+
+            if (areas.getInt(offset) <= x && x <= areas.getInt(offset + 2) && areas.getInt(offset + 1) <= y && y <= areas.getInt(offset + 3))
+            {
+                result.add(components.get(index));
+            }
+        }
+
+        return result;
+    }
+
+    private boolean hasUntrackedChanges()
+    {
+        for (int entry = 0; entry < untracked.size(); entry++)
+        {
+            int index = untracked.getInt(entry);
+            int offset = index * 4;
+
+            IGUIComponent component = components.get(index);
+            Coordinate2D location = component.getLocalCoordinate();
+            Plane size = component.getSize();
+
+            int x0 = location.getXComponent();
+            int y0 = location.getYComponent();
+            int x1 = x0 + size.getWidth();
+            int y1 = y0 + size.getHeigth();
+
+            if (areas.getInt(offset) != x0 || areas.getInt(offset + 1) != y0 || areas.getInt(offset + 2) != x1 || areas.getInt(offset + 3) != y1)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void build(@Nonnull Collection<? extends IGUIComponent> source)
+    {
+        components.clear();
+        areas.clear();
+        untracked.clear();
+
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (IGUIComponent component : source)
+        {
+            Coordinate2D location = component.getLocalCoordinate();
+            Plane size = component.getSize();
+
+            int x0 = location.getXComponent();
+            int y0 = location.getYComponent();
+            int x1 = x0 + size.getWidth();
+            int y1 = y0 + size.getHeigth();
+
+            if (!(component instanceof ILayoutCachingGuiComponent))
+            {
+                untracked.add(components.size());
+            }
+
+            components.add(component);
+            areas.add(x0);
+            areas.add(y0);
+            areas.add(x1);
+            areas.add(y1);
+
+            minX = Math.min(minX, x0);
+            minY = Math.min(minY, y0);
+            maxX = Math.max(maxX, x1);
+            maxY = Math.max(maxY, y1);
+        }
+
+        cells.clear();
+        valid = true;
+
+        if (components.isEmpty())
+        {
+            columns = 0;
+            rows = 0;
+            cellSize = MIN_CELL_SIZE;
+            return;
+        }
+
+        //Large areas get larger cells, so the amount of cells stays bounded.
+        int extent = Math.max(maxX - minX, maxY - minY) + 1;
+        cellSize = Math.max(MIN_CELL_SIZE, (extent + MAX_CELLS - 1) / MAX_CELLS);
+
+        originX = minX;
+        originY = minY;
+        columns = (maxX - minX) / cellSize + 1;
+        rows = (maxY - minY) / cellSize + 1;
+
+        for (int cell = 0; cell < columns * rows; cell++)
+        {
+            cells.add(new IntArrayList());
+        }
+
+        for (int index = 0; index < components.size(); index++)
+        {
+            int offset = index * 4;
+            int firstColumn = (areas.getInt(offset) - originX) / cellSize;
+            int firstRow = (areas.getInt(offset + 1) - originY) / cellSize;
+            int lastColumn = (areas.getInt(offset + 2) - originX) / cellSize;
+            int lastRow = (areas.getInt(offset + 3) - originY) / cellSize;
+
+            for (int row = firstRow; row <= lastRow; row++)
+            {
+                for (int column = firstColumn; column <= lastColumn; column++)
+                {
+                    cells.get(row * columns + column).add(index);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ldtteam.smithscore.client.gui.layout;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Maps the IDs of all components in a component tree to the components, used by the root gui object to answer
+ * {@link IGUIBasedComponentHost#getComponentByID(String)} without searching the tree.
+ * <p>
+ * When two components share an ID the first one that is added is kept, so the index has to be filled in the same order
+ * in which the tree used to be searched: a host, then its sub components, then the sub components of each of those.
+ */
+public final class ComponentIdIndex
+{
+
+    private final HashMap<String, IGUIComponent> components = new HashMap<>();
+    private       boolean                        valid      = false;
+
+    public boolean isValid()
+    {
+        return valid;
+    }
+
+    /**
+     * Drops the index, it has to be filled again before it is used.
+     */
+    public void invalidate()
+    {
+        components.clear();
+        valid = false;
+    }
+
+    /**
+     * Marks the index as filled, after the components of the tree have been added.
+     */
+    public void validate()
+    {
+        valid = true;
+    }
+
+    /**
+     * Adds the given component, unless a component with the same ID has been added before.
+     *
+     * @param component The component to add.
+     */
+    public void add(@Nonnull IGUIComponent component)
+    {
+        components.putIfAbsent(component.getID(), component);
+    }
+
+    /**
+     * Adds all the given components, unless a component with the same ID has been added before.
+     *
+     * @param components The components to add.
+     */
+    public void addAll(@Nonnull Collection<? extends IGUIComponent> components)
+    {
+        for (IGUIComponent component : components)
+        {
+            add(component);
+        }
+    }
+
+    /**
+     * Adds the sub components of all hosts among the given components, and recursively those of the hosts among them.
+     *
+     * @param components The components whose sub components should be added, the components themselves have to be
+     *                   added before.
+     */
+    public void addSubComponents(@Nonnull Collection<? extends IGUIComponent> components)
+    {
+        for (IGUIComponent component : components)
+        {
+            if (component instanceof IGUIBasedComponentHost)
+            {
+                addHost((IGUIBasedComponentHost) component);
+            }
+        }
+    }
+
+    /**
+     * Adds the given host, its sub components, and recursively those of the hosts among them.
+     *
+     * @param host The host to add.
+     */
+    public void addHost(@Nonnull IGUIBasedComponentHost host)
+    {
+        add(host);
+        addAll(host.getAllComponents().values());
+        addSubComponents(host.getAllComponents().values());
+    }
+
+    @Nullable
+    public IGUIComponent get(@Nonnull String uniqueUIID)
+    {
+        return components.get(uniqueUIID);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ldtteam.smithscore.client.gui.layout;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.hosts.IIndexedComponentHost;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate2D;
+import com.ldtteam.smithscore.util.common.positioning.Plane;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+/**
+ * Helpers used by the {@link ILayoutCachingGuiComponent} implementations to pass changes in the layout through the
+ * component tree.
+ */
+public final class GuiLayout
+{
+
+    private GuiLayout()
+    {
+    }
+
+    /**
+     * Notifies the given component that its size might have changed.
+     *
+     * @param component The component, usually the host of a component that was changed.
+     */
+    public static void invalidateSize(@Nullable IGUIComponent component)
+    {
+        if (component instanceof ILayoutCachingGuiComponent)
+        {
+            ((ILayoutCachingGuiComponent) component).invalidateSize();
+        }
+    }
+
+    /**
+     * Notifies the given component that its global coordinate might have changed.
+     *
+     * @param component The component, usually a sub component of a component that was moved.
+     */
+    public static void invalidateGlobalCoordinate(@Nullable IGUIComponent component)
+    {
+        if (component instanceof ILayoutCachingGuiComponent)
+        {
+            ((ILayoutCachingGuiComponent) component).invalidateGlobalCoordinate();
+        }
+    }
+
+    /**
+     * Notifies all the given components that their global coordinate might have changed.
+     *
+     * @param components The components, usually all sub components of a component that was moved.
+     */
+    public static void invalidateGlobalCoordinates(@Nonnull Collection<? extends IGUIComponent> components)
+    {
+        for (IGUIComponent component : components)
+        {
+            invalidateGlobalCoordinate(component);
+        }
+    }
+
+    /**
+     * Notifies the root of the given host that a component was registered, so that it can update its ID index.
+     *
+     * @param host The host the component was registered to.
+     */
+    public static void onComponentRegistered(@Nonnull IGUIBasedComponentHost host)
+    {
+        IGUIBasedComponentHost root = host.getRootGuiObject();
+        if (root instanceof IIndexedComponentHost)
+        {
+            ((IIndexedComponentHost) root).invalidateComponentIndex();
+        }
+    }
+
+    /**
+     * Calculates the area that is covered by the given components, including the origin of their host.
+     *
+     * @param components The components, which share a host.
+     * @return The area covered by the components, relative to their host.
+     */
+    @Nonnull
+    public static Plane getAreaOccupiedByComponents(@Nonnull Collection<? extends IGUIComponent> components)
+    {
+        Plane area = new Plane(0, 0, 0, 0);
+
+        for (IGUIComponent component : components)
+        {
+            Coordinate2D location = component.getLocalCoordinate();
+            Plane size = component.getSize();
+
+            area.IncludeCoordinate(location.getXComponent(), location.getYComponent());
+            area.IncludeCoordinate(location.getXComponent() + size.getWidth(), location.getYComponent() + size.getHeigth());
+        }
+
+        return area;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ldtteam.smithscore.client.gui.layout;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+
+/**
+ * A component that caches its size and global coordinate instead of calculating them every time they are requested.
+ * <p>
+ * The size of a component depends on its sub components, so a change in size is passed up to the host of the
+ * component. The global coordinate of a component depends on its hosts, so a change in position is passed down to the
+ * sub components. Components that do not implement this interface are never notified, so they should not cache either.
+ */
+public interface ILayoutCachingGuiComponent extends IGUIComponent
+{
+
+    /**
+     * Called when the size of this component might have changed, because it was resized or because one of its sub
+     * components was moved, registered or resized. Drops the cached size and notifies the host of this component.
+     */
+    void invalidateSize();
+
+    /**
+     * Called when the global coordinate of this component might have changed, because it or one of its hosts was moved.
+     * Drops the cached global coordinate and notifies the sub components of this component.
+     */
+    void invalidateGlobalCoordinate();
+}
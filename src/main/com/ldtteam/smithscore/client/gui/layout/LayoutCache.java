@@ -0,0 +1,152 @@
+package com.ldtteam.smithscore.client.gui.layout;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate2D;
+import com.ldtteam.smithscore.util.common.positioning.Plane;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Holds the cached size and global coordinate of a {@link ILayoutCachingGuiComponent}.
+ * <p>
+ * Planes and coordinates can be modified by whoever receives them, so the values are stored as plain numbers and every
+ * getter returns a new instance.
+ */
+public final class LayoutCache
+{
+
+    private boolean hasSize = false;
+    private int     sizeX;
+    private int     sizeY;
+    private int     width;
+    private int     height;
+
+    private boolean hasGlobalCoordinate = false;
+    private int     globalX;
+    private int     globalY;
+
+    private boolean hasLocalCoordinate = false;
+    private int     localX;
+    private int     localY;
+
+    public boolean hasSize()
+    {
+        return hasSize;
+    }
+
+    /**
+     * Stores the given size until {@link #invalidateSize()} is called.
+     *
+     * @param size The size to store.
+     */
+    public void setSize(@Nonnull Plane size)
+    {
+        this.sizeX = size.TopLeftCoord().getXComponent();
+        this.sizeY = size.TopLeftCoord().getYComponent();
+        this.width = size.getWidth();
+        this.height = size.getHeigth();
+        this.hasSize = true;
+    }
+
+    /**
+     * Returns a copy of the stored size.
+     *
+     * @return The size, only valid when {@link #hasSize()} returns true.
+     */
+    @Nonnull
+    public Plane getSize()
+    {
+        return new Plane(sizeX, sizeY, width, height);
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    public void invalidateSize()
+    {
+        hasSize = false;
+    }
+
+    public boolean hasGlobalCoordinate()
+    {
+        return hasGlobalCoordinate;
+    }
+
+    /**
+     * Stores the given global coordinate until {@link #invalidateGlobalCoordinate()} is called.
+     *
+     * @param coordinate The coordinate to store.
+     */
+    public void setGlobalCoordinate(@Nonnull Coordinate2D coordinate)
+    {
+        this.globalX = coordinate.getXComponent();
+        this.globalY = coordinate.getYComponent();
+        this.hasGlobalCoordinate = true;
+    }
+
+    /**
+     * Returns a copy of the stored global coordinate.
+     *
+     * @return The global coordinate, only valid when {@link #hasGlobalCoordinate()} returns true.
+     */
+    @Nonnull
+    public Coordinate2D getGlobalCoordinate()
+    {
+        return new Coordinate2D(globalX, globalY);
+    }
+
+    /**
+     * Returns the global coordinate of a component, calculated from the global coordinate of its host. The result is
+     * only cached when the host is a {@link ILayoutCachingGuiComponent}, because other hosts never tell their sub
+     * components that they moved.
+     *
+     * @param host            The host of the component.
+     * @param localCoordinate The local coordinate of the component.
+     * @return The global coordinate of the component.
+     */
+    @Nonnull
+    public Coordinate2D getGlobalCoordinate(@Nonnull IGUIComponent host, @Nonnull Coordinate2D localCoordinate)
+    {
+        if (!(host instanceof ILayoutCachingGuiComponent))
+        {
+            return host.getGlobalCoordinate().getTranslatedCoordinate(localCoordinate);
+        }
+
+        if (!hasGlobalCoordinate)
+        {
+            setGlobalCoordinate(host.getGlobalCoordinate().getTranslatedCoordinate(localCoordinate));
+        }
+
+        return getGlobalCoordinate();
+    }
+
+    public void invalidateGlobalCoordinate()
+    {
+        hasGlobalCoordinate = false;
+    }
+
+    /**
+     * Records the given local coordinate, and indicates if it differs from the one recorded before. Only the values are
+     * recorded, so a coordinate that was changed in place and is then set again still counts as moved.
+     *
+     * @param coordinate The new local coordinate of the component.
+     * @return True when the component moved, or when no coordinate has been recorded yet.
+     */
+    public boolean updateLocalCoordinate(@Nonnull Coordinate2D coordinate)
+    {
+        boolean moved = !hasLocalCoordinate || coordinate.getXComponent() != localX || coordinate.getYComponent() != localY;
+
+        this.localX = coordinate.getXComponent();
+        this.localY = coordinate.getYComponent();
+        this.hasLocalCoordinate = true;
+
+        return moved;
+    }
+}
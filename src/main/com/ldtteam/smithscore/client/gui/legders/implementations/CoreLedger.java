@@ -7,9 +7,15 @@ import com.ldtteam.smithscore.client.gui.components.implementations.ComponentIma
 import com.ldtteam.smithscore.client.gui.components.implementations.ComponentLabel;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedLedgerHost;
+import com.ldtteam.smithscore.client.gui.hosts.IHitTestableComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.ComponentHitTestGrid;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.legders.core.IGUILedger;
 import com.ldtteam.smithscore.client.gui.legders.core.LedgerConnectionSide;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
+import com.ldtteam.smithscore.client.gui.management.ILedgerManager;
 import com.ldtteam.smithscore.client.gui.management.IRenderManager;
 import com.ldtteam.smithscore.client.gui.state.CoreComponentState;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
@@ -30,7 +36,7 @@ import java.util.List;
 /**
  * Created by marcf on 12/28/2015.
  */
-public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
+public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent, ILayoutCachingGuiComponent, IHitTestableComponentHost
 {
 
     protected         CustomResource       ledgerIcon;
@@ -44,6 +50,10 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
     @Nonnull
     private LinkedHashMap<String, IGUIComponent> components = new LinkedHashMap<String, IGUIComponent>();
     private MinecraftColor color;
+    @Nonnull
+    private final LayoutCache          layout      = new LayoutCache();
+    @Nonnull
+    private final ComponentHitTestGrid hitTestGrid = new ComponentHitTestGrid();
 
     public CoreLedger(
       @Nonnull String uniqueID,
@@ -140,7 +150,7 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
     {
         if (host instanceof IGUIBasedLedgerHost)
         {
-            this.root = (IGUIBasedLedgerHost) host;
+            setLedgerHost((IGUIBasedLedgerHost) host);
         }
     }
 
@@ -153,7 +163,7 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
     @Override
     public Coordinate2D getGlobalCoordinate()
     {
-        return root.getGlobalCoordinate().getTranslatedCoordinate(getLocalCoordinate());
+        return layout.getGlobalCoordinate(root, getLocalCoordinate());
     }
 
     /**
@@ -210,6 +220,20 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
           (int) Math.ceil(closedLedgerHeight + (getMaxHeight() - closedLedgerHeight) * state.getOpenProgress()));
     }
 
+    @Override
+    public void invalidateSize()
+    {
+        //The size of a ledger only depends on its animation, but its components might have moved.
+        hitTestGrid.invalidate();
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        layout.invalidateGlobalCoordinate();
+        GuiLayout.invalidateGlobalCoordinates(components.values());
+    }
+
     /**
      * Method gets called before the component gets rendered, allows for animations to calculate through.
      *
@@ -278,15 +302,9 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
     @Override
     public boolean handleMouseClickedInside(int relativeMouseX, int relativeMouseY, int mouseButton)
     {
-        for (IGUIComponent component : components.values())
+        for (IGUIComponent component : getComponentsAt(relativeMouseX, relativeMouseY))
         {
             Coordinate2D location = component.getLocalCoordinate();
-            Plane localOccupiedArea = component.getSize().Move(location.getXComponent(), location.getYComponent());
-
-            if (!localOccupiedArea.ContainsCoordinate(relativeMouseX, relativeMouseY))
-            {
-                continue;
-            }
 
             if (component.handleMouseClickedInside(relativeMouseX - location.getXComponent(), relativeMouseY - location.getYComponent(), mouseButton))
             {
@@ -314,7 +332,13 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
     @Override
     public void setLedgerHost(@Nonnull final IGUIBasedLedgerHost host)
     {
+        if (this.root == host)
+        {
+            return;
+        }
+
         this.root = host;
+        invalidateGlobalCoordinate();
     }
 
     /**
@@ -417,18 +441,13 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
     @Override
     public boolean handleMouseWheel(final int relativeMouseX, @Nonnull final int relativeMouseY, @Nonnull final int deltaWheel)
     {
-        for (IGUIComponent component : components.values())
+        for (IGUIComponent component : getComponentsAt(relativeMouseX, relativeMouseY))
         {
-            final Plane plane = component.getSize().Move(component.getLocalCoordinate().getXComponent(), component.getLocalCoordinate().getYComponent());
-
-            if (plane.ContainsCoordinate(relativeMouseX, relativeMouseY))
+            if (component.handleMouseWheel(relativeMouseX - component.getLocalCoordinate().getXComponent(),
+              relativeMouseY - component.getLocalCoordinate().getYComponent(),
+              deltaWheel))
             {
-                if (component.handleMouseWheel(relativeMouseX - component.getLocalCoordinate().getXComponent(),
-                  relativeMouseY - component.getLocalCoordinate().getYComponent(),
-                  deltaWheel))
-                {
-                    return true;
-                }
+                return true;
             }
         }
 
@@ -470,6 +489,9 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
         {
             ((IGUIBasedComponentHost) component).registerComponents((IGUIBasedComponentHost) component);
         }
+
+        invalidateSize();
+        GuiLayout.onComponentRegistered(this);
     }
 
     /**
@@ -508,6 +530,13 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
         return components;
     }
 
+    @Nonnull
+    @Override
+    public List<IGUIComponent> getComponentsAt(int localX, int localY)
+    {
+        return hitTestGrid.getComponentsAt(components.values(), localX, localY);
+    }
+
     @Nullable
     public IGUIComponent getComponentByID(String uniqueUIID)
     {
@@ -565,6 +594,8 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
     @Override
     public void performAnimation(float partialTickTime)
     {
+        float openProgress = state.getOpenProgress();
+
         if (state.getOpenState() && state.getOpenProgress() < 1F)
         {
             float newTotalAnimationTicks = (state.getOpenProgress() * getAnimationTime()) + partialTickTime;
@@ -587,6 +618,13 @@ public abstract class CoreLedger implements IGUILedger, IAnimatibleGuiComponent
 
             state.setOpenProgress(newTotalAnimationTicks / getAnimationTime());
         }
+
+        if (openProgress != state.getOpenProgress())
+        {
+            //The ledgers on the same side are positioned based on the size of this one.
+            ILedgerManager manager = getLedgerHost().getLedgerManager();
+            GuiLayout.invalidateGlobalCoordinates(getPrimarySide() == LedgerConnectionSide.LEFT ? manager.getLeftLedgers().values() : manager.getRightLedgers().values());
+        }
     }
 
     /**
@@ -116,4 +116,16 @@ public interface ITabManager
      * @param tab The tab to be displayed.
      */
     void setActiveTab(@Nonnull IGUITab tab);
+
+    /**
+     * Method to get the strip of tab selectors that is drawn above the tabs. The default implementation returns a new
+     * strip on every call, implementations should keep a single strip so that its selectors are reused between frames.
+     *
+     * @return The tab selectors of this TabManager.
+     */
+    @Nonnull
+    default TabSelectorStrip getTabSelectorStrip()
+    {
+        return new TabSelectorStrip(this);
+    }
 }
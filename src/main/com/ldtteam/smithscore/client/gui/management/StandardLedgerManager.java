@@ -2,6 +2,7 @@ package com.ldtteam.smithscore.client.gui.management;
 
 import com.ldtteam.smithscore.SmithsCore;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedLedgerHost;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
 import com.ldtteam.smithscore.client.gui.legders.core.IGUILedger;
 import com.ldtteam.smithscore.client.gui.legders.core.LedgerConnectionSide;
 import com.ldtteam.smithscore.client.gui.state.LedgerComponentState;
@@ -48,6 +49,7 @@ public class StandardLedgerManager implements ILedgerManager
     public void registerLedgerRightSide(@Nonnull IGUILedger ledger)
     {
         ledger.getAllComponents().clear();
+        GuiLayout.invalidateSize(ledger);
         ledger.registerComponents(ledger);
 
         ledgersRight.put(ledger.getID(), ledger);
@@ -57,6 +59,7 @@ public class StandardLedgerManager implements ILedgerManager
     public void registerLedgerLeftSide(@Nonnull IGUILedger ledger)
     {
         ledger.getAllComponents().clear();
+        GuiLayout.invalidateSize(ledger);
         ledger.registerComponents(ledger);
 
         ledgersLeft.put(ledger.getID(), ledger);
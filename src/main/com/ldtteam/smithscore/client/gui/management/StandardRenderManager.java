@@ -6,18 +6,24 @@ import com.ldtteam.smithscore.client.gui.animation.IAnimatibleGuiComponent;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedLedgerHost;
+import com.ldtteam.smithscore.client.gui.hosts.IHitTestableComponentHost;
 import com.ldtteam.smithscore.client.gui.legders.core.IGUILedger;
+import com.ldtteam.smithscore.client.gui.retained.IRetainedGuiComponent;
 import com.ldtteam.smithscore.client.gui.scissoring.IScissoredGuiComponent;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
 import com.ldtteam.smithscore.client.proxy.CoreClientProxy;
 import com.ldtteam.smithscore.client.registry.ClientRegistry;
 import com.ldtteam.smithscore.util.client.color.MinecraftColor;
+import com.ldtteam.smithscore.util.client.gui.GuiHelper;
+import com.ldtteam.smithscore.util.client.gui.RetainedGuiGeometry;
 import com.ldtteam.smithscore.util.common.positioning.Plane;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.renderer.GlStateManager;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 
 /**
  * Created by marcf on 12/3/2015.
@@ -28,10 +34,28 @@ public class StandardRenderManager implements IRenderManager
     @Nonnull
     private static ArrayList<MinecraftColor> colorStack = new ArrayList<MinecraftColor>();
 
+    private static boolean retainedRendering = true;
+
     GuiScreen root;
     @Nonnull
     StandardScissorRegionManager scissorer = new StandardScissorRegionManager();
 
+    @Nonnull
+    private IdentityHashMap<IRetainedGuiComponent, RetainedGuiGeometry> retainedGeometry          = new IdentityHashMap<>();
+    @Nonnull
+    private IdentityHashMap<IRetainedGuiComponent, RetainedGuiGeometry> previousRetainedGeometry  = new IdentityHashMap<>();
+    @Nonnull
+    private ArrayList<IRetainedGuiComponent>                            retainedComponents        = new ArrayList<>();
+    @Nonnull
+    private IntArrayList                                                retainedLayout            = new IntArrayList();
+    @Nonnull
+    private ArrayList<IRetainedGuiComponent>                            currentRetainedComponents = new ArrayList<>();
+    @Nonnull
+    private IntArrayList                                                currentRetainedLayout     = new IntArrayList();
+    @Nonnull
+    private RetainedPass                                                retainedPass              = RetainedPass.NONE;
+    private boolean                                                     passBatchOpen             = false;
+
     public StandardRenderManager(GuiScreen root)
     {
         if (!(root instanceof IGUIBasedComponentHost))
@@ -81,6 +105,27 @@ public class StandardRenderManager implements IRenderManager
         colorStack.get(0).performOpenGLColoring();
     }
 
+    /**
+     * Indicates if the static background of {@link IRetainedGuiComponent}s is recorded once and drawn from the
+     * recording afterwards.
+     *
+     * @return True when retained rendering is used, false when every component is drawn every frame.
+     */
+    public static boolean isRetainedRendering()
+    {
+        return retainedRendering;
+    }
+
+    /**
+     * Enables or disables retained rendering.
+     *
+     * @param retainedRendering True to use retained rendering, false to draw every component every frame.
+     */
+    public static void setRetainedRendering(boolean retainedRendering)
+    {
+        StandardRenderManager.retainedRendering = retainedRendering;
+    }
+
     /**
      * Method to get the Gui this StandardRenderManager renders on.
      *
@@ -119,11 +164,248 @@ public class StandardRenderManager implements IRenderManager
 
     /**
      * Method to render the BackGround of a Component
+     * <p>
+     * When the root gui is rendered and retained rendering is enabled, the static background of every
+     * {@link IRetainedGuiComponent} is drawn from the geometry recorded for it in an earlier frame, at the point where
+     * the component itself would be drawn, so the order in which the gui is drawn stays the same. The geometry of all
+     * components is recorded again when the layout of the retained components changed or one of them reports that it
+     * is dirty.
+     * <p>
+     * The static backgrounds that are drawn after each other, without anything else being drawn in between, are drawn
+     * as a single batch.
      *
      * @param component The Component to render.
      */
     @Override
     public void renderBackgroundComponent(@Nonnull IGUIComponent component, boolean parentEnabled)
+    {
+        if (component != root || !retainedRendering)
+        {
+            if (component == root)
+            {
+                //Dirty components are not tracked while retained rendering is disabled, so record again afterwards.
+                retainedComponents.clear();
+            }
+
+            renderBackgroundComponent(component, parentEnabled, false);
+            return;
+        }
+
+        beginRetainedPass();
+        try
+        {
+            renderBackgroundComponent(component, parentEnabled, true);
+        }
+        finally
+        {
+            endRetainedPass();
+        }
+    }
+
+    /**
+     * Decides if the retained geometry can be drawn this frame, or if it has to be recorded again.
+     */
+    private void beginRetainedPass()
+    {
+        currentRetainedComponents.clear();
+        currentRetainedLayout.clear();
+
+        boolean dirty = collectRetainedLayout((IGUIBasedComponentHost) root, 0, 0, true);
+        boolean changed = dirty || !currentRetainedComponents.equals(retainedComponents) || !currentRetainedLayout.equals(retainedLayout);
+
+        ArrayList<IRetainedGuiComponent> components = retainedComponents;
+        retainedComponents = currentRetainedComponents;
+        currentRetainedComponents = components;
+
+        IntArrayList layout = retainedLayout;
+        retainedLayout = currentRetainedLayout;
+        currentRetainedLayout = layout;
+
+        if (changed)
+        {
+            //The geometry of components that are still part of the gui is recorded again into the same buffers.
+            IdentityHashMap<IRetainedGuiComponent, RetainedGuiGeometry> geometry = previousRetainedGeometry;
+            previousRetainedGeometry = retainedGeometry;
+            retainedGeometry = geometry;
+
+            retainedPass = RetainedPass.RECORDING;
+        }
+        else
+        {
+            retainedPass = RetainedPass.REPLAYING;
+        }
+    }
+
+    private void endRetainedPass()
+    {
+        GuiHelper.stopRecording();
+        closePassBatch();
+
+        previousRetainedGeometry.clear();
+        retainedPass = RetainedPass.NONE;
+    }
+
+    /**
+     * Starts collecting the static backgrounds in a batch, unless one has already been started during this pass.
+     */
+    private void openPassBatch()
+    {
+        if (retainedPass == RetainedPass.NONE || passBatchOpen)
+        {
+            return;
+        }
+
+        GuiHelper.beginBatch();
+        passBatchOpen = true;
+    }
+
+    /**
+     * Draws the static backgrounds collected so far, so that whatever is drawn next ends up on top of them.
+     */
+    private void closePassBatch()
+    {
+        if (!passBatchOpen)
+        {
+            return;
+        }
+
+        passBatchOpen = false;
+        GuiHelper.endBatch();
+    }
+
+    /**
+     * Collects the position, size and enabled state of every component in the tree whose static background can be
+     * retained, following the same rules as the render pass.
+     *
+     * @param component  The component to start at.
+     * @param x          The x coordinate of the host of the component, relative to the root.
+     * @param y          The y coordinate of the host of the component, relative to the root.
+     * @param retainable Indicates if the host of the component can be retained.
+     * @return True when one of the collected components reported that it is dirty.
+     */
+    private boolean collectRetainedLayout(@Nonnull IGUIComponent component, int x, int y, boolean retainable)
+    {
+        if (!component.getState().isVisible() || !isRetainable(component, retainable))
+        {
+            return false;
+        }
+
+        x += component.getLocalCoordinate().getXComponent();
+        y += component.getLocalCoordinate().getYComponent();
+
+        boolean dirty = false;
+        if (component instanceof IRetainedGuiComponent && !(component instanceof GuiContainerSmithsCore))
+        {
+            Plane size = component.getSize();
+
+            currentRetainedComponents.add((IRetainedGuiComponent) component);
+            currentRetainedLayout.add(x);
+            currentRetainedLayout.add(y);
+            currentRetainedLayout.add(size.getWidth());
+            currentRetainedLayout.add(size.getHeigth());
+            currentRetainedLayout.add(component.getState().isEnabled() ? 1 : 0);
+
+            dirty = ((IRetainedGuiComponent) component).isStaticBackgroundDirty();
+        }
+
+        if (component instanceof IGUIBasedComponentHost && areChildrenRetainable(component, true))
+        {
+            for (IGUIComponent subComponent : ((IGUIBasedComponentHost) component).getAllComponents().values())
+            {
+                dirty |= collectRetainedLayout(subComponent, x, y, true);
+            }
+        }
+
+        return dirty;
+    }
+
+    /**
+     * Components that are animated can move independent of their layout, so neither they nor their children are
+     * retained.
+     */
+    private static boolean isRetainable(@Nonnull IGUIComponent component, boolean hostRetainable)
+    {
+        return hostRetainable && !(component instanceof IAnimatibleGuiComponent);
+    }
+
+    /**
+     * The children of scissored components can move while scrolling, and their geometry has to be cut by the scissor
+     * region, so they are not retained.
+     */
+    private static boolean areChildrenRetainable(@Nonnull IGUIComponent component, boolean retainable)
+    {
+        return retainable && !(component instanceof IScissoredGuiComponent && ((IScissoredGuiComponent) component).shouldScissor());
+    }
+
+    /**
+     * Draws the background of a component that can be retained, according to the current pass. The static background
+     * is always drawn as a single batch, either from the geometry recorded for the component or by the component
+     * itself. Geometry that could not be recorded completely is never drawn in place of the component.
+     */
+    private void drawRetainedBackground(@Nonnull IRetainedGuiComponent component, boolean retainable, int mouseX, int mouseY)
+    {
+        openPassBatch();
+
+        if (retainable && retainedPass == RetainedPass.RECORDING)
+        {
+            RetainedGuiGeometry geometry = previousRetainedGeometry.remove(component);
+            if (geometry == null)
+            {
+                geometry = new RetainedGuiGeometry();
+            }
+
+            retainedGeometry.put(component, geometry);
+
+            geometry.begin();
+            GuiHelper.startRecording(geometry);
+            try
+            {
+                drawBatchedStaticBackground(component);
+            }
+            finally
+            {
+                GuiHelper.stopRecording();
+                geometry.finish();
+            }
+        }
+        else if (retainable && retainedPass == RetainedPass.REPLAYING)
+        {
+            RetainedGuiGeometry geometry = retainedGeometry.get(component);
+            if (geometry != null && geometry.isComplete())
+            {
+                GuiHelper.drawRetained(geometry);
+            }
+            else
+            {
+                drawBatchedStaticBackground(component);
+            }
+        }
+        else
+        {
+            drawBatchedStaticBackground(component);
+        }
+
+        if (component.hasDynamicBackground())
+        {
+            closePassBatch();
+            component.drawDynamicBackground(mouseX, mouseY);
+        }
+    }
+
+    private static void drawBatchedStaticBackground(@Nonnull IRetainedGuiComponent component)
+    {
+        GuiHelper.beginBatch();
+        try
+        {
+            component.drawStaticBackground();
+        }
+        finally
+        {
+            GuiHelper.endBatch();
+        }
+    }
+
+    private void renderBackgroundComponent(@Nonnull IGUIComponent component, boolean parentEnabled, boolean retainable)
     {
         ClientRegistry registry = (ClientRegistry) SmithsCore.getRegistry();
 
@@ -134,6 +416,8 @@ public class StandardRenderManager implements IRenderManager
             return;
         }
 
+        retainable = isRetainable(component, retainable);
+
         component.update(registry.getMouseManager().getLocation().getXComponent(), registry.getMouseManager().getLocation().getYComponent(), registry.getPartialTickTime());
 
         GlStateManager.pushMatrix();
@@ -151,12 +435,12 @@ public class StandardRenderManager implements IRenderManager
 
             for (IGUILedger ledger : ledgerHost.getLedgerManager().getLeftLedgers().values())
             {
-                this.renderBackgroundComponent(ledger, false);
+                this.renderBackgroundComponent(ledger, false, false);
             }
 
             for (IGUILedger ledger : ledgerHost.getLedgerManager().getRightLedgers().values())
             {
-                this.renderBackgroundComponent(ledger, false);
+                this.renderBackgroundComponent(ledger, false, false);
             }
         }
 
@@ -167,8 +451,16 @@ public class StandardRenderManager implements IRenderManager
             pushColorOnRenderStack(new MinecraftColor(MinecraftColor.darkGray));
         }
 
-        if (!(component instanceof GuiContainerSmithsCore))
+        if (component instanceof IRetainedGuiComponent && !(component instanceof GuiContainerSmithsCore))
         {
+            drawRetainedBackground((IRetainedGuiComponent) component,
+              retainable,
+              registry.getMouseManager().getLocation().getXComponent(),
+              registry.getMouseManager().getLocation().getYComponent());
+        }
+        else if (!(component instanceof GuiContainerSmithsCore))
+        {
+            closePassBatch();
             component.drawBackground(registry.getMouseManager().getLocation().getXComponent(), registry.getMouseManager().getLocation().getYComponent());
         }
 
@@ -181,6 +473,8 @@ public class StandardRenderManager implements IRenderManager
 
         if (component instanceof IScissoredGuiComponent && ((IScissoredGuiComponent) component).shouldScissor())
         {
+            closePassBatch();
+
             if (!scissorer.setScissorRegionTo(((IScissoredGuiComponent) component).getGlobalScissorLocation()))
             {
                 GlStateManager.popMatrix();
@@ -190,14 +484,16 @@ public class StandardRenderManager implements IRenderManager
 
         if (component instanceof IGUIBasedComponentHost)
         {
+            boolean childrenRetainable = areChildrenRetainable(component, retainable);
             for (IGUIComponent subComponent : ((IGUIBasedComponentHost) component).getAllComponents().values())
             {
-                this.renderBackgroundComponent(subComponent, state.isEnabled());
+                this.renderBackgroundComponent(subComponent, state.isEnabled(), childrenRetainable);
             }
         }
 
         if (component instanceof IScissoredGuiComponent && ((IScissoredGuiComponent) component).shouldScissor())
         {
+            closePassBatch();
             scissorer.popCurrentScissorRegion();
         }
 
@@ -370,7 +666,15 @@ public class StandardRenderManager implements IRenderManager
 
         if (component.getToolTipContent() == null || component.getToolTipContent().size() == 0)
         {
-            if (component instanceof IGUIBasedComponentHost)
+            if (component instanceof IHitTestableComponentHost)
+            {
+                //Only the components below the mouse can show their tooltip.
+                for (IGUIComponent component1 : ((IHitTestableComponentHost) component).getComponentsAt(mouseX, mouseY))
+                {
+                    this.renderToolTipComponent(component1, mouseX - component1.getLocalCoordinate().getXComponent(), mouseY - component1.getLocalCoordinate().getYComponent());
+                }
+            }
+            else if (component instanceof IGUIBasedComponentHost)
             {
                 for (IGUIComponent component1 : ((IGUIBasedComponentHost) component).getAllComponents().values())
                 {
@@ -399,4 +703,23 @@ public class StandardRenderManager implements IRenderManager
 
         ((IGUIBasedComponentHost) root).drawHoveringText(component.getToolTipContent(), globalMouseX + 4, globalMouseY + 4, CoreClientProxy.getMultiColoredFontRenderer());
     }
+
+    /**
+     * The ways the retained components are drawn during a render pass.
+     */
+    private enum RetainedPass
+    {
+        /**
+         * The static background is drawn like every other component.
+         */
+        NONE,
+        /**
+         * The static background is drawn and recorded into the retained geometry of the component.
+         */
+        RECORDING,
+        /**
+         * The static background is drawn from the retained geometry of the component, if it could be recorded.
+         */
+        REPLAYING
+    }
 }
@@ -3,10 +3,10 @@ package com.ldtteam.smithscore.client.gui.management;
 import com.ldtteam.smithscore.SmithsCore;
 import com.ldtteam.smithscore.client.events.gui.GuiInputEvent;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedTabHost;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
 import com.ldtteam.smithscore.client.gui.tabs.core.IGUITab;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
 
 /**
@@ -19,6 +19,8 @@ public class StandardTabManager implements ITabManager
     String activeTabId;
     @Nonnull
     LinkedHashMap<String, IGUITab> tabs = new LinkedHashMap<String, IGUITab>();
+    @Nonnull
+    TabSelectorStrip selectorStrip = new TabSelectorStrip(this);
 
     public StandardTabManager(IGUIBasedTabHost host)
     {
@@ -41,6 +43,7 @@ public class StandardTabManager implements ITabManager
     public void setHost(@Nonnull final IGUIBasedTabHost host)
     {
         this.host = host;
+        this.selectorStrip = new TabSelectorStrip(this);
     }
 
     /**
@@ -81,7 +84,18 @@ public class StandardTabManager implements ITabManager
     @Override
     public int getCurrentTabIndex()
     {
-        return (new ArrayList<String>(tabs.keySet())).indexOf(activeTabId);
+        int index = 0;
+        for (String tabId : tabs.keySet())
+        {
+            if (tabId.equals(activeTabId))
+            {
+                return index;
+            }
+
+            index++;
+        }
+
+        return -1;
     }
 
     /**
@@ -106,14 +120,21 @@ public class StandardTabManager implements ITabManager
 
         tabIndex -= selectedSelectorIndex;
 
-        ArrayList<IGUITab> tabList = new ArrayList<>(tabs.values());
-
-        if (tabList.size() < tabIndex + selectorIndex || tabIndex + selectorIndex < 0)
+        if (tabs.size() <= tabIndex + selectorIndex || tabIndex + selectorIndex < 0)
         {
             throw new IllegalArgumentException("The given selectorIndex is not available");
         }
 
-        return tabList.get(tabIndex + selectorIndex);
+        int index = 0;
+        for (IGUITab tab : tabs.values())
+        {
+            if (index++ == tabIndex + selectorIndex)
+            {
+                return tab;
+            }
+        }
+
+        throw new IllegalArgumentException("The given selectorIndex is not available");
     }
 
     /**
@@ -130,6 +151,11 @@ public class StandardTabManager implements ITabManager
         }
 
         tabs.put(newTab.getID(), newTab);
+        selectorStrip.invalidate();
+
+        //The position of the tabs depends on the amount of tabs.
+        GuiLayout.invalidateGlobalCoordinate(host);
+        GuiLayout.invalidateGlobalCoordinates(tabs.values());
     }
 
     /**
@@ -232,9 +258,22 @@ public class StandardTabManager implements ITabManager
     public void setActiveTab(@Nonnull IGUITab tab)
     {
         activeTabId = tab.getID();
+        selectorStrip.invalidate();
 
         host.onTabChanged(tab.getID());
         host.getManager().onTabChanged(tab.getID());
         SmithsCore.getRegistry().getClientBus().post(new GuiInputEvent(GuiInputEvent.InputTypes.TABCHANGED, host.getID(), tab.getID()));
     }
+
+    /**
+     * Method to get the strip of tab selectors that is drawn above the tabs.
+     *
+     * @return The tab selectors of this TabManager.
+     */
+    @Nonnull
+    @Override
+    public TabSelectorStrip getTabSelectorStrip()
+    {
+        return selectorStrip;
+    }
 }
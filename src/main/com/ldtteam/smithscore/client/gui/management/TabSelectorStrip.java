@@ -0,0 +1,313 @@
+package com.ldtteam.smithscore.client.gui.management;
+
+import com.ldtteam.smithscore.client.gui.components.implementations.ComponentBorder;
+import com.ldtteam.smithscore.client.gui.components.implementations.ComponentItemStackDisplay;
+import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.state.CoreComponentState;
+import com.ldtteam.smithscore.client.gui.tabs.core.IGUITab;
+import com.ldtteam.smithscore.util.client.color.MinecraftColor;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate2D;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The row of tab selectors that is drawn above the tabs of a {@link ITabManager}.
+ * <p>
+ * The components of a selector are created once per tab and moved around when the active tab changes, instead of
+ * being created again every frame. The layout of the strip is only recalculated when the active tab, the amount of
+ * selectors or the amount of tabs changes. Only the displayed stacks are refreshed every frame.
+ */
+public class TabSelectorStrip
+{
+
+    private final ITabManager manager;
+
+    @Nonnull
+    private final HashMap<String, TabSelector> selectors         = new HashMap<>();
+    @Nonnull
+    private final ArrayList<TabSelector>       inActiveSelectors = new ArrayList<>();
+    @Nullable
+    private       TabSelector                  activeSelector;
+
+    @Nullable
+    private IGUIBasedComponentHost layoutHost;
+    private int layoutTabIndex      = -1;
+    private int layoutSelectorCount = -1;
+    private int layoutTabCount      = -1;
+
+    public TabSelectorStrip(@Nonnull ITabManager manager)
+    {
+        this.manager = manager;
+    }
+
+    /**
+     * Brings the strip up to date with the tabs of the manager. Only refreshes the displayed stacks when the layout did
+     * not change since the last call.
+     *
+     * @param host The tab that is displayed, which will be the host of the selector components.
+     */
+    public void update(@Nonnull IGUIBasedComponentHost host)
+    {
+        if (host != layoutHost)
+        {
+            for (TabSelector selector : selectors.values())
+            {
+                selector.setHost(host);
+            }
+
+            layoutHost = host;
+        }
+
+        int tabIndex = manager.getCurrentTabIndex();
+        int selectorCount = manager.getTabSelectorCount();
+        int tabCount = manager.getTabs().size();
+
+        if (tabIndex != layoutTabIndex || selectorCount != layoutSelectorCount || tabCount != layoutTabCount)
+        {
+            layout(host, tabIndex, selectorCount, tabCount);
+        }
+
+        //Tabs can change their stack at any time, so it is requested every frame.
+        for (int i = 0; i < inActiveSelectors.size(); i++)
+        {
+            TabSelector selector = inActiveSelectors.get(i);
+            selector.display.setStack(selector.tab.getDisplayStack());
+        }
+
+        if (activeSelector != null)
+        {
+            activeSelector.display.setStack(activeSelector.tab.getDisplayStack());
+        }
+    }
+
+    private void layout(@Nonnull IGUIBasedComponentHost host, int tabIndex, int selectorCount, int tabCount)
+    {
+        layoutTabIndex = tabIndex;
+        layoutSelectorCount = selectorCount;
+        layoutTabCount = tabCount;
+
+        inActiveSelectors.clear();
+        activeSelector = null;
+
+        if (tabCount < 2 || selectorCount <= 0 || tabIndex < 0)
+        {
+            return;
+        }
+
+        int activeSelectorIndex = tabIndex % selectorCount;
+        int firstTabIndex = tabIndex - activeSelectorIndex;
+
+        int index = 0;
+        for (IGUITab tab : manager.getTabs().values())
+        {
+            int selectorIndex = index++ - firstTabIndex;
+            if (selectorIndex < 0)
+            {
+                continue;
+            }
+
+            if (selectorIndex >= selectorCount)
+            {
+                break;
+            }
+
+            TabSelector selector = getSelector(tab, host);
+            selector.moveTo(selectorIndex, selectorIndex == activeSelectorIndex);
+
+            if (selectorIndex == activeSelectorIndex)
+            {
+                activeSelector = selector;
+            }
+            else
+            {
+                inActiveSelectors.add(selector);
+            }
+        }
+    }
+
+    /**
+     * Forces the layout to be recalculated on the next update, and drops the selectors of tabs that have been removed.
+     */
+    public void invalidate()
+    {
+        layoutTabIndex = -1;
+        selectors.keySet().retainAll(manager.getTabs().keySet());
+    }
+
+    /**
+     * Notifies the selector components that the tab they are drawn on has moved. They are not registered on the tab, so
+     * the tab can not do this itself.
+     */
+    public void invalidateGlobalCoordinates()
+    {
+        for (TabSelector selector : selectors.values())
+        {
+            GuiLayout.invalidateGlobalCoordinate(selector.activeBorder);
+            GuiLayout.invalidateGlobalCoordinate(selector.inActiveBorder);
+            GuiLayout.invalidateGlobalCoordinate(selector.display);
+        }
+    }
+
+    /**
+     * Returns the selectors of the visible tabs that are not active, as of the last update.
+     *
+     * @return The inactive selectors, from left to right.
+     */
+    @Nonnull
+    public List<TabSelector> getInActiveSelectors()
+    {
+        return inActiveSelectors;
+    }
+
+    /**
+     * Returns the selector of the active tab, as of the last update.
+     *
+     * @return The active selector, or null when no selectors are displayed.
+     */
+    @Nullable
+    public TabSelector getActiveSelector()
+    {
+        return activeSelector;
+    }
+
+    @Nonnull
+    private TabSelector getSelector(@Nonnull IGUITab tab, @Nonnull IGUIBasedComponentHost host)
+    {
+        TabSelector selector = selectors.get(tab.getID());
+
+        //The colors of the borders are fixed, so the selector is replaced when the color of the tab changes.
+        if (selector == null || selector.tabColor != tab.getTabColor())
+        {
+            selector = new TabSelector(tab, host);
+            selectors.put(tab.getID(), selector);
+        }
+
+        return selector;
+    }
+
+    /**
+     * The components that make up the selector of a single tab.
+     */
+    public final class TabSelector
+    {
+        private final IGUITab         tab;
+        private final MinecraftColor  tabColor;
+        private final ComponentBorder activeBorder;
+        private final ComponentBorder inActiveBorder;
+        private final SelectorDisplay display;
+
+        private boolean active;
+
+        private TabSelector(@Nonnull IGUITab tab, @Nonnull IGUIBasedComponentHost host)
+        {
+            String id = manager.getHost().getID() + ".TabSelectors." + tab.getID();
+
+            this.tab = tab;
+            this.tabColor = tab.getTabColor();
+            this.activeBorder = new ComponentBorder(id + ".Background.Active",
+              host,
+              new Coordinate2D(0, 0),
+              manager.getTabSelectorWidth(),
+              manager.getTabSelectorHeight(),
+              tabColor,
+              ComponentBorder.CornerTypes.Inwards,
+              ComponentBorder.CornerTypes.Inwards,
+              ComponentBorder.CornerTypes.Outwards,
+              ComponentBorder.CornerTypes.Outwards);
+            this.inActiveBorder = new ComponentBorder(id + ".Background",
+              host,
+              new Coordinate2D(0, 0),
+              manager.getTabSelectorWidth(),
+              manager.getTabSelectorHeight(),
+              new MinecraftColor(new MinecraftColor(tabColor).darker()),
+              ComponentBorder.CornerTypes.Inwards,
+              ComponentBorder.CornerTypes.Inwards,
+              ComponentBorder.CornerTypes.StraightVertical,
+              ComponentBorder.CornerTypes.StraightVertical);
+            this.display = new SelectorDisplay(id + ".Display", host, tab);
+        }
+
+        private void setHost(@Nonnull IGUIBasedComponentHost host)
+        {
+            activeBorder.setComponentHost(host);
+            inActiveBorder.setComponentHost(host);
+            display.setComponentHost(host);
+        }
+
+        private void moveTo(int selectorIndex, boolean active)
+        {
+            this.active = active;
+            this.display.active = active;
+
+            int x = manager.getSelectorsHorizontalOffset() + manager.getTabSelectorWidth() * selectorIndex;
+            int y = manager.getInActiveSelectorVerticalOffset() - (manager.getTabSelectorHeight() + 1);
+            if (!active)
+            {
+                y += manager.getInActiveSelectorVerticalOffset();
+            }
+
+            int displayOffset = (manager.getTabSelectorWidth() - 16) / 2;
+
+            getBorder().setLocalCoordinate(new Coordinate2D(x, y));
+            display.setLocalCoordinate(new Coordinate2D(x + displayOffset, y + displayOffset));
+        }
+
+        @Nonnull
+        public IGUITab getTab()
+        {
+            return tab;
+        }
+
+        public boolean isActive()
+        {
+            return active;
+        }
+
+        /**
+         * Returns the border of the selector, which depends on whether the tab is active.
+         *
+         * @return The border to draw.
+         */
+        @Nonnull
+        public ComponentBorder getBorder()
+        {
+            return active ? activeBorder : inActiveBorder;
+        }
+
+        @Nonnull
+        public ComponentItemStackDisplay getDisplay()
+        {
+            return display;
+        }
+    }
+
+    /**
+     * Displays the stack of a tab, with the tooltip of the tab. The tooltip is requested from the tab every time, so
+     * that tabs can change it while the selector is kept.
+     */
+    private static final class SelectorDisplay extends ComponentItemStackDisplay
+    {
+        private final IGUITab tab;
+
+        private boolean active;
+
+        private SelectorDisplay(@Nonnull String uniqueID, @Nonnull IGUIBasedComponentHost parent, @Nonnull IGUITab tab)
+        {
+            super(uniqueID, parent, new CoreComponentState(), new Coordinate2D(0, 0), tab.getDisplayStack());
+
+            this.tab = tab;
+        }
+
+        @Nullable
+        @Override
+        public ArrayList<String> getToolTipContent()
+        {
+            return active ? tab.getIconToolTipText() : tab.getToolTipContent();
+        }
+    }
+}
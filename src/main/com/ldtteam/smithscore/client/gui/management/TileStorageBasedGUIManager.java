@@ -8,6 +8,8 @@ import net.minecraftforge.fluids.FluidStack;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -21,7 +23,7 @@ public class TileStorageBasedGUIManager implements IGUIManager
 {
 
     @Nonnull
-    protected ArrayList<UUID> watchingPlayers = new ArrayList<UUID>();
+    protected Set<UUID> watchingPlayers = new LinkedHashSet<UUID>();
 
     /**
      * Method called when a player closed the linked UI.
@@ -31,11 +33,6 @@ public class TileStorageBasedGUIManager implements IGUIManager
     @Override
     public void onGuiOpened(@Nonnull UUID playerId)
     {
-        if (watchingPlayers.contains(playerId))
-        {
-            return;
-        }
-
         watchingPlayers.add(playerId);
     }
 
@@ -47,11 +44,6 @@ public class TileStorageBasedGUIManager implements IGUIManager
     @Override
     public void onGUIClosed(@Nonnull UUID playerID)
     {
-        if (!watchingPlayers.contains(playerID))
-        {
-            return;
-        }
-
         watchingPlayers.remove(playerID);
     }
 
@@ -0,0 +1,57 @@
+package com.ldtteam.smithscore.client.gui.retained;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A component whose background is mostly static, like a border or the frame of a slot.
+ * <p>
+ * The StandardRenderManager records the static part of the background of these components once and draws the recorded
+ * geometry of each of them in place of the component in later frames, in the same order as the rest of the gui. The
+ * recording is only redone when a component reports that it is dirty, or when the position, size or enabled state of
+ * one of the components changes. Components below a scissored or animated component are always drawn normally.
+ * <p>
+ * Implementations have to draw everything through the GuiHelper while drawing their static background, and their
+ * drawBackground method should draw both the static and the dynamic background. The matrix, color and blend state the
+ * static background is drawn with are read once when it starts. Changes made to them while drawing have to go through
+ * the GuiHelper or the MinecraftColor, or be followed by a call to GuiHelper#invalidateDrawState().
+ */
+public interface IRetainedGuiComponent extends IGUIComponent
+{
+
+    /**
+     * Draws the part of the background that does not change between frames.
+     */
+    void drawStaticBackground();
+
+    /**
+     * Draws the part of the background that can change every frame, on top of the static background.
+     *
+     * @param mouseX The current X-Coordinate of the mouse
+     * @param mouseY The current Y-Coordinate of the mouse
+     */
+    void drawDynamicBackground(@Nonnull int mouseX, @Nonnull int mouseY);
+
+    /**
+     * Indicates if {@link #drawDynamicBackground(int, int)} draws anything. The static backgrounds of components without
+     * a dynamic background can be drawn together with the static backgrounds drawn after them.
+     *
+     * @return False when the dynamic background is empty.
+     */
+    default boolean hasDynamicBackground()
+    {
+        return true;
+    }
+
+    /**
+     * Indicates that the static background has changed since it was last drawn. Implementations should reset this when
+     * {@link #drawStaticBackground()} is called.
+     *
+     * @return True when the static background has to be recorded again.
+     */
+    default boolean isStaticBackgroundDirty()
+    {
+        return false;
+    }
+}
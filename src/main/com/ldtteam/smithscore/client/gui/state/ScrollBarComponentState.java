@@ -66,7 +66,10 @@ public class ScrollBarComponentState extends CoreComponentState
 
         int yOffset = 10 + (int) (current / moveDelta);
 
-        dragButton.getLocalCoordinate().setYComponent(yOffset);
+        if (dragButton.getLocalCoordinate().getYComponent() != yOffset)
+        {
+            dragButton.setLocalCoordinate(new Coordinate2D(dragButton.getLocalCoordinate().getXComponent(), yOffset));
+        }
     }
 
     public int getMinimum()
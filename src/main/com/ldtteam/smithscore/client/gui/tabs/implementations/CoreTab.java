@@ -2,14 +2,18 @@ package com.ldtteam.smithscore.client.gui.tabs.implementations;
 
 import com.google.common.collect.Lists;
 import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
-import com.ldtteam.smithscore.client.gui.components.implementations.ComponentBorder;
 import com.ldtteam.smithscore.client.gui.components.implementations.ComponentItemStackDisplay;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
 import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedTabHost;
+import com.ldtteam.smithscore.client.gui.hosts.IHitTestableComponentHost;
+import com.ldtteam.smithscore.client.gui.layout.ComponentHitTestGrid;
+import com.ldtteam.smithscore.client.gui.layout.GuiLayout;
+import com.ldtteam.smithscore.client.gui.layout.ILayoutCachingGuiComponent;
+import com.ldtteam.smithscore.client.gui.layout.LayoutCache;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
 import com.ldtteam.smithscore.client.gui.management.IRenderManager;
 import com.ldtteam.smithscore.client.gui.management.ITabManager;
-import com.ldtteam.smithscore.client.gui.state.CoreComponentState;
+import com.ldtteam.smithscore.client.gui.management.TabSelectorStrip;
 import com.ldtteam.smithscore.client.gui.state.IGUIComponentState;
 import com.ldtteam.smithscore.client.gui.tabs.core.IGUITab;
 import com.ldtteam.smithscore.util.client.color.MinecraftColor;
@@ -19,7 +23,6 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.item.ItemStack;
-import scala.actors.threadpool.Arrays;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -30,7 +33,7 @@ import java.util.List;
 /**
  * Created by marcf on 1/17/2016.
  */
-public abstract class CoreTab implements IGUITab
+public abstract class CoreTab implements IGUITab, ILayoutCachingGuiComponent, IHitTestableComponentHost
 {
 
     String uniqueID;
@@ -39,6 +42,10 @@ public abstract class CoreTab implements IGUITab
 
     @Nonnull
     LinkedHashMap<String, IGUIComponent> components = new LinkedHashMap<String, IGUIComponent>();
+    @Nonnull
+    final LayoutCache layout = new LayoutCache();
+    @Nonnull
+    final ComponentHitTestGrid hitTestGrid = new ComponentHitTestGrid();
 
     ItemStack      displayStack;
     MinecraftColor tabColor;
@@ -76,6 +83,9 @@ public abstract class CoreTab implements IGUITab
         }
 
         components.put(component.getID(), component);
+
+        invalidateSize();
+        GuiLayout.onComponentRegistered(this);
     }
 
     /**
@@ -114,6 +124,13 @@ public abstract class CoreTab implements IGUITab
         return components;
     }
 
+    @Nonnull
+    @Override
+    public List<IGUIComponent> getComponentsAt(int localX, int localY)
+    {
+        return hitTestGrid.getComponentsAt(components.values(), localX, localY);
+    }
+
     @Nullable
     public IGUIComponent getComponentByID(@Nonnull String uniqueUIID)
     {
@@ -187,7 +204,7 @@ public abstract class CoreTab implements IGUITab
     {
         if (host instanceof IGUIBasedTabHost)
         {
-            this.root = (IGUIBasedTabHost) host;
+            setTabHost((IGUIBasedTabHost) host);
         }
     }
 
@@ -200,7 +217,7 @@ public abstract class CoreTab implements IGUITab
     @Override
     public Coordinate2D getGlobalCoordinate()
     {
-        return root.getGlobalCoordinate().getTranslatedCoordinate(getLocalCoordinate());
+        return layout.getGlobalCoordinate(root, getLocalCoordinate());
     }
 
     /**
@@ -254,14 +271,28 @@ public abstract class CoreTab implements IGUITab
     @Override
     public Plane getSize()
     {
-        Plane area = new Plane(0, 0, 0, 0);
-
-        for (IGUIComponent component : getAllComponents().values())
+        if (!layout.hasSize())
         {
-            area.IncludeCoordinate(new Plane(component.getLocalCoordinate(), component.getSize().getWidth(), component.getSize().getHeigth()));
+            layout.setSize(GuiLayout.getAreaOccupiedByComponents(getAllComponents().values()));
         }
 
-        return area;
+        return layout.getSize();
+    }
+
+    @Override
+    public void invalidateSize()
+    {
+        layout.invalidateSize();
+        hitTestGrid.invalidate();
+        GuiLayout.invalidateSize(root);
+    }
+
+    @Override
+    public void invalidateGlobalCoordinate()
+    {
+        layout.invalidateGlobalCoordinate();
+        GuiLayout.invalidateGlobalCoordinates(components.values());
+        getTabManager().getTabSelectorStrip().invalidateGlobalCoordinates();
     }
 
     /**
@@ -296,93 +327,33 @@ public abstract class CoreTab implements IGUITab
             return;
         }
 
-        int tabIndex = manager.getCurrentTabIndex();
-        int selectorIndex = tabIndex % manager.getTabSelectorCount();
+        TabSelectorStrip strip = manager.getTabSelectorStrip();
+        strip.update(this);
 
-        for (int i = tabIndex - selectorIndex; i < tabIndex - selectorIndex + manager.getTabSelectorCount(); i++)
+        for (TabSelectorStrip.TabSelector selector : strip.getInActiveSelectors())
         {
-            if (i != selectorIndex)
-            {
-                final IGUITab tab = manager.getTabFromSelectorIndex(i);
-
-                Coordinate2D selectorRootCoord =
-                  new Coordinate2D(manager.getSelectorsHorizontalOffset() + manager.getTabSelectorWidth() * i, manager.getInActiveSelectorVerticalOffset()).getTranslatedCoordinate(
-                    new Coordinate2D(0, -1 * (manager.getTabSelectorHeight() + 1))).getTranslatedCoordinate(new Coordinate2D(0, manager.getInActiveSelectorVerticalOffset()));
-                ComponentBorder inActiveBorder = new ComponentBorder(this.uniqueID + ".TabSelectors." + i + ".Background",
-                  this,
-                  selectorRootCoord,
-                  manager.getTabSelectorWidth(),
-                  manager.getTabSelectorHeight(),
-                  new MinecraftColor(new MinecraftColor(tab.getTabColor()).darker()),
-                  ComponentBorder.CornerTypes.Inwards,
-                  ComponentBorder.CornerTypes.Inwards,
-                  ComponentBorder.CornerTypes.StraightVertical,
-                  ComponentBorder.CornerTypes.StraightVertical);
-
-                int displayOffset = (manager.getTabSelectorWidth() - 16) / 2;
-                ComponentItemStackDisplay selectorDisplay = new ComponentItemStackDisplay(this.uniqueID + ".TabSelectors." + i + ".Display",
-                  this,
-                  new CoreComponentState(),
-                  selectorRootCoord.getTranslatedCoordinate(new Coordinate2D(displayOffset,
-                    displayOffset)),
-                  tab.getDisplayStack())
-                {
-                    @Override
-                    public ArrayList<String> getToolTipContent()
-                    {
-                        return tab.getToolTipContent();
-                    }
-                };
+            getRootGuiObject().getRenderManager().renderBackgroundComponent(selector.getBorder(), getState().isEnabled());
+            getRootGuiObject().getRenderManager().renderBackgroundComponent(selector.getDisplay(), getState().isEnabled());
 
-                getRootGuiObject().getRenderManager().renderBackgroundComponent(inActiveBorder, getState().isEnabled());
-                getRootGuiObject().getRenderManager().renderBackgroundComponent(selectorDisplay, getState().isEnabled());
-
-                if (selectorDisplay.getAreaOccupiedByComponent().ContainsCoordinate(mouseX, mouseY))
-                {
-                    GlStateManager.translate(0, 0, 5);
-                    getRootGuiObject().drawHoveringText(tab.getToolTipContent(), mouseX + 4, mouseY + 4, Minecraft.getMinecraft().fontRenderer);
-                    GlStateManager.translate(0, 0, -5);
-                }
+            if (selector.getDisplay().getAreaOccupiedByComponent().ContainsCoordinate(mouseX, mouseY))
+            {
+                GlStateManager.translate(0, 0, 5);
+                getRootGuiObject().drawHoveringText(selector.getTab().getToolTipContent(), mouseX + 4, mouseY + 4, Minecraft.getMinecraft().fontRenderer);
+                GlStateManager.translate(0, 0, -5);
             }
         }
 
-        final IGUITab tab = manager.getTabFromSelectorIndex(selectorIndex);
-
-        Coordinate2D selectorRootCoord = new Coordinate2D(manager.getSelectorsHorizontalOffset() + manager.getTabSelectorWidth() * selectorIndex,
-          manager.getInActiveSelectorVerticalOffset()).getTranslatedCoordinate(new Coordinate2D(0,
-          -1
-            * (manager.getTabSelectorHeight()
-                 + 1)));
-        ComponentBorder activeBorder = new ComponentBorder(this.uniqueID + ".TabSelectors." + selectorIndex + ".Background",
-          this,
-          selectorRootCoord,
-          manager.getTabSelectorWidth(),
-          manager.getTabSelectorHeight(),
-          tab.getTabColor(),
-          ComponentBorder.CornerTypes.Inwards,
-          ComponentBorder.CornerTypes.Inwards,
-          ComponentBorder.CornerTypes.Outwards,
-          ComponentBorder.CornerTypes.Outwards);
-
-        int displayOffset = (activeBorder.getSize().getWidth() - 16) / 2;
-        ComponentItemStackDisplay selectorDisplay = new ComponentItemStackDisplay(this.uniqueID + ".TabSelectors." + selectorIndex + ".Display",
-          this,
-          new CoreComponentState(),
-          selectorRootCoord.getTranslatedCoordinate(new Coordinate2D(displayOffset, displayOffset)),
-          tab.getDisplayStack())
+        TabSelectorStrip.TabSelector activeSelector = strip.getActiveSelector();
+        if (activeSelector == null)
         {
-            @Override
-            public ArrayList<String> getToolTipContent()
-            {
-                return tab.getToolTipContent();
-            }
-        };
+            return;
+        }
 
         GlStateManager.pushMatrix();
         GlStateManager.translate(0, 0, 2);
 
-        getRootGuiObject().getRenderManager().renderBackgroundComponent(activeBorder, getState().isEnabled());
-        getRootGuiObject().getRenderManager().renderBackgroundComponent(selectorDisplay, getState().isEnabled());
+        getRootGuiObject().getRenderManager().renderBackgroundComponent(activeSelector.getBorder(), getState().isEnabled());
+        getRootGuiObject().getRenderManager().renderBackgroundComponent(activeSelector.getDisplay(), getState().isEnabled());
 
         GlStateManager.translate(0, 0, -2);
         GlStateManager.popMatrix();
@@ -407,81 +378,31 @@ public abstract class CoreTab implements IGUITab
             return;
         }
 
-        int tabIndex = manager.getCurrentTabIndex();
-        int selectorIndex = tabIndex % manager.getTabSelectorCount();
+        TabSelectorStrip strip = manager.getTabSelectorStrip();
+        strip.update(this);
 
-        for (int i = tabIndex - selectorIndex; i < tabIndex - selectorIndex + manager.getTabSelectorCount(); i++)
+        for (TabSelectorStrip.TabSelector selector : strip.getInActiveSelectors())
         {
-            if (i != selectorIndex)
+            ComponentItemStackDisplay selectorDisplay = selector.getDisplay();
+
+            if (selectorDisplay.getAreaOccupiedByComponent().ContainsCoordinate(mouseX, mouseY))
             {
-                final IGUITab tab = manager.getTabFromSelectorIndex(i);
-
-                Coordinate2D selectorRootCoord =
-                  new Coordinate2D(manager.getSelectorsHorizontalOffset() + manager.getTabSelectorWidth() * i, manager.getInActiveSelectorVerticalOffset()).getTranslatedCoordinate(
-                    new Coordinate2D(0, -1 * (manager.getTabSelectorHeight() + 1))).getTranslatedCoordinate(new Coordinate2D(0, manager.getInActiveSelectorVerticalOffset()));
-
-                int displayOffset = (manager.getTabSelectorWidth() - 16) / 2;
-                ComponentItemStackDisplay selectorDisplay = new ComponentItemStackDisplay(this.uniqueID + ".TabSelectors." + i + ".Display",
-                  this,
-                  new CoreComponentState(),
-                  selectorRootCoord.getTranslatedCoordinate(new Coordinate2D(displayOffset,
-                    displayOffset)),
-                  tab.getDisplayStack())
-                {
-                    @Override
-                    public ArrayList<String> getToolTipContent()
-                    {
-                        return tab.getToolTipContent();
-                    }
-                };
-
-                if (selectorDisplay.getAreaOccupiedByComponent().ContainsCoordinate(mouseX, mouseY))
-                {
-                    final Coordinate2D globalSelectorCoordinate = selectorDisplay.getGlobalCoordinate().getInvertedCoordinate();
-                    GlStateManager.pushMatrix();
-                    //GlStateManager.translate(globalSelectorCoordinate.getXComponent(),globalSelectorCoordinate.getYComponent(),5);
-                    getRootGuiObject().getRenderManager()
-                      .renderToolTipComponent(selectorDisplay,
-                        mouseX - selectorDisplay.getGlobalCoordinate().getXComponent(),
-                        mouseY - selectorDisplay.getGlobalCoordinate().getYComponent());
-                    GlStateManager.popMatrix();
-                }
+                GlStateManager.pushMatrix();
+                getRootGuiObject().getRenderManager()
+                  .renderToolTipComponent(selectorDisplay,
+                    mouseX - selectorDisplay.getGlobalCoordinate().getXComponent(),
+                    mouseY - selectorDisplay.getGlobalCoordinate().getYComponent());
+                GlStateManager.popMatrix();
             }
         }
 
-        final IGUITab tab = manager.getTabFromSelectorIndex(selectorIndex);
-
-        Coordinate2D selectorRootCoord = new Coordinate2D(manager.getSelectorsHorizontalOffset() + manager.getTabSelectorWidth() * selectorIndex,
-          manager.getInActiveSelectorVerticalOffset()).getTranslatedCoordinate(new Coordinate2D(0,
-          -1
-            * (manager.getTabSelectorHeight()
-                 + 1)));
-        ComponentBorder activeBorder = new ComponentBorder(this.uniqueID + ".TabSelectors." + selectorIndex + ".Background",
-          this,
-          selectorRootCoord,
-          manager.getTabSelectorWidth(),
-          manager.getTabSelectorHeight(),
-          tab.getTabColor(),
-          ComponentBorder.CornerTypes.Inwards,
-          ComponentBorder.CornerTypes.Inwards,
-          ComponentBorder.CornerTypes.Outwards,
-          ComponentBorder.CornerTypes.Outwards);
-
-        int displayOffset = (activeBorder.getSize().getWidth() - 16) / 2;
-        final ArrayList<String> toolTipContents = Lists.newArrayList(toolTipString);
-        ComponentItemStackDisplay selectorDisplay = new ComponentItemStackDisplay(this.uniqueID + ".TabSelectors." + selectorIndex + ".Display",
-          this,
-          new CoreComponentState(),
-          selectorRootCoord.getTranslatedCoordinate(new Coordinate2D(displayOffset, displayOffset)),
-          tab.getDisplayStack())
+        TabSelectorStrip.TabSelector activeSelector = strip.getActiveSelector();
+        if (activeSelector == null)
         {
-            @Nullable
-            @Override
-            public ArrayList<String> getToolTipContent()
-            {
-                return toolTipContents;
-            }
-        };
+            return;
+        }
+
+        ComponentItemStackDisplay selectorDisplay = activeSelector.getDisplay();
 
         if (selectorDisplay.getAreaOccupiedByComponent().ContainsCoordinate(mouseX, mouseY))
         {
@@ -527,15 +448,10 @@ public abstract class CoreTab implements IGUITab
         }
 
 
-        for (IGUIComponent component : components.values())
+        int displayAreaVerticalOffset = getTabManager().getDisplayAreaVerticalOffset();
+        for (IGUIComponent component : getComponentsAt(relativeMouseX, relativeMouseY - displayAreaVerticalOffset))
         {
-            Coordinate2D location = component.getLocalCoordinate().getTranslatedCoordinate(new Coordinate2D(0, getTabManager().getDisplayAreaVerticalOffset()));
-            Plane localOccupiedArea = component.getSize().Move(location.getXComponent(), location.getYComponent());
-
-            if (!localOccupiedArea.ContainsCoordinate(relativeMouseX, relativeMouseY))
-            {
-                continue;
-            }
+            Coordinate2D location = component.getLocalCoordinate().getTranslatedCoordinate(new Coordinate2D(0, displayAreaVerticalOffset));
 
             if (component.handleMouseClickedInside(relativeMouseX - location.getXComponent(), relativeMouseY - location.getYComponent(), mouseButton))
             {
@@ -561,7 +477,13 @@ public abstract class CoreTab implements IGUITab
     @Override
     public void setTabHost(@Nonnull final IGUIBasedTabHost host)
     {
+        if (this.root == host)
+        {
+            return;
+        }
+
         this.root = host;
+        invalidateGlobalCoordinate();
     }
 
     /**
@@ -604,7 +526,7 @@ public abstract class CoreTab implements IGUITab
     @Override
     public ArrayList<String> getIconToolTipText()
     {
-        return (ArrayList<String>) Arrays.asList(new String[] {toolTipString});
+        return Lists.newArrayList(toolTipString);
     }
 
     /**
@@ -640,18 +562,13 @@ public abstract class CoreTab implements IGUITab
     @Override
     public boolean handleMouseWheel(final int relativeMouseX, @Nonnull final int relativeMouseY, @Nonnull final int deltaWheel)
     {
-        for (IGUIComponent component : components.values())
+        for (IGUIComponent component : getComponentsAt(relativeMouseX, relativeMouseY))
         {
-            final Plane plane = component.getSize().Move(component.getLocalCoordinate().getXComponent(), component.getLocalCoordinate().getYComponent());
-
-            if (plane.ContainsCoordinate(relativeMouseX, relativeMouseY))
+            if (component.handleMouseWheel(relativeMouseX - component.getLocalCoordinate().getXComponent(),
+              relativeMouseY - component.getLocalCoordinate().getYComponent(),
+              deltaWheel))
             {
-                if (component.handleMouseWheel(relativeMouseX - component.getLocalCoordinate().getXComponent(),
-                  relativeMouseY - component.getLocalCoordinate().getYComponent(),
-                  deltaWheel))
-                {
-                    return true;
-                }
+                return true;
             }
         }
 
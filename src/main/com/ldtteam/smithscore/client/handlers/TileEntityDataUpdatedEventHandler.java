@@ -30,6 +30,12 @@ public class TileEntityDataUpdatedEventHandler
             return;
         }
 
+        if (event.isDelta())
+        {
+            ((TileEntitySmithsCore) tileEntity).readFromDeltaSynchronizationCompound(event.getDataCompound());
+            return;
+        }
+
         ((TileEntitySmithsCore) tileEntity).readFromSynchronizationCompound(event.getDataCompound());
     }
 }
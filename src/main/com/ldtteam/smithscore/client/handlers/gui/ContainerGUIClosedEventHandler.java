@@ -33,6 +33,6 @@ public class ContainerGUIClosedEventHandler
         }
 
         ContainerSmithsCore container = (ContainerSmithsCore) event.getClosingPlayer().openContainer;
-        container.getManager().onGuiOpened(event.getPlayerID());
+        container.getManager().onGUIClosed(event.getPlayerID());
     }
 }
@@ -109,6 +109,13 @@ public class BakedMultiComponentModel implements IBakedModel
             this.modelType = modelType;
         }
 
+        @Nonnull
+        @Override
+        public String getComponentKey()
+        {
+            return modelType;
+        }
+
         @Override
         public boolean matchedItemStack(@Nonnull ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity)
         {
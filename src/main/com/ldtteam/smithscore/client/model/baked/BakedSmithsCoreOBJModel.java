@@ -1,7 +1,9 @@
 package com.ldtteam.smithscore.client.model.baked;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -37,6 +39,8 @@ import java.util.*;
  */
 public class BakedSmithsCoreOBJModel implements IBakedModel
 {
+    private static final int QUAD_CACHE_SIZE = 64;
+
     private final SmithsCoreOBJModel                       model;
     private final VertexFormat                             format;
     private       IModelState                              state;
@@ -51,6 +55,12 @@ public class BakedSmithsCoreOBJModel implements IBakedModel
               return new BakedSmithsCoreOBJModel(model, state, format, textures);
           }
       });
+    /**
+     * The quads of every state that has been rendered, keyed by a copy of the state so that later changes to the
+     * state of a block do not change the key.
+     */
+    private final Cache<SmithsCoreOBJState, ImmutableList<BakedQuad>> quadCache =
+      CacheBuilder.newBuilder().maximumSize(QUAD_CACHE_SIZE).recordStats().build();
     private       TextureAtlasSprite                                 sprite = ModelLoader.White.INSTANCE;
 
     public BakedSmithsCoreOBJModel(
@@ -123,18 +133,51 @@ public class BakedSmithsCoreOBJModel implements IBakedModel
                 SmithsCoreOBJState newState = exState.getValue(CoreReferences.BlockStateProperties.Unlisted.OBJSTATE);
                 if (newState != null)
                 {
-                    return buildQuads(newState);
+                    return getQuadsForState(newState);
                 }
             }
         }
         return quads;
     }
 
+    /**
+     * Returns the quads for the given state, building them only the first time an equal state is rendered.
+     * The quads are build from a copy of the state, as building them updates the visibility map of the state.
+     *
+     * @param state The state of the block that is rendered.
+     * @return The quads for the state.
+     */
+    @Nonnull
+    private ImmutableList<BakedQuad> getQuadsForState(@Nonnull SmithsCoreOBJState state)
+    {
+        ImmutableList<BakedQuad> stateQuads = quadCache.getIfPresent(state);
+        if (stateQuads != null)
+        {
+            return stateQuads;
+        }
+
+        SmithsCoreOBJState key = new SmithsCoreOBJState(state);
+        stateQuads = buildQuads(new SmithsCoreOBJState(state));
+        quadCache.put(key, stateQuads);
+
+        return stateQuads;
+    }
+
+    /**
+     * Returns the hit and miss statistics of the cache that holds the quads of every rendered state.
+     *
+     * @return The statistics of the quad cache.
+     */
+    @Nonnull
+    public CacheStats getQuadCacheStats()
+    {
+        return quadCache.stats();
+    }
+
     @Nonnull
     private ImmutableList<BakedQuad> buildQuads(@Nonnull IModelState modelState)
     {
         List<BakedQuad> quads = Lists.newArrayList();
-        Collections.synchronizedSet(new LinkedHashSet<BakedQuad>());
         Set<SmithsCoreOBJFace> faces = Collections.synchronizedSet(new LinkedHashSet<SmithsCoreOBJFace>());
         Optional<TRSRTransformation> transform = Optional.empty();
         for (SmithsCoreOBJGroup g : this.model.getMatLib().getGroups().values())
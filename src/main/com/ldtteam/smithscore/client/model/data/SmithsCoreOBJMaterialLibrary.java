@@ -27,6 +27,8 @@ public class SmithsCoreOBJMaterialLibrary
     @Nonnull
     private              Map<String, SmithsCoreOBJMaterial> materials               = new HashMap<String, SmithsCoreOBJMaterial>();
     private              Map<String, SmithsCoreOBJGroup>    groups                  = new HashMap<String, SmithsCoreOBJGroup>();
+    @Nonnull
+    private              List<ResourceLocation>             sourceLocations         = new ArrayList<ResourceLocation>();
     private InputStreamReader mtlStream;
     private BufferedReader    mtlReader;
 
@@ -88,6 +90,7 @@ public class SmithsCoreOBJMaterialLibrary
         ret.unknownMaterialCommands = this.unknownMaterialCommands;
         ret.materials = mats;
         ret.groups = this.groups;
+        ret.sourceLocations = this.sourceLocations;
         ret.mtlStream = this.mtlStream;
         ret.mtlReader = this.mtlReader;
 //            ret.minUVBounds = this.minUVBounds;
@@ -119,6 +122,17 @@ public class SmithsCoreOBJMaterialLibrary
         return this.groups;
     }
 
+    /**
+     * Returns the locations of the .mtl files this library has been read from.
+     *
+     * @return The locations of the parsed material files.
+     */
+    @Nonnull
+    public List<ResourceLocation> getSourceLocations()
+    {
+        return sourceLocations;
+    }
+
     @Nonnull
     public Set<String> getUnknownMaterialCommands()
     {
@@ -189,6 +203,7 @@ public class SmithsCoreOBJMaterialLibrary
         {
             path = from.getResourcePath().substring(0, from.getResourcePath().lastIndexOf("/") + 1) + path;
         }
+        sourceLocations.add(new ResourceLocation(domain, path));
         mtlStream = new InputStreamReader(manager.getResource(new ResourceLocation(domain, path)).getInputStream(), Charsets.UTF_8);
         mtlReader = new BufferedReader(mtlStream);
 
@@ -0,0 +1,235 @@
+package com.ldtteam.smithscore.client.model.deserializers;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Splits a single line of an OBJ file into its tokens, without creating a String for every token.
+ * <p>
+ * Numbers are read straight from the line. Floats that have at most 7 significant digits and no exponent, which is
+ * what exporters write, are converted without going through {@link Float#parseFloat(String)}. The result of that
+ * conversion is exact, as both the digits and the power of ten are representable as a float.
+ */
+final class OBJLineTokenizer
+{
+
+    private static final float[] POWERS_OF_TEN = {1e0F, 1e1F, 1e2F, 1e3F, 1e4F, 1e5F, 1e6F, 1e7F, 1e8F, 1e9F, 1e10F};
+
+    private static final int MAX_EXACT_MANTISSA = 1 << 24;
+
+    private String line       = "";
+    private int    position   = 0;
+    private int    tokenStart = 0;
+    private int    tokenEnd   = 0;
+
+    /**
+     * Starts tokenizing the given line.
+     *
+     * @param line The line to tokenize.
+     */
+    void reset(@Nonnull String line)
+    {
+        this.line = line;
+        this.position = 0;
+        this.tokenStart = 0;
+        this.tokenEnd = 0;
+    }
+
+    /**
+     * Indicates if the line contains another token.
+     *
+     * @return True when there is another token, false when only whitespace remains.
+     */
+    boolean hasNext()
+    {
+        skipWhitespace();
+        return position < line.length();
+    }
+
+    /**
+     * Moves to the next token.
+     *
+     * @return True when there was another token, false when the line has ended.
+     */
+    boolean nextToken()
+    {
+        if (!hasNext())
+        {
+            return false;
+        }
+
+        tokenStart = position;
+        while (position < line.length() && !Character.isWhitespace(line.charAt(position)))
+        {
+            position++;
+        }
+        tokenEnd = position;
+
+        return true;
+    }
+
+    boolean tokenEquals(@Nonnull String value)
+    {
+        return tokenEnd - tokenStart == value.length() && line.regionMatches(true, tokenStart, value, 0, value.length());
+    }
+
+    boolean tokenStartsWith(char value)
+    {
+        return tokenEnd > tokenStart && line.charAt(tokenStart) == value;
+    }
+
+    @Nonnull
+    String token()
+    {
+        return line.substring(tokenStart, tokenEnd);
+    }
+
+    /**
+     * Returns the rest of the line, without the surrounding whitespace.
+     *
+     * @return The rest of the line, or an empty string when the line has ended.
+     */
+    @Nonnull
+    String remainder()
+    {
+        skipWhitespace();
+
+        int end = line.length();
+        while (end > position && Character.isWhitespace(line.charAt(end - 1)))
+        {
+            end--;
+        }
+
+        String remainder = line.substring(position, end);
+        position = line.length();
+
+        return remainder;
+    }
+
+    /**
+     * Reads the next token as a float.
+     *
+     * @return The value of the token.
+     */
+    float nextFloat()
+    {
+        if (!nextToken())
+        {
+            throw new IllegalArgumentException("Expected a number at the end of the line.");
+        }
+
+        int index = tokenStart;
+        boolean negative = false;
+        char first = line.charAt(index);
+        if (first == '-' || first == '+')
+        {
+            negative = first == '-';
+            index++;
+        }
+
+        int mantissa = 0;
+        int fractionDigits = 0;
+        boolean hasDigits = false;
+        boolean inFraction = false;
+
+        for (; index < tokenEnd; index++)
+        {
+            char current = line.charAt(index);
+            if (current >= '0' && current <= '9')
+            {
+                mantissa = mantissa * 10 + (current - '0');
+                hasDigits = true;
+
+                if (inFraction)
+                {
+                    fractionDigits++;
+                }
+
+                if (mantissa >= MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length)
+                {
+                    return Float.parseFloat(token());
+                }
+            }
+            else if (current == '.' && !inFraction)
+            {
+                inFraction = true;
+            }
+            else
+            {
+                return Float.parseFloat(token());
+            }
+        }
+
+        if (!hasDigits)
+        {
+            return Float.parseFloat(token());
+        }
+
+        float value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the next face corner, in the form v[/vt][/vn], into the given array.
+     * Indices that are not present are stored as 0, which is not a valid OBJ index.
+     *
+     * @param indices The array to store the vertex, texture coordinate and normal index in.
+     * @param offset  The index at which the vertex index is stored.
+     */
+    void nextFaceCorner(@Nonnull int[] indices, int offset)
+    {
+        if (!nextToken())
+        {
+            throw new IllegalArgumentException("Expected a face corner at the end of the line.");
+        }
+
+        int index = tokenStart;
+        for (int component = 0; component < 3; component++)
+        {
+            int value = 0;
+            boolean negative = false;
+            boolean hasDigits = false;
+
+            if (index < tokenEnd && line.charAt(index) == '-')
+            {
+                negative = true;
+                index++;
+            }
+
+            while (index < tokenEnd && line.charAt(index) != '/')
+            {
+                char current = line.charAt(index);
+                if (current < '0' || current > '9')
+                {
+                    throw new NumberFormatException("For input string: \"" + token() + "\"");
+                }
+
+                value = value * 10 + (current - '0');
+                hasDigits = true;
+                index++;
+            }
+
+            if (component == 0 && !hasDigits)
+            {
+                throw new NumberFormatException("For input string: \"" + token() + "\"");
+            }
+
+            indices[offset + component] = negative ? -value : value;
+
+            //Skip the separator.
+            index++;
+        }
+
+        if (index < tokenEnd)
+        {
+            throw new NumberFormatException("For input string: \"" + token() + "\"");
+        }
+    }
+
+    private void skipWhitespace()
+    {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position)))
+        {
+            position++;
+        }
+    }
+}
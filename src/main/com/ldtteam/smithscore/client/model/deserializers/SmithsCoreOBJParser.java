@@ -9,24 +9,28 @@ import net.minecraft.client.resources.IResource;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.util.ResourceLocation;
 import org.apache.logging.log4j.Level;
-import org.apache.logging.log4j.util.Strings;
 
 import javax.annotation.Nonnull;
 import javax.vecmath.Vector4f;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * Author Orion (Created on: 17.07.2016)
+ * <p>
+ * The positions, normals and texture coordinates are read into flat float arrays while parsing, the faces only
+ * reference them by index. Vertex objects are only created for the corners of the faces, and normals and texture
+ * coordinates only once they are used by a face.
  */
 public class SmithsCoreOBJParser
 {
-    private static final Pattern                      WHITE_SPACE           = Pattern.compile("\\s+");
+    private static final int INITIAL_CAPACITY = 64;
+
     @Nonnull
     private static       Set<String>                  unknownObjectCommands = new HashSet<String>();
     @Nonnull
@@ -37,13 +41,32 @@ public class SmithsCoreOBJParser
     private ResourceLocation  objFrom;
 
     @Nonnull
-    private List<String>                         groupList = Lists.newArrayList();
+    private List<String> groupList = Lists.newArrayList();
+
+    @Nonnull
+    private final OBJLineTokenizer tokenizer = new OBJLineTokenizer();
+
+    //x, y, z, w per vertex
+    @Nonnull
+    private float[]                          positions       = new float[INITIAL_CAPACITY * 4];
     @Nonnull
-    private List<SmithsCoreOBJVertex>            vertices  = Lists.newArrayList();
+    private SmithsCoreOBJMaterial[]          vertexMaterials = new SmithsCoreOBJMaterial[INITIAL_CAPACITY];
+    private int                              vertexCount     = 0;
+    //x, y, z per normal
     @Nonnull
-    private List<SmithsCoreOBJNormal>            normals   = Lists.newArrayList();
+    private float[]                          normalData      = new float[INITIAL_CAPACITY * 3];
     @Nonnull
-    private List<SmithsCoreOBJTextureCoordinate> texCoords = Lists.newArrayList();
+    private SmithsCoreOBJNormal[]            normals         = new SmithsCoreOBJNormal[INITIAL_CAPACITY];
+    private int                              normalCount     = 0;
+    //u, v, w per texture coordinate
+    @Nonnull
+    private float[]                          texCoordData    = new float[INITIAL_CAPACITY * 3];
+    @Nonnull
+    private SmithsCoreOBJTextureCoordinate[] texCoords       = new SmithsCoreOBJTextureCoordinate[INITIAL_CAPACITY];
+    private int                              texCoordCount   = 0;
+    //vertex, texture coordinate, normal index per face corner
+    @Nonnull
+    private int[]                            faceIndices     = new int[4 * 3];
 
     public SmithsCoreOBJParser(@Nonnull IResource from, @Nonnull IResourceManager manager) throws IOException
     {
@@ -77,131 +100,47 @@ public class SmithsCoreOBJParser
             {
                 break;
             }
-            currentLine.trim();
-            if (currentLine.isEmpty() || currentLine.startsWith("#"))
+
+            tokenizer.reset(currentLine);
+            if (!tokenizer.nextToken() || tokenizer.tokenStartsWith('#'))
             {
                 continue;
             }
 
             try
             {
-                String[] fields = WHITE_SPACE.split(currentLine, 2);
-                String key = fields[0];
-                String data = fields[1];
-                String[] splitData = WHITE_SPACE.split(data);
-
-                if (key.equalsIgnoreCase("mtllib"))
+                if (tokenizer.tokenEquals("mtllib"))
                 {
-                    this.materialLibrary.parseMaterials(manager, data, objFrom);
+                    this.materialLibrary.parseMaterials(manager, tokenizer.remainder(), objFrom);
                 }
-                else if (key.equalsIgnoreCase("usemtl"))
+                else if (tokenizer.tokenEquals("usemtl"))
                 {
-                    material = this.materialLibrary.getMaterials().get(data);
+                    material = this.materialLibrary.getMaterials().get(tokenizer.remainder());
                     usemtlCounter++;
                 }
-                else if (key.equalsIgnoreCase("v")) // Vertices: x y z [w] - w Defaults to 1.0
+                else if (tokenizer.tokenEquals("v")) // Vertices: x y z [w] - w Defaults to 1.0
                 {
-                    float[] coords = parseFloats(splitData);
-                    Vector4f pos = new Vector4f(coords[0], coords[1], coords[2], coords.length == 4 ? coords[3] : 1.0F);
-                    this.vertices.add(new SmithsCoreOBJVertex(pos, material));
+                    parseVertex(material);
                 }
-                else if (key.equalsIgnoreCase("vn")) // Vertex normals: x y z
+                else if (tokenizer.tokenEquals("vn")) // Vertex normals: x y z
                 {
-                    this.normals.add(new SmithsCoreOBJNormal(parseFloats(splitData)));
+                    parseNormal();
                 }
-                else if (key.equalsIgnoreCase("vt")) // Vertex Textures: u [v] [w] - v/w Defaults to 0
+                else if (tokenizer.tokenEquals("vt")) // Vertex Textures: u [v] [w] - v/w Defaults to 0
                 {
-                    float[] coords = parseFloats(splitData);
-                    SmithsCoreOBJTextureCoordinate texCoord = new SmithsCoreOBJTextureCoordinate(coords[0],
-                      coords.length >= 2 ? coords[1] : 0.0F,
-                      coords.length >= 3 ? coords[2] : 0.0F);
-                    if (texCoord.u < 0.0f || texCoord.u > 1.0f || texCoord.v < 0.0f || texCoord.v > 1.0f)
-                    {
-                        throw new SmithsCoreOBJModel.UVsOutOfBoundsException(this.objFrom);
-                    }
-                    this.texCoords.add(texCoord);
+                    parseTextureCoordinate();
                 }
-                else if (key.equalsIgnoreCase("f")) // Face Elements: f v1[/vt1][/vn1] ...
+                else if (tokenizer.tokenEquals("f")) // Face Elements: f v1[/vt1][/vn1] ...
                 {
-                    if (splitData.length > 4)
-                    {
-                        if (SmithsCore.isInDevEnvironment())
-                        {
-                            SmithsCore.getLogger()
-                              .log(Level.WARN, "OBJModel.Parser: found a face ('f') with more than 4 vertices, only the first 4 of these vertices will be rendered!");
-                        }
-                    }
-
-                    List<SmithsCoreOBJVertex> v = Lists.newArrayListWithCapacity(splitData.length);
-
-                    for (int i = 0; i < splitData.length; i++)
-                    {
-                        String[] pts = splitData[i].split("/");
-
-                        int vert = Integer.parseInt(pts[0]);
-                        Integer texture = pts.length < 2 || Strings.isEmpty(pts[1]) ? null : Integer.parseInt(pts[1]);
-                        Integer normal = pts.length < 3 || Strings.isEmpty(pts[2]) ? null : Integer.parseInt(pts[2]);
-
-                        vert = vert < 0 ? this.vertices.size() - 1 : vert - 1;
-                        SmithsCoreOBJVertex newV = new SmithsCoreOBJVertex(new Vector4f(this.vertices.get(vert).getPos()), this.vertices.get(vert).getMaterial());
-
-                        if (texture != null)
-                        {
-                            newV.setTextureCoordinate(this.texCoords.get(texture < 0 ? this.texCoords.size() - 1 : texture - 1));
-                        }
-                        if (normal != null)
-                        {
-                            newV.setNormal(this.normals.get(normal < 0 ? this.normals.size() - 1 : normal - 1));
-                        }
-
-                        v.add(newV);
-                    }
-
-                    SmithsCoreOBJVertex[] va = v.toArray(new SmithsCoreOBJVertex[v.size()]);
-
-                    SmithsCoreOBJFace face = new SmithsCoreOBJFace(va, material.getName());
-                    if (usemtlCounter < this.vertices.size())
-                    {
-                        for (SmithsCoreOBJVertex ver : face.getVertices())
-                        {
-                            ver.setMaterial(material);
-                        }
-                    }
-
-                    if (groupList.isEmpty())
-                    {
-                        if (this.materialLibrary.getGroups().containsKey(SmithsCoreOBJGroup.DEFAULT_NAME))
-                        {
-                            this.materialLibrary.getGroups().get(SmithsCoreOBJGroup.DEFAULT_NAME).addFace(face);
-                        }
-                        else
-                        {
-                            SmithsCoreOBJGroup def = new SmithsCoreOBJGroup(SmithsCoreOBJGroup.DEFAULT_NAME, null);
-                            def.addFace(face);
-                            this.materialLibrary.getGroups().put(SmithsCoreOBJGroup.DEFAULT_NAME, def);
-                        }
-                    }
-                    else
-                    {
-                        for (String s : groupList)
-                        {
-                            if (this.materialLibrary.getGroups().containsKey(s))
-                            {
-                                this.materialLibrary.getGroups().get(s).addFace(face);
-                            }
-                            else
-                            {
-                                SmithsCoreOBJGroup e = new SmithsCoreOBJGroup(s, null);
-                                e.addFace(face);
-                                this.materialLibrary.getGroups().put(s, e);
-                            }
-                        }
-                    }
+                    addFace(parseFace(material, usemtlCounter));
                 }
-                else if (key.equalsIgnoreCase("g") || key.equalsIgnoreCase("o"))
+                else if (tokenizer.tokenEquals("g") || tokenizer.tokenEquals("o"))
                 {
+                    boolean isGroup = tokenizer.tokenEquals("g");
+                    String data = tokenizer.remainder();
+
                     groupList.clear();
-                    if (key.equalsIgnoreCase("g"))
+                    if (isGroup)
                     {
                         String[] splitSpace = data.split(" ");
                         for (String s : splitSpace)
@@ -216,6 +155,7 @@ public class SmithsCoreOBJParser
                 }
                 else
                 {
+                    String key = tokenizer.token();
                     if (!unknownObjectCommands.contains(key))
                     {
                         unknownObjectCommands.add(key);
@@ -237,14 +177,195 @@ public class SmithsCoreOBJParser
         return new SmithsCoreOBJModel(this.materialLibrary, this.objFrom);
     }
 
+    private void parseVertex(@Nonnull SmithsCoreOBJMaterial material)
+    {
+        if (vertexCount == vertexMaterials.length)
+        {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+            vertexMaterials = Arrays.copyOf(vertexMaterials, vertexMaterials.length * 2);
+        }
+
+        int offset = vertexCount * 4;
+        positions[offset] = tokenizer.nextFloat();
+        positions[offset + 1] = tokenizer.nextFloat();
+        positions[offset + 2] = tokenizer.nextFloat();
+        positions[offset + 3] = tokenizer.hasNext() ? tokenizer.nextFloat() : 1.0F;
+        vertexMaterials[vertexCount] = material;
+
+        vertexCount++;
+    }
+
+    private void parseNormal()
+    {
+        if (normalCount == normals.length)
+        {
+            normalData = Arrays.copyOf(normalData, normalData.length * 2);
+            normals = Arrays.copyOf(normals, normals.length * 2);
+        }
+
+        int offset = normalCount * 3;
+        normalData[offset] = tokenizer.nextFloat();
+        normalData[offset + 1] = tokenizer.nextFloat();
+        normalData[offset + 2] = tokenizer.nextFloat();
+
+        normalCount++;
+    }
+
+    private void parseTextureCoordinate()
+    {
+        if (texCoordCount == texCoords.length)
+        {
+            texCoordData = Arrays.copyOf(texCoordData, texCoordData.length * 2);
+            texCoords = Arrays.copyOf(texCoords, texCoords.length * 2);
+        }
+
+        float u = tokenizer.nextFloat();
+        float v = tokenizer.hasNext() ? tokenizer.nextFloat() : 0.0F;
+        float w = tokenizer.hasNext() ? tokenizer.nextFloat() : 0.0F;
+
+        if (u < 0.0f || u > 1.0f || v < 0.0f || v > 1.0f)
+        {
+            throw new SmithsCoreOBJModel.UVsOutOfBoundsException(this.objFrom);
+        }
+
+        int offset = texCoordCount * 3;
+        texCoordData[offset] = u;
+        texCoordData[offset + 1] = v;
+        texCoordData[offset + 2] = w;
+
+        texCoordCount++;
+    }
+
+    @Nonnull
+    private SmithsCoreOBJFace parseFace(@Nonnull SmithsCoreOBJMaterial material, int usemtlCounter)
+    {
+        int cornerCount = 0;
+        while (tokenizer.hasNext())
+        {
+            if ((cornerCount + 1) * 3 > faceIndices.length)
+            {
+                faceIndices = Arrays.copyOf(faceIndices, faceIndices.length * 2);
+            }
+
+            tokenizer.nextFaceCorner(faceIndices, cornerCount * 3);
+            cornerCount++;
+        }
+
+        if (cornerCount > 4)
+        {
+            if (SmithsCore.isInDevEnvironment())
+            {
+                SmithsCore.getLogger()
+                  .log(Level.WARN, "OBJModel.Parser: found a face ('f') with more than 4 vertices, only the first 4 of these vertices will be rendered!");
+            }
+        }
+
+        SmithsCoreOBJVertex[] va = new SmithsCoreOBJVertex[cornerCount];
+        for (int i = 0; i < cornerCount; i++)
+        {
+            int vert = resolveIndex(faceIndices[i * 3], vertexCount);
+            int texture = faceIndices[i * 3 + 1];
+            int normal = faceIndices[i * 3 + 2];
+
+            int offset = vert * 4;
+            SmithsCoreOBJVertex newV = new SmithsCoreOBJVertex(new Vector4f(positions[offset], positions[offset + 1], positions[offset + 2], positions[offset + 3]),
+              vertexMaterials[vert]);
+
+            if (texture != 0)
+            {
+                newV.setTextureCoordinate(getTextureCoordinate(resolveIndex(texture, texCoordCount)));
+            }
+            if (normal != 0)
+            {
+                newV.setNormal(getNormal(resolveIndex(normal, normalCount)));
+            }
+
+            va[i] = newV;
+        }
+
+        SmithsCoreOBJFace face = new SmithsCoreOBJFace(va, material.getName());
+        if (usemtlCounter < vertexCount)
+        {
+            for (SmithsCoreOBJVertex ver : face.getVertices())
+            {
+                ver.setMaterial(material);
+            }
+        }
+
+        return face;
+    }
+
+    private void addFace(@Nonnull SmithsCoreOBJFace face)
+    {
+        if (groupList.isEmpty())
+        {
+            if (this.materialLibrary.getGroups().containsKey(SmithsCoreOBJGroup.DEFAULT_NAME))
+            {
+                this.materialLibrary.getGroups().get(SmithsCoreOBJGroup.DEFAULT_NAME).addFace(face);
+            }
+            else
+            {
+                SmithsCoreOBJGroup def = new SmithsCoreOBJGroup(SmithsCoreOBJGroup.DEFAULT_NAME, null);
+                def.addFace(face);
+                this.materialLibrary.getGroups().put(SmithsCoreOBJGroup.DEFAULT_NAME, def);
+            }
+        }
+        else
+        {
+            for (String s : groupList)
+            {
+                if (this.materialLibrary.getGroups().containsKey(s))
+                {
+                    this.materialLibrary.getGroups().get(s).addFace(face);
+                }
+                else
+                {
+                    SmithsCoreOBJGroup e = new SmithsCoreOBJGroup(s, null);
+                    e.addFace(face);
+                    this.materialLibrary.getGroups().put(s, e);
+                }
+            }
+        }
+    }
+
     @Nonnull
-    private float[] parseFloats(@Nonnull String[] data) // Helper converting strings to floats
+    private SmithsCoreOBJNormal getNormal(int index)
     {
-        float[] ret = new float[data.length];
-        for (int i = 0; i < data.length; i++)
+        if (normals[index] == null)
         {
-            ret[i] = Float.parseFloat(data[i]);
+            normals[index] = new SmithsCoreOBJNormal(normalData[index * 3], normalData[index * 3 + 1], normalData[index * 3 + 2]);
         }
-        return ret;
+
+        return normals[index];
+    }
+
+    @Nonnull
+    private SmithsCoreOBJTextureCoordinate getTextureCoordinate(int index)
+    {
+        if (texCoords[index] == null)
+        {
+            texCoords[index] = new SmithsCoreOBJTextureCoordinate(texCoordData[index * 3], texCoordData[index * 3 + 1], texCoordData[index * 3 + 2]);
+        }
+
+        return texCoords[index];
+    }
+
+    /**
+     * Converts an OBJ index, which starts at 1 or counts backwards from the last element when negative, to an array
+     * index.
+     *
+     * @param index The index from the file.
+     * @param count The amount of elements read so far.
+     * @return The index into the arrays.
+     */
+    private static int resolveIndex(int index, int count)
+    {
+        int resolved = index < 0 ? count + index : index - 1;
+        if (resolved < 0 || resolved >= count)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+
+        return resolved;
     }
 }
@@ -10,6 +10,7 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.client.model.ICustomModelLoader;
 import net.minecraftforge.client.model.IModel;
 import net.minecraftforge.client.model.ModelLoaderRegistry;
+import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Level;
 
 import javax.annotation.Nonnull;
@@ -28,6 +29,7 @@ public enum SmithsCoreOBJLoader implements ICustomModelLoader
     private final HashSet<String>                           enabledDomains = new HashSet<String>();
     private final Map<ResourceLocation, SmithsCoreOBJModel> cache          = new HashMap<>();
     private final Map<ResourceLocation, Exception>          errors         = new HashMap<>();
+    private final SmithsCoreOBJModelCache                   compiledCache  = new SmithsCoreOBJModelCache();
     private IResourceManager manager;
 
     public void addDomain(@Nonnull String domain)
@@ -62,11 +64,19 @@ public enum SmithsCoreOBJLoader implements ICustomModelLoader
             {
                 return ModelLoaderRegistry.getMissingModel();
             }
+            SmithsCoreOBJModel model = compiledCache.load(file, manager);
+            if (model != null)
+            {
+                IOUtils.closeQuietly(resource);
+                cache.put(modelLocation, model);
+                return model;
+            }
+
             SmithsCoreOBJParser parser = new SmithsCoreOBJParser(resource, manager);
-            SmithsCoreOBJModel model = null;
             try
             {
                 model = parser.parse();
+                compiledCache.store(file, model, manager);
             }
             catch (Exception e)
             {
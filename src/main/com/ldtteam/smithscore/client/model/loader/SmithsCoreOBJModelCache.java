@@ -0,0 +1,494 @@
+package com.ldtteam.smithscore.client.model.loader;
+
+import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.client.model.data.*;
+import com.ldtteam.smithscore.client.model.unbaked.SmithsCoreOBJModel;
+import com.ldtteam.smithscore.util.CoreReferences;
+import net.minecraft.client.resources.IResource;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.Loader;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.Level;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.vecmath.Vector2f;
+import javax.vecmath.Vector4f;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On disk cache of parsed OBJ models, stored in a compact binary format.
+ * <p>
+ * Every entry is stored under the location of the .obj file, together with a hash of the .obj file and all .mtl files
+ * it uses. A cached model is only used when the hash still matches the current resources, in which case the text
+ * parsing is skipped completely. Entries are read into memory completely instead of being memory mapped, so the file
+ * is not locked while the entry is replaced.
+ */
+public final class SmithsCoreOBJModelCache
+{
+
+    private static final int MAGIC          = 0x53434F4D;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int NO_MATERIAL = -1;
+
+    private static final byte HAS_NORMAL             = 1;
+    private static final byte HAS_TEXTURE_COORDINATE = 1 << 1;
+
+    @Nullable
+    private File directory;
+
+    /**
+     * Reads the cached version of the given model, if it is still up to date.
+     *
+     * @param modelLocation The location of the .obj file.
+     * @param manager       The resource manager to read the current source files from.
+     * @return The cached model, or null when there is no valid entry.
+     */
+    @Nullable
+    public SmithsCoreOBJModel load(@Nonnull ResourceLocation modelLocation, @Nonnull IResourceManager manager)
+    {
+        File entryFile = getEntryFile(modelLocation);
+        if (!entryFile.isFile())
+        {
+            return null;
+        }
+
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(entryFile.toPath()));
+
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+            {
+                return null;
+            }
+
+            if (!modelLocation.toString().equals(readString(buffer)))
+            {
+                return null;
+            }
+
+            byte[] storedHash = new byte[readCount(buffer, 1)];
+            buffer.get(storedHash);
+
+            List<ResourceLocation> sourceLocations = new ArrayList<>();
+            int sourceCount = readCount(buffer, 4);
+            for (int i = 0; i < sourceCount; i++)
+            {
+                sourceLocations.add(new ResourceLocation(readString(buffer)));
+            }
+
+            byte[] currentHash = hashSources(modelLocation, sourceLocations, manager);
+            if (currentHash == null || !MessageDigest.isEqual(storedHash, currentHash))
+            {
+                return null;
+            }
+
+            return readModel(buffer, modelLocation, sourceLocations);
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            SmithsCore.getLogger().log(Level.WARN, CoreReferences.LogMarkers.CLIENT, "Failed to read the cached model: " + modelLocation + " it will be parsed again.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the given freshly parsed model in the cache.
+     *
+     * @param modelLocation The location of the .obj file.
+     * @param model         The parsed model.
+     * @param manager       The resource manager to read the source files from.
+     */
+    public void store(@Nonnull ResourceLocation modelLocation, @Nonnull SmithsCoreOBJModel model, @Nonnull IResourceManager manager)
+    {
+        List<ResourceLocation> sourceLocations = model.getMatLib().getSourceLocations();
+        byte[] hash = hashSources(modelLocation, sourceLocations, manager);
+        if (hash == null)
+        {
+            return;
+        }
+
+        File entryFile = getEntryFile(modelLocation);
+
+        try
+        {
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+            DataOutputStream outputStream = new DataOutputStream(byteStream);
+
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(FORMAT_VERSION);
+            writeString(outputStream, modelLocation.toString());
+            outputStream.writeInt(hash.length);
+            outputStream.write(hash);
+            outputStream.writeInt(sourceLocations.size());
+            for (ResourceLocation sourceLocation : sourceLocations)
+            {
+                writeString(outputStream, sourceLocation.toString());
+            }
+
+            writeModel(outputStream, model.getMatLib());
+            outputStream.flush();
+
+            File directory = entryFile.getParentFile();
+            if (!directory.exists() && !directory.mkdirs())
+            {
+                throw new IOException("Failed to create the model cache directory: " + directory.getPath());
+            }
+
+            File temporaryFile = new File(directory, entryFile.getName() + ".tmp");
+            Files.write(temporaryFile.toPath(), byteStream.toByteArray());
+
+            try
+            {
+                Files.move(temporaryFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException ex)
+            {
+                Files.move(temporaryFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            SmithsCore.getLogger().log(Level.WARN, CoreReferences.LogMarkers.CLIENT, "Failed to cache the model: " + modelLocation, ex);
+        }
+    }
+
+    @Nonnull
+    private File getEntryFile(@Nonnull ResourceLocation modelLocation)
+    {
+        if (directory == null)
+        {
+            directory = new File(Loader.instance().getConfigDir().getParentFile(), "smithscore/modelcache");
+        }
+
+        return new File(directory, toHex(digest(modelLocation.toString().getBytes(StandardCharsets.UTF_8))) + ".bin");
+    }
+
+    @Nullable
+    private static byte[] hashSources(@Nonnull ResourceLocation modelLocation, @Nonnull List<ResourceLocation> sourceLocations, @Nonnull IResourceManager manager)
+    {
+        MessageDigest digest = createDigest();
+
+        try
+        {
+            updateDigest(digest, modelLocation, manager);
+            for (ResourceLocation sourceLocation : sourceLocations)
+            {
+                updateDigest(digest, sourceLocation, manager);
+            }
+        }
+        catch (IOException ex)
+        {
+            return null;
+        }
+
+        return digest.digest();
+    }
+
+    private static void updateDigest(@Nonnull MessageDigest digest, @Nonnull ResourceLocation location, @Nonnull IResourceManager manager) throws IOException
+    {
+        try (IResource resource = manager.getResource(location))
+        {
+            byte[] content = IOUtils.toByteArray(resource.getInputStream());
+            digest.update(location.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(content);
+        }
+    }
+
+    @Nonnull
+    private static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException ex)
+        {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM.", ex);
+        }
+    }
+
+    @Nonnull
+    private static byte[] digest(@Nonnull byte[] data)
+    {
+        return createDigest().digest(data);
+    }
+
+    @Nonnull
+    private static String toHex(@Nonnull byte[] data)
+    {
+        StringBuilder builder = new StringBuilder(data.length * 2);
+        for (byte b : data)
+        {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+
+    private static void writeModel(@Nonnull DataOutputStream outputStream, @Nonnull SmithsCoreOBJMaterialLibrary library) throws IOException
+    {
+        //Materials are shared between the library and the vertices, so they are written once and referenced by index.
+        Map<SmithsCoreOBJMaterial, Integer> materialIndices = new IdentityHashMap<>();
+        List<SmithsCoreOBJMaterial> materials = new ArrayList<>();
+        Map<SmithsCoreOBJFace, Integer> faceIndices = new IdentityHashMap<>();
+        List<SmithsCoreOBJFace> faces = new ArrayList<>();
+
+        for (SmithsCoreOBJMaterial material : library.getMaterials().values())
+        {
+            indexMaterial(material, materialIndices, materials);
+        }
+
+        for (SmithsCoreOBJGroup group : library.getGroups().values())
+        {
+            for (SmithsCoreOBJFace face : group.getFaces())
+            {
+                if (faceIndices.containsKey(face))
+                {
+                    continue;
+                }
+
+                faceIndices.put(face, faces.size());
+                faces.add(face);
+
+                for (SmithsCoreOBJVertex vertex : face.getVertices())
+                {
+                    indexMaterial(vertex.getMaterial(), materialIndices, materials);
+                }
+            }
+        }
+
+        outputStream.writeInt(materials.size());
+        for (SmithsCoreOBJMaterial material : materials)
+        {
+            writeString(outputStream, material.getName());
+            writeVector(outputStream, material.getColor());
+
+            SmithsCoreOBJTexture texture = material.getTexture();
+            outputStream.writeBoolean(texture == SmithsCoreOBJTexture.WHITE);
+            if (texture != SmithsCoreOBJTexture.WHITE)
+            {
+                writeString(outputStream, texture.getPath());
+                outputStream.writeFloat(texture.getPosition().x);
+                outputStream.writeFloat(texture.getPosition().y);
+                outputStream.writeFloat(texture.getScale().x);
+                outputStream.writeFloat(texture.getScale().y);
+                outputStream.writeFloat(texture.getRotation());
+            }
+        }
+
+        outputStream.writeInt(library.getMaterials().size());
+        for (Map.Entry<String, SmithsCoreOBJMaterial> entry : library.getMaterials().entrySet())
+        {
+            writeString(outputStream, entry.getKey());
+            outputStream.writeInt(entry.getValue() == null ? NO_MATERIAL : materialIndices.get(entry.getValue()));
+        }
+
+        outputStream.writeInt(faces.size());
+        for (SmithsCoreOBJFace face : faces)
+        {
+            writeString(outputStream, face.getMaterialName());
+            outputStream.writeBoolean(face.isTriangles());
+            outputStream.writeInt(face.isTriangles() ? 3 : face.getVertices().length);
+
+            for (int i = 0; i < (face.isTriangles() ? 3 : face.getVertices().length); i++)
+            {
+                SmithsCoreOBJVertex vertex = face.getVertices()[i];
+                writeVector(outputStream, vertex.getPos());
+                outputStream.writeInt(vertex.getMaterial() == null ? NO_MATERIAL : materialIndices.get(vertex.getMaterial()));
+
+                byte flags = 0;
+                if (vertex.hasNormal())
+                {
+                    flags |= HAS_NORMAL;
+                }
+                if (vertex.hasTextureCoordinate())
+                {
+                    flags |= HAS_TEXTURE_COORDINATE;
+                }
+                outputStream.writeByte(flags);
+
+                if (vertex.hasNormal())
+                {
+                    outputStream.writeFloat(vertex.getNormal().x);
+                    outputStream.writeFloat(vertex.getNormal().y);
+                    outputStream.writeFloat(vertex.getNormal().z);
+                }
+                if (vertex.hasTextureCoordinate())
+                {
+                    outputStream.writeFloat(vertex.getTextureCoordinate().u);
+                    outputStream.writeFloat(vertex.getTextureCoordinate().v);
+                    outputStream.writeFloat(vertex.getTextureCoordinate().w);
+                }
+            }
+        }
+
+        outputStream.writeInt(library.getGroups().size());
+        for (SmithsCoreOBJGroup group : library.getGroups().values())
+        {
+            writeString(outputStream, group.getName());
+            outputStream.writeInt(group.getFaces().size());
+            for (SmithsCoreOBJFace face : group.getFaces())
+            {
+                outputStream.writeInt(faceIndices.get(face));
+            }
+        }
+    }
+
+    @Nonnull
+    private static SmithsCoreOBJModel readModel(@Nonnull ByteBuffer buffer, @Nonnull ResourceLocation modelLocation, @Nonnull List<ResourceLocation> sourceLocations)
+    {
+        SmithsCoreOBJMaterial[] materials = new SmithsCoreOBJMaterial[readCount(buffer, 21)];
+        for (int i = 0; i < materials.length; i++)
+        {
+            String name = readString(buffer);
+            Vector4f color = readVector(buffer);
+
+            SmithsCoreOBJTexture texture = SmithsCoreOBJTexture.WHITE;
+            if (buffer.get() == 0)
+            {
+                texture = new SmithsCoreOBJTexture(readString(buffer),
+                  new Vector2f(buffer.getFloat(), buffer.getFloat()),
+                  new Vector2f(buffer.getFloat(), buffer.getFloat()),
+                  buffer.getFloat());
+            }
+
+            materials[i] = new SmithsCoreOBJMaterial(color, texture, name);
+        }
+
+        SmithsCoreOBJMaterialLibrary library = new SmithsCoreOBJMaterialLibrary();
+        library.getMaterials().clear();
+        library.getGroups().clear();
+        library.getSourceLocations().addAll(sourceLocations);
+
+        int libraryMaterialCount = readCount(buffer, 8);
+        for (int i = 0; i < libraryMaterialCount; i++)
+        {
+            String key = readString(buffer);
+            library.getMaterials().put(key, getMaterial(materials, buffer.getInt()));
+        }
+
+        SmithsCoreOBJFace[] faces = new SmithsCoreOBJFace[readCount(buffer, 9)];
+        for (int i = 0; i < faces.length; i++)
+        {
+            String materialName = readString(buffer);
+            buffer.get();
+
+            SmithsCoreOBJVertex[] vertices = new SmithsCoreOBJVertex[readCount(buffer, 21)];
+            for (int v = 0; v < vertices.length; v++)
+            {
+                SmithsCoreOBJVertex vertex = new SmithsCoreOBJVertex(readVector(buffer), getMaterial(materials, buffer.getInt()));
+
+                byte flags = buffer.get();
+                if ((flags & HAS_NORMAL) != 0)
+                {
+                    vertex.setNormal(new SmithsCoreOBJNormal(buffer.getFloat(), buffer.getFloat(), buffer.getFloat()));
+                }
+                if ((flags & HAS_TEXTURE_COORDINATE) != 0)
+                {
+                    vertex.setTextureCoordinate(new SmithsCoreOBJTextureCoordinate(buffer.getFloat(), buffer.getFloat(), buffer.getFloat()));
+                }
+
+                vertices[v] = vertex;
+            }
+
+            faces[i] = new SmithsCoreOBJFace(vertices, materialName);
+        }
+
+        int groupCount = readCount(buffer, 8);
+        for (int i = 0; i < groupCount; i++)
+        {
+            SmithsCoreOBJGroup group = new SmithsCoreOBJGroup(readString(buffer), null);
+
+            int faceCount = readCount(buffer, 4);
+            for (int f = 0; f < faceCount; f++)
+            {
+                group.addFace(faces[buffer.getInt()]);
+            }
+
+            library.getGroups().put(group.getName(), group);
+        }
+
+        return new SmithsCoreOBJModel(library, modelLocation);
+    }
+
+    private static void indexMaterial(
+      @Nullable SmithsCoreOBJMaterial material,
+      @Nonnull Map<SmithsCoreOBJMaterial, Integer> materialIndices,
+      @Nonnull List<SmithsCoreOBJMaterial> materials)
+    {
+        if (material == null || materialIndices.containsKey(material))
+        {
+            return;
+        }
+
+        materialIndices.put(material, materials.size());
+        materials.add(material);
+    }
+
+    @Nullable
+    private static SmithsCoreOBJMaterial getMaterial(@Nonnull SmithsCoreOBJMaterial[] materials, int index)
+    {
+        return index == NO_MATERIAL ? null : materials[index];
+    }
+
+    /**
+     * Reads the amount of elements that follow, and makes sure that the rest of the entry is large enough to hold them,
+     * so a damaged entry can not make the cache allocate huge arrays.
+     *
+     * @param buffer      The buffer to read from.
+     * @param elementSize The minimal amount of bytes a single element takes up.
+     * @return The amount of elements.
+     */
+    private static int readCount(@Nonnull ByteBuffer buffer, int elementSize)
+    {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / elementSize)
+        {
+            throw new IllegalStateException("The cache entry is damaged, it contains an invalid count: " + count);
+        }
+
+        return count;
+    }
+
+    private static void writeVector(@Nonnull DataOutputStream outputStream, @Nonnull Vector4f vector) throws IOException
+    {
+        outputStream.writeFloat(vector.x);
+        outputStream.writeFloat(vector.y);
+        outputStream.writeFloat(vector.z);
+        outputStream.writeFloat(vector.w);
+    }
+
+    @Nonnull
+    private static Vector4f readVector(@Nonnull ByteBuffer buffer)
+    {
+        return new Vector4f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+
+    private static void writeString(@Nonnull DataOutputStream outputStream, @Nonnull String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    @Nonnull
+    private static String readString(@Nonnull ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ldtteam.smithscore.client.model.overrides;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Implemented by items that are rendered with a MultiComponentModel, to tell the model which of its components should
+ * be rendered for a stack.
+ * <p>
+ * Items that do not implement this interface are resolved through the {@code ModelType} item property instead, which
+ * requires writing the requested component into the NBT of the stack for every component on every frame.
+ */
+public interface IMultiComponentItem
+{
+
+    /**
+     * Returns the key of the component that should be rendered for the given stack. Called on the render thread for
+     * every frame the stack is rendered in, so implementations should not modify the stack.
+     *
+     * @param stack  The stack that is rendered.
+     * @param world  The world the stack is rendered in, if any.
+     * @param entity The entity holding the stack, if any.
+     * @return The key of the component as used in the model file, or null to render the model without overrides.
+     */
+    @Nullable
+    String getActiveComponent(@Nonnull ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity);
+}
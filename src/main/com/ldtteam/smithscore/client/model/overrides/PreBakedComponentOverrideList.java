@@ -11,6 +11,8 @@ import net.minecraft.world.World;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Author Marc (Created on: 04.06.2016)
@@ -19,18 +21,37 @@ public class PreBakedComponentOverrideList extends ItemOverrideList
 {
 
     private final ImmutableList<PreBakedItemOverride> overrides;
+    //The model of every override with a component key, the first override wins just like in the linear search.
+    private final Map<String, IBakedModel>            componentModels = new HashMap<>();
 
     public PreBakedComponentOverrideList(@Nonnull ImmutableList<PreBakedItemOverride> overrides)
     {
         super(new ArrayList<>());
 
         this.overrides = overrides;
+
+        for (PreBakedItemOverride override : overrides)
+        {
+            if (override.getComponentKey() != null)
+            {
+                componentModels.putIfAbsent(override.getComponentKey(), override.getModel());
+            }
+        }
     }
 
     @Override
     @Nonnull
     public IBakedModel handleItemState(@Nonnull IBakedModel originalModel, @Nonnull ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity)
     {
+        //Items that know their component are resolved with a single lookup, without touching the stack.
+        if (stack.getItem() instanceof IMultiComponentItem)
+        {
+            String component = ((IMultiComponentItem) stack.getItem()).getActiveComponent(stack, world, entity);
+            IBakedModel model = component == null ? null : componentModels.get(component);
+
+            return model == null ? originalModel : model;
+        }
+
         for (PreBakedItemOverride override : overrides)
         {
             if (override.matchedItemStack(stack, world, entity))
@@ -46,9 +67,7 @@ public class PreBakedComponentOverrideList extends ItemOverrideList
     @Nonnull
     public ImmutableList<ItemOverride> getOverrides()
     {
-        ImmutableList.Builder<ItemOverride> overrideBuilder = new ImmutableList.Builder<>();
-        overrideBuilder.addAll(overrides);
-
-        return overrideBuilder.build();
+        //Returns the same list instead of copying it, as it is immutable anyway.
+        return ImmutableList.copyOf(overrides);
     }
 }
@@ -32,5 +32,16 @@ public abstract class PreBakedItemOverride extends ItemOverride
         return model;
     }
 
+    /**
+     * Returns the key under which this override can be looked up directly, without testing every override.
+     *
+     * @return The key of the override, or null when it can only be found through {@link #matchedItemStack}.
+     */
+    @Nullable
+    public String getComponentKey()
+    {
+        return null;
+    }
+
     public abstract boolean matchedItemStack(@Nonnull ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity);
 }
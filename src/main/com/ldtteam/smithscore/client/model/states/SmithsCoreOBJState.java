@@ -39,6 +39,18 @@ public class SmithsCoreOBJState implements IModelState
         }
     }
 
+    /**
+     * Creates a copy of the given state, that does not change when the given state changes.
+     *
+     * @param other The state to copy.
+     */
+    public SmithsCoreOBJState(@Nonnull SmithsCoreOBJState other)
+    {
+        this.parent = other.parent;
+        this.operation = other.operation;
+        this.visibilityMap.putAll(other.visibilityMap);
+    }
+
     @Nullable
     public IModelState getParent()
     {
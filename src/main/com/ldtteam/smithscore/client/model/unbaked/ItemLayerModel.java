@@ -1,7 +1,10 @@
 package com.ldtteam.smithscore.client.model.unbaked;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.ldtteam.smithscore.util.CoreReferences;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.renderer.block.model.*;
 import net.minecraft.client.renderer.block.model.ItemCameraTransforms.TransformType;
@@ -9,11 +12,15 @@ import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.client.event.TextureStitchEvent;
 import net.minecraftforge.client.model.IModel;
 import net.minecraftforge.client.model.PerspectiveMapWrapper;
 import net.minecraftforge.client.model.pipeline.UnpackedBakedQuad;
 import net.minecraftforge.common.model.IModelState;
 import net.minecraftforge.common.model.TRSRTransformation;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.Side;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
@@ -21,15 +28,23 @@ import javax.annotation.Nullable;
 import javax.vecmath.Matrix4f;
 import javax.vecmath.Vector4f;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Copy of Forges ItemLayerModel Class of Minecraft 1.9.
  * Removed the Final though.
+ * <p>
+ * The quads generated for a sprite are cached per sprite instance, as the same sprite is often used by the components
+ * of many models. The cache is cleared whenever the textures are stitched again.
  */
+@Mod.EventBusSubscriber(modid = CoreReferences.General.MOD_ID, value = Side.CLIENT)
 public class ItemLayerModel implements IModel
 {
     public static final ItemLayerModel INSTANCE = new ItemLayerModel(ImmutableList.of());
 
+    //Weak keys compare the sprites by identity, just like the TextureMap hands them out.
+    private static final Cache<TextureAtlasSprite, Map<QuadCacheKey, ImmutableList<BakedQuad>>> QUAD_CACHE = CacheBuilder.newBuilder().weakKeys().build();
+
     private final ImmutableList<ResourceLocation> textures;
     private final ItemOverrideList                overrides;
 
@@ -60,12 +75,39 @@ public class ItemLayerModel implements IModel
         return builder.build();
     }
 
+    /**
+     * Clears the generated quads, as the sprites they were generated for are replaced.
+     *
+     * @param event The event fired before a TextureMap is stitched.
+     */
+    @SubscribeEvent
+    public static void onTextureStitch(@Nonnull TextureStitchEvent.Pre event)
+    {
+        QUAD_CACHE.invalidateAll();
+    }
+
     @Nonnull
     public static ImmutableList<BakedQuad> getQuadsForSprite(
       int tint,
       @Nonnull TextureAtlasSprite sprite,
       @Nonnull VertexFormat format,
       @Nonnull Optional<TRSRTransformation> transform)
+    {
+        Map<QuadCacheKey, ImmutableList<BakedQuad>> spriteQuads = QUAD_CACHE.asMap().computeIfAbsent(sprite, key -> new ConcurrentHashMap<>());
+
+        return spriteQuads.computeIfAbsent(new QuadCacheKey(tint, format, transform), key -> buildQuadsForSprite(tint, sprite, format, transform));
+    }
+
+    /**
+     * Generates the quads of a sprite. The edges between transparent and opaque pixels of all frames are collected
+     * first, afterwards every run of adjacent edges facing the same side is merged into a single quad.
+     */
+    @Nonnull
+    private static ImmutableList<BakedQuad> buildQuadsForSprite(
+      int tint,
+      @Nonnull TextureAtlasSprite sprite,
+      @Nonnull VertexFormat format,
+      @Nonnull Optional<TRSRTransformation> transform)
     {
         ImmutableList.Builder<BakedQuad> builder = ImmutableList.builder();
 
@@ -87,26 +129,26 @@ public class ItemLayerModel implements IModel
                     boolean t = isTransparent(pixels, uMax, vMax, u, v);
                     if (ptu && !t) // left - transparent, right - opaque
                     {
-                        addSideQuad(builder, faces, format, transform, EnumFacing.WEST, tint, sprite, uMax, vMax, u, v);
+                        markFace(faces, EnumFacing.WEST, uMax, vMax, u, v);
                     }
                     if (!ptu && t) // left - opaque, right - transparent
                     {
-                        addSideQuad(builder, faces, format, transform, EnumFacing.EAST, tint, sprite, uMax, vMax, u, v);
+                        markFace(faces, EnumFacing.EAST, uMax, vMax, u, v);
                     }
                     if (ptv[u] && !t) // up - transparent, down - opaque
                     {
-                        addSideQuad(builder, faces, format, transform, EnumFacing.UP, tint, sprite, uMax, vMax, u, v);
+                        markFace(faces, EnumFacing.UP, uMax, vMax, u, v);
                     }
                     if (!ptv[u] && t) // up - opaque, down - transparent
                     {
-                        addSideQuad(builder, faces, format, transform, EnumFacing.DOWN, tint, sprite, uMax, vMax, u, v);
+                        markFace(faces, EnumFacing.DOWN, uMax, vMax, u, v);
                     }
                     ptu = t;
                     ptv[u] = t;
                 }
                 if (!ptu) // last - opaque
                 {
-                    addSideQuad(builder, faces, format, transform, EnumFacing.EAST, tint, sprite, uMax, vMax, uMax, v);
+                    markFace(faces, EnumFacing.EAST, uMax, vMax, uMax, v);
                 }
             }
             // last line
@@ -114,10 +156,13 @@ public class ItemLayerModel implements IModel
             {
                 if (!ptv[u])
                 {
-                    addSideQuad(builder, faces, format, transform, EnumFacing.DOWN, tint, sprite, uMax, vMax, u, vMax);
+                    markFace(faces, EnumFacing.DOWN, uMax, vMax, u, vMax);
                 }
             }
         }
+
+        addSideQuads(builder, faces, format, transform, tint, sprite, uMax, vMax);
+
         // front
         builder.add(buildQuad(format, transform, EnumFacing.NORTH, sprite, tint,
           0, 0, 7.5f / 16f, sprite.getMinU(), sprite.getMaxV(),
@@ -140,29 +185,83 @@ public class ItemLayerModel implements IModel
         return (pixels[u + (vMax - 1 - v) * uMax] >> 24 & 0xFF) == 0;
     }
 
-    private static void addSideQuad(
+    private static void markFace(@Nonnull BitSet faces, @Nonnull EnumFacing side, int uMax, int vMax, int u, int v)
+    {
+        faces.set(getFaceIndex(side, uMax, vMax, u, v));
+    }
+
+    private static int getFaceIndex(@Nonnull EnumFacing side, int uMax, int vMax, int u, int v)
+    {
+        int si = side.ordinal();
+        if (si > 4)
+        {
+            si -= 2;
+        }
+        return (vMax + 1) * ((uMax + 1) * si + u) + v;
+    }
+
+    /**
+     * Builds the quads for all marked faces. Faces of the same side that lie next to each other along the edge are
+     * merged into a single quad, the texture is still mapped pixel by pixel along it.
+     */
+    private static void addSideQuads(
       @Nonnull ImmutableList.Builder<BakedQuad> builder,
       @Nonnull BitSet faces,
       @Nonnull VertexFormat format,
       @Nonnull Optional<TRSRTransformation> transform,
-      @Nonnull EnumFacing side,
       int tint,
       @Nonnull TextureAtlasSprite sprite,
       int uMax,
-      int vMax,
-      int u,
-      int v)
+      int vMax)
     {
-        int si = side.ordinal();
-        if (si > 4)
+        // vertical edges, merged along v
+        for (EnumFacing side : new EnumFacing[] {EnumFacing.WEST, EnumFacing.EAST})
         {
-            si -= 2;
+            for (int u = 0; u <= uMax; u++)
+            {
+                int v = 0;
+                while (v < vMax)
+                {
+                    if (!faces.get(getFaceIndex(side, uMax, vMax, u, v)))
+                    {
+                        v++;
+                        continue;
+                    }
+
+                    int start = v;
+                    while (v < vMax && faces.get(getFaceIndex(side, uMax, vMax, u, v)))
+                    {
+                        v++;
+                    }
+
+                    builder.add(buildSideQuad(format, transform, side, tint, sprite, u, start, v - start));
+                }
+            }
         }
-        int index = (vMax + 1) * ((uMax + 1) * si + u) + v;
-        if (!faces.get(index))
+
+        // horizontal edges, merged along u
+        for (EnumFacing side : new EnumFacing[] {EnumFacing.UP, EnumFacing.DOWN})
         {
-            faces.set(index);
-            builder.add(buildSideQuad(format, transform, side, tint, sprite, u, v));
+            for (int v = 0; v <= vMax; v++)
+            {
+                int u = 0;
+                while (u < uMax)
+                {
+                    if (!faces.get(getFaceIndex(side, uMax, vMax, u, v)))
+                    {
+                        u++;
+                        continue;
+                    }
+
+                    int start = u;
+                    while (u < uMax && faces.get(getFaceIndex(side, uMax, vMax, u, v)))
+                    {
+                        u++;
+                    }
+
+                    builder.add(buildSideQuad(format, transform, side, tint, sprite, start, v, u - start));
+                }
+            }
         }
     }
 
@@ -174,7 +273,8 @@ public class ItemLayerModel implements IModel
       int tint,
       @Nonnull TextureAtlasSprite sprite,
       int u,
-      int v)
+      int v,
+      int length)
     {
         final float eps0 = 30e-5f;
         final float eps1 = 45e-5f;
@@ -190,13 +290,13 @@ public class ItemLayerModel implements IModel
                 z1 = 8.5f / 16f + eps1;
                 z2 = 7.5f / 16f - eps1;
             case EAST:
-                y1 = (v + 1f) / sprite.getIconHeight();
+                y1 = (float) (v + length) / sprite.getIconHeight();
                 break;
             case DOWN:
                 z1 = 8.5f / 16f + eps1;
                 z2 = 7.5f / 16f - eps1;
             case UP:
-                x1 = (u + 1f) / sprite.getIconWidth();
+                x1 = (float) (u + length) / sprite.getIconWidth();
                 break;
             default:
                 throw new IllegalArgumentException("can't handle z-oriented side");
@@ -395,6 +495,45 @@ public class ItemLayerModel implements IModel
         return new ItemLayerModel(builder.build(), overrides);
     }
 
+    /**
+     * Everything besides the sprite that the generated quads depend on.
+     */
+    private static final class QuadCacheKey
+    {
+        private final int                          tint;
+        private final VertexFormat                 format;
+        private final Optional<TRSRTransformation> transform;
+
+        private QuadCacheKey(int tint, @Nonnull VertexFormat format, @Nonnull Optional<TRSRTransformation> transform)
+        {
+            this.tint = tint;
+            this.format = format;
+            this.transform = transform;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof QuadCacheKey))
+            {
+                return false;
+            }
+
+            QuadCacheKey that = (QuadCacheKey) o;
+            return tint == that.tint && format.equals(that.format) && transform.equals(that.transform);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(tint, format, transform);
+        }
+    }
+
     public static class BakedItemModel implements IBakedModel
     {
         @Nonnull
@@ -16,6 +16,8 @@ import com.ldtteam.smithscore.common.player.handlers.PlayersOnlineUpdatedEventHa
 import com.ldtteam.smithscore.common.player.management.PlayerManager;
 import com.ldtteam.smithscore.common.proxy.CoreCommonProxy;
 import com.ldtteam.smithscore.common.structures.StructureRegistry;
+import com.ldtteam.smithscore.common.tileentity.TileEntitySynchronizationScheduler;
+import com.ldtteam.smithscore.network.event.handlers.NetworkableEventIdTableSyncHandler;
 import com.ldtteam.smithscore.util.client.ResourceHelper;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.model.ModelSkeleton;
@@ -157,6 +159,8 @@ public class CoreClientProxy extends CoreCommonProxy
         MinecraftForge.EVENT_BUS.register(PlayerManager.getInstance());
         MinecraftForge.EVENT_BUS.register(StructureRegistry.getClientInstance());
         MinecraftForge.EVENT_BUS.register(StructureRegistry.getServerInstance());
+        MinecraftForge.EVENT_BUS.register(TileEntitySynchronizationScheduler.getInstance());
+        MinecraftForge.EVENT_BUS.register(new NetworkableEventIdTableSyncHandler());
 
         SmithsCoreCapabilityDispatcher.initialize();
 
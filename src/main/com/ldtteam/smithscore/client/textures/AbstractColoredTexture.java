@@ -30,16 +30,25 @@ import java.util.function.Function;
 /**
  * Custom base class for textures used in armory.
  */
-public abstract class AbstractColoredTexture extends TextureAtlasSprite
+public abstract class AbstractColoredTexture extends TextureAtlasSprite implements IPreparableTexture
 {
 
     @Nonnull
     protected static Map<String, TextureAtlasSprite> cache = Maps.newHashMap();
 
+    //Weighted and squared share of every channel value in the perceptual brightness.
+    private static final double[] RED_BRIGHTNESS   = createBrightnessTable(0.241);
+    private static final double[] GREEN_BRIGHTNESS = createBrightnessTable(0.691);
+    private static final double[] BLUE_BRIGHTNESS  = createBrightnessTable(0.068);
+
     @Nullable
     private TextureAtlasSprite baseTexture;
     private String             backupTextureLocation;
     private String             extra;
+    @Nullable
+    private int[][]            preparedData;
+    @Nullable
+    private TextureAnalysis    analysis;
 
     protected AbstractColoredTexture(@Nonnull TextureAtlasSprite baseTexture, @Nonnull String spriteName)
     {
@@ -66,11 +75,37 @@ public abstract class AbstractColoredTexture extends TextureAtlasSprite
      */
     public static int getPerceptualBrightness(int col)
     {
-        double r = red(col) / 255.0;
-        double g = green(col) / 255.0;
-        double b = blue(col) / 255.0;
+        double brightness = Math.sqrt(RED_BRIGHTNESS[red(col)] + GREEN_BRIGHTNESS[green(col)] + BLUE_BRIGHTNESS[blue(col)]);
+
+        return (int) (brightness * 255);
+    }
 
-        return getPerceptualBrightness(r, g, b);
+    /**
+     * Function to get the perceptual brightness of every pixel in a frame at once.
+     *
+     * @param pixels     The colors to get the brightness for.
+     * @param brightness The array to store the brightness of every pixel in, at the same index.
+     */
+    public static void getPerceptualBrightness(@Nonnull int[] pixels, @Nonnull int[] brightness)
+    {
+        for (int pxCoord = 0; pxCoord < pixels.length; pxCoord++)
+        {
+            int col = pixels[pxCoord];
+            brightness[pxCoord] = (int) (Math.sqrt(RED_BRIGHTNESS[(col >> 16) & 0xFF] + GREEN_BRIGHTNESS[(col >> 8) & 0xFF] + BLUE_BRIGHTNESS[col & 0xFF]) * 255);
+        }
+    }
+
+    @Nonnull
+    private static double[] createBrightnessTable(double weight)
+    {
+        double[] table = new double[256];
+        for (int value = 0; value < table.length; value++)
+        {
+            double channel = value / 255.0;
+            table[value] = weight * channel * channel;
+        }
+
+        return table;
     }
 
     public static int red(int c)
@@ -148,6 +183,22 @@ public abstract class AbstractColoredTexture extends TextureAtlasSprite
         return true;
     }
 
+    @Override
+    public void prepare(@Nonnull TextureAnalysis source)
+    {
+        this.analysis = source;
+        this.width = source.getWidth();
+        this.height = source.getHeight();
+
+        int[][] data = new int[PREPARED_MIPMAP_LEVELS][];
+        data[0] = source.copyPixels();
+
+        //Modify the texture.
+        processData(data);
+
+        this.preparedData = data;
+    }
+
     @Override
     public boolean load(
       final IResourceManager manager, final ResourceLocation location, final Function<ResourceLocation, TextureAtlasSprite> textureGetter)
@@ -157,39 +208,36 @@ public abstract class AbstractColoredTexture extends TextureAtlasSprite
         this.tickCounter = 0;
 
         //Store the pixel data in a array.
-        int[][] data;
+        //When the TextureCreator prepared the data, it has already been modified.
+        int[][] data = preparedData;
+        preparedData = null;
 
-        //Check if the basetexture is present and loaded
-        //Then copy and prepare for modification.
-        if (baseTexture != null && baseTexture.getFrameCount() > 0)
+        if (data == null)
         {
-            this.copyFrom(baseTexture);
-            int[][] original = baseTexture.getFrameTextureData(0);
-            data = new int[original.length][];
-            for (int i = 0; i < original.length; i++)
+            //Check if the basetexture is present and loaded
+            //Then copy and prepare for modification.
+            if (baseTexture != null && baseTexture.getFrameCount() > 0)
             {
-                if (original[i] != null)
+                this.copyFrom(baseTexture);
+                int[][] original = baseTexture.getFrameTextureData(0);
+                data = new int[original.length][];
+                for (int i = 0; i < original.length; i++)
                 {
-                    data[i] = Arrays.copyOf(original[i], original[i].length);
+                    if (original[i] != null)
+                    {
+                        data[i] = Arrays.copyOf(original[i], original[i].length);
+                    }
                 }
             }
-        }
-        //Whew not the base texture is not loaded or does not exist load the backup texture.
-        else
-        {
-            data = null;
-            if (extra != null && !extra.isEmpty())
-            {
-                data = backupLoadTexture(new ResourceLocation(backupTextureLocation + "_" + extra), manager);
-            }
-            if (data == null)
+            //Whew not the base texture is not loaded or does not exist load the backup texture.
+            else
             {
-                data = backupLoadTexture(new ResourceLocation(backupTextureLocation), manager);
+                data = loadBackupData(manager);
             }
-        }
 
-        //Modify the texture.
-        processData(data);
+            //Modify the texture.
+            processData(data);
+        }
 
         //If no data has been loaded before then add the new set of data.
         //Else skip the loaded data as one is already present.
@@ -198,9 +246,75 @@ public abstract class AbstractColoredTexture extends TextureAtlasSprite
             this.framesTextureData.add(data);
         }
 
+        //The analysis is only needed while processing.
+        this.analysis = null;
+
         return false;
     }
 
+    @Nullable
+    @Override
+    public ResourceLocation getSourceFile(@Nonnull IResourceManager manager)
+    {
+        if (extra != null && !extra.isEmpty())
+        {
+            ResourceLocation sourceFile = completeResourceLocation(new ResourceLocation(backupTextureLocation + "_" + extra), 0);
+            try (IResource ignored = manager.getResource(sourceFile))
+            {
+                return sourceFile;
+            }
+            catch (IOException ex)
+            {
+                //Falling back to the texture without suffix, same as the loading does.
+            }
+        }
+
+        ResourceLocation backupLocation = new ResourceLocation(backupTextureLocation);
+        if (backupLocation.equals(TextureMap.LOCATION_MISSING_TEXTURE))
+        {
+            return null;
+        }
+
+        return completeResourceLocation(backupLocation, 0);
+    }
+
+    @Nullable
+    @Override
+    public int[][] getPreparedData()
+    {
+        return preparedData;
+    }
+
+    @Override
+    public void setPreparedData(@Nonnull int[][] data, int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        this.preparedData = data;
+    }
+
+    /**
+     * Loads the data of the backup texture, with the suffix if one is set.
+     *
+     * @param manager The resource manager to load the texture.
+     * @return The pixel data of the backup texture, or null when it could not be loaded.
+     */
+    @Nullable
+    private int[][] loadBackupData(@Nonnull IResourceManager manager)
+    {
+        int[][] data = null;
+        if (extra != null && !extra.isEmpty())
+        {
+            data = backupLoadTexture(new ResourceLocation(backupTextureLocation + "_" + extra), manager);
+        }
+        if (data == null)
+        {
+            data = backupLoadTexture(new ResourceLocation(backupTextureLocation), manager);
+        }
+
+        return data;
+    }
+
     /**
      * Method used to load a backup texture
      * <p>
@@ -273,11 +387,38 @@ public abstract class AbstractColoredTexture extends TextureAtlasSprite
                 continue;
             }
 
-            //Iterate over all pixels in the MipMap level and color them.
-            for (int pxCoord = 0; pxCoord < data[mipmap].length; pxCoord++)
-            {
-                data[mipmap][pxCoord] = colorPixel(data[mipmap][pxCoord], mipmap, pxCoord);
-            }
+            processFrame(data[mipmap], Math.max(1, width >> mipmap), Math.max(1, height >> mipmap), mipmap);
+        }
+    }
+
+    /**
+     * Returns the analysis of the base texture, shared with all other textures generated from it.
+     * Only available while the texture is processed, and only when the TextureCreator prepared the texture.
+     *
+     * @return The analysis of the base texture, or null when it is not available.
+     */
+    @Nullable
+    protected TextureAnalysis getAnalysis()
+    {
+        return analysis;
+    }
+
+    /**
+     * Method used to color all pixels of a single MipMap level.
+     * <p>
+     * The default implementation calls {@link #colorPixel(int, int, int)} for every pixel. Implementations that can
+     * color a whole level in a single loop, without a call per pixel, should override this method instead.
+     *
+     * @param pixels The texture data of the level, colored in place.
+     * @param width  The width of the level.
+     * @param height The height of the level.
+     * @param mipmap The mipmap level.
+     */
+    protected void processFrame(@Nonnull int[] pixels, int width, int height, int mipmap)
+    {
+        for (int pxCoord = 0; pxCoord < pixels.length; pxCoord++)
+        {
+            pixels[pxCoord] = colorPixel(pixels[pxCoord], mipmap, pxCoord);
         }
     }
 
@@ -0,0 +1,371 @@
+package com.ldtteam.smithscore.client.textures;
+
+import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.util.CoreReferences;
+import net.minecraft.client.resources.IResource;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.Loader;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.Level;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content addressed on disk cache of the pixel data generated by the {@link TextureCreator}.
+ * <p>
+ * Every entry is stored under a hash of the source texture file, the class of the generated texture and the identifier
+ * and cache version of the controller that created it. The data is stored as raw ARGB values, so a hit skips both the
+ * PNG decoding and the per pixel processing. Controllers opt in by returning a non negative
+ * {@link ITextureController#getCacheVersion()}.
+ * <p>
+ * Entries are read and written from the worker threads of the TextureCreator. They are read into memory completely
+ * instead of being memory mapped, so the file is not locked while an identical texture replaces the entry. Entries
+ * that have not been used for {@link #MAX_ENTRY_AGE_DAYS} days are removed, as are the least recently used ones when
+ * the cache grows beyond {@link #MAX_CACHE_SIZE} bytes.
+ */
+public final class GeneratedTextureCache
+{
+
+    private static final int MAGIC          = 0x53435458;
+    //Version 2: animated base textures are cached with the size of their first frame.
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_SIZE = 5 * 4 + 8;
+
+    private static final int MISSING_LEVEL = -1;
+
+    private static final long MAX_ENTRY_AGE_DAYS = 30;
+    private static final long MAX_CACHE_SIZE     = 256L * 1024 * 1024;
+
+    private final LongAdder hits       = new LongAdder();
+    private final LongAdder misses     = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    @Nullable
+    private File directory;
+
+    /**
+     * Creates the key of the entry for the given texture.
+     *
+     * @param sourceFile The file the texture is generated from.
+     * @param texture    The generated texture.
+     * @param controller The controller that created the texture.
+     * @param manager    The resource manager to read the source texture with.
+     * @return The key of the entry, or null when the texture can not be cached.
+     */
+    @Nullable
+    public byte[] createKey(
+      @Nonnull ResourceLocation sourceFile,
+      @Nonnull IPreparableTexture texture,
+      @Nonnull ITextureController controller,
+      @Nonnull IResourceManager manager)
+    {
+        if (controller.getCacheVersion() < 0)
+        {
+            return null;
+        }
+
+        MessageDigest digest = createDigest();
+        try (IResource resource = manager.getResource(sourceFile))
+        {
+            digest.update(IOUtils.toByteArray(resource.getInputStream()));
+        }
+        catch (IOException ex)
+        {
+            return null;
+        }
+
+        digest.update((byte) 0);
+        digest.update(texture.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(controller.getCreationIdentifier().getBytes(StandardCharsets.UTF_8));
+        digest.update(ByteBuffer.allocate(4).putInt(controller.getCacheVersion()).array());
+
+        return digest.digest();
+    }
+
+    /**
+     * Hands the cached data of the given key to the texture.
+     *
+     * @param key     The key of the entry.
+     * @param texture The texture to give the data to.
+     * @return True when the entry existed and its data has been handed to the texture.
+     */
+    public boolean load(@Nonnull byte[] key, @Nonnull IPreparableTexture texture)
+    {
+        long start = System.nanoTime();
+
+        File entryFile = getEntryFile(key);
+        if (!entryFile.isFile())
+        {
+            misses.increment();
+            return false;
+        }
+
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(entryFile.toPath()));
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+            {
+                misses.increment();
+                return false;
+            }
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            long generationNanos = buffer.getLong();
+
+            int levels = buffer.getInt();
+            if (width <= 0 || height <= 0 || levels != IPreparableTexture.PREPARED_MIPMAP_LEVELS)
+            {
+                throw new IllegalStateException("The cache entry is damaged, it contains an invalid size: " + width + "x" + height + " with " + levels + " levels.");
+            }
+
+            int[][] data = new int[levels][];
+            for (int level = 0; level < data.length; level++)
+            {
+                int length = buffer.getInt();
+                if (length == MISSING_LEVEL && level > 0)
+                {
+                    continue;
+                }
+
+                //Checked as long, so huge sizes can not overflow.
+                long expectedLength = (long) Math.max(1, width >> level) * Math.max(1, height >> level);
+                if (length != expectedLength || length > buffer.remaining() / 4)
+                {
+                    throw new IllegalStateException("The cache entry is damaged, level " + level + " contains " + length + " pixels instead of " + expectedLength + ".");
+                }
+
+                data[level] = new int[length];
+                IntBuffer pixels = buffer.asIntBuffer();
+                pixels.get(data[level]);
+                buffer.position(buffer.position() + length * 4);
+            }
+
+            //Marks the entry as recently used, so it is kept when the cache is trimmed.
+            entryFile.setLastModified(System.currentTimeMillis());
+
+            texture.setPreparedData(data, width, height);
+
+            hits.increment();
+            savedNanos.add(generationNanos - (System.nanoTime() - start));
+            return true;
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            SmithsCore.getLogger().log(Level.WARN, CoreReferences.LogMarkers.RENDER, "Failed to read the cached texture: " + entryFile.getName() + " it will be generated again.", ex);
+            misses.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Stores the freshly prepared data of the given texture in the cache.
+     *
+     * @param key             The key of the entry.
+     * @param texture         The texture that has been prepared.
+     * @param generationNanos The time it took to generate the data.
+     */
+    public void store(@Nonnull byte[] key, @Nonnull IPreparableTexture texture, long generationNanos)
+    {
+        int[][] data = texture.getPreparedData();
+        if (data == null)
+        {
+            return;
+        }
+
+        File entryFile = getEntryFile(key);
+
+        int size = HEADER_SIZE;
+        for (int[] level : data)
+        {
+            size += 4 + (level == null ? 0 : level.length * 4);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putInt(texture.getIconWidth());
+        buffer.putInt(texture.getIconHeight());
+        buffer.putLong(generationNanos);
+        buffer.putInt(data.length);
+        for (int[] level : data)
+        {
+            if (level == null)
+            {
+                buffer.putInt(MISSING_LEVEL);
+                continue;
+            }
+
+            buffer.putInt(level.length);
+            buffer.asIntBuffer().put(level);
+            buffer.position(buffer.position() + level.length * 4);
+        }
+
+        try
+        {
+            File directory = entryFile.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory())
+            {
+                throw new IOException("Failed to create the texture cache directory: " + directory.getPath());
+            }
+
+            //Identical textures share an entry, so every writer uses its own temporary file.
+            File temporaryFile = File.createTempFile(entryFile.getName(), ".tmp", directory);
+            Files.write(temporaryFile.toPath(), buffer.array());
+
+            try
+            {
+                Files.move(temporaryFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException ex)
+            {
+                Files.move(temporaryFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            SmithsCore.getLogger().log(Level.WARN, CoreReferences.LogMarkers.RENDER, "Failed to cache the texture: " + entryFile.getName(), ex);
+        }
+    }
+
+    /**
+     * Removes the entries that have not been used for a long time, and then the least recently used entries until the
+     * cache fits into its maximal size again.
+     */
+    public void trim()
+    {
+        File[] entries = getDirectory().listFiles((dir, name) -> name.endsWith(".bin") || name.endsWith(".tmp"));
+        if (entries == null)
+        {
+            return;
+        }
+
+        long oldestAllowed = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_ENTRY_AGE_DAYS);
+
+        List<File> kept = new ArrayList<>();
+        long size = 0;
+        int removed = 0;
+        for (File entry : entries)
+        {
+            long lastModified = entry.lastModified();
+            if (lastModified < oldestAllowed || entry.getName().endsWith(".tmp") && lastModified < System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1))
+            {
+                removed += entry.delete() ? 1 : 0;
+                continue;
+            }
+
+            if (entry.getName().endsWith(".bin"))
+            {
+                kept.add(entry);
+                size += entry.length();
+            }
+        }
+
+        if (size > MAX_CACHE_SIZE)
+        {
+            kept.sort(Comparator.comparingLong(File::lastModified));
+            for (File entry : kept)
+            {
+                if (size <= MAX_CACHE_SIZE)
+                {
+                    break;
+                }
+
+                long length = entry.length();
+                if (entry.delete())
+                {
+                    size -= length;
+                    removed++;
+                }
+            }
+        }
+
+        if (removed > 0)
+        {
+            SmithsCore.getLogger().info(CoreReferences.LogMarkers.RENDER, "Texture cache: removed " + removed + " unused entries.");
+        }
+    }
+
+    /**
+     * Logs the hit rate and the time saved since the last reset, and resets the statistics.
+     */
+    public void logAndResetStatistics()
+    {
+        long hitCount = hits.sumThenReset();
+        long missCount = misses.sumThenReset();
+        long saved = savedNanos.sumThenReset();
+
+        if (hitCount + missCount == 0)
+        {
+            return;
+        }
+
+        SmithsCore.getLogger()
+          .info(CoreReferences.LogMarkers.RENDER,
+            "Texture cache: " + hitCount + " hits, " + missCount + " misses (" + (hitCount * 100 / (hitCount + missCount)) + "% hit rate), saved "
+              + TimeUnit.NANOSECONDS.toMillis(Math.max(0, saved)) + " ms.");
+    }
+
+    @Nonnull
+    private File getDirectory()
+    {
+        if (directory == null)
+        {
+            directory = new File(Loader.instance().getConfigDir().getParentFile(), "smithscore/texturecache");
+        }
+
+        return directory;
+    }
+
+    @Nonnull
+    private File getEntryFile(@Nonnull byte[] key)
+    {
+        return new File(getDirectory(), toHex(key) + ".bin");
+    }
+
+    @Nonnull
+    private static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException ex)
+        {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM.", ex);
+        }
+    }
+
+    @Nonnull
+    private static String toHex(@Nonnull byte[] data)
+    {
+        StringBuilder builder = new StringBuilder(data.length * 2);
+        for (byte b : data)
+        {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+}
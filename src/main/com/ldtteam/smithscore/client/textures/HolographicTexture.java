@@ -14,7 +14,6 @@ import net.minecraft.util.ResourceLocation;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.awt.image.BufferedImage;
-import java.awt.image.DirectColorModel;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.function.Function;
@@ -22,15 +21,42 @@ import java.util.function.Function;
 /**
  * Created by Marc on 22.12.2015.
  */
-public class HolographicTexture extends TextureAtlasSprite
+public class HolographicTexture extends TextureAtlasSprite implements IPreparableTexture
 {
 
-    boolean[] trans;
-    boolean[] edge;
+    private static final int EDGE_COLOR = compose(50, 50, 50, 255);
+
+    //Caches per class if it overrides colorPixel, in which case processFrame can not use its single loop.
+    private static final ClassValue<Boolean> OVERRIDES_COLOR_PIXEL = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> type)
+        {
+            for (Class<?> current = type; current != HolographicTexture.class; current = current.getSuperclass())
+            {
+                try
+                {
+                    current.getDeclaredMethod("colorPixel", int.class, int.class, int.class);
+                    return true;
+                }
+                catch (NoSuchMethodException ignored)
+                {
+                    //Not declared in this class, check its parent.
+                }
+            }
+
+            return false;
+        }
+    };
+
     @Nullable
     private TextureAtlasSprite baseTexture;
     private String             backupTextureLocation;
     private String             extra;
+    @Nullable
+    private int[][]            preparedData;
+    @Nullable
+    private TextureAnalysis    analysis;
 
     public HolographicTexture(@Nonnull String baseTextureLocation, @Nonnull String spriteName)
     {
@@ -58,11 +84,7 @@ public class HolographicTexture extends TextureAtlasSprite
      */
     public static int getPerceptualBrightness(int col)
     {
-        double r = red(col) / 255.0;
-        double g = green(col) / 255.0;
-        double b = blue(col) / 255.0;
-
-        return getPerceptualBrightness(r, g, b);
+        return AbstractColoredTexture.getPerceptualBrightness(col);
     }
 
     public static int red(int c)
@@ -122,6 +144,22 @@ public class HolographicTexture extends TextureAtlasSprite
         return true;
     }
 
+    @Override
+    public void prepare(@Nonnull TextureAnalysis source)
+    {
+        this.analysis = source;
+        this.width = source.getWidth();
+        this.height = source.getHeight();
+
+        int[][] data = new int[PREPARED_MIPMAP_LEVELS][];
+        data[0] = source.copyPixels();
+
+        //Modify the texture.
+        processData(data);
+
+        this.preparedData = data;
+    }
+
     @Override
     public boolean load(
       final IResourceManager manager, final ResourceLocation location, final Function<ResourceLocation, TextureAtlasSprite> textureGetter)
@@ -131,39 +169,36 @@ public class HolographicTexture extends TextureAtlasSprite
         this.tickCounter = 0;
 
         //Store the pixel data in a array.
-        int[][] data;
+        //When the TextureCreator prepared the data, it has already been modified.
+        int[][] data = preparedData;
+        preparedData = null;
 
-        //Check if the basetexture is present and loaded
-        //Then copy and prepare for modification.
-        if (baseTexture != null && baseTexture.getFrameCount() > 0)
+        if (data == null)
         {
-            this.copyFrom(baseTexture);
-            int[][] original = baseTexture.getFrameTextureData(0);
-            data = new int[original.length][];
-            for (int i = 0; i < original.length; i++)
+            //Check if the basetexture is present and loaded
+            //Then copy and prepare for modification.
+            if (baseTexture != null && baseTexture.getFrameCount() > 0)
             {
-                if (original[i] != null)
+                this.copyFrom(baseTexture);
+                int[][] original = baseTexture.getFrameTextureData(0);
+                data = new int[original.length][];
+                for (int i = 0; i < original.length; i++)
                 {
-                    data[i] = Arrays.copyOf(original[i], original[i].length);
+                    if (original[i] != null)
+                    {
+                        data[i] = Arrays.copyOf(original[i], original[i].length);
+                    }
                 }
             }
-        }
-        //Whew not the base texture is not loaded or does not exist load the backup texture.
-        else
-        {
-            data = null;
-            if (extra != null && !extra.isEmpty())
-            {
-                data = backupLoadTexture(new ResourceLocation(backupTextureLocation + "_" + extra), manager);
-            }
-            if (data == null)
+            //Whew not the base texture is not loaded or does not exist load the backup texture.
+            else
             {
-                data = backupLoadTexture(new ResourceLocation(backupTextureLocation), manager);
+                data = loadBackupData(manager);
             }
-        }
 
-        //Modify the texture.
-        processData(data);
+            //Modify the texture.
+            processData(data);
+        }
 
         //If no data has been loaded before then add the new set of data.
         //Else skip the loaded data as one is already present.
@@ -172,9 +207,75 @@ public class HolographicTexture extends TextureAtlasSprite
             this.framesTextureData.add(data);
         }
 
+        //The analysis is only needed while processing.
+        this.analysis = null;
+
         return false;
     }
 
+    @Nullable
+    @Override
+    public ResourceLocation getSourceFile(@Nonnull IResourceManager manager)
+    {
+        if (extra != null && !extra.isEmpty())
+        {
+            ResourceLocation sourceFile = completeResourceLocation(new ResourceLocation(backupTextureLocation + "_" + extra), 0);
+            try (IResource ignored = manager.getResource(sourceFile))
+            {
+                return sourceFile;
+            }
+            catch (IOException ex)
+            {
+                //Falling back to the texture without suffix, same as the loading does.
+            }
+        }
+
+        ResourceLocation backupLocation = new ResourceLocation(backupTextureLocation);
+        if (backupLocation.equals(TextureMap.LOCATION_MISSING_TEXTURE))
+        {
+            return null;
+        }
+
+        return completeResourceLocation(backupLocation, 0);
+    }
+
+    @Nullable
+    @Override
+    public int[][] getPreparedData()
+    {
+        return preparedData;
+    }
+
+    @Override
+    public void setPreparedData(@Nonnull int[][] data, int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        this.preparedData = data;
+    }
+
+    /**
+     * Loads the data of the backup texture, with the suffix if one is set.
+     *
+     * @param manager The resource manager to load the texture.
+     * @return The pixel data of the backup texture, or null when it could not be loaded.
+     */
+    @Nullable
+    private int[][] loadBackupData(@Nonnull IResourceManager manager)
+    {
+        int[][] data = null;
+        if (extra != null && !extra.isEmpty())
+        {
+            data = backupLoadTexture(new ResourceLocation(backupTextureLocation + "_" + extra), manager);
+        }
+        if (data == null)
+        {
+            data = backupLoadTexture(new ResourceLocation(backupTextureLocation), manager);
+        }
+
+        return data;
+    }
+
     /**
      * Method used to load a backup texture
      * <p>
@@ -232,48 +333,10 @@ public class HolographicTexture extends TextureAtlasSprite
 
     protected void processData(@Nonnull int[][] data)
     {
-        // preprocess
-        DirectColorModel color = new DirectColorModel(32, 16711680, '\uff00', 255, -16777216);
-
-        edge = new boolean[width * height];
-        trans = new boolean[width * height];
-
-        int y;
-        int c;
-        for (int x = 0; x < width; ++x)
+        // preprocess, unless the TextureCreator already analysed the base texture.
+        if (analysis == null || analysis.getWidth() != width || analysis.getHeight() != height)
         {
-            for (y = 0; y < height; ++y)
-            {
-                if (x == 0 || y == 0 || x == width - 1 || y == height - 1)
-                {
-                    edge[coord(x, y)] = true;
-                }
-
-                c = data[0][coord(x, y)];
-                if (c == 0 || color.getAlpha(c) < 64)
-                {
-                    trans[coord(x, y)] = true;
-                    if (x > 0)
-                    {
-                        edge[coord(x - 1, y)] = true;
-                    }
-
-                    if (y > 0)
-                    {
-                        edge[coord(x, y - 1)] = true;
-                    }
-
-                    if (x < width - 1)
-                    {
-                        edge[coord(x + 1, y)] = true;
-                    }
-
-                    if (y < height - 1)
-                    {
-                        edge[coord(x, y + 1)] = true;
-                    }
-                }
-            }
+            analysis = TextureAnalysis.analyse(Arrays.copyOf(data[0], data[0].length), width, height);
         }
 
         //Use the mipmap levels to color the pixels.
@@ -285,10 +348,36 @@ public class HolographicTexture extends TextureAtlasSprite
                 continue;
             }
 
-            //Iterate over all pixels in the MipMap level and color them.
-            for (int pxCoord = 0; pxCoord < data[mipmap].length; pxCoord++)
+            processFrame(data[mipmap], Math.max(1, width >> mipmap), Math.max(1, height >> mipmap), mipmap);
+        }
+    }
+
+    /**
+     * Method used to color all pixels of a single MipMap level. Calls {@link #colorPixel(int, int, int)} for every
+     * pixel when a subclass overrides it, otherwise the pixels are colored in a single loop with the same result.
+     *
+     * @param pixels The texture data of the level, colored in place.
+     * @param width  The width of the level.
+     * @param height The height of the level.
+     * @param mipmap The mipmap level.
+     */
+    protected void processFrame(@Nonnull int[] pixels, int width, int height, int mipmap)
+    {
+        if (OVERRIDES_COLOR_PIXEL.get(getClass()))
+        {
+            for (int pxCoord = 0; pxCoord < pixels.length; pxCoord++)
             {
-                data[mipmap][pxCoord] = colorPixel(data[mipmap][pxCoord], mipmap, pxCoord);
+                pixels[pxCoord] = colorPixel(pixels[pxCoord], mipmap, pxCoord);
+            }
+
+            return;
+        }
+
+        for (int pxCoord = 0; pxCoord < pixels.length; pxCoord++)
+        {
+            if (!analysis.isTransparent(pxCoord))
+            {
+                pixels[pxCoord] = analysis.isEdge(pxCoord) ? EDGE_COLOR : 0;
             }
         }
     }
@@ -321,11 +410,11 @@ public class HolographicTexture extends TextureAtlasSprite
 
     protected int colorPixel(int pixel, int mipmap, int pxCoord)
     {
-        if (!trans[pxCoord])
+        if (!analysis.isTransparent(pxCoord))
         {
-            if (edge[pxCoord])
+            if (analysis.isEdge(pxCoord))
             {
-                return compose(50, 50, 50, 255);
+                return EDGE_COLOR;
             }
             else
             {
@@ -435,5 +524,17 @@ public class HolographicTexture extends TextureAtlasSprite
         {
             return this;
         }
+
+        @Override
+        public int getCacheVersion()
+        {
+            return 1;
+        }
+
+        @Override
+        public boolean supportsParallelGeneration()
+        {
+            return true;
+        }
     }
 }
@@ -0,0 +1,67 @@
+package com.ldtteam.smithscore.client.textures;
+
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A generated texture whose pixel data can be created before the TextureMap loads it.
+ * <p>
+ * The {@link TextureCreator} prepares all textures it registered right after registering them, on the common fork-join
+ * pool when parallel generation is enabled and their controller supports it. Every texture is handed the shared
+ * {@link TextureAnalysis} of its source file, which only covers the first frame of animated sources.
+ * The prepared data is then picked up by the next call to load on the stitch thread.
+ * <p>
+ * Textures whose controller supports it are additionally stored in the {@link GeneratedTextureCache}, in which case
+ * the cached data is handed to the texture instead of preparing it.
+ */
+public interface IPreparableTexture
+{
+
+    /**
+     * The amount of mipmap levels in the prepared data: the full size image and the four levels the TextureMap can
+     * generate from it.
+     */
+    int PREPARED_MIPMAP_LEVELS = 1 + 4;
+
+    /**
+     * Processes the pixel data of this texture. Can be called from a worker thread, implementations may only modify
+     * the state of their own instance.
+     *
+     * @param source The analysis of the file returned by {@link #getSourceFile(IResourceManager)}, shared with all
+     *               other textures generated from that file.
+     */
+    void prepare(@Nonnull TextureAnalysis source);
+
+    /**
+     * Returns the file the pixel data of this texture is generated from.
+     *
+     * @param manager The resource manager to look the file up with.
+     * @return The location of the file, or null when the data is not generated from a file.
+     */
+    @Nullable
+    ResourceLocation getSourceFile(@Nonnull IResourceManager manager);
+
+    /**
+     * Returns the prepared pixel data that has not yet been picked up by load.
+     *
+     * @return The data of every mipmap level, or null when the texture has not been prepared.
+     */
+    @Nullable
+    int[][] getPreparedData();
+
+    /**
+     * Sets the prepared pixel data, as if {@link #prepare(TextureAnalysis)} had been called.
+     *
+     * @param data   The data of every mipmap level.
+     * @param width  The width of the texture.
+     * @param height The height of the texture.
+     */
+    void setPreparedData(@Nonnull int[][] data, int width, int height);
+
+    int getIconWidth();
+
+    int getIconHeight();
+}
@@ -86,4 +86,27 @@ public interface ITextureController
      */
     @Nonnull
     ITextureController setCreationIdentifier(String identifier);
+
+    /**
+     * The version of the textures this Controller produces. Textures are cached on disk when this is not negative, so
+     * it has to be changed whenever the Controller starts to produce different textures from the same base texture.
+     *
+     * @return The version of the produced textures, or a negative value when they should not be cached.
+     */
+    default int getCacheVersion()
+    {
+        return -1;
+    }
+
+    /**
+     * Indicates if the textures this Controller produces can be prepared on worker threads, at the same time as each
+     * other and as the textures of other Controllers. Only return true when the processing of the textures does not
+     * touch any state that is shared between them.
+     *
+     * @return True to allow the parallel generation of the textures, false to generate them on the stitch thread.
+     */
+    default boolean supportsParallelGeneration()
+    {
+        return false;
+    }
 }
@@ -0,0 +1,236 @@
+package com.ldtteam.smithscore.client.textures;
+
+import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.util.CoreReferences;
+import net.minecraft.client.renderer.texture.TextureUtil;
+import net.minecraft.client.resources.IResource;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The decoded pixels of a base texture, together with the information about them that the generated textures need.
+ * <p>
+ * The {@link TextureCreator} creates a single analysis for every source file and hands it to all textures generated
+ * from that file, so the file is only decoded and analysed once, no matter how many controllers use it. An analysis is
+ * never modified after it has been created.
+ */
+public final class TextureAnalysis
+{
+
+    /**
+     * Pixels with an alpha value below this threshold are considered transparent.
+     */
+    public static final int TRANSPARENCY_THRESHOLD = 64;
+
+    private final int    width;
+    private final int    height;
+    private final int[]  pixels;
+    private final BitSet transparentMask;
+    private final BitSet edgeMask;
+    private final int    averageColor;
+    private final int[]  brightnessHistogram;
+
+    private TextureAnalysis(
+      int width,
+      int height,
+      @Nonnull int[] pixels,
+      @Nonnull BitSet transparentMask,
+      @Nonnull BitSet edgeMask,
+      int averageColor,
+      @Nonnull int[] brightnessHistogram)
+    {
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+        this.transparentMask = transparentMask;
+        this.edgeMask = edgeMask;
+        this.averageColor = averageColor;
+        this.brightnessHistogram = brightnessHistogram;
+    }
+
+    /**
+     * Reads and analyses the given texture file. Animated textures are stored as a vertical strip of square frames,
+     * only the first frame is analysed, the same frame the TextureMap hands to textures that copy the loaded sprite.
+     *
+     * @param file    The location of the PNG file.
+     * @param manager The resource manager to read the file with.
+     * @return The analysis of the file, or null when it could not be read.
+     */
+    @Nullable
+    public static TextureAnalysis load(@Nonnull ResourceLocation file, @Nonnull IResourceManager manager)
+    {
+        try (IResource resource = manager.getResource(file))
+        {
+            BufferedImage image = TextureUtil.readBufferedImage(resource.getInputStream());
+
+            int width = image.getWidth();
+            int height = image.getHeight();
+            if (resource.getMetadata("animation") != null)
+            {
+                height = Math.min(width, height);
+            }
+
+            int[] pixels = new int[width * height];
+            image.getRGB(0, 0, width, height, pixels, 0, width);
+
+            return analyse(pixels, width, height);
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            SmithsCore.getLogger().error(CoreReferences.LogMarkers.RENDER, (Object) new Exception("Unable to analyse the base texture: " + file, ex));
+            return null;
+        }
+    }
+
+    /**
+     * Analyses the given pixels in a single pass.
+     *
+     * @param pixels The pixels to analyse, owned by the analysis afterwards.
+     * @param width  The width of the texture.
+     * @param height The height of the texture.
+     * @return The analysis of the pixels.
+     */
+    @Nonnull
+    public static TextureAnalysis analyse(@Nonnull int[] pixels, int width, int height)
+    {
+        BitSet transparentMask = new BitSet(pixels.length);
+        BitSet edgeMask = new BitSet(pixels.length);
+        int[] brightness = new int[pixels.length];
+        int[] brightnessHistogram = new int[256];
+
+        AbstractColoredTexture.getPerceptualBrightness(pixels, brightness);
+
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        int opaquePixels = 0;
+
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                int pxCoord = y * width + x;
+                int pixel = pixels[pxCoord];
+
+                //The border of the texture is always an edge.
+                if (x == 0 || y == 0 || x == width - 1 || y == height - 1)
+                {
+                    edgeMask.set(pxCoord);
+                }
+
+                if ((pixel >>> 24) < TRANSPARENCY_THRESHOLD)
+                {
+                    //Every pixel next to a transparent one is an edge.
+                    transparentMask.set(pxCoord);
+                    if (x > 0)
+                    {
+                        edgeMask.set(pxCoord - 1);
+                    }
+
+                    if (y > 0)
+                    {
+                        edgeMask.set(pxCoord - width);
+                    }
+
+                    if (x < width - 1)
+                    {
+                        edgeMask.set(pxCoord + 1);
+                    }
+
+                    if (y < height - 1)
+                    {
+                        edgeMask.set(pxCoord + width);
+                    }
+
+                    continue;
+                }
+
+                red += (pixel >> 16) & 0xFF;
+                green += (pixel >> 8) & 0xFF;
+                blue += pixel & 0xFF;
+                opaquePixels++;
+
+                brightnessHistogram[brightness[pxCoord]]++;
+            }
+        }
+
+        int averageColor = 0;
+        if (opaquePixels > 0)
+        {
+            averageColor = AbstractColoredTexture.compose((int) (red / opaquePixels), (int) (green / opaquePixels), (int) (blue / opaquePixels), 255);
+        }
+
+        return new TextureAnalysis(width, height, pixels, transparentMask, edgeMask, averageColor, brightnessHistogram);
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Returns a copy of the pixels of the texture, that can be modified freely.
+     *
+     * @return The ARGB values of the pixels, row by row.
+     */
+    @Nonnull
+    public int[] copyPixels()
+    {
+        return Arrays.copyOf(pixels, pixels.length);
+    }
+
+    /**
+     * Indicates if the given pixel has an alpha value below the {@link #TRANSPARENCY_THRESHOLD}.
+     *
+     * @param pxCoord The index of the pixel.
+     * @return True when the pixel is transparent.
+     */
+    public boolean isTransparent(int pxCoord)
+    {
+        return transparentMask.get(pxCoord);
+    }
+
+    /**
+     * Indicates if the given pixel lies on the border of the texture or next to a transparent pixel.
+     *
+     * @param pxCoord The index of the pixel.
+     * @return True when the pixel is an edge.
+     */
+    public boolean isEdge(int pxCoord)
+    {
+        return edgeMask.get(pxCoord);
+    }
+
+    /**
+     * Returns the average color of all pixels that are not transparent.
+     *
+     * @return The average color with full alpha, or 0 when all pixels are transparent.
+     */
+    public int getAverageColor()
+    {
+        return averageColor;
+    }
+
+    /**
+     * Returns how many of the pixels that are not transparent have each perceptual brightness.
+     *
+     * @return A copy of the histogram, indexed by brightness from 0 to 255.
+     */
+    @Nonnull
+    public int[] getBrightnessHistogram()
+    {
+        return Arrays.copyOf(brightnessHistogram, brightnessHistogram.length);
+    }
+}
@@ -4,7 +4,9 @@ import com.google.common.collect.Maps;
 import com.ldtteam.smithscore.SmithsCore;
 import com.ldtteam.smithscore.client.events.texture.TextureStitchCollectedEvent;
 import com.ldtteam.smithscore.core.interfaces.ITextureMap;
+import com.ldtteam.smithscore.util.CoreReferences;
 import com.ldtteam.smithscore.util.client.ResourceHelper;
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.client.resources.IResourceManagerReloadListener;
@@ -15,6 +17,11 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Created by Marc on 06.12.2015.
@@ -25,14 +32,23 @@ import java.util.*;
 public class TextureCreator implements IResourceManagerReloadListener
 {
     //Variable containing all the mappings for
+    //Kept in registration order, so that the textures are always registered to the map in the same order.
     @Nonnull
-    private static Set<ITextureController>                          controllers  = new HashSet<>();
+    private static Set<ITextureController>                          controllers  = new LinkedHashSet<>();
     //Variable containing the location of all grayscale base textures.
     @Nonnull
-    private static Set<ResourceLocation>                            baseTextures = new HashSet<>();
+    private static Set<ResourceLocation>                            baseTextures = new LinkedHashSet<>();
     //Variable that holds the colored end textures when the Creator has reloaded
     @Nonnull
     private static Map<String, HashMap<String, TextureAtlasSprite>> buildSprites = Maps.newHashMap();
+    //Indicates if the pixel data of the textures of controllers that support it is generated on the common pool.
+    private static boolean                                          parallelGeneration = true;
+    //The analysis of every source file, shared by all textures generated from it while they are prepared.
+    @Nonnull
+    private final Map<ResourceLocation, TextureAnalysis>            analyses     = new ConcurrentHashMap<>();
+    //The on disk cache of the generated pixel data.
+    @Nonnull
+    private final GeneratedTextureCache                             textureCache = new GeneratedTextureCache();
     static
     {
         registerController(new HolographicTexture.HolographicTextureController());
@@ -77,6 +93,30 @@ public class TextureCreator implements IResourceManagerReloadListener
         controllers.remove(controller);
     }
 
+    /**
+     * Indicates if the pixel data of the created textures is generated in parallel, for the controllers that support
+     * it through {@link ITextureController#supportsParallelGeneration()}.
+     *
+     * @return True when the data is generated on the common fork-join pool, false when it is generated on the stitch
+     * thread.
+     */
+    public static boolean isParallelGeneration()
+    {
+        return parallelGeneration;
+    }
+
+    /**
+     * Method to enable or disable the parallel generation of the pixel data. Only controllers that support it are ever
+     * generated in parallel, the textures of all other controllers are always generated on the stitch thread.
+     *
+     * @param parallel True to generate the supported data on the common fork-join pool, false to generate everything
+     *                 on the stitch thread.
+     */
+    public static void setParallelGeneration(boolean parallel)
+    {
+        parallelGeneration = parallel;
+    }
+
     /**
      * Static method to get the builded textures.
      *
@@ -103,11 +143,17 @@ public class TextureCreator implements IResourceManagerReloadListener
 
     /**
      * Method used to create textures that are material dependend based on the given baseTextures list.
+     * <p>
+     * The textures are created and registered to the map on the calling thread, in the order in which the base textures
+     * and controllers were registered. Afterwards their pixel data is generated, in parallel when enabled, so that the
+     * map only has to pick it up when it loads them.
      *
      * @param map The map to register the textures to.
      */
     public void createMaterialTextures(@Nonnull ITextureMap map)
     {
+        Map<IPreparableTexture, ITextureController> preparableTextures = new LinkedHashMap<>();
+
         for (ResourceLocation baseTexture : baseTextures)
         {
             buildSprites.put(baseTexture.toString(), new HashMap<>());
@@ -128,9 +174,11 @@ public class TextureCreator implements IResourceManagerReloadListener
                     continue;
                 }
 
-                buildSprites.get(baseTexture.toString()).put(controller.getCreationIdentifier(), createTexture(controller, baseTexture, base, map));
+                buildSprites.get(baseTexture.toString()).put(controller.getCreationIdentifier(), createTexture(controller, baseTexture, base, map, preparableTextures));
             }
         }
+
+        prepareTextures(preparableTextures);
     }
 
     @Nullable
@@ -138,7 +186,8 @@ public class TextureCreator implements IResourceManagerReloadListener
       @Nonnull ITextureController controller,
       @Nonnull ResourceLocation baseTexture,
       @Nonnull TextureAtlasSprite base,
-      @Nonnull ITextureMap map)
+      @Nonnull ITextureMap map,
+      @Nonnull Map<IPreparableTexture, ITextureController> preparableTextures)
     {
         String location = baseTexture.toString() + "_" + controller.getCreationIdentifier();
         TextureAtlasSprite sprite = null;
@@ -161,6 +210,12 @@ public class TextureCreator implements IResourceManagerReloadListener
                 {
                     base2 = new AbstractColoredTexture(loc2, loc2)
                     {
+                        @Override
+                        protected void processFrame(@Nonnull int[] pixels, int width, int height, int mipmap)
+                        {
+                            //The base texture is used as is.
+                        }
+
                         @Override
                         protected int colorPixel(int pixel, int mipmap, int pxCoord)
                         {
@@ -170,6 +225,7 @@ public class TextureCreator implements IResourceManagerReloadListener
 
                     // save in the map so it's getting reused by the others and is available
                     map.setEntry(base2);
+                    preparableTextures.put((IPreparableTexture) base2, controller);
                 }
                 if (base2 != null)
                 {
@@ -183,11 +239,125 @@ public class TextureCreator implements IResourceManagerReloadListener
         if (sprite != null)
         {
             map.setEntry(sprite);
+
+            if (sprite instanceof IPreparableTexture)
+            {
+                preparableTextures.put((IPreparableTexture) sprite, controller);
+            }
         }
 
         return sprite;
     }
 
+    /**
+     * Generates the pixel data of the given textures and logs how long it took for every controller.
+     * Every source file is only decoded and analysed once, the analysis is shared by all textures generated from it.
+     *
+     * @param preparableTextures The textures to prepare, mapped to the controller that created them.
+     */
+    private void prepareTextures(@Nonnull Map<IPreparableTexture, ITextureController> preparableTextures)
+    {
+        if (preparableTextures.isEmpty())
+        {
+            return;
+        }
+
+        IResourceManager resourceManager = Minecraft.getMinecraft().getResourceManager();
+        Map<String, LongAdder> controllerTimings = new LinkedHashMap<>();
+        for (ITextureController controller : preparableTextures.values())
+        {
+            controllerTimings.computeIfAbsent(controller.getCreationIdentifier(), key -> new LongAdder());
+        }
+
+        long start = System.nanoTime();
+
+        //The textures of controllers that support it are generated on the common pool, while the stitch thread
+        //generates all other textures.
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (Map.Entry<IPreparableTexture, ITextureController> entry : preparableTextures.entrySet())
+        {
+            if (parallelGeneration && entry.getValue().supportsParallelGeneration())
+            {
+                LongAdder timing = controllerTimings.get(entry.getValue().getCreationIdentifier());
+                tasks.add(ForkJoinPool.commonPool().submit(() -> prepareTexture(entry.getKey(), entry.getValue(), resourceManager, timing)));
+            }
+        }
+
+        for (Map.Entry<IPreparableTexture, ITextureController> entry : preparableTextures.entrySet())
+        {
+            if (!parallelGeneration || !entry.getValue().supportsParallelGeneration())
+            {
+                prepareTexture(entry.getKey(), entry.getValue(), resourceManager, controllerTimings.get(entry.getValue().getCreationIdentifier()));
+            }
+        }
+
+        for (ForkJoinTask<?> task : tasks)
+        {
+            task.join();
+        }
+
+        SmithsCore.getLogger()
+          .info(CoreReferences.LogMarkers.RENDER,
+            "Generated " + preparableTextures.size() + " textures in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms (" + tasks.size()
+              + " in parallel).");
+        for (Map.Entry<String, LongAdder> timing : controllerTimings.entrySet())
+        {
+            SmithsCore.getLogger()
+              .info(CoreReferences.LogMarkers.RENDER, "  " + timing.getKey() + ": " + TimeUnit.NANOSECONDS.toMillis(timing.getValue().sum()) + " ms");
+        }
+
+        textureCache.logAndResetStatistics();
+        textureCache.trim();
+        analyses.clear();
+    }
+
+    private void prepareTexture(
+      @Nonnull IPreparableTexture texture,
+      @Nonnull ITextureController controller,
+      @Nonnull IResourceManager resourceManager,
+      @Nonnull LongAdder timing)
+    {
+        long start = System.nanoTime();
+
+        try
+        {
+            ResourceLocation sourceFile = texture.getSourceFile(resourceManager);
+            if (sourceFile == null)
+            {
+                return;
+            }
+
+            byte[] cacheKey = textureCache.createKey(sourceFile, texture, controller, resourceManager);
+            if (cacheKey != null && textureCache.load(cacheKey, texture))
+            {
+                return;
+            }
+
+            //Waits when another worker is analysing the same source file, instead of analysing it again.
+            TextureAnalysis analysis = analyses.computeIfAbsent(sourceFile, file -> TextureAnalysis.load(file, resourceManager));
+            if (analysis == null)
+            {
+                return;
+            }
+
+            texture.prepare(analysis);
+
+            if (cacheKey != null)
+            {
+                textureCache.store(cacheKey, texture, System.nanoTime() - start);
+            }
+        }
+        catch (RuntimeException ex)
+        {
+            //The texture will try to load the data itself, when the map loads it.
+            SmithsCore.getLogger().error(CoreReferences.LogMarkers.RENDER, (Object) new Exception("Failed to prepare a generated texture.", ex));
+        }
+        finally
+        {
+            timing.add(System.nanoTime() - start);
+        }
+    }
+
     /**
      * Method called when the resource manager reloads. Clears all the sprites.
      *
@@ -2,23 +2,38 @@ package com.ldtteam.smithscore.common.events;
 
 import com.ldtteam.smithscore.common.events.network.StandardNetworkableEvent;
 import com.ldtteam.smithscore.common.tileentity.TileEntitySmithsCore;
+import com.ldtteam.smithscore.util.CoreReferences;
+import com.ldtteam.smithscore.network.event.EventNetworkManager;
 import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
-import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.relauncher.Side;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.UUID;
 
 /**
  * Created by Marc on 18.12.2015.
  */
 public class TileEntityDataUpdatedEvent extends StandardNetworkableEvent
 {
-    NBTTagCompound              dataCompound;
-    NetworkRegistry.TargetPoint targetPoint;
+    NBTTagCompound dataCompound;
+
+    @Nullable
+    private World            world;
+    @Nullable
+    private BlockPos         pos;
+    @Nullable
+    private Collection<UUID> recipients;
 
     public TileEntityDataUpdatedEvent()
     {
@@ -26,12 +41,65 @@ public class TileEntityDataUpdatedEvent extends StandardNetworkableEvent
 
     public TileEntityDataUpdatedEvent(@Nonnull TileEntitySmithsCore tileEntitySmithsCore)
     {
-        this.dataCompound = tileEntitySmithsCore.writeToSynchronizationCompound(new NBTTagCompound());
-        this.targetPoint = new NetworkRegistry.TargetPoint(tileEntitySmithsCore.getWorld().provider.getDimension(),
-          tileEntitySmithsCore.getPos().getX(),
-          tileEntitySmithsCore.getPos().getY(),
-          tileEntitySmithsCore.getPos().getZ(),
-          128);
+        this(tileEntitySmithsCore, tileEntitySmithsCore.writePendingSynchronizationCompound(), null);
+    }
+
+    /**
+     * Creates a new update for the given TE.
+     *
+     * @param tileEntitySmithsCore The TE that got updated.
+     * @param dataCompound         The synchronization compound to send.
+     * @param recipients           The players that should receive the update, or null to send it to every player that
+     *                             has the chunk of the TE loaded.
+     */
+    public TileEntityDataUpdatedEvent(@Nonnull TileEntitySmithsCore tileEntitySmithsCore, @Nonnull NBTTagCompound dataCompound, @Nullable Collection<UUID> recipients)
+    {
+        this.dataCompound = dataCompound;
+        this.world = tileEntitySmithsCore.getWorld();
+        this.pos = tileEntitySmithsCore.getPos();
+        this.recipients = recipients;
+    }
+
+    /**
+     * Sends the update only to the players that can see the TE, instead of every player on the server.
+     */
+    @Override
+    public void handleServerToClientSide()
+    {
+        if (!(world instanceof WorldServer) || pos == null)
+        {
+            super.handleServerToClientSide();
+            return;
+        }
+
+        IMessage message = getCommunicationMessage(Side.CLIENT);
+        if (message == null)
+        {
+            return;
+        }
+
+        if (recipients != null)
+        {
+            for (UUID playerId : recipients)
+            {
+                EntityPlayerMP player = world.getMinecraftServer().getPlayerList().getPlayerByUUID(playerId);
+                if (player != null)
+                {
+                    EventNetworkManager.getInstance().sendTo(message, player);
+                }
+            }
+
+            return;
+        }
+
+        PlayerChunkMap playerChunkMap = ((WorldServer) world).getPlayerChunkMap();
+        for (EntityPlayer player : world.playerEntities)
+        {
+            if (player instanceof EntityPlayerMP && playerChunkMap.isPlayerWatchingChunk((EntityPlayerMP) player, pos.getX() >> 4, pos.getZ() >> 4))
+            {
+                EventNetworkManager.getInstance().sendTo(message, (EntityPlayerMP) player);
+            }
+        }
     }
 
     @Override
@@ -63,4 +131,14 @@ public class TileEntityDataUpdatedEvent extends StandardNetworkableEvent
     {
         return dataCompound;
     }
+
+    /**
+     * Indicates if the data compound only contains the changed sections of the TE.
+     *
+     * @return True when the compound is a delta, false when it contains the full TE.
+     */
+    public boolean isDelta()
+    {
+        return dataCompound.hasKey(CoreReferences.NBT.SYNCSECTIONS);
+    }
 }
@@ -7,12 +7,14 @@
 package com.ldtteam.smithscore.common.events.network;
 
 import com.ldtteam.smithscore.common.events.SmithsCoreEvent;
+import com.ldtteam.smithscore.network.event.NetworkableEventCodecRegistry;
 import com.ldtteam.smithscore.util.common.Pair;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.relauncher.Side;
 
 import javax.annotation.Nonnull;
 import java.util.HashMap;
+import java.util.function.Supplier;
 
 /**
  * events used to tell Other mods that a NetworkManager is about to be Initialized.
@@ -49,6 +51,19 @@ public class NetworkManagerInitializeEvent extends SmithsCoreEvent
         iAdditionalMessage.put(new Pair<Class, Class>(pHandlerClass, pMessageClass), pReceivingSide);
     }
 
+    /**
+     * Function used by catching handlers to register their StandardNetworkableEvents, so that they are send with a
+     * compact ID instead of their class name, and are created without reflection on the receiving side.
+     *
+     * @param pEventClass The class of the event.
+     * @param pFactory    Creates an empty instance of the event on the receiving side.
+     * @param <E>         The type of the event.
+     */
+    public <E extends StandardNetworkableEvent> void RegisterNewEvent(@Nonnull Class<E> pEventClass, @Nonnull Supplier<E> pFactory)
+    {
+        NetworkableEventCodecRegistry.getInstance().register(pEventClass, pFactory);
+    }
+
     /**
      * Return a HashMap with all Additional messages for this Channel.
      *
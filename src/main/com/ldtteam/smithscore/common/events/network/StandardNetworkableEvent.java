@@ -20,8 +20,10 @@ import javax.annotation.Nonnull;
  * Standard implementation of the Networkable events.
  * It should be used for events that only handle a limited amount of data.
  * <p>
- * An implementing event has to have an Empty constructor as the IMessage Implementation uses Reflection to create a
- * new Instance of the implementing event and fires it on the NetworkRelayBus.
+ * An implementing event has to have an Empty constructor, the IMessage Implementation uses it to create a new Instance
+ * of the implementing event and fires it on the NetworkRelayBus. Register the event with
+ * {@link NetworkManagerInitializeEvent#RegisterNewEvent(Class, java.util.function.Supplier)} to have it send with a
+ * compact ID instead of its class name.
  */
 public abstract class StandardNetworkableEvent extends NetworkableEvent
 {
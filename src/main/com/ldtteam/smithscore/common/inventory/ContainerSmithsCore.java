@@ -6,6 +6,7 @@ import com.ldtteam.smithscore.client.events.gui.ContainerGuiOpenedEvent;
 import com.ldtteam.smithscore.client.events.gui.GuiInputEvent;
 import com.ldtteam.smithscore.client.gui.management.IGUIManager;
 import com.ldtteam.smithscore.client.gui.management.RelayBasedGUIManager;
+import com.ldtteam.smithscore.common.tileentity.IWatchableTileEntity;
 import com.ldtteam.smithscore.util.common.helper.ItemStackHelper;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.Container;
@@ -51,6 +52,11 @@ public abstract class ContainerSmithsCore extends Container implements IContaine
             return;
         }
 
+        if (this.host instanceof IWatchableTileEntity)
+        {
+            ((IWatchableTileEntity) this.host).onPlayerStartedWatching(playerMP.getUniqueID());
+        }
+
         SmithsCore.getRegistry().getCommonBus().post(new ContainerGuiOpenedEvent(playerMP, this));
     }
 
@@ -174,6 +180,11 @@ public abstract class ContainerSmithsCore extends Container implements IContaine
             return;
         }
 
+        if (this.host instanceof IWatchableTileEntity)
+        {
+            ((IWatchableTileEntity) this.host).onPlayerStoppedWatching(playerIn.getUniqueID());
+        }
+
         SmithsCore.getRegistry().getCommonBus().post(new ContainerGuiClosedEvent(playerIn, this));
     }
 
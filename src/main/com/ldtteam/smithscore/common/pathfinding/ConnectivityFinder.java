@@ -0,0 +1,82 @@
+package com.ldtteam.smithscore.common.pathfinding;
+
+import com.ldtteam.smithscore.util.common.positioning.BlockCoordinateMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Splits a set of IPathComponents into its connected components using a single flood fill.
+ * <p>
+ * Every component is visited exactly once, so checking the connectivity of a whole graph is linear in its size,
+ * instead of running a {@link PathFinder} from a root to every single node.
+ */
+public final class ConnectivityFinder
+{
+
+    private ConnectivityFinder()
+    {
+    }
+
+    /**
+     * Calculates the connected components of the given graph.
+     * Only neighbors that are part of the given nodes are followed.
+     *
+     * @param nodes              The nodes of the graph. The first node is the seed of the first returned component.
+     * @param skippableComponent A component that is ignored during the search, for example one that is being removed.
+     * @param <T>                The type of the nodes.
+     * @return The connected components, in the order in which their seeds appear in the given nodes.
+     */
+    @Nonnull
+    public static <T extends IPathComponent> List<LinkedHashSet<T>> findConnectedComponents(@Nonnull Collection<T> nodes, @Nullable IPathComponent skippableComponent)
+    {
+        BlockCoordinateMap<T> remaining = new BlockCoordinateMap<>(nodes.size());
+        for (T node : nodes)
+        {
+            if (skippableComponent != null && skippableComponent.getLocation().equals(node.getLocation()))
+            {
+                continue;
+            }
+
+            remaining.put(node.getLocation(), node);
+        }
+
+        List<LinkedHashSet<T>> components = new ArrayList<>();
+        ArrayDeque<T> openNodes = new ArrayDeque<>();
+
+        while (!remaining.isEmpty())
+        {
+            T seed = remaining.removeFirst();
+
+            LinkedHashSet<T> component = new LinkedHashSet<>();
+            component.add(seed);
+            openNodes.add(seed);
+
+            while (!openNodes.isEmpty())
+            {
+                T current = openNodes.poll();
+
+                for (IPathComponent neighbor : current.getValidPathableNeighborComponents())
+                {
+                    T member = remaining.remove(neighbor.getLocation());
+                    if (member == null)
+                    {
+                        continue;
+                    }
+
+                    component.add(member);
+                    openNodes.add(member);
+                }
+            }
+
+            components.add(component);
+        }
+
+        return components;
+    }
+}
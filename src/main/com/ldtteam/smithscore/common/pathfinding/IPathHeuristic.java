@@ -0,0 +1,43 @@
+package com.ldtteam.smithscore.common.pathfinding;
+
+import com.ldtteam.smithscore.util.common.positioning.Coordinate3D;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Estimates the remaining cost between two locations for the {@link PathFinder}.
+ * <p>
+ * To guarantee a shortest path the estimate should never exceed the real cost.
+ */
+@FunctionalInterface
+public interface IPathHeuristic
+{
+
+    /**
+     * Manhattan distance. Exact lower bound for graphs in which every component only connects to its 6 direct
+     * neighbors with a cost of 1 per step, which is the case for block based structures.
+     */
+    IPathHeuristic MANHATTAN = (from, to) -> Math.abs(from.getXComponent() - to.getXComponent())
+                                               + Math.abs(from.getYComponent() - to.getYComponent())
+                                               + Math.abs(from.getZComponent() - to.getZComponent());
+
+    /**
+     * Straight line distance. Use for graphs that allow diagonal connections.
+     */
+    IPathHeuristic EUCLIDEAN = (from, to) -> {
+        float deltaX = from.getXComponent() - to.getXComponent();
+        float deltaY = from.getYComponent() - to.getYComponent();
+        float deltaZ = from.getZComponent() - to.getZComponent();
+
+        return (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+    };
+
+    /**
+     * Estimates the cost of the path from the given location to the target.
+     *
+     * @param from The location to estimate from.
+     * @param to   The target location.
+     * @return The estimated cost.
+     */
+    float estimate(@Nonnull Coordinate3D from, @Nonnull Coordinate3D to);
+}
@@ -1,8 +1,11 @@
 package com.ldtteam.smithscore.common.pathfinding;
 
+import com.ldtteam.smithscore.util.common.positioning.BlockCoordinateMap;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate3D;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * Created by Orion Created on 03.07.2015 14:42
@@ -11,81 +14,116 @@ import java.util.*;
  */
 public class PathFinder
 {
+    /**
+     * Value for the expansion budget that indicates that the search is not limited.
+     */
+    public static final int UNLIMITED_EXPANSIONS = -1;
+
     @Nullable
     Path iResultedPath = null;
 
-    //Pathfinds using A* Algorithm
+    private int     iExpandedNodes  = 0;
+    private boolean iBudgetExceeded = false;
+
     public PathFinder(@Nonnull IPathComponent pStartNode, @Nonnull IPathComponent pEndNode, @Nonnull IPathComponent pSkippableComponents)
     {
-        HashMap<IPathComponent, Float> tClosedNodes = new HashMap<IPathComponent, Float>();
-        ArrayList<IPathComponent> tOpenNodes = new ArrayList<IPathComponent>();
-        HashMap<IPathComponent, IPathComponent> tPreviousNodes = new HashMap<IPathComponent, IPathComponent>();
+        this(pStartNode, pEndNode, pSkippableComponents, IPathHeuristic.MANHATTAN, UNLIMITED_EXPANSIONS);
+    }
 
-        HashMap<IPathComponent, Float> GScore = new HashMap<IPathComponent, Float>();
-        HashMap<IPathComponent, Float> FScore = new HashMap<IPathComponent, Float>();
-        TreeMap<IPathComponent, Float> SortedFScore = new TreeMap<IPathComponent, Float>(new ValueComparator(FScore));
+    //Pathfinds using A* Algorithm
+    public PathFinder(
+      @Nonnull IPathComponent pStartNode,
+      @Nonnull IPathComponent pEndNode,
+      @Nullable IPathComponent pSkippableComponents,
+      @Nonnull IPathHeuristic pHeuristic,
+      int pMaxExpansions)
+    {
+        Coordinate3D tEndLocation = pEndNode.getLocation();
+        long tEndKey = pack(tEndLocation);
+        boolean tHasSkippable = pSkippableComponents != null;
+        long tSkippedKey = tHasSkippable ? pack(pSkippableComponents.getLocation()) : 0L;
 
-        tOpenNodes.add(pStartNode);
-        GScore.put(pStartNode, 0F);
-        FScore.put(pStartNode, pStartNode.getLocation().getDistanceTo(pEndNode.getLocation()));
+        BlockCoordinateMap<Node> tNodes = new BlockCoordinateMap<>();
+        NodeHeap tOpenNodes = new NodeHeap();
+
+        Node tStart = new Node(pStartNode, pack(pStartNode.getLocation()));
+        tStart.iGScore = 0;
+        tStart.iFScore = pHeuristic.estimate(pStartNode.getLocation(), tEndLocation);
+        tNodes.put(tStart.iKey, tStart);
+        tOpenNodes.add(tStart);
 
         while (!tOpenNodes.isEmpty())
         {
-            SortedFScore.clear();
-            SortedFScore.putAll(FScore);
-
-            IPathComponent tCurrentComponent = SortedFScore.firstKey();
-            if (tCurrentComponent.getLocation().equals(pEndNode.getLocation()))
+            Node tCurrent = tOpenNodes.poll();
+            if (tCurrent.iKey == tEndKey)
             {
-                reconstructPath(tPreviousNodes, pStartNode, pEndNode);
+                reconstructPath(tCurrent, pStartNode, pEndNode);
                 break;
             }
 
-            tOpenNodes.remove(tCurrentComponent);
-            tClosedNodes.put(tCurrentComponent, FScore.get(tCurrentComponent));
+            tCurrent.iClosed = true;
 
-            FScore.remove(tCurrentComponent);
+            if (pMaxExpansions != UNLIMITED_EXPANSIONS && iExpandedNodes >= pMaxExpansions)
+            {
+                iBudgetExceeded = true;
+                break;
+            }
+            iExpandedNodes++;
 
-            for (IPathComponent tNeighborComponent : tCurrentComponent.getValidPathableNeighborComponents())
+            for (IPathComponent tNeighborComponent : tCurrent.iComponent.getValidPathableNeighborComponents())
             {
-                if (tClosedNodes.containsKey(tNeighborComponent))
+                long tNeighborKey = pack(tNeighborComponent.getLocation());
+                if (tHasSkippable && tNeighborKey == tSkippedKey)
                 {
                     continue;
                 }
 
-                if (pSkippableComponents.getLocation().equals(tNeighborComponent.getLocation()))
+                Node tNeighbor = tNodes.get(tNeighborKey);
+                if (tNeighbor != null && tNeighbor.iClosed)
                 {
                     continue;
                 }
 
-                float tTentative_GScore = GScore.get(tCurrentComponent) + 1;
+                float tTentativeGScore = tCurrent.iGScore + 1;
 
-                if (!tOpenNodes.contains(tNeighborComponent) || (tTentative_GScore < GScore.get(tNeighborComponent)))
+                if (tNeighbor == null)
                 {
-                    tPreviousNodes.put(tNeighborComponent, tCurrentComponent);
-                    GScore.put(tNeighborComponent, tTentative_GScore);
-                    FScore.put(tNeighborComponent, tTentative_GScore + tNeighborComponent.getLocation().getDistanceTo(pEndNode.getLocation()));
-
-                    if (!tOpenNodes.contains(tNeighborComponent))
-                    {
-                        tOpenNodes.add(tNeighborComponent);
-                    }
+                    tNeighbor = new Node(tNeighborComponent, tNeighborKey);
+                    tNeighbor.iPrevious = tCurrent;
+                    tNeighbor.iGScore = tTentativeGScore;
+                    tNeighbor.iFScore = tTentativeGScore + pHeuristic.estimate(tNeighborComponent.getLocation(), tEndLocation);
+
+                    tNodes.put(tNeighborKey, tNeighbor);
+                    tOpenNodes.add(tNeighbor);
+                }
+                else if (tTentativeGScore < tNeighbor.iGScore)
+                {
+                    tNeighbor.iPrevious = tCurrent;
+                    tNeighbor.iFScore = tNeighbor.iFScore - tNeighbor.iGScore + tTentativeGScore;
+                    tNeighbor.iGScore = tTentativeGScore;
+
+                    tOpenNodes.decreaseKey(tNeighbor);
                 }
             }
         }
     }
 
-    private void reconstructPath(@Nonnull HashMap<IPathComponent, IPathComponent> pPreviousNodes, @Nonnull IPathComponent pStartNode, @Nonnull IPathComponent pEndNode)
+    private static long pack(@Nonnull Coordinate3D pLocation)
+    {
+        return pLocation.toLong();
+    }
+
+    private void reconstructPath(@Nonnull Node pEnd, @Nonnull IPathComponent pStartNode, @Nonnull IPathComponent pEndNode)
     {
         iResultedPath = new Path(pStartNode, pEndNode);
-        IPathComponent tCurrent = pEndNode;
 
         iResultedPath.startConstructingReversePath();
 
-        while (pPreviousNodes.containsKey(tCurrent))
+        Node tCurrent = pEnd.iPrevious;
+        while (tCurrent != null)
         {
-            tCurrent = pPreviousNodes.remove(tCurrent);
-            iResultedPath.getComponents().add(tCurrent);
+            iResultedPath.getComponents().add(tCurrent.iComponent);
+            tCurrent = tCurrent.iPrevious;
         }
 
         iResultedPath.endConstructingReversePath();
@@ -102,27 +140,149 @@ public class PathFinder
         return iResultedPath;
     }
 
-    private class ValueComparator implements Comparator<IPathComponent>
+    /**
+     * Indicates if the search was aborted because the expansion budget ran out, before a path was found.
+     *
+     * @return True when the budget was exceeded, false when not.
+     */
+    public boolean isBudgetExceeded()
     {
+        return iBudgetExceeded;
+    }
 
-        Map<IPathComponent, Float> base;
+    /**
+     * Returns the amount of nodes whose neighbors have been searched.
+     *
+     * @return The amount of expanded nodes.
+     */
+    public int getExpandedNodes()
+    {
+        return iExpandedNodes;
+    }
 
-        public ValueComparator(@Nonnull Map<IPathComponent, Float> base)
+    private static final class Node
+    {
+        final IPathComponent iComponent;
+        final long           iKey;
+
+        Node    iPrevious  = null;
+        float   iGScore;
+        float   iFScore;
+        int     iHeapIndex = -1;
+        boolean iClosed    = false;
+
+        Node(@Nonnull IPathComponent pComponent, long pKey)
         {
-            this.base = base;
+            iComponent = pComponent;
+            iKey = pKey;
         }
+    }
 
-        public int compare(@Nonnull IPathComponent a, @Nonnull IPathComponent b)
+    /**
+     * Binary min heap on the FScore of the nodes, that tracks the index of every node so that its key can be
+     * decreased in place.
+     */
+    private static final class NodeHeap
+    {
+        private Node[] iNodes = new Node[64];
+        private int    iSize  = 0;
+
+        boolean isEmpty()
+        {
+            return iSize == 0;
+        }
+
+        void add(@Nonnull Node pNode)
         {
-            if (base.get(a) >= base.get(b))
+            if (iSize == iNodes.length)
             {
-                return -1;
+                iNodes = Arrays.copyOf(iNodes, iSize << 1);
             }
-            else
+
+            iNodes[iSize] = pNode;
+            pNode.iHeapIndex = iSize;
+            iSize++;
+
+            siftUp(pNode.iHeapIndex);
+        }
+
+        @Nonnull
+        Node poll()
+        {
+            Node tResult = iNodes[0];
+            iSize--;
+
+            Node tLast = iNodes[iSize];
+            iNodes[iSize] = null;
+
+            if (iSize > 0)
+            {
+                iNodes[0] = tLast;
+                tLast.iHeapIndex = 0;
+                siftDown(0);
+            }
+
+            tResult.iHeapIndex = -1;
+            return tResult;
+        }
+
+        void decreaseKey(@Nonnull Node pNode)
+        {
+            siftUp(pNode.iHeapIndex);
+        }
+
+        private void siftUp(int pIndex)
+        {
+            Node tNode = iNodes[pIndex];
+
+            while (pIndex > 0)
+            {
+                int tParentIndex = (pIndex - 1) >>> 1;
+                Node tParent = iNodes[tParentIndex];
+
+                if (tParent.iFScore <= tNode.iFScore)
+                {
+                    break;
+                }
+
+                iNodes[pIndex] = tParent;
+                tParent.iHeapIndex = pIndex;
+                pIndex = tParentIndex;
+            }
+
+            iNodes[pIndex] = tNode;
+            tNode.iHeapIndex = pIndex;
+        }
+
+        private void siftDown(int pIndex)
+        {
+            Node tNode = iNodes[pIndex];
+            int tHalf = iSize >>> 1;
+
+            while (pIndex < tHalf)
             {
-                return 1;
-            } // returning 0 would merge keys
+                int tChildIndex = (pIndex << 1) + 1;
+                Node tChild = iNodes[tChildIndex];
+
+                int tRightIndex = tChildIndex + 1;
+                if (tRightIndex < iSize && iNodes[tRightIndex].iFScore < tChild.iFScore)
+                {
+                    tChildIndex = tRightIndex;
+                    tChild = iNodes[tChildIndex];
+                }
+
+                if (tNode.iFScore <= tChild.iFScore)
+                {
+                    break;
+                }
+
+                iNodes[pIndex] = tChild;
+                tChild.iHeapIndex = pIndex;
+                pIndex = tChildIndex;
+            }
+
+            iNodes[pIndex] = tNode;
+            tNode.iHeapIndex = pIndex;
         }
     }
 }
-
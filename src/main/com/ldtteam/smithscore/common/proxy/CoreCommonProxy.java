@@ -7,7 +7,9 @@ import com.ldtteam.smithscore.common.capability.SmithsCoreCapabilityDispatcher;
 import com.ldtteam.smithscore.common.handlers.network.CommonNetworkableEventHandler;
 import com.ldtteam.smithscore.common.player.management.PlayerManager;
 import com.ldtteam.smithscore.common.structures.StructureRegistry;
+import com.ldtteam.smithscore.common.tileentity.TileEntitySynchronizationScheduler;
 import com.ldtteam.smithscore.network.event.EventNetworkManager;
+import com.ldtteam.smithscore.network.event.handlers.NetworkableEventIdTableSyncHandler;
 import com.ldtteam.smithscore.util.CoreReferences;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraftforge.common.MinecraftForge;
@@ -50,6 +52,8 @@ public class CoreCommonProxy
     {
         MinecraftForge.EVENT_BUS.register(PlayerManager.getInstance());
         MinecraftForge.EVENT_BUS.register(StructureRegistry.getServerInstance());
+        MinecraftForge.EVENT_BUS.register(TileEntitySynchronizationScheduler.getInstance());
+        MinecraftForge.EVENT_BUS.register(new NetworkableEventIdTableSyncHandler());
 
         SmithsCoreCapabilityDispatcher.initialize();
 
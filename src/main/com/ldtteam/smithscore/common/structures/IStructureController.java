@@ -2,15 +2,19 @@ package com.ldtteam.smithscore.common.structures;
 
 import com.ldtteam.smithscore.SmithsCore;
 import com.ldtteam.smithscore.common.events.structure.StructureEvent;
+import com.ldtteam.smithscore.common.pathfinding.ConnectivityFinder;
 import com.ldtteam.smithscore.common.pathfinding.IPathComponent;
 import com.ldtteam.smithscore.common.pathfinding.PathFinder;
 import com.ldtteam.smithscore.util.common.positioning.Coordinate3D;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * Author Orion (Created on: 25.06.2016)
@@ -129,15 +133,47 @@ public interface IStructureController<S extends IStructure, P extends IStructure
             new StructureEvent.Updated(structure, part.getEnvironment().provider.getDimension()).PostCommon();
         }
 
-        LinkedHashSet<IStructurePart> notConnectedComponents = validateStructureIntegrity(structure, part);
-        structure.removePart(part);
+        List<LinkedHashSet<IStructurePart>> components = findConnectedComponents(structure, part);
+        if (components.size() > 1)
+        {
+            splitStructure(structure, components.subList(1, components.size()));
+        }
+    }
+
+    /**
+     * Calculates the connected components of the given structure in a single pass.
+     * The first component is always the one containing the master of the structure.
+     *
+     * @param structure The structure to check.
+     * @param splitter  The part that is being removed from the structure.
+     * @return The connected components of the structure, without the splitter.
+     */
+    @Nonnull
+    static List<LinkedHashSet<IStructurePart>> findConnectedComponents(@Nonnull IStructure structure, @Nonnull IStructurePart splitter)
+    {
+        List<IStructurePart> parts = new ArrayList<>(structure.getPartLocations().size());
 
-        IStructure newStructure = structure;
-        while (!notConnectedComponents.isEmpty())
+        for (Object obj : structure.getPartLocations())
         {
-            newStructure = splitStructure(newStructure, notConnectedComponents);
-            notConnectedComponents = validateStructureIntegrity(newStructure, part);
+            Coordinate3D location = (Coordinate3D) obj;
+            TileEntity tileEntity = splitter.getEnvironment().getTileEntity(location.toBlockPos());
+
+            if (!(tileEntity instanceof IStructurePart))
+            {
+                continue;
+            }
+
+            if (location.equals(structure.getMasterLocation()))
+            {
+                parts.add(0, (IStructurePart) tileEntity);
+            }
+            else
+            {
+                parts.add((IStructurePart) tileEntity);
+            }
         }
+
+        return ConnectivityFinder.findConnectedComponents(parts, splitter);
     }
 
     @Nonnull
@@ -145,21 +181,61 @@ public interface IStructureController<S extends IStructure, P extends IStructure
     {
         LinkedHashSet<IStructurePart> notConnectedComponents = new LinkedHashSet<>();
 
-        for (Object obj : structure.getPartLocations())
+        List<LinkedHashSet<IStructurePart>> components = findConnectedComponents(structure, splitter);
+        for (int i = 1; i < components.size(); i++)
         {
-            IStructurePart part = (IStructurePart) splitter.getEnvironment().getTileEntity(((Coordinate3D) obj).toBlockPos());
+            notConnectedComponents.addAll(components.get(i));
+        }
 
-            if (!checkIfComponentStillConnected(structure, part, splitter))
+        return notConnectedComponents;
+    }
+
+    /**
+     * Splits every given component of the old structure into its own new structure.
+     * The old structure is only synchronized once, after all components have been split off.
+     *
+     * @param oldStructure The structure to split.
+     * @param components   The components that are no longer connected to the master of the old structure.
+     * @return The newly created structures.
+     */
+    @Nonnull
+    static List<IStructure> splitStructure(@Nonnull IStructure oldStructure, @Nonnull List<LinkedHashSet<IStructurePart>> components)
+    {
+        List<IStructure> newStructures = new ArrayList<>(components.size());
+        World environment = null;
+
+        for (LinkedHashSet<IStructurePart> component : components)
+        {
+            if (component.isEmpty())
             {
-                notConnectedComponents.add(part);
+                continue;
             }
+
+            environment = component.iterator().next().getEnvironment();
+            newStructures.add(createStructureFromParts(oldStructure, component));
         }
 
-        return notConnectedComponents;
+        if (environment != null)
+        {
+            new StructureEvent.Updated(oldStructure, environment.provider.getDimension()).PostCommon();
+        }
+
+        return newStructures;
     }
 
     @Nonnull
     static IStructure splitStructure(@Nonnull IStructure oldStructure, @Nonnull LinkedHashSet<IStructurePart> parts)
+    {
+        IStructurePart newMaster = parts.iterator().next();
+        IStructure newStructure = createStructureFromParts(oldStructure, parts);
+
+        new StructureEvent.Updated(oldStructure, newMaster.getEnvironment().provider.getDimension()).PostCommon();
+
+        return newStructure;
+    }
+
+    @Nonnull
+    static IStructure createStructureFromParts(@Nonnull IStructure oldStructure, @Nonnull LinkedHashSet<IStructurePart> parts)
     {
         //Create the new structures master Entity
         Iterator<IStructurePart> iterator = parts.iterator();
@@ -185,7 +261,6 @@ public interface IStructureController<S extends IStructure, P extends IStructure
         }
 
         new StructureEvent.Create(newStructure, newMaster.getEnvironment().provider.getDimension()).PostCommon();
-        new StructureEvent.Updated(oldStructure, newMaster.getEnvironment().provider.getDimension()).PostCommon();
 
         return newStructure;
     }
@@ -16,4 +16,23 @@ public interface IStructureData<S extends IStructure>
     void readFromNBT(@Nonnull NBTTagCompound compound);
 
     void onDataMergeInto(@Nonnull IStructureData<S> otherData);
+
+    /**
+     * Indicates that the data changed since it was last written to disk. The structure events already mark the
+     * structure as changed, so only data that changes without firing one has to track its changes, either by
+     * overriding this method or by calling {@link StructureRegistry#markStructureDirty(int, IStructure)}.
+     *
+     * @return True when the data has to be written on the next save.
+     */
+    default boolean isDirty()
+    {
+        return false;
+    }
+
+    /**
+     * Called after the data has been handed over to be written to disk.
+     */
+    default void markClean()
+    {
+    }
 }
@@ -0,0 +1,164 @@
+package com.ldtteam.smithscore.common.structures;
+
+import com.ldtteam.smithscore.util.common.positioning.BlockCoordinate;
+import com.ldtteam.smithscore.util.common.positioning.BlockCoordinateSet;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate3D;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.util.math.ChunkPos;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of all structure parts inside of a single dimension.
+ * <p>
+ * Maps the packed location of every part to the structure it belongs to, and every chunk to the structures that have
+ * at least one part in it. Entries are keyed by the packed master location of a structure, so that a structure can be
+ * reindexed even if the instance got replaced (which happens on the client when a sync arrives).
+ */
+public final class StructurePartIndex
+{
+
+    private final Long2ObjectMap<IStructure>         structuresByPart   = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<IStructure>         structuresByMaster = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<BlockCoordinateSet> partsByMaster      = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<BlockCoordinateSet> mastersByChunk     = new Long2ObjectOpenHashMap<>();
+
+    public static long pack(@Nonnull Coordinate3D location)
+    {
+        return location.toLong();
+    }
+
+    /**
+     * Indexes the given structure, replacing any previous entry that was stored under its master location.
+     *
+     * @param structure The structure to index.
+     */
+    public void index(@Nonnull IStructure structure)
+    {
+        long masterKey = pack(structure.getMasterLocation());
+        remove(masterKey);
+
+        BlockCoordinateSet parts = new BlockCoordinateSet(structure.getPartLocations().size() + 1);
+        parts.add(masterKey);
+        for (Object obj : structure.getPartLocations())
+        {
+            parts.add(pack((Coordinate3D) obj));
+        }
+
+        LongIterator iterator = parts.iterator();
+        while (iterator.hasNext())
+        {
+            long partKey = iterator.nextLong();
+            structuresByPart.put(partKey, structure);
+
+            long chunkKey = getChunkKey(partKey);
+            BlockCoordinateSet masters = mastersByChunk.get(chunkKey);
+            if (masters == null)
+            {
+                masters = new BlockCoordinateSet();
+                mastersByChunk.put(chunkKey, masters);
+            }
+
+            masters.add(masterKey);
+        }
+
+        structuresByMaster.put(masterKey, structure);
+        partsByMaster.put(masterKey, parts);
+    }
+
+    /**
+     * Removes the structure that was indexed under the given master location.
+     * Parts that have already been claimed by another structure in the mean time are left untouched.
+     *
+     * @param masterKey The packed master location of the structure.
+     */
+    public void remove(long masterKey)
+    {
+        IStructure structure = structuresByMaster.remove(masterKey);
+        BlockCoordinateSet parts = partsByMaster.remove(masterKey);
+
+        if (parts == null)
+        {
+            return;
+        }
+
+        LongIterator iterator = parts.iterator();
+        while (iterator.hasNext())
+        {
+            long partKey = iterator.nextLong();
+            if (structuresByPart.get(partKey) == structure)
+            {
+                structuresByPart.remove(partKey);
+            }
+
+            long chunkKey = getChunkKey(partKey);
+            BlockCoordinateSet masters = mastersByChunk.get(chunkKey);
+            if (masters == null)
+            {
+                continue;
+            }
+
+            masters.remove(masterKey);
+            if (masters.isEmpty())
+            {
+                mastersByChunk.remove(chunkKey);
+            }
+        }
+    }
+
+    public void clear()
+    {
+        structuresByPart.clear();
+        structuresByMaster.clear();
+        partsByMaster.clear();
+        mastersByChunk.clear();
+    }
+
+    public boolean isEmpty()
+    {
+        return structuresByMaster.isEmpty();
+    }
+
+    @Nullable
+    public IStructure getStructure(long partKey)
+    {
+        return structuresByPart.get(partKey);
+    }
+
+    /**
+     * Returns all structures that have at least one part inside of the given chunk.
+     *
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkZ The z coordinate of the chunk.
+     * @return The structures intersecting the chunk, or an empty list when there are none.
+     */
+    @Nonnull
+    public List<IStructure> getStructuresInChunk(int chunkX, int chunkZ)
+    {
+        BlockCoordinateSet masters = mastersByChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+        if (masters == null)
+        {
+            return Collections.emptyList();
+        }
+
+        List<IStructure> result = new ArrayList<>(masters.size());
+        LongIterator iterator = masters.iterator();
+        while (iterator.hasNext())
+        {
+            result.add(structuresByMaster.get(iterator.nextLong()));
+        }
+
+        return result;
+    }
+
+    private static long getChunkKey(long partKey)
+    {
+        return ChunkPos.asLong(BlockCoordinate.unpackX(partKey) >> 4, BlockCoordinate.unpackZ(partKey) >> 4);
+    }
+}
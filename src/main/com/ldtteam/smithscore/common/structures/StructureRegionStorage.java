@@ -0,0 +1,211 @@
+package com.ldtteam.smithscore.common.structures;
+
+import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.util.CoreReferences;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate3D;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Stores the structures of a single dimension on disk, sharded into regions of 32 by 32 chunks.
+ * <p>
+ * A structure is stored in the region of its master block. Regions are only read when they are first requested, and
+ * only regions that have been marked dirty are written on save. The writing itself is done by the
+ * {@link StructureSaveQueue}, which replaces every region file atomically.
+ */
+public final class StructureRegionStorage
+{
+
+    private static final int REGION_SHIFT = 9;
+
+    private final File directory;
+    @Nullable
+    private       File legacyFile;
+
+    private final LongSet     loadedRegions  = new LongOpenHashSet();
+    private final LongSet     dirtyRegions   = new LongOpenHashSet();
+    private final Queue<Long> failedRegions  = new ConcurrentLinkedQueue<>();
+    //Regions that have been handed to the save queue, but whose write has not completed yet.
+    private final Set<Long>   pendingRegions = ConcurrentHashMap.newKeySet();
+
+    public StructureRegionStorage(@Nonnull File directory, @Nullable File legacyFile)
+    {
+        this.directory = directory;
+        this.legacyFile = legacyFile != null && legacyFile.isFile() ? legacyFile : null;
+    }
+
+    public static long getRegionKey(@Nonnull Coordinate3D location)
+    {
+        return getRegionKey((int) Math.floor(location.getXComponent()), (int) Math.floor(location.getZComponent()));
+    }
+
+    public static long getRegionKey(int blockX, int blockZ)
+    {
+        return ChunkPos.asLong(blockX >> REGION_SHIFT, blockZ >> REGION_SHIFT);
+    }
+
+    public static long getRegionKeyForChunk(int chunkX, int chunkZ)
+    {
+        return getRegionKey(chunkX << 4, chunkZ << 4);
+    }
+
+    /**
+     * The single file all structures of a dimension were stored in before they got sharded into regions.
+     * When present it is read completely on world load, and removed once every region has been written successfully.
+     *
+     * @return The legacy file, or null when there is none.
+     */
+    @Nullable
+    public File getLegacyFile()
+    {
+        return legacyFile;
+    }
+
+    public boolean isRegionLoaded(long regionKey)
+    {
+        return loadedRegions.contains(regionKey);
+    }
+
+    /**
+     * Marks the region as loaded, without reading anything from disk.
+     *
+     * @param regionKey The region to mark.
+     */
+    public void markRegionLoaded(long regionKey)
+    {
+        loadedRegions.add(regionKey);
+    }
+
+    public void markDirty(@Nonnull Coordinate3D masterLocation)
+    {
+        dirtyRegions.add(getRegionKey(masterLocation));
+    }
+
+    public boolean isDirty()
+    {
+        drainFailedRegions();
+        return !dirtyRegions.isEmpty();
+    }
+
+    @Nonnull
+    public LongSet getDirtyRegions()
+    {
+        drainFailedRegions();
+        return dirtyRegions;
+    }
+
+    /**
+     * Reads the structures stored in the given region, and marks the region as loaded.
+     *
+     * @param regionKey The region to read.
+     * @return The stored structure entries, empty when the region has no file.
+     */
+    @Nonnull
+    public NBTTagList loadRegion(long regionKey)
+    {
+        loadedRegions.add(regionKey);
+
+        File regionFile = getRegionFile(regionKey);
+        if (!regionFile.exists())
+        {
+            return new NBTTagList();
+        }
+
+        if (SmithsCore.isInDevEnvironment())
+        {
+            SmithsCore.getLogger().info("Loading structures from: " + regionFile.getName());
+        }
+
+        try (InputStream inputStream = new FileInputStream(regionFile))
+        {
+            NBTTagCompound compound = CompressedStreamTools.readCompressed(inputStream);
+            return compound.getTagList(CoreReferences.NBT.StructureData.STORE, Constants.NBT.TAG_COMPOUND);
+        }
+        catch (Exception ex)
+        {
+            SmithsCore.getLogger()
+              .error(CoreReferences.LogMarkers.STRUCTURE, (Object) new Exception("Failed to load the structure region: " + regionFile.getName() + " from Disk!", ex));
+            return new NBTTagList();
+        }
+    }
+
+    /**
+     * Hands the given regions over to the save queue. The regions are no longer dirty afterwards, unless their write
+     * fails, in which case they are marked dirty again. The legacy file is not touched, see
+     * {@link #removeLegacyFileIfSaved(StructureSaveQueue)}.
+     *
+     * @param regions   The structure entries of every region that should be written.
+     * @param saveQueue The queue that writes the data.
+     */
+    public void save(@Nonnull Long2ObjectMap<NBTTagList> regions, @Nonnull StructureSaveQueue saveQueue)
+    {
+        for (Long2ObjectMap.Entry<NBTTagList> region : regions.long2ObjectEntrySet())
+        {
+            long regionKey = region.getLongKey();
+            NBTTagCompound regionCompound = null;
+
+            if (region.getValue().tagCount() > 0)
+            {
+                regionCompound = new NBTTagCompound();
+                regionCompound.setTag(CoreReferences.NBT.StructureData.STORE, region.getValue());
+            }
+
+            pendingRegions.add(regionKey);
+            saveQueue.submit(getRegionFile(regionKey), regionCompound, () -> pendingRegions.remove(regionKey), () -> {
+                pendingRegions.remove(regionKey);
+                failedRegions.add(regionKey);
+            });
+            dirtyRegions.remove(regionKey);
+        }
+    }
+
+    /**
+     * Queues the removal of the legacy file, once the save queue confirmed that every region has been written. Until
+     * then the legacy file stays on disk, so that the structures are not lost when writing a region fails.
+     *
+     * @param saveQueue The queue that writes the data.
+     * @return True when the removal was queued.
+     */
+    public boolean removeLegacyFileIfSaved(@Nonnull StructureSaveQueue saveQueue)
+    {
+        if (legacyFile == null || isDirty() || !pendingRegions.isEmpty())
+        {
+            return false;
+        }
+
+        saveQueue.submit(legacyFile, null, null, null);
+        legacyFile = null;
+        return true;
+    }
+
+    private void drainFailedRegions()
+    {
+        Long regionKey;
+        while ((regionKey = failedRegions.poll()) != null)
+        {
+            dirtyRegions.add((long) regionKey);
+        }
+    }
+
+    @Nonnull
+    private File getRegionFile(long regionKey)
+    {
+        return new File(directory, "r." + (int) regionKey + "." + (int) (regionKey >> 32) + ".dat");
+    }
+}
@@ -3,24 +3,32 @@ package com.ldtteam.smithscore.common.structures;
 import com.ldtteam.smithscore.SmithsCore;
 import com.ldtteam.smithscore.common.events.structure.StructureEvent;
 import com.ldtteam.smithscore.util.CoreReferences;
+import com.ldtteam.smithscore.util.common.positioning.BlockCoordinateMap;
 import com.ldtteam.smithscore.util.common.positioning.Coordinate3D;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.event.world.ChunkDataEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.relauncher.Side;
-import net.minecraftforge.fml.relauncher.SideOnly;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,8 +40,11 @@ public final class StructureRegistry
     private static final StructureRegistry clientInstance = new StructureRegistry();
     private static final StructureRegistry serverInstance = new StructureRegistry();
 
-    private final LinkedHashMap<Class<? extends IStructure>, IStructureFactory>   factories  = new LinkedHashMap<>();
-    private final LinkedHashMap<Integer, LinkedHashMap<Coordinate3D, IStructure>> structures = new LinkedHashMap<>();
+    private final LinkedHashMap<Class<? extends IStructure>, IStructureFactory> factories   = new LinkedHashMap<>();
+    private final LinkedHashMap<Integer, BlockCoordinateMap<IStructure>>        structures  = new LinkedHashMap<>();
+    private final Int2ObjectMap<StructurePartIndex>                             partIndices = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<StructureRegionStorage>                         storages    = new Int2ObjectOpenHashMap<>();
+    private final StructureSaveQueue                                              saveQueue   = new StructureSaveQueue();
 
     private StructureRegistry()
     {
@@ -62,6 +73,17 @@ public final class StructureRegistry
         return serverInstance;
     }
 
+    /**
+     * Only the server instance reads and writes structure data. In single player both instances receive the world
+     * events of the integrated server, and writing from both would have two threads writing the same region files.
+     *
+     * @return True when this is the instance of the server side.
+     */
+    public boolean isServerInstance()
+    {
+        return this == serverInstance;
+    }
+
     public void registerStructureFactory(@Nonnull IStructureFactory factory)
     {
         factories.put(factory.getStructureType(), factory);
@@ -81,28 +103,56 @@ public final class StructureRegistry
     {
         synchronized (structures)
         {
-            if (!structures.containsKey(dimension))
-            {
-                return null;
-            }
+            long partKey = StructurePartIndex.pack(location);
 
-            if (structures.get(dimension).containsKey(location))
+            StructurePartIndex index = partIndices.get((int) dimension);
+            IStructure structure = index == null ? null : index.getStructure(partKey);
+            if (structure != null || !ensureRegionLoaded(dimension, StructureRegionStorage.getRegionKey(location)))
             {
-                return structures.get(dimension).get(location);
+                return structure;
             }
 
-            for (IStructure structure : structures.get(dimension).values())
+            index = partIndices.get((int) dimension);
+            return index == null ? null : index.getStructure(partKey);
+        }
+    }
+
+    /**
+     * Returns all structures that have at least one part inside of the given chunk.
+     *
+     * @param dimension The dimension to look in.
+     * @param chunkX    The x coordinate of the chunk.
+     * @param chunkZ    The z coordinate of the chunk.
+     * @return The structures intersecting the given chunk.
+     */
+    @Nonnull
+    public List<IStructure> getStructuresInChunk(int dimension, int chunkX, int chunkZ)
+    {
+        synchronized (structures)
+        {
+            StructurePartIndex index = partIndices.get(dimension);
+            if (index == null)
             {
-                if (structure.getPartLocations().contains(location))
-                {
-                    return structure;
-                }
+                return Collections.emptyList();
             }
 
-            return null;
+            return index.getStructuresInChunk(chunkX, chunkZ);
         }
     }
 
+    @Nonnull
+    private StructurePartIndex getOrCreatePartIndex(int dimension)
+    {
+        StructurePartIndex index = partIndices.get(dimension);
+        if (index == null)
+        {
+            index = new StructurePartIndex();
+            partIndices.put(dimension, index);
+        }
+
+        return index;
+    }
+
     public void onStructurePartPlaced(@Nonnull IStructurePart part)
     {
         IStructureFactory factory = getFactory(part.getStructureType());
@@ -117,60 +167,70 @@ public final class StructureRegistry
     @SubscribeEvent
     public void onWorldLoad(@Nonnull WorldEvent.Load event)
     {
-        if (event.getWorld().isRemote)
+        if (event.getWorld().isRemote || !isServerInstance())
         {
             return;
         }
 
         int dimensionId = event.getWorld().provider.getDimension();
-        File dimensionFile =
-          new File(FMLCommonHandler.instance().getMinecraftServerInstance().getEntityWorld().getSaveHandler().getWorldDirectory(), "armory/structures/dim_" + dimensionId + ".dat");
+        File structuresDirectory =
+          new File(FMLCommonHandler.instance().getMinecraftServerInstance().getEntityWorld().getSaveHandler().getWorldDirectory(), "armory/structures");
 
-        if (structures.containsKey(dimensionId))
+        synchronized (structures)
         {
-            structures.get(dimensionId).clear();
-        }
+            if (structures.containsKey(dimensionId))
+            {
+                structures.get(dimensionId).clear();
+            }
 
-        if (!dimensionFile.exists())
-        {
-            return;
-        }
+            if (partIndices.containsKey(dimensionId))
+            {
+                partIndices.get(dimensionId).clear();
+            }
 
-        if (!structures.containsKey(dimensionId))
-        {
-            structures.put(dimensionId, new LinkedHashMap<>());
+            //Region files that are still queued for writing would be read in their old state otherwise.
+            saveQueue.flush();
+
+            StructureRegionStorage storage =
+              new StructureRegionStorage(new File(structuresDirectory, "dim_" + dimensionId), new File(structuresDirectory, "dim_" + dimensionId + ".dat"));
+            storages.put(dimensionId, storage);
+
+            if (storage.getLegacyFile() != null)
+            {
+                loadLegacyStructures(dimensionId, storage);
+            }
         }
+    }
 
-        try
+    /**
+     * Reads all structures from the single file they were stored in before the storage got sharded into regions.
+     * Every region that receives a structure is marked as loaded and dirty, so it is written on the next save.
+     */
+    private void loadLegacyStructures(int dimensionId, @Nonnull StructureRegionStorage storage)
+    {
+        File dimensionFile = storage.getLegacyFile();
+
+        try (FileInputStream inputStream = new FileInputStream(dimensionFile))
         {
             if (SmithsCore.isInDevEnvironment())
             {
                 SmithsCore.getLogger().info("Loading structures from: " + dimensionFile.getName());
             }
 
-            FileInputStream inputStream = new FileInputStream(dimensionFile);
             NBTTagCompound compound = CompressedStreamTools.readCompressed(inputStream);
-
             NBTTagList structuresList = compound.getTagList(CoreReferences.NBT.StructureData.STORE, Constants.NBT.TAG_COMPOUND);
 
             for (int i = 0; i < structuresList.tagCount(); i++)
             {
-                NBTTagCompound structureCompound = structuresList.getCompoundTagAt(i);
-                Class<? extends IStructure> structureClass = (Class<? extends IStructure>) Class.forName(structureCompound.getString(CoreReferences.NBT.StructureData.TYPE));
-                if (!factories.containsKey(structureClass))
+                IStructure structure = readStructureEntry(structuresList.getCompoundTagAt(i), dimensionFile.getName());
+                if (structure == null)
                 {
-                    SmithsCore.getLogger()
-                      .warn(CoreReferences.LogMarkers.STRUCTURE,
-                        "Found a structure of type: " + structureClass.getName() + " in file: " + dimensionFile.getName()
-                          + " that has no associated factory, it will not persist!");
                     continue;
                 }
 
-                IStructureFactory factory = factories.get(structureClass);
-                IStructure structure = factory.loadStructureFromNBT(structureCompound.getCompoundTag(CoreReferences.NBT.StructureData.STRUCTURE));
-                structure.setMasterLocation(Coordinate3D.fromNBT(structureCompound.getCompoundTag(CoreReferences.NBT.StructureData.MASTERLOCATION)));
-
-                structures.get(dimensionId).put(structure.getMasterLocation(), structure);
+                storage.markRegionLoaded(StructureRegionStorage.getRegionKey(structure.getMasterLocation()));
+                storage.markDirty(structure.getMasterLocation());
+                addLoadedStructure(dimensionId, structure);
             }
         }
         catch (Exception ex)
@@ -179,62 +239,252 @@ public final class StructureRegistry
         }
     }
 
+    /**
+     * Makes sure the structures stored in the given region have been read from disk.
+     * Newly loaded structures are synchronized to all clients.
+     *
+     * @param dimensionId The dimension of the region.
+     * @param regionKey   The key of the region.
+     * @return True when the region was read by this call, false when it was already loaded or there is no storage.
+     */
+    private boolean ensureRegionLoaded(int dimensionId, long regionKey)
+    {
+        StructureRegionStorage storage = storages.get(dimensionId);
+        if (storage == null || storage.isRegionLoaded(regionKey))
+        {
+            return false;
+        }
+
+        NBTTagList structuresList = storage.loadRegion(regionKey);
+        for (int i = 0; i < structuresList.tagCount(); i++)
+        {
+            IStructure structure = readStructureEntry(structuresList.getCompoundTagAt(i), "region " + regionKey);
+            if (structure == null)
+            {
+                continue;
+            }
+
+            //Structures that were created before their region got read are newer than the stored ones.
+            if (structures.containsKey(dimensionId) && structures.get(dimensionId).containsKey(structure.getMasterLocation()))
+            {
+                continue;
+            }
+
+            addLoadedStructure(dimensionId, structure);
+            new StructureEvent.Create(structure, dimensionId).handleServerToClientSide();
+        }
+
+        return true;
+    }
+
+    private void addLoadedStructure(int dimensionId, @Nonnull IStructure structure)
+    {
+        if (!structures.containsKey(dimensionId))
+        {
+            structures.put(dimensionId, new BlockCoordinateMap<>());
+        }
+
+        structures.get(dimensionId).put(structure.getMasterLocation(), structure);
+        getOrCreatePartIndex(dimensionId).index(structure);
+    }
+
+    @Nullable
+    private IStructure readStructureEntry(@Nonnull NBTTagCompound structureCompound, @Nonnull String source)
+    {
+        Class<? extends IStructure> structureClass;
+        try
+        {
+            structureClass = (Class<? extends IStructure>) Class.forName(structureCompound.getString(CoreReferences.NBT.StructureData.TYPE));
+        }
+        catch (ClassNotFoundException e)
+        {
+            SmithsCore.getLogger()
+              .warn(CoreReferences.LogMarkers.STRUCTURE,
+                "Found a structure of unknown type: " + structureCompound.getString(CoreReferences.NBT.StructureData.TYPE) + " in: " + source + ", it will not persist!");
+            return null;
+        }
+
+        if (!factories.containsKey(structureClass))
+        {
+            SmithsCore.getLogger()
+              .warn(CoreReferences.LogMarkers.STRUCTURE,
+                "Found a structure of type: " + structureClass.getName() + " in: " + source
+                  + " that has no associated factory, it will not persist!");
+            return null;
+        }
+
+        IStructureFactory factory = factories.get(structureClass);
+        IStructure structure = factory.loadStructureFromNBT(structureCompound.getCompoundTag(CoreReferences.NBT.StructureData.STRUCTURE));
+        structure.setMasterLocation(Coordinate3D.fromNBT(structureCompound.getCompoundTag(CoreReferences.NBT.StructureData.MASTERLOCATION)));
+
+        return structure;
+    }
+
+    @Nonnull
+    private NBTTagCompound writeStructureEntry(@Nonnull IStructure structure)
+    {
+        NBTTagCompound structureCompound = new NBTTagCompound();
+        structureCompound.setTag(CoreReferences.NBT.StructureData.MASTERLOCATION, structure.getMasterLocation().toCompound());
+        structureCompound.setString(CoreReferences.NBT.StructureData.TYPE, structure.getClass().getName());
+
+        IStructureFactory factory = factories.get(structure.getClass());
+        structureCompound.setTag(CoreReferences.NBT.StructureData.STRUCTURE, factory.generateNBTFromStructure(structure));
+
+        return structureCompound;
+    }
+
+    /**
+     * Marks the given structure as changed, so that it is written to disk on the next world save.
+     * The structure events already do this, and so does the save when the data of a structure reports itself as dirty.
+     *
+     * @param dimensionId The dimension of the structure.
+     * @param structure   The changed structure.
+     */
+    public void markStructureDirty(int dimensionId, @Nonnull IStructure structure)
+    {
+        markStructureDirty(dimensionId, structure.getMasterLocation());
+    }
+
+    private void markStructureDirty(int dimensionId, @Nonnull Coordinate3D masterLocation)
+    {
+        synchronized (structures)
+        {
+            StructureRegionStorage storage = storages.get(dimensionId);
+            if (storage != null)
+            {
+                storage.markDirty(masterLocation);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkDataLoad(@Nonnull ChunkDataEvent.Load event)
+    {
+        if (event.getWorld().isRemote || !isServerInstance())
+        {
+            return;
+        }
+
+        synchronized (structures)
+        {
+            ensureRegionLoaded(event.getWorld().provider.getDimension(), StructureRegionStorage.getRegionKeyForChunk(event.getChunk().x, event.getChunk().z));
+        }
+    }
+
     @SubscribeEvent
     public void onWorldSave(@Nonnull WorldEvent.Save event)
     {
+        if (event.getWorld().isRemote || !isServerInstance())
+        {
+            return;
+        }
+
         saveStructureDataForWorld(event.getWorld().provider.getDimension());
     }
 
     private void saveStructureDataForWorld(int dimensionId)
     {
-        File dimensionFile =
-          new File(FMLCommonHandler.instance().getMinecraftServerInstance().getEntityWorld().getSaveHandler().getWorldDirectory(), "armory/structures/dim_" + dimensionId + ".dat");
-
-        try
+        synchronized (structures)
         {
-            if (!dimensionFile.exists())
+            StructureRegionStorage storage = storages.get(dimensionId);
+            if (storage == null)
             {
-                dimensionFile.mkdirs();
+                return;
             }
 
-            if (dimensionFile.exists())
+            //The data of a structure can change without a structure event being fired.
+            if (structures.containsKey(dimensionId))
             {
-                dimensionFile.delete();
+                for (IStructure structure : structures.get(dimensionId).values())
+                {
+                    if (structure.getData().isDirty())
+                    {
+                        storage.markDirty(structure.getMasterLocation());
+                    }
+                }
             }
 
-            if (!structures.containsKey(dimensionId))
+            //Only removes the legacy file once the regions written by the previous saves have been confirmed.
+            storage.removeLegacyFileIfSaved(saveQueue);
+
+            if (!storage.isDirty())
             {
                 return;
             }
 
-            NBTTagCompound dimensionCompound = new NBTTagCompound();
-            NBTTagList structureList = new NBTTagList();
+            long snapshotStart = System.nanoTime();
 
-            for (Coordinate3D masterCoordinate : structures.get(dimensionId).keySet())
+            Long2ObjectMap<NBTTagList> regions = new Long2ObjectOpenHashMap<>();
+            LongIterator dirtyRegions = storage.getDirtyRegions().iterator();
+            while (dirtyRegions.hasNext())
             {
-                NBTTagCompound structureCompound = new NBTTagCompound();
-                structureCompound.setTag(CoreReferences.NBT.StructureData.MASTERLOCATION, masterCoordinate.toCompound());
-
-                IStructure structure = structures.get(dimensionId).get(masterCoordinate);
-                structureCompound.setString(CoreReferences.NBT.StructureData.TYPE, structure.getClass().getName());
-
-                IStructureFactory factory = factories.get(structure.getClass());
-                structureCompound.setTag(CoreReferences.NBT.StructureData.STRUCTURE, factory.generateNBTFromStructure(structure));
+                regions.put(dirtyRegions.nextLong(), new NBTTagList());
+            }
 
-                structureList.appendTag(structureCompound);
+            //A region can become dirty before it is read, for example when a structure is built in a new chunk.
+            //Read those first, so that the structures stored in them are not lost.
+            for (long regionKey : regions.keySet())
+            {
+                ensureRegionLoaded(dimensionId, regionKey);
             }
 
-            dimensionCompound.setTag(CoreReferences.NBT.StructureData.STORE, structureList);
+            if (structures.containsKey(dimensionId))
+            {
+                for (IStructure structure : structures.get(dimensionId).values())
+                {
+                    NBTTagList regionList = regions.get(StructureRegionStorage.getRegionKey(structure.getMasterLocation()));
+                    if (regionList != null)
+                    {
+                        regionList.appendTag(writeStructureEntry(structure));
+                        structure.getData().markClean();
+                    }
+                }
+            }
 
-            dimensionFile.createNewFile();
+            storage.save(regions, saveQueue);
+            saveQueue.recordSnapshot(System.nanoTime() - snapshotStart);
 
-            FileOutputStream outputStream = new FileOutputStream(dimensionFile);
-            CompressedStreamTools.writeCompressed(dimensionCompound, outputStream);
+            if (SmithsCore.isInDevEnvironment())
+            {
+                SmithsCore.getLogger()
+                  .info(CoreReferences.LogMarkers.STRUCTURE,
+                    "Queued " + regions.size() + " structure regions of dimension: " + dimensionId + " for saving. Queue depth: " + saveQueue.getQueueDepth());
+            }
         }
-        catch (Exception ex)
+    }
+
+    /**
+     * Blocks until all structure data has been written to disk. Called when the server has stopped. Only the server
+     * instance queues writes, so its queue is the only one that can have pending work.
+     */
+    public void onServerStopped()
+    {
+        saveQueue.flush();
+
+        synchronized (structures)
         {
-            SmithsCore.getLogger().error(CoreReferences.LogMarkers.STRUCTURE, (Object) new Exception("Failed to write the structure data to Disk! It will not persist!", ex));
+            boolean removedLegacyFiles = false;
+            for (StructureRegionStorage storage : storages.values())
+            {
+                removedLegacyFiles |= storage.removeLegacyFileIfSaved(saveQueue);
+            }
+
+            if (removedLegacyFiles)
+            {
+                saveQueue.flush();
+            }
         }
+
+        SmithsCore.getLogger()
+          .info(CoreReferences.LogMarkers.STRUCTURE,
+            "Structure saving finished. Files written: " + saveQueue.getFilesWritten() + ", bytes written: " + saveQueue.getBytesWritten() + ", coalesced writes: "
+              + saveQueue.getCoalescedWrites() + ", snapshot time: " + saveQueue.getSnapshotNanos() / 1000000 + " ms.");
+    }
+
+    @Nonnull
+    public StructureSaveQueue getSaveQueue()
+    {
+        return saveQueue;
     }
 
     @SubscribeEvent
@@ -242,7 +492,7 @@ public final class StructureRegistry
     {
         synchronized (structures)
         {
-            for (Map.Entry<Integer, LinkedHashMap<Coordinate3D, IStructure>> dimensionEntry : structures.entrySet())
+            for (Map.Entry<Integer, BlockCoordinateMap<IStructure>> dimensionEntry : structures.entrySet())
             {
                 for (IStructure structure : dimensionEntry.getValue().values())
                 {
@@ -259,10 +509,12 @@ public final class StructureRegistry
         {
             if (!structures.containsKey(event.getDimension()))
             {
-                structures.put(event.getDimension(), new LinkedHashMap<>());
+                structures.put(event.getDimension(), new BlockCoordinateMap<>());
             }
 
             structures.get(event.getDimension()).put(event.getStructure().getMasterLocation(), event.getStructure());
+            getOrCreatePartIndex(event.getDimension()).index(event.getStructure());
+            markStructureDirty(event.getDimension(), event.getStructure());
         }
     }
 
@@ -282,10 +534,13 @@ public final class StructureRegistry
             }
 
             structures.get(event.getDimension()).remove(event.getStructure().getMasterLocation());
+            getOrCreatePartIndex(event.getDimension()).remove(StructurePartIndex.pack(event.getStructure().getMasterLocation()));
+            markStructureDirty(event.getDimension(), event.getStructure());
 
             if (structures.get(event.getDimension()).size() == 0)
             {
                 structures.remove(event.getDimension());
+                partIndices.remove((int) event.getDimension());
             }
         }
     }
@@ -307,11 +562,17 @@ public final class StructureRegistry
 
             structures.get(event.getDimension()).remove(event.getOldMaster());
             structures.get(event.getDimension()).put(event.getStructure().getMasterLocation(), event.getStructure());
+
+            StructurePartIndex index = getOrCreatePartIndex(event.getDimension());
+            index.remove(StructurePartIndex.pack(event.getOldMaster()));
+            index.index(event.getStructure());
+
+            markStructureDirty(event.getDimension(), event.getOldMaster());
+            markStructureDirty(event.getDimension(), event.getStructure());
         }
     }
 
     @SubscribeEvent
-    @SideOnly(Side.CLIENT)
     public void onStructureUpdated(@Nonnull StructureEvent.Updated event)
     {
         synchronized (structures)
@@ -328,6 +589,8 @@ public final class StructureRegistry
 
             structures.get(event.getDimension()).remove(event.getStructure().getMasterLocation());
             structures.get(event.getDimension()).put(event.getStructure().getMasterLocation(), event.getStructure());
+            getOrCreatePartIndex(event.getDimension()).index(event.getStructure());
+            markStructureDirty(event.getDimension(), event.getStructure());
         }
     }
 }
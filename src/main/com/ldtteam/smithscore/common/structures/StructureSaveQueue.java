@@ -0,0 +1,293 @@
+package com.ldtteam.smithscore.common.structures;
+
+import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.util.CoreReferences;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes structure data to disk on a dedicated I/O thread.
+ * <p>
+ * The server thread only takes the NBT snapshot and hands it over. Compression and disk access happen on the I/O
+ * thread. A snapshot for a file that is still waiting to be written replaces the waiting one, so repeated saves of the
+ * same data are coalesced. When too many files are waiting the submitting thread blocks until the I/O thread caught
+ * up, which keeps the amount of queued snapshots bounded.
+ */
+public final class StructureSaveQueue
+{
+
+    private static final int MAX_PENDING_WRITES = 256;
+
+    private final Map<File, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private final Object                  lock          = new Object();
+
+    private final AtomicLong bytesWritten  = new AtomicLong();
+    private final AtomicLong filesWritten  = new AtomicLong();
+    private final AtomicLong coalesced     = new AtomicLong();
+    private final AtomicLong snapshotNanos = new AtomicLong();
+
+    @Nullable
+    private Thread  ioThread;
+    private boolean writing = false;
+
+    /**
+     * Queues the given compound to be written to the target file. Passing null removes the target file instead.
+     *
+     * @param target    The file to write.
+     * @param compound  The snapshot to write, or null to delete the file.
+     * @param onSuccess Called on the I/O thread when the write succeeded.
+     * @param onFailure Called on the I/O thread when the write fails.
+     */
+    public void submit(@Nonnull File target, @Nullable NBTTagCompound compound, @Nullable Runnable onSuccess, @Nullable Runnable onFailure)
+    {
+        synchronized (lock)
+        {
+            PendingWrite previous = pendingWrites.get(target);
+            if (previous != null)
+            {
+                previous.compound = compound;
+                previous.onSuccess = onSuccess;
+                previous.onFailure = onFailure;
+                coalesced.incrementAndGet();
+                return;
+            }
+
+            while (pendingWrites.size() >= MAX_PENDING_WRITES)
+            {
+                try
+                {
+                    lock.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            pendingWrites.put(target, new PendingWrite(target, compound, onSuccess, onFailure));
+            ensureThreadRunning();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Records the time the server thread needed to take a snapshot, for the metrics.
+     *
+     * @param nanos The duration of the snapshot in nanoseconds.
+     */
+    public void recordSnapshot(long nanos)
+    {
+        snapshotNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Blocks until every queued write has been completed.
+     */
+    public void flush()
+    {
+        synchronized (lock)
+        {
+            while (!pendingWrites.isEmpty() || writing)
+            {
+                try
+                {
+                    lock.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocks until the given file has been written, if a write for it is queued.
+     *
+     * @param target The file to wait for.
+     */
+    public void flush(@Nonnull File target)
+    {
+        synchronized (lock)
+        {
+            while (pendingWrites.containsKey(target) || writing)
+            {
+                try
+                {
+                    lock.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public int getQueueDepth()
+    {
+        synchronized (lock)
+        {
+            return pendingWrites.size();
+        }
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten.get();
+    }
+
+    public long getFilesWritten()
+    {
+        return filesWritten.get();
+    }
+
+    public long getCoalescedWrites()
+    {
+        return coalesced.get();
+    }
+
+    public long getSnapshotNanos()
+    {
+        return snapshotNanos.get();
+    }
+
+    private void ensureThreadRunning()
+    {
+        if (ioThread != null && ioThread.isAlive())
+        {
+            return;
+        }
+
+        ioThread = new Thread(this::processWrites, "SmithsCore Structure IO");
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    private void processWrites()
+    {
+        while (true)
+        {
+            PendingWrite write;
+            synchronized (lock)
+            {
+                while (pendingWrites.isEmpty())
+                {
+                    writing = false;
+                    lock.notifyAll();
+
+                    try
+                    {
+                        lock.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                }
+
+                Iterator<PendingWrite> iterator = pendingWrites.values().iterator();
+                write = iterator.next();
+                iterator.remove();
+
+                writing = true;
+                lock.notifyAll();
+            }
+
+            try
+            {
+                if (write.compound == null)
+                {
+                    Files.deleteIfExists(write.target.toPath());
+                }
+                else
+                {
+                    bytesWritten.addAndGet(writeAtomically(write.compound, write.target));
+                    filesWritten.incrementAndGet();
+                }
+            }
+            catch (Exception ex)
+            {
+                SmithsCore.getLogger()
+                  .error(CoreReferences.LogMarkers.STRUCTURE, (Object) new Exception("Failed to write the structure data: " + write.target.getName() + " to Disk!", ex));
+
+                if (write.onFailure != null)
+                {
+                    write.onFailure.run();
+                }
+
+                continue;
+            }
+
+            if (write.onSuccess != null)
+            {
+                write.onSuccess.run();
+            }
+        }
+    }
+
+    private static long writeAtomically(@Nonnull NBTTagCompound compound, @Nonnull File target) throws IOException
+    {
+        File directory = target.getParentFile();
+        if (!directory.exists() && !directory.mkdirs())
+        {
+            throw new IOException("Failed to create the structure directory: " + directory.getPath());
+        }
+
+        File temporaryFile = new File(directory, target.getName() + ".tmp");
+
+        try (OutputStream outputStream = new FileOutputStream(temporaryFile))
+        {
+            CompressedStreamTools.writeCompressed(compound, outputStream);
+        }
+
+        long length = temporaryFile.length();
+
+        try
+        {
+            Files.move(temporaryFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException ex)
+        {
+            Files.move(temporaryFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return length;
+    }
+
+    private static final class PendingWrite
+    {
+        private final File           target;
+        @Nullable
+        private       NBTTagCompound compound;
+        @Nullable
+        private       Runnable       onSuccess;
+        @Nullable
+        private       Runnable       onFailure;
+
+        private PendingWrite(@Nonnull File target, @Nullable NBTTagCompound compound, @Nullable Runnable onSuccess, @Nullable Runnable onFailure)
+        {
+            this.target = target;
+            this.compound = compound;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+        }
+    }
+}
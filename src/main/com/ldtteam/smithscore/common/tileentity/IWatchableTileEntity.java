@@ -6,13 +6,38 @@ import java.util.UUID;
 
 /**
  * Author Orion (Created on: 07.07.2016)
+ * <p>
+ * TileEntities that keep track of the players that currently have their container open.
+ * Data that is only displayed in the GUI is only synchronized to these players.
  */
 public interface IWatchableTileEntity
 {
-    //TODO: FIX ME!
+    /**
+     * Method called on the server side when a player opened the container of this TE.
+     *
+     * @param playerId The unique ID of the player that opened the container.
+     */
+    void onPlayerStartedWatching(@Nonnull UUID playerId);
+
+    /**
+     * Method called on the server side when a player closed the container of this TE.
+     *
+     * @param playerId The unique ID of the player that closed the container.
+     */
+    void onPlayerStoppedWatching(@Nonnull UUID playerId);
+
+    /**
+     * Returns the players that currently have the container of this TE open.
+     *
+     * @return The unique IDs of the watching players.
+     */
     @Nonnull
     Collection<UUID> getWatchingPlayers();
 
-    //TODO: FIX ME!
+    /**
+     * Returns the amount of players that currently have the container of this TE open.
+     *
+     * @return The amount of watching players.
+     */
     int getConnectedPlayerCount();
 }
@@ -33,10 +33,32 @@ import net.minecraftforge.fluids.IFluidTank;
 import net.minecraftforge.items.CapabilityItemHandler;
 
 import javax.annotation.Nonnull;
-
-public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends IGUIManager> extends TileEntity implements IContainerHost<G>, IWorldNameable
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends IGUIManager> extends TileEntity implements IContainerHost<G>, IWorldNameable, IWatchableTileEntity
 {
 
+    /**
+     * The sections of a TE that can be synchronized independently of each other.
+     * Mark the changed sections with {@link #markSectionDirty(int)} or {@link #markSlotDirty(int)} before calling
+     * {@link #markDirty()}, to only send those to the client. When nothing is marked the whole TE is synchronized.
+     * <p>
+     * The sections returned by {@link #getGuiSynchronizationSections()} are only send to the players that have the
+     * container of this TE open, all other sections are send to every player that has the chunk of this TE loaded.
+     */
+    public static final int SYNC_STATE     = 1;
+    public static final int SYNC_INVENTORY = 1 << 1;
+    public static final int SYNC_FLUIDS    = 1 << 2;
+    public static final int SYNC_NAME      = 1 << 3;
+    public static final int SYNC_STRUCTURE = 1 << 4;
+    public static final int SYNC_ALL       = SYNC_STATE | SYNC_INVENTORY | SYNC_FLUIDS | SYNC_NAME | SYNC_STRUCTURE;
+
     ItemStorageItemHandler invWrapper;
     private G manager;
     private S state;
@@ -45,6 +67,13 @@ public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends
 
     private String name = "";
 
+    private       int    dirtySyncSections = 0;
+    private final BitSet dirtySyncSlots    = new BitSet();
+
+    private final Set<UUID> watchingPlayers = new LinkedHashSet<>();
+
+    long lastSynchronizationTick = Long.MIN_VALUE / 2;
+
     /**
      * Constructor to create a new TileEntity for a SmithsCore Mod.
      * <p>
@@ -98,6 +127,255 @@ public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends
         return this.writeToNBT(synchronizationCompound);
     }
 
+    /**
+     * Marks the given sections as changed, so that they get synchronized with the next call to {@link #markDirty()}.
+     *
+     * @param sections A combination of the SYNC_ flags of this class.
+     */
+    public void markSectionDirty(int sections)
+    {
+        dirtySyncSections |= sections;
+
+        if ((sections & SYNC_INVENTORY) != 0 && this instanceof IItemStorage)
+        {
+            dirtySyncSlots.set(0, ((IItemStorage) this).getSizeInventory());
+        }
+    }
+
+    /**
+     * Marks a single inventory slot as changed, so that it gets synchronized with the next call to {@link #markDirty()}.
+     *
+     * @param slot The index of the changed slot.
+     */
+    public void markSlotDirty(int slot)
+    {
+        dirtySyncSections |= SYNC_INVENTORY;
+        dirtySyncSlots.set(slot);
+    }
+
+    /**
+     * Returns the sections that are only displayed in the GUI of this TE, and are as such only synchronized to the
+     * players that have its container open. By default every section is synchronized to all players that have the
+     * chunk loaded, since TESRs commonly render the inventory or the fluids. Override this when those are not rendered
+     * in the world, or when the state contains data that is only required by the GUI.
+     *
+     * @return A combination of the SYNC_ flags of this class.
+     */
+    public int getGuiSynchronizationSections()
+    {
+        return 0;
+    }
+
+    /**
+     * Sends all changes since the last synchronization to the clients, and resets the changes.
+     * <p>
+     * When nothing has been marked, the full synchronization compound is sent once to all players that have the chunk
+     * of this TE loaded, which includes the players that have its container open. Otherwise those players receive the
+     * changed sections that are not GUI only, and the players that have the container open additionally receive the
+     * changed GUI only sections.
+     */
+    void postPendingSynchronization()
+    {
+        if (dirtySyncSections == 0)
+        {
+            NBTTagCompound synchronizationCompound = writeToSynchronizationCompound(new NBTTagCompound());
+            dirtySyncSlots.clear();
+
+            SmithsCore.getRegistry().getCommonBus().post(new TileEntityDataUpdatedEvent(this, synchronizationCompound, null));
+            return;
+        }
+
+        int guiSections = getGuiSynchronizationSections();
+        int sections = dirtySyncSections;
+
+        NBTTagCompound chunkWatcherCompound = null;
+        if ((sections & ~guiSections) != 0)
+        {
+            chunkWatcherCompound = writeDeltaSynchronizationCompound(new NBTTagCompound(), sections & ~guiSections, dirtySyncSlots);
+        }
+
+        NBTTagCompound guiWatcherCompound = null;
+        if (!watchingPlayers.isEmpty() && (sections & guiSections) != 0)
+        {
+            guiWatcherCompound = writeDeltaSynchronizationCompound(new NBTTagCompound(), sections & guiSections, dirtySyncSlots);
+        }
+
+        dirtySyncSections = 0;
+        dirtySyncSlots.clear();
+
+        if (chunkWatcherCompound != null)
+        {
+            SmithsCore.getRegistry().getCommonBus().post(new TileEntityDataUpdatedEvent(this, chunkWatcherCompound, null));
+        }
+
+        if (guiWatcherCompound != null)
+        {
+            SmithsCore.getRegistry().getCommonBus().post(new TileEntityDataUpdatedEvent(this, guiWatcherCompound, new ArrayList<>(watchingPlayers)));
+        }
+    }
+
+    /**
+     * Method called on the server side when a player opened the container of this TE.
+     * Sends the full TE to the player, so that the GUI starts with the current data.
+     *
+     * @param playerId The unique ID of the player that opened the container.
+     */
+    @Override
+    public void onPlayerStartedWatching(@Nonnull UUID playerId)
+    {
+        if (!watchingPlayers.add(playerId))
+        {
+            return;
+        }
+
+        SmithsCore.getRegistry()
+          .getCommonBus()
+          .post(new TileEntityDataUpdatedEvent(this, writeToSynchronizationCompound(new NBTTagCompound()), Collections.singletonList(playerId)));
+    }
+
+    @Override
+    public void onPlayerStoppedWatching(@Nonnull UUID playerId)
+    {
+        watchingPlayers.remove(playerId);
+    }
+
+    @Nonnull
+    @Override
+    public Collection<UUID> getWatchingPlayers()
+    {
+        return Collections.unmodifiableSet(watchingPlayers);
+    }
+
+    @Override
+    public int getConnectedPlayerCount()
+    {
+        return watchingPlayers.size();
+    }
+
+    /**
+     * Creates the compound that synchronizes all changes since the last call to this method, and resets the changes.
+     * Returns the full synchronization compound when no sections have been marked, else a delta compound that only
+     * contains the marked sections.
+     *
+     * @return The compound to send to the client.
+     */
+    @Nonnull
+    public NBTTagCompound writePendingSynchronizationCompound()
+    {
+        NBTTagCompound synchronizationCompound;
+        if (dirtySyncSections == 0)
+        {
+            synchronizationCompound = writeToSynchronizationCompound(new NBTTagCompound());
+        }
+        else
+        {
+            synchronizationCompound = writeDeltaSynchronizationCompound(new NBTTagCompound(), dirtySyncSections, dirtySyncSlots);
+        }
+
+        dirtySyncSections = 0;
+        dirtySyncSlots.clear();
+
+        return synchronizationCompound;
+    }
+
+    /**
+     * Writes only the given sections of this TE to the compound. Read on the client by
+     * {@link #readFromDeltaSynchronizationCompound(NBTTagCompound)}.
+     *
+     * @param synchronizationCompound The NBTTagCompound to write your data to.
+     * @param sections                The sections to write.
+     * @param slots                   The inventory slots to write, when the inventory section is included.
+     * @return The given compound.
+     */
+    @Nonnull
+    public NBTTagCompound writeDeltaSynchronizationCompound(@Nonnull NBTTagCompound synchronizationCompound, int sections, @Nonnull BitSet slots)
+    {
+        synchronizationCompound.setInteger("x", getPos().getX());
+        synchronizationCompound.setInteger("y", getPos().getY());
+        synchronizationCompound.setInteger("z", getPos().getZ());
+        synchronizationCompound.setInteger(CoreReferences.NBT.SYNCSECTIONS, sections);
+
+        if ((sections & SYNC_STATE) != 0)
+        {
+            if (getState().requiresSynchronization())
+            {
+                synchronizationCompound.setTag(CoreReferences.NBT.STATE, getState().writeToSynchronizationCompound());
+            }
+            else if (getState().requiresNBTStorage())
+            {
+                synchronizationCompound.setTag(CoreReferences.NBT.STATE, getState().writeToNBTTagCompound());
+            }
+        }
+
+        if ((sections & SYNC_INVENTORY) != 0 && this instanceof IItemStorage)
+        {
+            synchronizationCompound.setTag(CoreReferences.NBT.INVENTORY, writeInventorySlotsToCompound(slots));
+        }
+
+        if ((sections & SYNC_FLUIDS) != 0 && this instanceof IFluidContainingEntity)
+        {
+            synchronizationCompound.setTag(CoreReferences.NBT.FLUIDS, writeFluidsToCompound());
+        }
+
+        if ((sections & SYNC_NAME) != 0)
+        {
+            synchronizationCompound.setString(CoreReferences.NBT.NAME, name);
+        }
+
+        if ((sections & SYNC_STRUCTURE) != 0 && this instanceof IStructurePart && ((IStructurePart) this).getStructure() != null)
+        {
+            synchronizationCompound.setInteger(CoreReferences.NBT.StructureData.DIMENSION, getWorld().provider.getDimension());
+            synchronizationCompound.setTag(CoreReferences.NBT.STRUCTURE, ((IStructurePart) this).getStructure().getMasterLocation().toCompound());
+        }
+
+        return synchronizationCompound;
+    }
+
+    /**
+     * Applies a compound written by {@link #writeDeltaSynchronizationCompound(NBTTagCompound, int, BitSet)}.
+     * Sections that are not contained in the compound keep their current value.
+     *
+     * @param synchronizationCompound The NBTTagCompound to read your data from.
+     */
+    public void readFromDeltaSynchronizationCompound(@Nonnull NBTTagCompound synchronizationCompound)
+    {
+        loadingFromNBT = true;
+        int sections = synchronizationCompound.getInteger(CoreReferences.NBT.SYNCSECTIONS);
+
+        if ((sections & SYNC_STATE) != 0 && synchronizationCompound.hasKey(CoreReferences.NBT.STATE))
+        {
+            if (getState().requiresSynchronization())
+            {
+                getState().readFromSynchronizationCompound(synchronizationCompound.getTag(CoreReferences.NBT.STATE));
+            }
+            else
+            {
+                getState().readFromNBTTagCompound(synchronizationCompound.getTag(CoreReferences.NBT.STATE));
+            }
+        }
+
+        if ((sections & SYNC_INVENTORY) != 0 && this instanceof IItemStorage)
+        {
+            readInventorySlotsFromCompound(synchronizationCompound.getTag(CoreReferences.NBT.INVENTORY));
+        }
+
+        if ((sections & SYNC_FLUIDS) != 0 && this instanceof IFluidContainingEntity)
+        {
+            readFluidsFromCompound(synchronizationCompound.getTag(CoreReferences.NBT.FLUIDS));
+        }
+
+        if ((sections & SYNC_NAME) != 0)
+        {
+            this.name = synchronizationCompound.getString(CoreReferences.NBT.NAME);
+        }
+
+        if ((sections & SYNC_STRUCTURE) != 0)
+        {
+            readStructureFromCompound(synchronizationCompound);
+        }
+        loadingFromNBT = false;
+    }
+
     /**
      * Getter for the current TE state.
      *
@@ -150,6 +428,37 @@ public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends
         return inventoryList;
     }
 
+    /**
+     * Writes the given inventory slots of this TE, including the empty ones, so that they can be applied on top of an
+     * existing inventory.
+     *
+     * @param slots The slots to write.
+     * @return A NBTTagList with the stacks of the given slots.
+     */
+    @Nonnull
+    protected NBTBase writeInventorySlotsToCompound(@Nonnull BitSet slots)
+    {
+        IItemStorage inventory = (IItemStorage) this;
+        NBTTagList inventoryList = new NBTTagList();
+
+        for (int i = slots.nextSetBit(0); i >= 0 && i < inventory.getSizeInventory(); i = slots.nextSetBit(i + 1))
+        {
+            ItemStack stack = inventory.getStackInSlot(i);
+
+            //Empty slots are written without stack data, so that the client clears them.
+            NBTTagCompound slotCompound = new NBTTagCompound();
+            slotCompound.setInteger(CoreReferences.NBT.InventoryData.SLOTINDEX, i);
+            if (stack != null && !stack.isEmpty())
+            {
+                slotCompound.setTag(CoreReferences.NBT.InventoryData.STACKDATA, stack.writeToNBT(new NBTTagCompound()));
+            }
+
+            inventoryList.appendTag(slotCompound);
+        }
+
+        return inventoryList;
+    }
+
     /**
      * Standard method to write the fluid data of this TE to the NBTCompound that stores this TE's Data.
      *
@@ -218,20 +527,7 @@ public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends
         loadingFromNBT = true;
         super.readFromNBT(compound);
 
-        if (this instanceof IStructurePart && compound.hasKey(CoreReferences.NBT.STRUCTURE))
-        {
-            int dim;
-            if (getWorld() == null)
-            {
-                dim = compound.getInteger(CoreReferences.NBT.StructureData.DIMENSION);
-            }
-            else
-            {
-                dim = getWorld().provider.getDimension();
-            }
-
-            ((IStructurePart) this).setStructure(StructureRegistry.getInstance().getStructure(dim, Coordinate3D.fromNBT(compound.getCompoundTag(CoreReferences.NBT.STRUCTURE))));
-        }
+        readStructureFromCompound(compound);
 
         if (getState().requiresNBTStorage())
         {
@@ -255,6 +551,24 @@ public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends
         loadingFromNBT = false;
     }
 
+    private void readStructureFromCompound(@Nonnull NBTTagCompound compound)
+    {
+        if (this instanceof IStructurePart && compound.hasKey(CoreReferences.NBT.STRUCTURE))
+        {
+            int dim;
+            if (getWorld() == null)
+            {
+                dim = compound.getInteger(CoreReferences.NBT.StructureData.DIMENSION);
+            }
+            else
+            {
+                dim = getWorld().provider.getDimension();
+            }
+
+            ((IStructurePart) this).setStructure(StructureRegistry.getInstance().getStructure(dim, Coordinate3D.fromNBT(compound.getCompoundTag(CoreReferences.NBT.STRUCTURE))));
+        }
+    }
+
     @Nonnull
     @Override
     public NBTTagCompound writeToNBT(@Nonnull NBTTagCompound compound)
@@ -308,8 +622,8 @@ public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends
         super.markDirty();
         getWorld().markChunkDirty(getPos(), this);
 
-        //Notify the events system of a update.
-        SmithsCore.getRegistry().getCommonBus().post(new TileEntityDataUpdatedEvent(this));
+        //Notify the events system of a update at the end of this tick.
+        TileEntitySynchronizationScheduler.getInstance().schedule(this);
     }
 
     @Nonnull
@@ -401,6 +715,35 @@ public abstract class TileEntitySmithsCore<S extends ITileEntityState, G extends
         }
     }
 
+    /**
+     * Applies the slots written by {@link #writeInventorySlotsToCompound(BitSet)} on top of the current inventory.
+     *
+     * @param inventoryCompound A NBTBase instance in the form of a TagList containing the Data of the changed Slots.
+     */
+    protected void readInventorySlotsFromCompound(@Nonnull NBTBase inventoryCompound)
+    {
+        if (!(inventoryCompound instanceof NBTTagList))
+        {
+            throw new IllegalArgumentException("The given store type is not compatible with this TE!");
+        }
+
+        IItemStorage inventory = (IItemStorage) this;
+        NBTTagList inventoryList = (NBTTagList) inventoryCompound;
+
+        for (int i = 0; i < inventoryList.tagCount(); i++)
+        {
+            NBTTagCompound slotCompound = inventoryList.getCompoundTagAt(i);
+
+            ItemStack newStack = ItemStack.EMPTY;
+            if (slotCompound.hasKey(CoreReferences.NBT.InventoryData.STACKDATA))
+            {
+                newStack = new ItemStack(slotCompound.getCompoundTag(CoreReferences.NBT.InventoryData.STACKDATA));
+            }
+
+            inventory.setInventorySlotContents(slotCompound.getInteger(CoreReferences.NBT.InventoryData.SLOTINDEX), newStack);
+        }
+    }
+
     /**
      * Standard method to read the fluids data of this TE from the NBTCompound that stores this TE's Data.
      *
@@ -0,0 +1,122 @@
+package com.ldtteam.smithscore.common.tileentity;
+
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Collects the TEs that changed during a server tick and synchronizes each of them once, at the end of the tick.
+ * <p>
+ * A TE that is marked dirty several times in one tick is only synchronized once. TE classes can additionally get a
+ * minimum amount of ticks between two synchronizations, changes made in between are send with the next one.
+ */
+public final class TileEntitySynchronizationScheduler
+{
+
+    private static final TileEntitySynchronizationScheduler INSTANCE = new TileEntitySynchronizationScheduler();
+
+    private final LinkedHashSet<TileEntitySmithsCore> pendingTileEntities = new LinkedHashSet<>();
+    private final HashMap<Class<?>, Integer>          minimumIntervals    = new HashMap<>();
+    private final HashMap<Class<?>, Integer>          resolvedIntervals   = new HashMap<>();
+
+    private long currentTick = 0;
+
+    private TileEntitySynchronizationScheduler()
+    {
+    }
+
+    @Nonnull
+    public static TileEntitySynchronizationScheduler getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the minimum amount of ticks between two synchronizations of TEs of the given class and its subclasses.
+     *
+     * @param tileEntityClass The class of the TEs.
+     * @param ticks           The minimum amount of ticks between two synchronizations.
+     */
+    public void registerMinimumInterval(@Nonnull Class<? extends TileEntitySmithsCore> tileEntityClass, int ticks)
+    {
+        minimumIntervals.put(tileEntityClass, ticks);
+        resolvedIntervals.clear();
+    }
+
+    /**
+     * Marks the given TE for synchronization at the end of the current server tick.
+     *
+     * @param tileEntity The changed TE.
+     */
+    public void schedule(@Nonnull TileEntitySmithsCore tileEntity)
+    {
+        pendingTileEntities.add(tileEntity);
+    }
+
+    /**
+     * Drops all pending synchronizations. Called when the server stops.
+     */
+    public void clear()
+    {
+        pendingTileEntities.clear();
+    }
+
+    @SubscribeEvent
+    public void onServerTick(@Nonnull TickEvent.ServerTickEvent event)
+    {
+        if (event.phase != TickEvent.Phase.END)
+        {
+            return;
+        }
+
+        currentTick++;
+
+        Iterator<TileEntitySmithsCore> iterator = pendingTileEntities.iterator();
+        while (iterator.hasNext())
+        {
+            TileEntitySmithsCore tileEntity = iterator.next();
+
+            if (tileEntity.isInvalid() || !tileEntity.hasWorld())
+            {
+                iterator.remove();
+                continue;
+            }
+
+            if (currentTick - tileEntity.lastSynchronizationTick < getMinimumInterval(tileEntity.getClass()))
+            {
+                continue;
+            }
+
+            iterator.remove();
+            tileEntity.lastSynchronizationTick = currentTick;
+
+            tileEntity.postPendingSynchronization();
+        }
+    }
+
+    private int getMinimumInterval(@Nonnull Class<?> tileEntityClass)
+    {
+        Integer interval = resolvedIntervals.get(tileEntityClass);
+        if (interval != null)
+        {
+            return interval;
+        }
+
+        interval = 0;
+        for (Class<?> clazz = tileEntityClass; clazz != null; clazz = clazz.getSuperclass())
+        {
+            if (minimumIntervals.containsKey(clazz))
+            {
+                interval = minimumIntervals.get(clazz);
+                break;
+            }
+        }
+
+        resolvedIntervals.put(tileEntityClass, interval);
+        return interval;
+    }
+}
@@ -6,14 +6,27 @@
 
 package com.ldtteam.smithscore.network.event;
 
+import com.ldtteam.smithscore.client.events.gui.ContainerGuiClosedEvent;
+import com.ldtteam.smithscore.client.events.gui.ContainerGuiOpenedEvent;
+import com.ldtteam.smithscore.client.events.gui.GuiInputEvent;
+import com.ldtteam.smithscore.client.events.gui.ScrollBarValueChangedEvent;
+import com.ldtteam.smithscore.client.events.models.block.BlockModelUpdateEvent;
+import com.ldtteam.smithscore.common.events.TileEntityDataUpdatedEvent;
 import com.ldtteam.smithscore.common.events.network.NetworkManagerInitializeEvent;
+import com.ldtteam.smithscore.common.events.structure.StructureEvent;
+import com.ldtteam.smithscore.common.player.event.PlayersConnectedUpdatedEvent;
+import com.ldtteam.smithscore.common.player.event.PlayersOnlineUpdatedEvent;
+import com.ldtteam.smithscore.network.event.handlers.NetworkableEventIdTableMessageHandler;
 import com.ldtteam.smithscore.network.event.handlers.StandardNetworkableEventSyncMessageHandler;
+import com.ldtteam.smithscore.network.event.messages.NetworkableEventIdTableMessage;
 import com.ldtteam.smithscore.network.event.messages.StandardNetworkableEventSyncMessage;
 import com.ldtteam.smithscore.util.CoreReferences;
 import com.ldtteam.smithscore.util.common.Pair;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.relauncher.Side;
 
+import javax.annotation.Nonnull;
+
 /**
  * The NetworkManager that is used to manage the Synchronising of the events in the Busses.
  */
@@ -44,17 +57,43 @@ public class EventNetworkManager
         INSTANCE.registerMessage(StandardNetworkableEventSyncMessageHandler.class, StandardNetworkableEventSyncMessage.class, 0, Side.CLIENT);
         INSTANCE.registerMessage(StandardNetworkableEventSyncMessageHandler.class, StandardNetworkableEventSyncMessage.class, 1, Side.SERVER);
 
+        //Register the synchronisation of the IDs of the events
+        INSTANCE.registerMessage(NetworkableEventIdTableMessageHandler.class, NetworkableEventIdTableMessage.class, 2, Side.CLIENT);
+
+        //Register the events of smithscore itself with the codec registry
+        NetworkableEventCodecRegistry.getInstance().reset();
+        registerCoreEvents(NetworkableEventCodecRegistry.getInstance());
+
         //Create an events to notify other Mods that the NetworkManager is being Instantiated.
         //This gets all the events and gives the depending Mods a chance to store a reference to this EventBus
         NetworkManagerInitializeEvent tEvent = new NetworkManagerInitializeEvent(INSTANCE);
         tEvent.PostCommon();
 
         //Loop through all additional events and register them
-        int tDescriminator = 2;
+        int tDescriminator = 3;
         for (Pair<Class, Class> tMessageClassPair : tEvent.getAdditionalMessages().keySet())
         {
             INSTANCE.registerMessage(tMessageClassPair.getKey(), tMessageClassPair.getValue(), tDescriminator, tEvent.getAdditionalMessages().get(tMessageClassPair));
             tDescriminator++;
         }
+
+        //All events are known now, assign their IDs
+        NetworkableEventCodecRegistry.getInstance().freeze();
+    }
+
+    private static void registerCoreEvents(@Nonnull NetworkableEventCodecRegistry pRegistry)
+    {
+        pRegistry.register(TileEntityDataUpdatedEvent.class, TileEntityDataUpdatedEvent::new);
+        pRegistry.register(StructureEvent.Create.class, StructureEvent.Create::new);
+        pRegistry.register(StructureEvent.Destroyed.class, StructureEvent.Destroyed::new);
+        pRegistry.register(StructureEvent.Updated.class, StructureEvent.Updated::new);
+        pRegistry.register(StructureEvent.MasterBlockChanged.class, StructureEvent.MasterBlockChanged::new);
+        pRegistry.register(PlayersConnectedUpdatedEvent.class, PlayersConnectedUpdatedEvent::new);
+        pRegistry.register(PlayersOnlineUpdatedEvent.class, PlayersOnlineUpdatedEvent::new);
+        pRegistry.register(ContainerGuiOpenedEvent.class, ContainerGuiOpenedEvent::new);
+        pRegistry.register(ContainerGuiClosedEvent.class, ContainerGuiClosedEvent::new);
+        pRegistry.register(GuiInputEvent.class, GuiInputEvent::new);
+        pRegistry.register(ScrollBarValueChangedEvent.class, ScrollBarValueChangedEvent::new);
+        pRegistry.register(BlockModelUpdateEvent.class, BlockModelUpdateEvent::new);
     }
 }
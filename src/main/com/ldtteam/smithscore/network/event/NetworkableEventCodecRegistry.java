@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2015.
+ *
+ * Copyrighted by SmithsModding according to the project License
+ */
+
+package com.ldtteam.smithscore.network.event;
+
+import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.common.events.network.StandardNetworkableEvent;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry that maps every {@link StandardNetworkableEvent} that is send over the network to a compact numeric ID, and
+ * creates the events on the receiving side through a factory instead of through reflection.
+ * <p>
+ * Events are registered while the {@link EventNetworkManager} is initialized. Afterwards the registry is frozen and the
+ * IDs are assigned in the order of the class names. The server sends its table of IDs to every client that logs in,
+ * before any event, and the client uses the IDs of the server until it disconnects. Events that are only known to one
+ * side are send with their class name, and IDs of the server that are not known to the client are rejected.
+ * <p>
+ * Events that have not been registered are still send with their class name. The receiving side looks up their
+ * constructor and caches it, as long as the class is a {@link StandardNetworkableEvent}. Since the class names are read
+ * from the network, names that can not be resolved are never cached, and the cache is limited to
+ * {@link #MAX_UNREGISTERED_FACTORIES} entries.
+ */
+public final class NetworkableEventCodecRegistry
+{
+
+    /**
+     * The ID written for events that have not been registered. It is followed by the class name of the event.
+     */
+    public static final int UNREGISTERED_ID = 0;
+
+    /**
+     * The maximal amount of constructors of unregistered events that are cached.
+     */
+    static final int MAX_UNREGISTERED_FACTORIES = 256;
+
+    private static final NetworkableEventCodecRegistry INSTANCE = new NetworkableEventCodecRegistry();
+
+    private final Map<Class<? extends StandardNetworkableEvent>, Supplier<? extends StandardNetworkableEvent>> registeredFactories = new HashMap<>();
+
+    private final Map<String, Supplier<? extends StandardNetworkableEvent>> unregisteredFactories = new ConcurrentHashMap<>();
+
+    private volatile Object2IntMap<Class<?>>                         ids       = new Object2IntOpenHashMap<>();
+    private volatile Supplier<? extends StandardNetworkableEvent>[] factories = createFactoryArray(1);
+    private volatile List<String>                                     idTable   = new ArrayList<>();
+
+    private boolean frozen = false;
+
+    private NetworkableEventCodecRegistry()
+    {
+    }
+
+    @Nonnull
+    public static NetworkableEventCodecRegistry getInstance()
+    {
+        return INSTANCE;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    private static Supplier<? extends StandardNetworkableEvent>[] createFactoryArray(int size)
+    {
+        return new Supplier[size];
+    }
+
+    /**
+     * Registers an event so that it is send with a numeric ID instead of its class name.
+     *
+     * @param eventClass The class of the event.
+     * @param factory    Creates an empty instance of the event on the receiving side.
+     * @param <E>        The type of the event.
+     */
+    public synchronized <E extends StandardNetworkableEvent> void register(@Nonnull Class<E> eventClass, @Nonnull Supplier<E> factory)
+    {
+        if (frozen)
+        {
+            throw new IllegalStateException("Events can only be registered while the EventNetworkManager is initialized: " + eventClass.getName());
+        }
+
+        registeredFactories.put(eventClass, factory);
+    }
+
+    /**
+     * Assigns the IDs to all registered events. No events can be registered afterwards, until the registry is reset.
+     */
+    public synchronized void freeze()
+    {
+        List<String> classNames = new ArrayList<>();
+        for (Class<? extends StandardNetworkableEvent> eventClass : registeredFactories.keySet())
+        {
+            classNames.add(eventClass.getName());
+        }
+        classNames.sort(Comparator.naturalOrder());
+
+        applyIds(classNames);
+        frozen = true;
+    }
+
+    /**
+     * Returns the class names of the registered events, in the order of their IDs. The first entry has the ID after
+     * {@link #UNREGISTERED_ID}.
+     *
+     * @return The table of IDs that is send to the clients.
+     */
+    @Nonnull
+    public List<String> getIdTable()
+    {
+        return Collections.unmodifiableList(idTable);
+    }
+
+    /**
+     * Uses the table of IDs of the server instead of the own IDs. Registered events that are not part of the table are
+     * send with their class name afterwards, and events the server sends with an ID that is not registered on this side
+     * are rejected.
+     *
+     * @param classNames The table of IDs received from the server.
+     * @return The amount of events that are only registered on one of both sides.
+     */
+    public synchronized int applyRemoteIdTable(@Nonnull List<String> classNames)
+    {
+        int known = applyIds(classNames);
+        return (classNames.size() - known) + (registeredFactories.size() - known);
+    }
+
+    /**
+     * Goes back to the own IDs, after the connection to a server has been closed.
+     */
+    public synchronized void restoreLocalIdTable()
+    {
+        if (frozen)
+        {
+            freeze();
+        }
+    }
+
+    /**
+     * Assigns the IDs in the order of the given class names, skipping the classes that are not registered.
+     *
+     * @return The amount of class names that belong to a registered event.
+     */
+    private int applyIds(@Nonnull List<String> classNames)
+    {
+        Map<String, Class<? extends StandardNetworkableEvent>> classesByName = new HashMap<>();
+        for (Class<? extends StandardNetworkableEvent> eventClass : registeredFactories.keySet())
+        {
+            classesByName.put(eventClass.getName(), eventClass);
+        }
+
+        Object2IntMap<Class<?>> newIds = new Object2IntOpenHashMap<>(classNames.size());
+        newIds.defaultReturnValue(UNREGISTERED_ID);
+
+        Supplier<? extends StandardNetworkableEvent>[] newFactories = createFactoryArray(classNames.size() + 1);
+
+        int known = 0;
+        int id = UNREGISTERED_ID + 1;
+        for (String className : classNames)
+        {
+            Class<? extends StandardNetworkableEvent> eventClass = classesByName.get(className);
+            if (eventClass != null)
+            {
+                newIds.put(eventClass, id);
+                newFactories[id] = registeredFactories.get(eventClass);
+                known++;
+            }
+
+            id++;
+        }
+
+        ids = newIds;
+        factories = newFactories;
+        idTable = new ArrayList<>(classNames);
+        return known;
+    }
+
+    /**
+     * Removes all registered events, so that the EventNetworkManager can be initialized again.
+     */
+    public synchronized void reset()
+    {
+        registeredFactories.clear();
+        unregisteredFactories.clear();
+        ids = new Object2IntOpenHashMap<>();
+        factories = createFactoryArray(1);
+        idTable = new ArrayList<>();
+        frozen = false;
+    }
+
+    /**
+     * Returns the ID of the given event.
+     *
+     * @param event The event to send.
+     * @return The ID of the event, or {@link #UNREGISTERED_ID} when its class has not been registered.
+     */
+    public int getId(@Nonnull StandardNetworkableEvent event)
+    {
+        return ids.getInt(event.getClass());
+    }
+
+    /**
+     * Creates an empty instance of the event with the given ID.
+     *
+     * @param id The ID read from the network.
+     * @return The new event, or null when no event is registered under the ID.
+     */
+    @Nullable
+    public StandardNetworkableEvent create(int id)
+    {
+        Supplier<? extends StandardNetworkableEvent>[] currentFactories = factories;
+        if (id <= UNREGISTERED_ID || id >= currentFactories.length || currentFactories[id] == null)
+        {
+            return null;
+        }
+
+        return currentFactories[id].get();
+    }
+
+    /**
+     * Creates an empty instance of an event that has not been registered.
+     * Classes that are not a StandardNetworkableEvent or that do not have a public empty constructor are rejected. The
+     * constructors of the other classes are cached, until the cache is full.
+     *
+     * @param className The class name read from the network.
+     * @return The new event, or null when the class can not be used as an event.
+     */
+    @Nullable
+    public StandardNetworkableEvent createUnregistered(@Nonnull String className)
+    {
+        Supplier<? extends StandardNetworkableEvent> factory = unregisteredFactories.get(className);
+        if (factory == null)
+        {
+            factory = lookupFactory(className);
+            if (factory == null)
+            {
+                return null;
+            }
+
+            if (unregisteredFactories.size() < MAX_UNREGISTERED_FACTORIES)
+            {
+                unregisteredFactories.putIfAbsent(className, factory);
+            }
+        }
+
+        return factory.get();
+    }
+
+    /**
+     * Returns the amount of constructors of unregistered events that are currently cached.
+     *
+     * @return The size of the cache.
+     */
+    int getCachedUnregisteredCount()
+    {
+        return unregisteredFactories.size();
+    }
+
+    @Nullable
+    private static Supplier<? extends StandardNetworkableEvent> lookupFactory(@Nonnull String className)
+    {
+        try
+        {
+            Class<?> eventClass = Class.forName(className, false, NetworkableEventCodecRegistry.class.getClassLoader());
+            if (!StandardNetworkableEvent.class.isAssignableFrom(eventClass) || Modifier.isAbstract(eventClass.getModifiers()))
+            {
+                SmithsCore.getLogger().error("Failed to handle a events Sync for: " + className + " The class is not a concrete StandardNetworkableEvent.");
+                return null;
+            }
+
+            MethodHandle constructor = MethodHandles.publicLookup().findConstructor(eventClass, MethodType.methodType(void.class));
+            return () -> {
+                try
+                {
+                    return (StandardNetworkableEvent) constructor.invoke();
+                }
+                catch (Throwable throwable)
+                {
+                    throw new IllegalStateException("The creation of the event failed: " + className, throwable);
+                }
+            };
+        }
+        catch (ClassNotFoundException e)
+        {
+            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + className + " The in the Message stored class for the event does not exist.", e);
+        }
+        catch (NoSuchMethodException e)
+        {
+            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + className + " The event has no empty constructor. ", e);
+        }
+        catch (IllegalAccessException e)
+        {
+            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + className + " The given constructor does not have public access rights.", e);
+        }
+
+        return null;
+    }
+}
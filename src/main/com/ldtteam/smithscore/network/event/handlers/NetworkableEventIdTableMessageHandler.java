@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2015.
+ *
+ * Copyrighted by SmithsModding according to the project License
+ */
+
+package com.ldtteam.smithscore.network.event.handlers;
+
+import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.network.event.NetworkableEventCodecRegistry;
+import com.ldtteam.smithscore.network.event.messages.NetworkableEventIdTableMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Switches the client to the IDs of the server.
+ * <p>
+ * The table is applied right away on the network thread instead of on the main thread, so that the events the server
+ * sends after it are already read with the new IDs.
+ */
+public class NetworkableEventIdTableMessageHandler implements IMessageHandler<NetworkableEventIdTableMessage, IMessage>
+{
+
+    @Nullable
+    @Override
+    public IMessage onMessage(@Nonnull NetworkableEventIdTableMessage pMessage, @Nonnull MessageContext pContext)
+    {
+        int tMismatches = NetworkableEventCodecRegistry.getInstance().applyRemoteIdTable(pMessage.getClassNames());
+        if (tMismatches > 0)
+        {
+            SmithsCore.getLogger()
+              .warn("The server and the client register " + tMismatches + " different networkable events. Those are send with their class name or rejected.");
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2015.
+ *
+ * Copyrighted by SmithsModding according to the project License
+ */
+
+package com.ldtteam.smithscore.network.event.handlers;
+
+import com.ldtteam.smithscore.network.event.EventNetworkManager;
+import com.ldtteam.smithscore.network.event.NetworkableEventCodecRegistry;
+import com.ldtteam.smithscore.network.event.messages.NetworkableEventIdTableMessage;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Sends the IDs of the networkable events to every player that logs in, and restores the own IDs of a client when it
+ * disconnects.
+ */
+public class NetworkableEventIdTableSyncHandler
+{
+
+    /**
+     * Sends the table of IDs before the other handlers get a chance to send events to the player.
+     *
+     * @param event The event fired when a player logs in.
+     */
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onPlayerJoinServer(@Nonnull PlayerEvent.PlayerLoggedInEvent event)
+    {
+        if (!(event.player instanceof EntityPlayerMP))
+        {
+            return;
+        }
+
+        EventNetworkManager.getInstance()
+          .sendTo(new NetworkableEventIdTableMessage(NetworkableEventCodecRegistry.getInstance().getIdTable()), (EntityPlayerMP) event.player);
+    }
+
+    /**
+     * client side only method to restore the own IDs after the client disconnected from a server.
+     *
+     * @param event The event indicating that the player Disconnected from the Server.
+     */
+    @SideOnly(Side.CLIENT)
+    @SubscribeEvent
+    public void onClientDisconnectServer(@Nonnull FMLNetworkEvent.ClientDisconnectionFromServerEvent event)
+    {
+        NetworkableEventCodecRegistry.getInstance().restoreLocalIdTable();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2015.
+ *
+ * Copyrighted by SmithsModding according to the project License
+ */
+
+package com.ldtteam.smithscore.network.event.messages;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message send from the server to a client when it logs in, containing the class names of the registered networkable
+ * events in the order of their IDs.
+ */
+public class NetworkableEventIdTableMessage implements IMessage
+{
+
+    @Nonnull
+    private List<String> classNames = new ArrayList<>();
+
+    public NetworkableEventIdTableMessage()
+    {
+    }
+
+    public NetworkableEventIdTableMessage(@Nonnull List<String> classNames)
+    {
+        this.classNames = new ArrayList<>(classNames);
+    }
+
+    @Nonnull
+    public List<String> getClassNames()
+    {
+        return classNames;
+    }
+
+    /**
+     * Convert from the supplied buffer into your specific message type
+     *
+     * @param buf The buffer to read from.
+     */
+    @Override
+    public void fromBytes(@Nonnull ByteBuf buf)
+    {
+        int tCount = ByteBufUtils.readVarInt(buf, 5);
+
+        classNames = new ArrayList<>(Math.min(tCount, buf.readableBytes()));
+        for (int i = 0; i < tCount; i++)
+        {
+            classNames.add(ByteBufUtils.readUTF8String(buf));
+        }
+    }
+
+    /**
+     * Deconstruct your message into the supplied byte buffer
+     *
+     * @param buf The buffer to write to.
+     */
+    @Override
+    public void toBytes(@Nonnull ByteBuf buf)
+    {
+        ByteBufUtils.writeVarInt(buf, classNames.size(), 5);
+        for (String tClassName : classNames)
+        {
+            ByteBufUtils.writeUTF8String(buf, tClassName);
+        }
+    }
+}
@@ -8,12 +8,12 @@ package com.ldtteam.smithscore.network.event.messages;
 
 import com.ldtteam.smithscore.SmithsCore;
 import com.ldtteam.smithscore.common.events.network.StandardNetworkableEvent;
+import com.ldtteam.smithscore.network.event.NetworkableEventCodecRegistry;
 import io.netty.buffer.ByteBuf;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 import javax.annotation.Nonnull;
-import java.lang.reflect.InvocationTargetException;
 
 public class StandardNetworkableEventSyncMessage implements IMessage
 {
@@ -38,37 +38,30 @@ public class StandardNetworkableEventSyncMessage implements IMessage
     @Override
     public void fromBytes(@Nonnull ByteBuf buf)
     {
-        String tEventClassName = ByteBufUtils.readUTF8String(buf);
+        int tEventId = ByteBufUtils.readVarInt(buf, 5);
 
-        try
+        StandardNetworkableEvent tEvent;
+        if (tEventId == NetworkableEventCodecRegistry.UNREGISTERED_ID)
         {
-            Class tEventClass = Class.forName(tEventClassName);
-
-            StandardNetworkableEvent tEvent = (StandardNetworkableEvent) tEventClass.getConstructor().newInstance();
-            EVENT = tEvent;
-
-            tEvent.readFromMessageBuffer(buf);
-        }
-        catch (ClassNotFoundException e)
-        {
-            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + tEventClassName + " The in the Message stored class for the event does not exist.", e);
+            tEvent = NetworkableEventCodecRegistry.getInstance().createUnregistered(ByteBufUtils.readUTF8String(buf));
         }
-        catch (InvocationTargetException e)
+        else
         {
-            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + tEventClassName + " The creation of the events failed.", e);
+            tEvent = NetworkableEventCodecRegistry.getInstance().create(tEventId);
+            if (tEvent == null)
+            {
+                SmithsCore.getLogger().error("Failed to handle a events Sync for the ID: " + tEventId + " No event is registered for it.");
+            }
         }
-        catch (NoSuchMethodException e)
-        {
-            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + tEventClassName + " The event has no empty constructor. ", e);
-        }
-        catch (InstantiationException e)
-        {
-            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + tEventClassName + " Failed to retrieve a proper constructor to call.", e);
-        }
-        catch (IllegalAccessException e)
+
+        if (tEvent == null)
         {
-            SmithsCore.getLogger().error("Failed to handle a events Sync for: " + tEventClassName + " The given constructor does not have public access rights.", e);
+            buf.skipBytes(buf.readableBytes());
+            return;
         }
+
+        EVENT = tEvent;
+        tEvent.readFromMessageBuffer(buf);
     }
 
     /**
@@ -79,7 +72,13 @@ public class StandardNetworkableEventSyncMessage implements IMessage
     @Override
     public void toBytes(@Nonnull ByteBuf buf)
     {
-        ByteBufUtils.writeUTF8String(buf, EVENT.getClass().getName());
+        int tEventId = NetworkableEventCodecRegistry.getInstance().getId(EVENT);
+
+        ByteBufUtils.writeVarInt(buf, tEventId, 5);
+        if (tEventId == NetworkableEventCodecRegistry.UNREGISTERED_ID)
+        {
+            ByteBufUtils.writeUTF8String(buf, EVENT.getClass().getName());
+        }
 
         EVENT.writeToMessageBuffer(buf);
     }
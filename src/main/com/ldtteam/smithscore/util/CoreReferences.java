@@ -61,6 +61,7 @@ public class CoreReferences
         public static final String INVENTORY    = "SmithsCore.Inventory";
         public static final String STATE        = "SmithsCore.State";
         public static final String STRUCTURE    = "SmithsCore.Structure";
+        public static final String SYNCSECTIONS = "SmithsCore.SyncSections";
 
         public static final class IItemProperties
         {
@@ -1,12 +1,22 @@
 package com.ldtteam.smithscore.util.client.color;
 
 import com.ldtteam.smithscore.SmithsCore;
+import com.ldtteam.smithscore.util.CoreReferences;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.client.event.TextureStitchEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.Side;
 
 import javax.annotation.Nonnull;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * color Sampler to retrieve Colors from a ItemStack as well as converting a color to the Minecraft Chat
@@ -18,12 +28,44 @@ import java.util.HashMap;
  * <p>
  * Copyrighted according to Project specific license
  */
+@Mod.EventBusSubscriber(modid = CoreReferences.General.MOD_ID, value = Side.CLIENT)
 public class ColorSampler
 {
 
     //Cache of the Relative MinecraftColors to TextFormatting.
     private static HashMap<MinecraftColor, TextFormatting> iMappedColors;
 
+    //The mapped colors flattened into arrays, in the iteration order of the map so that ties resolve the same way.
+    private static int[]            iPaletteRed;
+    private static int[]            iPaletteGreen;
+    private static int[]            iPaletteBlue;
+    private static double[]         iPaletteAngles;
+    private static TextFormatting[] iPaletteFormattings;
+
+    //The maximum amount of RGB values in the formatting cache, it is cleared when it runs full.
+    private static final int MAX_CACHED_FORMATTINGS = 4096;
+
+    //Cache of the TextFormatting for the RGB values that have been converted before.
+    @Nonnull
+    private static final Int2ObjectMap<TextFormatting> iFormattingLookup = new Int2ObjectOpenHashMap<>();
+
+    //Cache of the average color of every sampled sprite, cleared when the textures are stitched again.
+    @Nonnull
+    private static final Map<TextureAtlasSprite, MinecraftColor> iSampledColors = new WeakHashMap<>();
+
+    /**
+     * Clears the sampled colors, as the sprites they were sampled from are replaced, together with the formattings
+     * that were looked up for them.
+     *
+     * @param event The event fired before a TextureMap is stitched.
+     */
+    @SubscribeEvent
+    public static void onTextureStitch(@Nonnull TextureStitchEvent.Pre event)
+    {
+        iSampledColors.clear();
+        iFormattingLookup.clear();
+    }
+
     /**
      * Generates a MinecraftColor based on the ItemStack given.
      * <p>
@@ -41,11 +83,19 @@ public class ColorSampler
     {
         try
         {
-            return calculateAverageMinecraftColor(Minecraft.getMinecraft()
-                                                    .getRenderItem()
-                                                    .getItemModelWithOverrides(stack, null, null)
-                                                    .getParticleTexture()
-                                                    .getFrameTextureData(0));
+            TextureAtlasSprite sprite = Minecraft.getMinecraft()
+                                          .getRenderItem()
+                                          .getItemModelWithOverrides(stack, null, null)
+                                          .getParticleTexture();
+
+            MinecraftColor color = iSampledColors.get(sprite);
+            if (color == null)
+            {
+                color = calculateAverageMinecraftColor(sprite.getFrameTextureData(0));
+                iSampledColors.put(sprite, color);
+            }
+
+            return color;
         }
         catch (Exception e)
         {
@@ -75,17 +125,16 @@ public class ColorSampler
                 continue;
             }
 
-            for (int tYPos = 0; tYPos < pixelData[tXPos].length; tYPos++)
+            int[] tPixels = pixelData[tXPos];
+            for (int tYPos = 0; tYPos < tPixels.length; tYPos++)
             {
-                int tRGB = pixelData[tXPos][tYPos];
-
-                MinecraftColor tPixel = new MinecraftColor(tRGB);
+                int tRGB = tPixels[tYPos];
 
-                if (tPixel.getAlpha() > 0)
+                if ((tRGB >>> 24) > 0)
                 {
-                    tSumR += tPixel.getRed();
-                    tSumG += tPixel.getGreen();
-                    tSumB += tPixel.getBlue();
+                    tSumR += (tRGB >> 16) & 0xFF;
+                    tSumG += (tRGB >> 8) & 0xFF;
+                    tSumB += tRGB & 0xFF;
 
                     tCountedPixels++;
                 }
@@ -117,22 +166,80 @@ public class ColorSampler
             initializeEnumChatFromattingMinecraftColors();
         }
 
-        double tCurrentDistance = -1D;
-        TextFormatting tCurrentFormatting = null;
+        int tRGB = pSource.getRGB() & 0xFFFFFF;
 
-        for (MinecraftColor tMinecraftColor : iMappedColors.keySet())
+        TextFormatting tFormatting = iFormattingLookup.get(tRGB);
+        if (tFormatting == null)
         {
-            if (MinecraftColorDistance(pSource, tMinecraftColor) < tCurrentDistance)
+            tFormatting = findClosestFormatting(pSource);
+
+            if (iFormattingLookup.size() >= MAX_CACHED_FORMATTINGS)
             {
-                tCurrentDistance = MinecraftColorDistance(pSource, tMinecraftColor);
-                tCurrentFormatting = iMappedColors.get(tMinecraftColor);
+                iFormattingLookup.clear();
             }
-            else if (tCurrentDistance < 0)
+            iFormattingLookup.put(tRGB, tFormatting);
+        }
+
+        return tFormatting;
+    }
+
+    /**
+     * Searches the palette for the TextFormatting that is the closest to the given source.
+     * <p>
+     * It determines which of the RGB Channels is by far the strongest in the source and then uses the difference in
+     * that channel as distance. If no channel dominates, the difference in the color angle is used instead.
+     * <p>
+     * I once knew why this works, but not anymore. Yet it works for the conversion from MinecraftColor to EnumChat-
+     * Formatting so i am keeping it. :D
+     *
+     * @param pSource The Source color for the Conversion
+     * @return The Converted TextFormatting
+     */
+    @Nonnull
+    private static TextFormatting findClosestFormatting(@Nonnull MinecraftColor pSource)
+    {
+        int tRed = pSource.getRed();
+        int tGreen = pSource.getGreen();
+        int tBlue = pSource.getBlue();
+
+        int[] tChannel = null;
+        int tSourceValue = 0;
+        double tSourceAngle = 0;
+
+        if (tRed > tBlue * 2 && tRed > tGreen * 2)
+        {
+            tChannel = iPaletteRed;
+            tSourceValue = tRed;
+        }
+        else if (tBlue > tRed * 2 && tBlue > tGreen * 2)
+        {
+            tChannel = iPaletteBlue;
+            tSourceValue = tBlue;
+        }
+        else if (tGreen > tBlue * 2 && tGreen > tRed * 2)
+        {
+            tChannel = iPaletteGreen;
+            tSourceValue = tGreen;
+        }
+        else
+        {
+            tSourceAngle = pSource.getAngleInDegrees();
+        }
+
+        double tCurrentDistance = -1D;
+        TextFormatting tCurrentFormatting = null;
+
+        for (int tIndex = 0; tIndex < iPaletteFormattings.length; tIndex++)
+        {
+            double tDistance = tChannel != null ? Math.abs(tSourceValue - tChannel[tIndex]) : Math.abs(tSourceAngle - iPaletteAngles[tIndex]);
+
+            if (tCurrentDistance < 0 || tDistance < tCurrentDistance)
             {
-                tCurrentDistance = MinecraftColorDistance(pSource, tMinecraftColor);
-                tCurrentFormatting = iMappedColors.get(tMinecraftColor);
+                tCurrentDistance = tDistance;
+                tCurrentFormatting = iPaletteFormattings[tIndex];
             }
         }
+
         return tCurrentFormatting;
     }
 
@@ -163,54 +270,25 @@ public class ColorSampler
 
             iMappedColors.put(mappedColor, TextFormatting.values()[index]);
         });
-    }
-
-    /**
-     * Calculates the distance between two Colors.
-     * <p>
-     * It determines which of the RGB Channels is by far the strongest in the First color and then creates and abstract
-     * numerical distance between the two Colors.
-     * <p>
-     * I once knew why this works, but not anymore. Yet it works for the conversion from MinecraftColor to EnumChat-
-     * Formatting so i am keeping it. :D
-     *
-     * @param pMinecraftColor1 color 1
-     * @param pMinecraftColor2 color 2
-     * @return The Distance in Double that describes the distance between two colors.
-     */
-    private static double MinecraftColorDistance(@Nonnull MinecraftColor pMinecraftColor1, @Nonnull MinecraftColor pMinecraftColor2)
-    {
-        if ((pMinecraftColor1.getRed() > pMinecraftColor1.getBlue() * 2) && (pMinecraftColor1.getRed() > pMinecraftColor1.getGreen() * 2))
-        {
-            if ((pMinecraftColor1.getRed() > pMinecraftColor2.getRed()))
-            {
-                return pMinecraftColor1.getRed() - pMinecraftColor2.getRed();
-            }
 
-            return pMinecraftColor2.getRed() - pMinecraftColor1.getRed();
-        }
+        iPaletteRed = new int[iMappedColors.size()];
+        iPaletteGreen = new int[iMappedColors.size()];
+        iPaletteBlue = new int[iMappedColors.size()];
+        iPaletteAngles = new double[iMappedColors.size()];
+        iPaletteFormattings = new TextFormatting[iMappedColors.size()];
 
-        if ((pMinecraftColor1.getBlue() > pMinecraftColor1.getRed() * 2) && (pMinecraftColor1.getBlue() > pMinecraftColor1.getGreen() * 2))
+        int tIndex = 0;
+        for (Map.Entry<MinecraftColor, TextFormatting> tEntry : iMappedColors.entrySet())
         {
-            if ((pMinecraftColor1.getBlue() > pMinecraftColor2.getBlue()))
-            {
-                return pMinecraftColor1.getBlue() - pMinecraftColor2.getBlue();
-            }
-
-            return pMinecraftColor2.getBlue() - pMinecraftColor1.getBlue();
-        }
-
-        if ((pMinecraftColor1.getGreen() > pMinecraftColor1.getBlue() * 2) && (pMinecraftColor1.getGreen() > pMinecraftColor1.getRed() * 2))
-        {
-            if ((pMinecraftColor1.getGreen() > pMinecraftColor2.getGreen()))
-            {
-                return pMinecraftColor1.getGreen() - pMinecraftColor2.getGreen();
-            }
-
-            return pMinecraftColor2.getGreen() - pMinecraftColor1.getGreen();
+            iPaletteRed[tIndex] = tEntry.getKey().getRed();
+            iPaletteGreen[tIndex] = tEntry.getKey().getGreen();
+            iPaletteBlue[tIndex] = tEntry.getKey().getBlue();
+            iPaletteAngles[tIndex] = tEntry.getKey().getAngleInDegrees();
+            iPaletteFormattings[tIndex] = tEntry.getValue();
+            tIndex++;
         }
 
-        return Math.abs(pMinecraftColor1.getAngleInDegrees() - pMinecraftColor2.getAngleInDegrees());
+        iFormattingLookup.clear();
     }
 
     /**
@@ -1,6 +1,6 @@
 package com.ldtteam.smithscore.util.client.color;
 
-import net.minecraft.client.renderer.GlStateManager;
+import com.ldtteam.smithscore.util.client.gui.GuiHelper;
 
 import javax.annotation.Nonnull;
 import javax.vecmath.Vector2d;
@@ -197,7 +197,7 @@ public class MinecraftColor extends Color
      */
     public static final void resetOpenGLColoring()
     {
-        GlStateManager.color(1F, 1F, 1F, 1F);
+        GuiHelper.color(1F, 1F, 1F, 1F);
     }
 
     public String encodeColor()
@@ -253,7 +253,7 @@ public class MinecraftColor extends Color
      */
     public void performOpenGLColoring()
     {
-        GlStateManager.color(getRed() / 255F, getGreen() / 255F, getBlue() / 255F, getAlpha() / 255F);
+        GuiHelper.color(getRed() / 255F, getGreen() / 255F, getBlue() / 255F, getAlpha() / 255F);
     }
 
     /**
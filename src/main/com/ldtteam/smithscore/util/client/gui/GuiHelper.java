@@ -21,9 +21,13 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fluids.FluidStack;
 import org.lwjgl.opengl.GL11;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
 
 /**
  * Helper class to perform several functions while rendering
@@ -36,6 +40,342 @@ public final class GuiHelper
     @Nonnull
     protected static RenderItem ITEMRENDERER = Minecraft.getMinecraft().getRenderItem();
 
+    @Nonnull
+    private static final RetainedGuiGeometry BATCH = new RetainedGuiGeometry();
+
+    @Nullable
+    private static ResourceLocation    boundTexture;
+    @Nullable
+    private static RetainedGuiGeometry recordingGeometry;
+
+    private static int     batchDepth = 0;
+    private static boolean batching   = false;
+
+    //The state quads are recorded and batched with. It is read from GL once, when the first quad is drawn after it
+    //became unknown, and then kept up to date by the functions of this helper that change it.
+    @Nonnull
+    private static final FloatBuffer         glValues           = GLAllocation.createDirectFloatBuffer(16);
+    @Nonnull
+    private static final Matrix4f            modelView          = new Matrix4f();
+    @Nonnull
+    private static final ArrayList<Matrix4f> modelViewStack     = new ArrayList<>();
+    @Nonnull
+    private static final Vector3f            rotationAxis       = new Vector3f();
+    @Nonnull
+    private static final float[]             color              = new float[4];
+    private static       boolean             blend              = false;
+    private static       boolean             modelViewKnown     = false;
+    private static       boolean             colorAndBlendKnown = false;
+
+    private static long requestedDrawCalls    = 0;
+    private static long issuedDrawCalls       = 0;
+    private static long requestedTextureBinds = 0;
+    private static long issuedTextureBinds    = 0;
+
+    /**
+     * Starts recording everything that is drawn through this helper into the given geometry, next to drawing it. The
+     * recording has to be stopped again with {@link #stopRecording()}. Textures have to be bound through this helper
+     * after the recording started.
+     *
+     * @param geometry The geometry to record into, {@link RetainedGuiGeometry#begin()} has to be called on it first.
+     */
+    public static void startRecording(@Nonnull RetainedGuiGeometry geometry)
+    {
+        recordingGeometry = geometry;
+        boundTexture = null;
+        invalidateDrawState();
+    }
+
+    /**
+     * Stops recording into the geometry passed to {@link #startRecording(RetainedGuiGeometry)}.
+     */
+    public static void stopRecording()
+    {
+        recordingGeometry = null;
+    }
+
+    /**
+     * Starts collecting the textured quads drawn through this helper instead of drawing them, until the matching call
+     * to {@link #endBatch()}. The quads are drawn with one draw call when the texture changes or the batch ends, so
+     * consecutive quads with the same texture share a draw call.
+     * <p>
+     * Everything in between has to be drawn through this helper, and textures have to be bound through it after the
+     * batch started. Batches can be nested, in which case the quads are drawn when the outermost batch ends. The model
+     * view matrix, color and blend state are read again after every call, see {@link #invalidateDrawState()}.
+     */
+    public static void beginBatch()
+    {
+        invalidateDrawState();
+
+        if (batchDepth++ > 0)
+        {
+            return;
+        }
+
+        BATCH.begin();
+        batching = true;
+        boundTexture = null;
+    }
+
+    /**
+     * Ends the batch started by {@link #beginBatch()} and draws the collected quads when it is the outermost batch.
+     */
+    public static void endBatch()
+    {
+        if (batchDepth == 0)
+        {
+            throw new IllegalStateException("No batch has been started.");
+        }
+
+        invalidateDrawState();
+
+        if (--batchDepth > 0)
+        {
+            return;
+        }
+
+        flushBatch();
+        batching = false;
+        BATCH.clear();
+    }
+
+    /**
+     * Draws recorded geometry relative to the current model view matrix. While batching, the quads of the geometry are
+     * added to the batch instead, so they can share draw calls with the quads around them.
+     *
+     * @param geometry The geometry to draw.
+     */
+    public static void drawRetained(@Nonnull RetainedGuiGeometry geometry)
+    {
+        if (!batching || recordingGeometry != null)
+        {
+            flushBatch();
+            geometry.draw();
+            return;
+        }
+
+        //The caller positions the geometry through GL directly, so the tracked matrix can not be trusted here.
+        modelViewKnown = false;
+        updateDrawState();
+        geometry.addTo(BATCH, modelView);
+    }
+
+    /**
+     * Marks the model view matrix, color and blend state as unknown, so they are read again from GL when the next quad
+     * is recorded or batched. This has to be called while batching or recording, after one of them has been changed
+     * other than through this helper, {@link MinecraftColor} or the render manager. It is called when a batch or a
+     * recording starts.
+     */
+    public static void invalidateDrawState()
+    {
+        modelViewKnown = false;
+        colorAndBlendKnown = false;
+    }
+
+    /**
+     * Sets the current color, and keeps track of it for the quads that are recorded or batched.
+     *
+     * @param red   The red component, between 0 and 1.
+     * @param green The green component, between 0 and 1.
+     * @param blue  The blue component, between 0 and 1.
+     * @param alpha The alpha component, between 0 and 1.
+     */
+    public static void color(float red, float green, float blue, float alpha)
+    {
+        GlStateManager.color(red, green, blue, alpha);
+
+        color[0] = red;
+        color[1] = green;
+        color[2] = blue;
+        color[3] = alpha;
+    }
+
+    /**
+     * Reads the parts of the draw state from GL that are not known.
+     */
+    private static void updateDrawState()
+    {
+        if (!modelViewKnown)
+        {
+            glValues.clear();
+            GL11.glGetFloat(GL11.GL_MODELVIEW_MATRIX, glValues);
+            glValues.rewind();
+            modelView.load(glValues);
+            modelViewKnown = true;
+        }
+
+        if (!colorAndBlendKnown)
+        {
+            glValues.clear();
+            GL11.glGetFloat(GL11.GL_CURRENT_COLOR, glValues);
+            glValues.get(color, 0, 4);
+            blend = GL11.glIsEnabled(GL11.GL_BLEND);
+            colorAndBlendKnown = true;
+        }
+    }
+
+    private static void pushMatrix()
+    {
+        GL11.glPushMatrix();
+        modelViewStack.add(modelViewKnown ? new Matrix4f(modelView) : null);
+    }
+
+    private static void popMatrix()
+    {
+        GL11.glPopMatrix();
+
+        Matrix4f previous = modelViewStack.remove(modelViewStack.size() - 1);
+        modelViewKnown = previous != null;
+        if (modelViewKnown)
+        {
+            modelView.load(previous);
+        }
+    }
+
+    private static void translate(float x, float y, float z)
+    {
+        GL11.glTranslatef(x, y, z);
+
+        if (modelViewKnown)
+        {
+            modelView.translate(new Vector3f(x, y, z));
+        }
+    }
+
+    private static void rotate(@Nonnull UIRotation rotation)
+    {
+        rotation.performGLRotation();
+
+        if (!modelViewKnown || rotation.iAngle == 0F)
+        {
+            return;
+        }
+
+        rotationAxis.set(rotation.iRotateX, rotation.iRotateY, rotation.iRotateZ);
+        if (rotationAxis.lengthSquared() == 0F)
+        {
+            return;
+        }
+
+        rotationAxis.normalise();
+        modelView.rotate((float) Math.toRadians(rotation.iAngle), rotationAxis);
+    }
+
+    /**
+     * Returns how many draw calls have been saved by batching since the statistics were last reset.
+     *
+     * @return The amount of quads batched minus the amount of draw calls used to draw them.
+     */
+    public static long getSavedDrawCalls()
+    {
+        return requestedDrawCalls - issuedDrawCalls;
+    }
+
+    /**
+     * Returns how many texture binds have been saved by batching since the statistics were last reset.
+     *
+     * @return The amount of binds requested while batching minus the amount of binds performed to draw the batches.
+     */
+    public static long getSavedTextureBinds()
+    {
+        return requestedTextureBinds - issuedTextureBinds;
+    }
+
+    /**
+     * Resets the statistics of the batching.
+     */
+    public static void resetBatchStatistics()
+    {
+        requestedDrawCalls = 0;
+        issuedDrawCalls = 0;
+        requestedTextureBinds = 0;
+        issuedTextureBinds = 0;
+    }
+
+    /**
+     * Draws the quads that have been batched so far, relative to the matrix the batch started with, and continues the
+     * batch afterwards.
+     */
+    private static void flushBatch()
+    {
+        if (!batching || BATCH.getQuadCount() == 0)
+        {
+            return;
+        }
+
+        ResourceLocation texture = boundTexture;
+
+        BATCH.finish();
+        batching = false;
+
+        requestedDrawCalls += BATCH.getQuadCount();
+        issuedDrawCalls += BATCH.getDrawCallCount();
+        issuedTextureBinds += BATCH.getDrawCallCount();
+
+        BATCH.drawAtOrigin();
+
+        //Leave the texture bound that was last bound by the batched code.
+        if (texture != null && !texture.equals(boundTexture))
+        {
+            bindTexture(texture);
+            issuedTextureBinds++;
+        }
+
+        BATCH.restart();
+        batching = true;
+        boundTexture = texture;
+    }
+
+    /**
+     * Hands a textured quad to the current recording and batch.
+     *
+     * @return True when the quad has been batched, in which case it may not be drawn.
+     */
+    private static boolean retainQuad(float x0, float y0, float x1, float y1, float z, float u0, float v0, float u1, float v1)
+    {
+        if (recordingGeometry == null && !batching)
+        {
+            return false;
+        }
+
+        updateDrawState();
+
+        if (recordingGeometry != null)
+        {
+            recordingGeometry.addQuad(boundTexture, modelView, color, blend, x0, y0, x1, y1, z, u0, v0, u1, v1);
+        }
+
+        if (!batching)
+        {
+            return false;
+        }
+
+        if (boundTexture == null)
+        {
+            //The texture is not known, so the quad has to be drawn right away, after the quads before it.
+            flushBatch();
+            return false;
+        }
+
+        BATCH.addQuad(boundTexture, modelView, color, blend, x0, y0, x1, y1, z, u0, v0, u1, v1);
+        return true;
+    }
+
+    /**
+     * Called before something is drawn that can not be recorded or batched. Marks the current recording as incomplete
+     * and draws the quads batched so far, so they end up below it. The draw can change the color and blend state.
+     */
+    private static void beforeUnbatchedDraw()
+    {
+        if (recordingGeometry != null)
+        {
+            recordingGeometry.markIncomplete();
+        }
+
+        flushBatch();
+        colorAndBlendKnown = false;
+    }
+
     /**
      * Draws a CustomResource on the Screen in the given Position relative to current GL Buffer Matrix Origin.
      *
@@ -45,12 +385,12 @@ public final class GuiHelper
      */
     public static void drawResource(@Nonnull CustomResource pResource, int pX, int pY)
     {
-        GL11.glPushMatrix();
+        pushMatrix();
         pResource.getColor().performOpenGLColoring();
         GuiHelper.bindTexture(pResource.getPrimaryLocation());
         GuiHelper.drawTexturedModalRect(pX, pY, 0, pResource.getU(), pResource.getV(), pResource.getWidth(), pResource.getHeight());
         MinecraftColor.resetOpenGLColoring();
-        GL11.glPopMatrix();
+        popMatrix();
     }
 
     /**
@@ -80,6 +420,12 @@ public final class GuiHelper
     {
         float f = 0.00390625F;
         float f1 = 0.00390625F;
+
+        if (retainQuad(pXKoord, pYKoord, pXKoord + pWidth, pYKoord + pHeight, pZKoord, pU * f, pV * f1, (pU + pWidth) * f, (pV + pHeight) * f1))
+        {
+            return;
+        }
+
         Tessellator tessellator = Tessellator.getInstance();
         BufferBuilder worldrenderer = tessellator.getBuffer();
         worldrenderer.begin(7, DefaultVertexFormats.POSITION_TEX);
@@ -103,6 +449,21 @@ public final class GuiHelper
      */
     public static void bindTexture(@Nonnull ResourceLocation pTextureLocation)
     {
+        if (batching)
+        {
+            requestedTextureBinds++;
+            if (pTextureLocation.equals(boundTexture))
+            {
+                return;
+            }
+
+            //Draws the quads of the previous texture, so the new texture is bound for everything drawn after this.
+            boundTexture = null;
+            flushBatch();
+            issuedTextureBinds++;
+        }
+
+        boundTexture = pTextureLocation;
         Minecraft.getMinecraft().getTextureManager().bindTexture(pTextureLocation);
     }
 
@@ -129,11 +490,11 @@ public final class GuiHelper
      */
     private static void renderCenter(@Nonnull TextureComponent pComponent, int pWidth, int pHeight, @Nonnull Coordinate2D pElementCoordinate)
     {
-        GL11.glPushMatrix();
-        GL11.glTranslatef(pElementCoordinate.getXComponent() + pComponent.iRelativeTranslation.getXComponent(),
+        pushMatrix();
+        translate(pElementCoordinate.getXComponent() + pComponent.iRelativeTranslation.getXComponent(),
           pElementCoordinate.getYComponent() + pComponent.iRelativeTranslation.getYComponent(),
           0F);
-        pComponent.iRotation.performGLRotation();
+        rotate(pComponent.iRotation);
 
         bindTexture(pComponent.iAddress);
         if (pWidth <= pComponent.iWidth && pHeight <= pComponent.iHeight)
@@ -184,7 +545,7 @@ public final class GuiHelper
             }
         }
 
-        GL11.glPopMatrix();
+        popMatrix();
     }
 
     /**
@@ -334,6 +695,11 @@ public final class GuiHelper
      */
     private static void drawCutIcon(@Nonnull TextureAtlasSprite pIcon, int pX, int pY, int pZ, int pWidth, int pHeight, int pCutOffVertical)
     {
+        if (retainQuad(pX, pY, pX + pWidth, pY + pHeight, pZ, pIcon.getMinU(), pIcon.getInterpolatedV(pCutOffVertical), pIcon.getInterpolatedU(pWidth), pIcon.getInterpolatedV(pHeight)))
+        {
+            return;
+        }
+
         Tessellator tessellator = Tessellator.getInstance();
         BufferBuilder worldrenderer = tessellator.getBuffer();
         worldrenderer.begin(7, DefaultVertexFormats.POSITION_TEX);
@@ -358,16 +724,16 @@ public final class GuiHelper
      */
     private static void renderCorner(@Nonnull TextureComponent pComponent, @Nonnull Coordinate2D pElementCoordinate)
     {
-        GL11.glPushMatrix();
-        GL11.glTranslatef(pElementCoordinate.getXComponent() + pComponent.iRelativeTranslation.getXComponent(),
+        pushMatrix();
+        translate(pElementCoordinate.getXComponent() + pComponent.iRelativeTranslation.getXComponent(),
           pElementCoordinate.getYComponent() + pComponent.iRelativeTranslation.getYComponent(),
           0F);
-        pComponent.iRotation.performGLRotation();
+        rotate(pComponent.iRotation);
 
         bindTexture(pComponent.iAddress);
         drawTexturedModalRect(0, 0, 0, pComponent.iU, pComponent.iV, pComponent.iWidth, pComponent.iHeight);
 
-        GL11.glPopMatrix();
+        popMatrix();
     }
 
     /**
@@ -380,11 +746,11 @@ public final class GuiHelper
      */
     private static void renderBorder(@Nonnull TextureComponent pComponent, int pWidth, int pHeight, @Nonnull Coordinate2D pElementCoordinate)
     {
-        GL11.glPushMatrix();
-        GL11.glTranslatef(pElementCoordinate.getXComponent() + pComponent.iRelativeTranslation.getXComponent(),
+        pushMatrix();
+        translate(pElementCoordinate.getXComponent() + pComponent.iRelativeTranslation.getXComponent(),
           pElementCoordinate.getYComponent() + pComponent.iRelativeTranslation.getYComponent(),
           0F);
-        pComponent.iRotation.performGLRotation();
+        rotate(pComponent.iRotation);
 
         bindTexture(pComponent.iAddress);
 
@@ -426,7 +792,7 @@ public final class GuiHelper
                 }
             }
         }
-        GL11.glPopMatrix();
+        popMatrix();
     }
 
     /**
@@ -443,6 +809,11 @@ public final class GuiHelper
      */
     public static void drawTexturedModelRectFromIcon(int pXCoord, int pYCoord, int pZCoord, @Nonnull TextureAtlasSprite pIIcon, int pWidth, int pHeight)
     {
+        if (retainQuad(pXCoord, pYCoord, pXCoord + pWidth, pYCoord + pHeight, pZCoord, pIIcon.getMinU(), pIIcon.getMinV(), pIIcon.getMaxU(), pIIcon.getMaxV()))
+        {
+            return;
+        }
+
         Tessellator tessellator = Tessellator.getInstance();
         BufferBuilder worldrenderer = tessellator.getBuffer();
         worldrenderer.begin(7, DefaultVertexFormats.POSITION_TEX);
@@ -475,6 +846,8 @@ public final class GuiHelper
      */
     public static void drawGradiendColoredRect(@Nonnull Plane pPlane, int pZKoord, @Nonnull MinecraftColor pColorStart, @Nonnull MinecraftColor pColorEnd)
     {
+        beforeUnbatchedDraw();
+
         float f = pColorStart.getAlphaFloat();
         float f1 = pColorStart.getBlueFloat();
         float f2 = pColorStart.getGreenFloat();
@@ -511,6 +884,8 @@ public final class GuiHelper
      */
     public static void drawItemStack(@Nonnull ItemStack stack, int x, int y)
     {
+        beforeUnbatchedDraw();
+
         GlStateManager.enableLighting();
         GlStateManager.enableDepth();
         RenderHelper.enableGUIStandardItemLighting();
@@ -544,6 +919,8 @@ public final class GuiHelper
      */
     private static void drawItemStack(@Nonnull ItemStack stack, int x, int y, String altText)
     {
+        beforeUnbatchedDraw();
+
         GlStateManager.enableLighting();
         GlStateManager.enableDepth();
         RenderHelper.enableGUIStandardItemLighting();
@@ -575,6 +952,7 @@ public final class GuiHelper
      */
     public static void enableScissor(@Nonnull Plane pTargetPlane)
     {
+        flushBatch();
 
         calcScaleFactor();
 
@@ -607,6 +985,7 @@ public final class GuiHelper
      */
     public static void disableScissor()
     {
+        flushBatch();
 
         GL11.glDisable(GL11.GL_SCISSOR_TEST);
         GL11.glPopAttrib();
@@ -0,0 +1,432 @@
+package com.ldtteam.smithscore.util.client.gui;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.ResourceLocation;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector4f;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Textured quads recorded from the {@link GuiHelper}, kept in vertex buffers so they can be drawn with a single draw
+ * call per texture, and drawn again without drawing the components that created them.
+ * <p>
+ * The quads are stored relative to the model view matrix that was active when the recording began, with the color that
+ * was active when they were drawn. The matrix, color and blend state of every quad are passed in by the caller, so
+ * recording does not read anything back from GL. Quads that use the same texture and blend state share a buffer. A quad
+ * is only added to an earlier buffer when it does not overlap any quad with another texture that was drawn after that
+ * buffer, so drawing the buffers in order gives the same result as drawing the quads in the order they were recorded
+ * in.
+ */
+public final class RetainedGuiGeometry
+{
+
+    private static final VertexFormat FORMAT = DefaultVertexFormats.POSITION_TEX_COLOR;
+
+    //In ints, enough for 16 quads before the buffer has to grow.
+    private static final int INITIAL_BUFFER_SIZE = 16 * 4 * 6;
+
+    private static final int TEXTURE_OFFSET = 12;
+    private static final int COLOR_OFFSET   = 20;
+
+    //x, y, z, u, v, red, green, blue and alpha of every corner.
+    private static final int VERTEX_SIZE = 9;
+    private static final int QUAD_SIZE   = VERTEX_SIZE * 4;
+
+    private final List<Batch> batches = new ArrayList<>();
+
+    private final FloatBuffer origin        = GLAllocation.createDirectFloatBuffer(16);
+    private final Matrix4f    inverseOrigin = new Matrix4f();
+    private final Matrix4f    transform     = new Matrix4f();
+    private final Vector4f    vertex        = new Vector4f();
+    private final float[]     quad          = new float[QUAD_SIZE];
+
+    private int     quadCount = 0;
+    private boolean recording = false;
+    private boolean complete  = false;
+
+    /**
+     * Discards the current geometry and starts recording relative to the current model view matrix.
+     */
+    public void begin()
+    {
+        origin.clear();
+        GL11.glGetFloat(GL11.GL_MODELVIEW_MATRIX, origin);
+        origin.rewind();
+
+        inverseOrigin.load(origin);
+        origin.rewind();
+        Matrix4f.invert(inverseOrigin, inverseOrigin);
+
+        restart();
+    }
+
+    /**
+     * Discards the current geometry and starts recording again, relative to the same matrix as before.
+     */
+    public void restart()
+    {
+        clear();
+
+        recording = true;
+        complete = true;
+    }
+
+    /**
+     * Stops recording, after which the geometry can be drawn.
+     */
+    public void finish()
+    {
+        for (Batch batch : batches)
+        {
+            batch.upload();
+        }
+
+        recording = false;
+    }
+
+    /**
+     * Discards the current geometry.
+     */
+    public void clear()
+    {
+        batches.clear();
+        quadCount = 0;
+        recording = false;
+        complete = false;
+    }
+
+    public boolean isRecording()
+    {
+        return recording;
+    }
+
+    /**
+     * Indicates if everything that was drawn while recording could be recorded. Geometry that is not complete should not
+     * be drawn in place of the components that created it.
+     *
+     * @return True when the geometry is complete.
+     */
+    public boolean isComplete()
+    {
+        return complete && !recording;
+    }
+
+    /**
+     * Marks the geometry as incomplete, because something was drawn that could not be recorded.
+     */
+    public void markIncomplete()
+    {
+        complete = false;
+    }
+
+    /**
+     * Returns the amount of quads that have been recorded.
+     *
+     * @return The amount of quads.
+     */
+    public int getQuadCount()
+    {
+        return quadCount;
+    }
+
+    /**
+     * Returns the amount of draw calls {@link #draw()} issues, which is the amount of buffers.
+     *
+     * @return The amount of draw calls.
+     */
+    public int getDrawCallCount()
+    {
+        return batches.size();
+    }
+
+    /**
+     * Records a textured quad.
+     *
+     * @param texture   The texture that is bound while drawing the quad, or null when it is not known.
+     * @param modelView The model view matrix the quad is drawn with.
+     * @param color     The red, green, blue and alpha component of the color the quad is drawn with.
+     * @param blend     Indicates if blending is enabled while drawing the quad.
+     * @param x0        The left edge.
+     * @param y0        The top edge.
+     * @param x1        The right edge.
+     * @param y1        The bottom edge.
+     * @param z         The z level.
+     * @param u0        The texture coordinate of the left edge.
+     * @param v0        The texture coordinate of the top edge.
+     * @param u1        The texture coordinate of the right edge.
+     * @param v1        The texture coordinate of the bottom edge.
+     */
+    public void addQuad(
+      @Nullable ResourceLocation texture,
+      @Nonnull Matrix4f modelView,
+      @Nonnull float[] color,
+      boolean blend,
+      float x0,
+      float y0,
+      float x1,
+      float y1,
+      float z,
+      float u0,
+      float v0,
+      float u1,
+      float v1)
+    {
+        if (!recording)
+        {
+            return;
+        }
+
+        if (texture == null)
+        {
+            markIncomplete();
+            return;
+        }
+
+        Matrix4f.mul(inverseOrigin, modelView, transform);
+
+        transformVertex(0, x0, y1, z, u0, v1, color);
+        transformVertex(1, x1, y1, z, u1, v1, color);
+        transformVertex(2, x1, y0, z, u1, v0, color);
+        transformVertex(3, x0, y0, z, u0, v0, color);
+
+        addTransformedQuad(texture, blend);
+    }
+
+    /**
+     * Adds the recorded geometry to another geometry that is recording, as if it was drawn with the given model view
+     * matrix. The quads keep their texture, color and blend state, and end up on top of everything the other geometry
+     * already contains.
+     *
+     * @param target    The geometry to add the quads to.
+     * @param modelView The model view matrix this geometry is drawn with.
+     */
+    public void addTo(@Nonnull RetainedGuiGeometry target, @Nonnull Matrix4f modelView)
+    {
+        if (target == this || !isComplete() || !target.recording)
+        {
+            return;
+        }
+
+        Matrix4f.mul(target.inverseOrigin, modelView, target.transform);
+
+        for (Batch batch : batches)
+        {
+            for (int offset = 0; offset < batch.vertices.size(); offset += QUAD_SIZE)
+            {
+                for (int corner = 0; corner < 4; corner++)
+                {
+                    int vertexOffset = offset + corner * VERTEX_SIZE;
+                    target.vertex.set(batch.vertices.getFloat(vertexOffset),
+                      batch.vertices.getFloat(vertexOffset + 1),
+                      batch.vertices.getFloat(vertexOffset + 2),
+                      1F);
+                    Matrix4f.transform(target.transform, target.vertex, target.vertex);
+
+                    int quadOffset = corner * VERTEX_SIZE;
+                    target.quad[quadOffset] = target.vertex.x;
+                    target.quad[quadOffset + 1] = target.vertex.y;
+                    target.quad[quadOffset + 2] = target.vertex.z;
+                    batch.vertices.getElements(vertexOffset + 3, target.quad, quadOffset + 3, VERTEX_SIZE - 3);
+                }
+
+                target.addTransformedQuad(batch.texture, batch.blend);
+            }
+        }
+    }
+
+    private void addTransformedQuad(@Nonnull ResourceLocation texture, boolean blend)
+    {
+        float minX = Math.min(Math.min(quad[0], quad[VERTEX_SIZE]), Math.min(quad[VERTEX_SIZE * 2], quad[VERTEX_SIZE * 3]));
+        float minY = Math.min(Math.min(quad[1], quad[VERTEX_SIZE + 1]), Math.min(quad[VERTEX_SIZE * 2 + 1], quad[VERTEX_SIZE * 3 + 1]));
+        float maxX = Math.max(Math.max(quad[0], quad[VERTEX_SIZE]), Math.max(quad[VERTEX_SIZE * 2], quad[VERTEX_SIZE * 3]));
+        float maxY = Math.max(Math.max(quad[1], quad[VERTEX_SIZE + 1]), Math.max(quad[VERTEX_SIZE * 2 + 1], quad[VERTEX_SIZE * 3 + 1]));
+
+        Batch batch = getBatch(texture, blend, minX, minY, maxX, maxY);
+        batch.vertices.addElements(batch.vertices.size(), quad);
+        batch.include(minX, minY, maxX, maxY);
+        quadCount++;
+    }
+
+    /**
+     * Draws the recorded geometry, relative to the current model view matrix. Every buffer is drawn with a single draw
+     * call. The current color is kept.
+     */
+    public void draw()
+    {
+        if (!isComplete())
+        {
+            return;
+        }
+
+        //The color array leaves the current color undefined, and the blend state is changed per buffer. Both are
+        //restored afterwards without reading them back, so they are changed past the GlStateManager.
+        GL11.glPushAttrib(GL11.GL_CURRENT_BIT | GL11.GL_ENABLE_BIT);
+
+        int stride = FORMAT.getNextOffset();
+
+        for (Batch batch : batches)
+        {
+            if (batch.buffer == null || batch.buffer.getVertexCount() == 0)
+            {
+                continue;
+            }
+
+            GuiHelper.bindTexture(batch.texture);
+
+            if (batch.blend)
+            {
+                GL11.glEnable(GL11.GL_BLEND);
+                GL11.glEnable(GL11.GL_ALPHA_TEST);
+            }
+            else
+            {
+                GL11.glDisable(GL11.GL_BLEND);
+            }
+
+            ByteBuffer data = batch.buffer.getByteBuffer();
+
+            data.position(0);
+            GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, stride, data);
+            GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+
+            data.position(TEXTURE_OFFSET);
+            OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+            GlStateManager.glTexCoordPointer(2, GL11.GL_FLOAT, stride, data);
+            GlStateManager.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+
+            data.position(COLOR_OFFSET);
+            GlStateManager.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, stride, data);
+            GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+
+            GlStateManager.glDrawArrays(GL11.GL_QUADS, 0, batch.buffer.getVertexCount());
+
+            GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+            GlStateManager.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+            data.position(0);
+        }
+
+        GL11.glPopAttrib();
+    }
+
+    /**
+     * Draws the recorded geometry relative to the matrix that was active when the recording began, regardless of the
+     * current model view matrix.
+     */
+    public void drawAtOrigin()
+    {
+        GlStateManager.pushMatrix();
+        GL11.glLoadMatrix(origin);
+        origin.rewind();
+        draw();
+        GlStateManager.popMatrix();
+    }
+
+    /**
+     * Finds the buffer a quad with the given bounds can be added to.
+     */
+    @Nonnull
+    private Batch getBatch(@Nonnull ResourceLocation texture, boolean blend, float minX, float minY, float maxX, float maxY)
+    {
+        for (int index = batches.size() - 1; index >= 0; index--)
+        {
+            Batch candidate = batches.get(index);
+            if (candidate.blend == blend && candidate.texture.equals(texture))
+            {
+                return candidate;
+            }
+
+            //The quad has to be drawn after this buffer.
+            if (candidate.overlaps(minX, minY, maxX, maxY))
+            {
+                break;
+            }
+        }
+
+        Batch batch = new Batch(texture, blend);
+        batches.add(batch);
+        return batch;
+    }
+
+    private void transformVertex(int corner, float x, float y, float z, float u, float v, @Nonnull float[] color)
+    {
+        vertex.set(x, y, z, 1F);
+        Matrix4f.transform(transform, vertex, vertex);
+
+        int offset = corner * VERTEX_SIZE;
+        quad[offset] = vertex.x;
+        quad[offset + 1] = vertex.y;
+        quad[offset + 2] = vertex.z;
+        quad[offset + 3] = u;
+        quad[offset + 4] = v;
+        System.arraycopy(color, 0, quad, offset + 5, 4);
+    }
+
+    private static final class Batch
+    {
+        private final ResourceLocation texture;
+        private final boolean          blend;
+        private final FloatArrayList   vertices = new FloatArrayList();
+
+        @Nullable
+        private BufferBuilder buffer;
+
+        private float minX = Float.POSITIVE_INFINITY;
+        private float minY = Float.POSITIVE_INFINITY;
+        private float maxX = Float.NEGATIVE_INFINITY;
+        private float maxY = Float.NEGATIVE_INFINITY;
+
+        private Batch(@Nonnull ResourceLocation texture, boolean blend)
+        {
+            this.texture = texture;
+            this.blend = blend;
+        }
+
+        /**
+         * Writes the collected quads into the buffer they are drawn from.
+         */
+        private void upload()
+        {
+            if (buffer == null)
+            {
+                buffer = new BufferBuilder(Math.max(INITIAL_BUFFER_SIZE, vertices.size() / VERTEX_SIZE * 6));
+            }
+
+            buffer.begin(GL11.GL_QUADS, FORMAT);
+            for (int offset = 0; offset < vertices.size(); offset += VERTEX_SIZE)
+            {
+                buffer.pos(vertices.getFloat(offset), vertices.getFloat(offset + 1), vertices.getFloat(offset + 2))
+                  .tex(vertices.getFloat(offset + 3), vertices.getFloat(offset + 4))
+                  .color(vertices.getFloat(offset + 5), vertices.getFloat(offset + 6), vertices.getFloat(offset + 7), vertices.getFloat(offset + 8))
+                  .endVertex();
+            }
+            buffer.finishDrawing();
+        }
+
+        private void include(float minX, float minY, float maxX, float maxY)
+        {
+            this.minX = Math.min(this.minX, minX);
+            this.minY = Math.min(this.minY, minY);
+            this.maxX = Math.max(this.maxX, maxX);
+            this.maxY = Math.max(this.maxY, maxY);
+        }
+
+        private boolean overlaps(float minX, float minY, float maxX, float maxY)
+        {
+            return minX < this.maxX && maxX > this.minX && minY < this.maxY && maxY > this.minY;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.ldtteam.smithscore.util.common.positioning;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3i;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable integer block coordinate that is stored as a single long.
+ * <p>
+ * The packed layout is identical to {@link BlockPos#toLong()}, so packed values can be exchanged freely with vanilla
+ * code. The static methods allow working on the packed values directly without allocating any instance.
+ */
+public final class BlockCoordinate
+{
+
+    private static final int  X_BITS  = 26;
+    private static final int  Z_BITS  = 26;
+    private static final int  Y_BITS  = 64 - X_BITS - Z_BITS;
+    private static final int  Y_SHIFT = Z_BITS;
+    private static final int  X_SHIFT = Y_SHIFT + Y_BITS;
+    private static final long X_MASK  = (1L << X_BITS) - 1L;
+    private static final long Y_MASK  = (1L << Y_BITS) - 1L;
+    private static final long Z_MASK  = (1L << Z_BITS) - 1L;
+
+    private final long packed;
+
+    private BlockCoordinate(long packed)
+    {
+        this.packed = packed;
+    }
+
+    @Nonnull
+    public static BlockCoordinate of(int x, int y, int z)
+    {
+        return new BlockCoordinate(pack(x, y, z));
+    }
+
+    @Nonnull
+    public static BlockCoordinate fromLong(long packed)
+    {
+        return new BlockCoordinate(packed);
+    }
+
+    @Nonnull
+    public static BlockCoordinate fromBlockPos(@Nonnull BlockPos pos)
+    {
+        return new BlockCoordinate(pack(pos.getX(), pos.getY(), pos.getZ()));
+    }
+
+    @Nonnull
+    public static BlockCoordinate fromCoordinate(@Nonnull Coordinate3D coordinate)
+    {
+        return new BlockCoordinate(coordinate.toLong());
+    }
+
+    public static long pack(int x, int y, int z)
+    {
+        return ((long) x & X_MASK) << X_SHIFT | ((long) y & Y_MASK) << Y_SHIFT | ((long) z & Z_MASK);
+    }
+
+    public static int unpackX(long packed)
+    {
+        return (int) (packed << (64 - X_SHIFT - X_BITS) >> (64 - X_BITS));
+    }
+
+    public static int unpackY(long packed)
+    {
+        return (int) (packed << (64 - Y_SHIFT - Y_BITS) >> (64 - Y_BITS));
+    }
+
+    public static int unpackZ(long packed)
+    {
+        return (int) (packed << (64 - Z_BITS) >> (64 - Z_BITS));
+    }
+
+    /**
+     * Moves the packed coordinate into the given direction, without unpacking it into an object.
+     *
+     * @param packed    The packed coordinate.
+     * @param direction The direction to move in.
+     * @param distance  The amount of blocks to move.
+     * @return The packed moved coordinate.
+     */
+    public static long offset(long packed, @Nonnull EnumFacing direction, int distance)
+    {
+        Vec3i directionVec = direction.getDirectionVec();
+
+        return pack(unpackX(packed) + directionVec.getX() * distance,
+          unpackY(packed) + directionVec.getY() * distance,
+          unpackZ(packed) + directionVec.getZ() * distance);
+    }
+
+    /**
+     * Spreads the bits of a packed coordinate so that neighboring coordinates end up in different hash buckets.
+     *
+     * @param packed The packed coordinate.
+     * @return The hash of the coordinate.
+     */
+    public static int hash(long packed)
+    {
+        return hash(unpackX(packed), unpackY(packed), unpackZ(packed));
+    }
+
+    /**
+     * Hashes a block coordinate. The low bits of the components are laid out without overlap before they are mixed,
+     * so blocks within 2048 blocks horizontally and 256 blocks vertically of each other never collide.
+     *
+     * @param x The x coordinate of the block.
+     * @param y The y coordinate of the block.
+     * @param z The z coordinate of the block.
+     * @return The hash of the coordinate.
+     */
+    public static int hash(int x, int y, int z)
+    {
+        return HashCommon.mix((x & 0xFFF) << 20 | (z & 0xFFF) << 8 | (y & 0xFF));
+    }
+
+    public int getX()
+    {
+        return unpackX(packed);
+    }
+
+    public int getY()
+    {
+        return unpackY(packed);
+    }
+
+    public int getZ()
+    {
+        return unpackZ(packed);
+    }
+
+    public long toLong()
+    {
+        return packed;
+    }
+
+    @Nonnull
+    public BlockCoordinate offset(@Nonnull EnumFacing direction, int distance)
+    {
+        return new BlockCoordinate(offset(packed, direction, distance));
+    }
+
+    @Nonnull
+    public BlockPos toBlockPos()
+    {
+        return new BlockPos(getX(), getY(), getZ());
+    }
+
+    @Nonnull
+    public Coordinate3D toCoordinate()
+    {
+        return new Coordinate3D(getX(), getY(), getZ());
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash(packed);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        return packed == ((BlockCoordinate) o).packed;
+    }
+
+    @Nonnull
+    @Override
+    public String toString()
+    {
+        return "BlockCoordinate{" +
+                 "x=" + getX() +
+                 ", y=" + getY() +
+                 ", z=" + getZ() +
+                 '}';
+    }
+}
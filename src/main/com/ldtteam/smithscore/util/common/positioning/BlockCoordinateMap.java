@@ -0,0 +1,123 @@
+package com.ldtteam.smithscore.util.common.positioning;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.objects.ObjectCollection;
+import net.minecraft.util.math.BlockPos;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Insertion ordered map from block coordinates to values that stores its keys as packed longs.
+ * <p>
+ * Does not allocate a key object per entry, and uses a well mixed hash, so it stays fast for large structures.
+ *
+ * @param <V> The type of the values.
+ */
+public final class BlockCoordinateMap<V>
+{
+
+    private final Long2ObjectLinkedOpenHashMap<V> entries;
+
+    public BlockCoordinateMap()
+    {
+        this.entries = new Long2ObjectLinkedOpenHashMap<>();
+    }
+
+    public BlockCoordinateMap(int expectedSize)
+    {
+        this.entries = new Long2ObjectLinkedOpenHashMap<>(expectedSize);
+    }
+
+    @Nullable
+    public V put(long packed, @Nonnull V value)
+    {
+        return entries.put(packed, value);
+    }
+
+    @Nullable
+    public V put(@Nonnull Coordinate3D coordinate, @Nonnull V value)
+    {
+        return put(coordinate.toLong(), value);
+    }
+
+    @Nullable
+    public V put(@Nonnull BlockPos pos, @Nonnull V value)
+    {
+        return put(pos.toLong(), value);
+    }
+
+    @Nullable
+    public V get(long packed)
+    {
+        return entries.get(packed);
+    }
+
+    @Nullable
+    public V get(@Nonnull Coordinate3D coordinate)
+    {
+        return get(coordinate.toLong());
+    }
+
+    @Nullable
+    public V remove(long packed)
+    {
+        return entries.remove(packed);
+    }
+
+    @Nullable
+    public V remove(@Nonnull Coordinate3D coordinate)
+    {
+        return remove(coordinate.toLong());
+    }
+
+    public boolean containsKey(long packed)
+    {
+        return entries.containsKey(packed);
+    }
+
+    public boolean containsKey(@Nonnull Coordinate3D coordinate)
+    {
+        return containsKey(coordinate.toLong());
+    }
+
+    /**
+     * Removes and returns the value of the oldest entry of this map.
+     *
+     * @return The value that was inserted first.
+     * @throws java.util.NoSuchElementException when the map is empty.
+     */
+    @Nonnull
+    public V removeFirst()
+    {
+        return entries.removeFirst();
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return entries.isEmpty();
+    }
+
+    public void clear()
+    {
+        entries.clear();
+    }
+
+    @Nonnull
+    public LongIterator keyIterator()
+    {
+        return entries.keySet().iterator();
+    }
+
+    @Nonnull
+    public ObjectCollection<V> values()
+    {
+        return entries.values();
+    }
+}
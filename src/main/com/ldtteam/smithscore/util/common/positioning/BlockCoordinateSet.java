@@ -0,0 +1,100 @@
+package com.ldtteam.smithscore.util.common.positioning;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.util.math.BlockPos;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Insertion ordered set of block coordinates that stores its entries as packed longs.
+ * <p>
+ * Does not allocate an object per entry, and uses a well mixed hash, so it stays fast for large structures.
+ */
+public final class BlockCoordinateSet
+{
+
+    private final LongLinkedOpenHashSet coordinates;
+
+    public BlockCoordinateSet()
+    {
+        this.coordinates = new LongLinkedOpenHashSet();
+    }
+
+    public BlockCoordinateSet(int expectedSize)
+    {
+        this.coordinates = new LongLinkedOpenHashSet(expectedSize);
+    }
+
+    public boolean add(long packed)
+    {
+        return coordinates.add(packed);
+    }
+
+    public boolean add(@Nonnull Coordinate3D coordinate)
+    {
+        return add(coordinate.toLong());
+    }
+
+    public boolean add(@Nonnull BlockPos pos)
+    {
+        return add(pos.toLong());
+    }
+
+    public boolean remove(long packed)
+    {
+        return coordinates.remove(packed);
+    }
+
+    public boolean remove(@Nonnull Coordinate3D coordinate)
+    {
+        return remove(coordinate.toLong());
+    }
+
+    public boolean contains(long packed)
+    {
+        return coordinates.contains(packed);
+    }
+
+    public boolean contains(@Nonnull Coordinate3D coordinate)
+    {
+        return contains(coordinate.toLong());
+    }
+
+    public boolean contains(int x, int y, int z)
+    {
+        return contains(BlockCoordinate.pack(x, y, z));
+    }
+
+    /**
+     * Removes and returns the oldest entry of this set.
+     *
+     * @return The packed coordinate that was inserted first.
+     * @throws java.util.NoSuchElementException when the set is empty.
+     */
+    public long removeFirst()
+    {
+        return coordinates.removeFirstLong();
+    }
+
+    public int size()
+    {
+        return coordinates.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return coordinates.isEmpty();
+    }
+
+    public void clear()
+    {
+        coordinates.clear();
+    }
+
+    @Nonnull
+    public LongIterator iterator()
+    {
+        return coordinates.iterator();
+    }
+}
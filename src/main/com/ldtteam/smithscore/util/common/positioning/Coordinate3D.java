@@ -11,6 +11,8 @@ import io.netty.buffer.ByteBuf;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3i;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -84,7 +86,8 @@ public class Coordinate3D
     @Override
     public int hashCode()
     {
-        return (int) (getXComponent() + getYComponent() + getZComponent());
+        //Hashes the block the coordinate lies in, so equal coordinates (including -0.0 and 0.0) hash equally.
+        return BlockCoordinate.hash(MathHelper.floor(xCoord), MathHelper.floor(yCoord), MathHelper.floor(zCoord));
     }
 
     @Override
@@ -126,7 +129,21 @@ public class Coordinate3D
     @Nonnull
     public Coordinate3D moveCoordinate(@Nonnull EnumFacing direction, int distance)
     {
-        return new Coordinate3D(toBlockPos().offset(direction, distance));
+        Vec3i directionVec = direction.getDirectionVec();
+
+        return new Coordinate3D(MathHelper.floor(xCoord) + directionVec.getX() * distance,
+          MathHelper.floor(yCoord) + directionVec.getY() * distance,
+          MathHelper.floor(zCoord) + directionVec.getZ() * distance);
+    }
+
+    /**
+     * Packs the block this coordinate lies in into a single long, using the same layout as {@link BlockPos#toLong()}.
+     *
+     * @return The packed block coordinate.
+     */
+    public long toLong()
+    {
+        return BlockCoordinate.pack(MathHelper.floor(xCoord), MathHelper.floor(yCoord), MathHelper.floor(zCoord));
     }
 
     @Nonnull
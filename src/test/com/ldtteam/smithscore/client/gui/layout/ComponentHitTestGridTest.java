@@ -0,0 +1,108 @@
+package com.ldtteam.smithscore.client.gui.layout;
+
+import com.ldtteam.smithscore.client.gui.components.core.IGUIComponent;
+import com.ldtteam.smithscore.util.common.positioning.Coordinate2D;
+import com.ldtteam.smithscore.util.common.positioning.Plane;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ComponentHitTestGridTest
+{
+    @Test
+    public void getComponentsAtIncludesEdges()
+    {
+        IGUIComponent component = createComponent(IGUIComponent.class, 10, 20, 30, 40);
+        ComponentHitTestGrid grid = new ComponentHitTestGrid();
+        List<IGUIComponent> source = Collections.singletonList(component);
+
+        assertEquals(Collections.singletonList(component), grid.getComponentsAt(source, 10, 20));
+        assertEquals(Collections.singletonList(component), grid.getComponentsAt(source, 40, 60));
+        assertTrue(grid.getComponentsAt(source, 9, 20).isEmpty());
+        assertTrue(grid.getComponentsAt(source, 41, 60).isEmpty());
+        assertTrue(grid.getComponentsAt(source, 40, 61).isEmpty());
+    }
+
+    @Test
+    public void getComponentsAtKeepsSourceOrder()
+    {
+        IGUIComponent lower = createComponent(IGUIComponent.class, 0, 0, 200, 200);
+        IGUIComponent upper = createComponent(IGUIComponent.class, 150, 150, 20, 20);
+        IGUIComponent other = createComponent(IGUIComponent.class, -50, -50, 10, 10);
+        ComponentHitTestGrid grid = new ComponentHitTestGrid();
+        List<IGUIComponent> source = Arrays.asList(lower, upper, other);
+
+        assertEquals(Arrays.asList(lower, upper), grid.getComponentsAt(source, 160, 160));
+        assertEquals(Collections.singletonList(other), grid.getComponentsAt(source, -45, -45));
+        assertTrue(grid.getComponentsAt(source, 300, 300).isEmpty());
+    }
+
+    @Test
+    public void getComponentsAtReturnsIndependentLists()
+    {
+        IGUIComponent left = createComponent(IGUIComponent.class, 0, 0, 10, 10);
+        IGUIComponent right = createComponent(IGUIComponent.class, 100, 0, 10, 10);
+        ComponentHitTestGrid grid = new ComponentHitTestGrid();
+        List<IGUIComponent> source = Arrays.asList(left, right);
+
+        List<IGUIComponent> first = grid.getComponentsAt(source, 5, 5);
+        List<IGUIComponent> second = grid.getComponentsAt(source, 105, 5);
+
+        assertEquals(Collections.singletonList(left), first);
+        assertEquals(Collections.singletonList(right), second);
+    }
+
+    @Test
+    public void getComponentsAtWithoutComponents()
+    {
+        ComponentHitTestGrid grid = new ComponentHitTestGrid();
+
+        assertTrue(grid.getComponentsAt(new ArrayList<IGUIComponent>(), 0, 0).isEmpty());
+    }
+
+    @Test
+    public void getComponentsAtFollowsUntrackedResize()
+    {
+        IGUIComponent component = createComponent(IGUIComponent.class, 0, 0, 10, 10);
+        ComponentHitTestGrid grid = new ComponentHitTestGrid();
+        List<IGUIComponent> source = Collections.singletonList(component);
+
+        assertTrue(grid.getComponentsAt(source, 100, 100).isEmpty());
+
+        when(component.getSize()).thenReturn(new Plane(0, 0, 200, 200));
+
+        assertEquals(Collections.singletonList(component), grid.getComponentsAt(source, 100, 100));
+    }
+
+    @Test
+    public void getComponentsAtFollowsTrackedResizeAfterInvalidate()
+    {
+        ILayoutCachingGuiComponent component = createComponent(ILayoutCachingGuiComponent.class, 0, 0, 10, 10);
+        ComponentHitTestGrid grid = new ComponentHitTestGrid();
+        List<IGUIComponent> source = Collections.singletonList(component);
+
+        assertTrue(grid.getComponentsAt(source, 100, 100).isEmpty());
+
+        when(component.getSize()).thenReturn(new Plane(0, 0, 200, 200));
+        grid.invalidate();
+
+        assertEquals(Collections.singletonList(component), grid.getComponentsAt(source, 100, 100));
+    }
+
+    private static <T extends IGUIComponent> T createComponent(Class<T> type, int x, int y, int width, int height)
+    {
+        T component = mock(type);
+        when(component.getLocalCoordinate()).thenReturn(new Coordinate2D(x, y));
+        when(component.getSize()).thenReturn(new Plane(0, 0, width, height));
+
+        return component;
+    }
+}
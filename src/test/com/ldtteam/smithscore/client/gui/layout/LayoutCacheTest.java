@@ -0,0 +1,39 @@
+package com.ldtteam.smithscore.client.gui.layout;
+
+import com.ldtteam.smithscore.util.common.positioning.Coordinate2D;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutCacheTest
+{
+    @Test
+    public void firstLocalCoordinateCountsAsMoved()
+    {
+        assertTrue(new LayoutCache().updateLocalCoordinate(new Coordinate2D(0, 0)));
+    }
+
+    @Test
+    public void equalLocalCoordinateDoesNotCountAsMoved()
+    {
+        LayoutCache cache = new LayoutCache();
+        cache.updateLocalCoordinate(new Coordinate2D(4, 8));
+
+        assertFalse(cache.updateLocalCoordinate(new Coordinate2D(4, 8)));
+        assertTrue(cache.updateLocalCoordinate(new Coordinate2D(4, 9)));
+    }
+
+    @Test
+    public void coordinateChangedInPlaceCountsAsMoved()
+    {
+        LayoutCache cache = new LayoutCache();
+        Coordinate2D coordinate = new Coordinate2D(4, 8);
+        cache.updateLocalCoordinate(coordinate);
+
+        coordinate.setXComponent(5);
+
+        assertTrue(cache.updateLocalCoordinate(coordinate));
+        assertFalse(cache.updateLocalCoordinate(coordinate));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ldtteam.smithscore.client.gui.management;
+
+import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedComponentHost;
+import com.ldtteam.smithscore.client.gui.hosts.IGUIBasedTabHost;
+import com.ldtteam.smithscore.client.gui.tabs.core.IGUITab;
+import com.ldtteam.smithscore.util.client.color.MinecraftColor;
+import net.minecraft.item.ItemStack;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TabSelectorStripTest
+{
+    private final LinkedHashMap<String, IGUITab> tabs = new LinkedHashMap<>();
+
+    private ITabManager            manager;
+    private IGUIBasedComponentHost host;
+    private TabSelectorStrip       strip;
+
+    @Before
+    public void setUp()
+    {
+        IGUIBasedTabHost tabHost = mock(IGUIBasedTabHost.class);
+        when(tabHost.getID()).thenReturn("Host");
+
+        manager = mock(ITabManager.class);
+        when(manager.getHost()).thenReturn(tabHost);
+        when(manager.getTabs()).thenReturn(tabs);
+        when(manager.getTabSelectorCount()).thenReturn(2);
+        when(manager.getTabSelectorWidth()).thenReturn(26);
+        when(manager.getTabSelectorHeight()).thenReturn(31);
+
+        for (int i = 0; i < 3; i++)
+        {
+            IGUITab tab = mock(IGUITab.class);
+            when(tab.getID()).thenReturn("Tab" + i);
+            when(tab.getTabColor()).thenReturn(new MinecraftColor(255, 255, 255));
+            when(tab.getDisplayStack()).thenReturn(ItemStack.EMPTY);
+            tabs.put(tab.getID(), tab);
+        }
+
+        host = mock(IGUIBasedComponentHost.class);
+        strip = new TabSelectorStrip(manager);
+    }
+
+    @Test
+    public void updateReusesSelectorsWhileTheLayoutIsUnchanged()
+    {
+        strip.update(host);
+
+        TabSelectorStrip.TabSelector active = strip.getActiveSelector();
+        List<TabSelectorStrip.TabSelector> inActive = new ArrayList<>(strip.getInActiveSelectors());
+
+        for (int i = 0; i < 10; i++)
+        {
+            strip.update(host);
+
+            assertSame(active, strip.getActiveSelector());
+            assertSame(active.getBorder(), strip.getActiveSelector().getBorder());
+            assertSame(active.getDisplay(), strip.getActiveSelector().getDisplay());
+            assertEquals(inActive, strip.getInActiveSelectors());
+        }
+
+        assertSame(tabs.get("Tab0"), active.getTab());
+        assertEquals(1, inActive.size());
+        assertSame(tabs.get("Tab1"), inActive.get(0).getTab());
+    }
+
+    @Test
+    public void updateRefreshesTheDisplayStackEveryFrame()
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            strip.update(host);
+        }
+
+        //Once when the selector is created, and once per update.
+        verify(tabs.get("Tab0"), times(1 + 5)).getDisplayStack();
+        verify(tabs.get("Tab1"), times(1 + 5)).getDisplayStack();
+        //The third tab is on the next page of selectors, so it never gets one.
+        verify(tabs.get("Tab2"), times(0)).getDisplayStack();
+    }
+
+    @Test
+    public void changingTheActiveTabMovesTheExistingSelectors()
+    {
+        strip.update(host);
+
+        TabSelectorStrip.TabSelector first = strip.getActiveSelector();
+        TabSelectorStrip.TabSelector second = strip.getInActiveSelectors().get(0);
+
+        when(manager.getCurrentTabIndex()).thenReturn(1);
+        strip.update(host);
+
+        assertSame(second, strip.getActiveSelector());
+        assertSame(first, strip.getInActiveSelectors().get(0));
+        assertNotSame(first.getBorder(), second.getBorder());
+    }
+}
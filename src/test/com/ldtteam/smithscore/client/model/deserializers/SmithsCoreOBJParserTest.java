@@ -0,0 +1,272 @@
+package com.ldtteam.smithscore.client.model.deserializers;
+
+import com.ldtteam.smithscore.client.model.data.SmithsCoreOBJFace;
+import com.ldtteam.smithscore.client.model.data.SmithsCoreOBJVertex;
+import net.minecraft.client.resources.IResource;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+import org.junit.Test;
+
+import javax.vecmath.Vector3f;
+import javax.vecmath.Vector4f;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SmithsCoreOBJParserTest
+{
+    private static final int VERTICES            = 200;
+    private static final int TEXTURE_COORDINATES = 100;
+    private static final int NORMALS             = 100;
+    private static final int FACES               = 400;
+
+    @Test
+    public void tokenizerReadsFloatsLikeParseFloat()
+    {
+        Random random = new Random(7);
+        OBJLineTokenizer tokenizer = new OBJLineTokenizer();
+
+        for (int i = 0; i < 100000; i++)
+        {
+            String value = formatFloat(random, random.nextFloat() * 2000 - 1000);
+            tokenizer.reset("v " + value);
+            tokenizer.nextToken();
+
+            assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(tokenizer.nextFloat()));
+        }
+
+        for (String value : new String[] {"0", "-0.0", "+.5", "5.", "1e-3", "-1.5E7", "123456789.123", "0.00000001", "16777216", "16777217.5"})
+        {
+            tokenizer.reset(value);
+
+            assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(tokenizer.nextFloat()));
+        }
+    }
+
+    @Test
+    public void tokenizerSplitsFaceCornersLikeSplit()
+    {
+        OBJLineTokenizer tokenizer = new OBJLineTokenizer();
+        int[] indices = new int[3];
+
+        String[][] corners = {{"12", "12", "0", "0"}, {"3/4", "3", "4", "0"}, {"5//6", "5", "0", "6"}, {"7/8/9", "7", "8", "9"}, {"-1/-1/-1", "-1", "-1", "-1"}};
+        for (String[] corner : corners)
+        {
+            tokenizer.reset("  " + corner[0] + "\t");
+            tokenizer.nextFaceCorner(indices, 0);
+
+            assertEquals(corner[0], Integer.parseInt(corner[1]), indices[0]);
+            assertEquals(corner[0], Integer.parseInt(corner[2]), indices[1]);
+            assertEquals(corner[0], Integer.parseInt(corner[3]), indices[2]);
+        }
+    }
+
+    @Test
+    public void parsedModelMatchesTheSplitAndParseFloatReading() throws Exception
+    {
+        Random random = new Random(42);
+        StringBuilder obj = new StringBuilder("# Generated test model\n");
+
+        List<float[]> positions = new ArrayList<>();
+        for (int i = 0; i < VERTICES; i++)
+        {
+            String[] values = {formatFloat(random, random.nextFloat() * 200 - 100), formatFloat(random, random.nextFloat() * 200 - 100),
+              formatFloat(random, random.nextFloat() * 200 - 100), i % 10 == 0 ? formatFloat(random, random.nextFloat()) : null};
+
+            obj.append("v ").append(values[0]).append(' ').append(values[1]).append(' ').append(values[2]);
+            if (values[3] != null)
+            {
+                obj.append(' ').append(values[3]);
+            }
+            obj.append('\n');
+
+            positions.add(new float[] {Float.parseFloat(values[0]), Float.parseFloat(values[1]), Float.parseFloat(values[2]),
+              values[3] != null ? Float.parseFloat(values[3]) : 1.0F});
+        }
+
+        List<float[]> textureCoordinates = new ArrayList<>();
+        for (int i = 0; i < TEXTURE_COORDINATES; i++)
+        {
+            String u = String.format(Locale.ROOT, "%.6f", random.nextFloat());
+            String v = String.format(Locale.ROOT, "%.6f", random.nextFloat());
+
+            obj.append("vt ").append(u).append(' ').append(v).append('\n');
+            textureCoordinates.add(new float[] {Float.parseFloat(u), Float.parseFloat(v), 0.0F});
+        }
+
+        List<float[]> normals = new ArrayList<>();
+        for (int i = 0; i < NORMALS; i++)
+        {
+            String[] values = {formatFloat(random, random.nextFloat() * 2 - 1), formatFloat(random, random.nextFloat() * 2 - 1), formatFloat(random, random.nextFloat() * 2 - 1)};
+
+            obj.append("vn  ").append(values[0]).append(' ').append(values[1]).append('\t').append(values[2]).append('\n');
+            normals.add(new float[] {Float.parseFloat(values[0]), Float.parseFloat(values[1]), Float.parseFloat(values[2])});
+        }
+
+        //The vertex, texture coordinate and normal index of every corner of every face, 0 when not present.
+        List<int[][]> faces = new ArrayList<>();
+        for (int i = 0; i < FACES; i++)
+        {
+            int[][] corners = new int[random.nextBoolean() ? 3 : 4][];
+
+            obj.append('f');
+            for (int c = 0; c < corners.length; c++)
+            {
+                int vertex = 1 + random.nextInt(VERTICES);
+                int texture = 1 + random.nextInt(TEXTURE_COORDINATES);
+                int normal = 1 + random.nextInt(NORMALS);
+
+                obj.append(' ');
+                if (c == 0 && i % 20 == 0)
+                {
+                    obj.append("-1/-1/-1");
+                    corners[c] = new int[] {VERTICES, TEXTURE_COORDINATES, NORMALS};
+                    continue;
+                }
+
+                switch (i % 4)
+                {
+                    case 0:
+                        obj.append(vertex);
+                        corners[c] = new int[] {vertex, 0, 0};
+                        break;
+                    case 1:
+                        obj.append(vertex).append('/').append(texture);
+                        corners[c] = new int[] {vertex, texture, 0};
+                        break;
+                    case 2:
+                        obj.append(vertex).append("//").append(normal);
+                        corners[c] = new int[] {vertex, 0, normal};
+                        break;
+                    default:
+                        obj.append(vertex).append('/').append(texture).append('/').append(normal);
+                        corners[c] = new int[] {vertex, texture, normal};
+                        break;
+                }
+            }
+            obj.append('\n');
+
+            faces.add(corners);
+        }
+
+        LinkedHashSet<SmithsCoreOBJFace> parsedFaces = parse(obj.toString()).materialLibrary.getGroups().get("Test").getFaces();
+
+        assertEquals(FACES, parsedFaces.size());
+
+        Iterator<SmithsCoreOBJFace> iterator = parsedFaces.iterator();
+        for (int[][] corners : faces)
+        {
+            SmithsCoreOBJFace face = iterator.next();
+            SmithsCoreOBJVertex[] vertices = face.getVertices();
+
+            assertNotNull(vertices);
+            assertEquals(corners.length == 3, face.isTriangles());
+
+            for (int c = 0; c < vertices.length; c++)
+            {
+                //Triangles repeat their last corner.
+                int[] corner = corners[Math.min(c, corners.length - 1)];
+                SmithsCoreOBJVertex vertex = vertices[c];
+
+                float[] position = positions.get(corner[0] - 1);
+                Vector4f pos = vertex.getPos();
+                assertBits(position[0], pos.x);
+                assertBits(position[1], pos.y);
+                assertBits(position[2], pos.z);
+                assertBits(position[3], pos.w);
+
+                assertEquals(corner[1] != 0, vertex.hasTextureCoordinate());
+                if (corner[1] != 0)
+                {
+                    float[] textureCoordinate = textureCoordinates.get(corner[1] - 1);
+                    Vector3f data = vertex.getTextureCoordinate().getData();
+                    assertBits(textureCoordinate[0], data.x);
+                    assertBits(textureCoordinate[1], data.y);
+                    assertBits(textureCoordinate[2], data.z);
+                }
+
+                assertEquals(corner[2] != 0, vertex.hasNormal());
+                if (corner[2] != 0)
+                {
+                    float[] normal = normals.get(corner[2] - 1);
+                    Vector3f data = vertex.getNormal().getData();
+                    assertBits(normal[0], data.x);
+                    assertBits(normal[1], data.y);
+                    assertBits(normal[2], data.z);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void normalsAndTextureCoordinatesAreShared() throws Exception
+    {
+        String obj = "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\n"
+                       + "vt 0 0\nvt 1 1\n"
+                       + "vn 0 0 1\n"
+                       + "f 1/1/1 2/2/1 3/2/1\n"
+                       + "f 1/1/1 3/2/1 4/1/1\n";
+
+        LinkedHashSet<SmithsCoreOBJFace> faces = parse(obj).materialLibrary.getGroups().get("Test").getFaces();
+        assertEquals(2, faces.size());
+
+        Iterator<SmithsCoreOBJFace> iterator = faces.iterator();
+        SmithsCoreOBJVertex[] first = iterator.next().getVertices();
+        SmithsCoreOBJVertex[] second = iterator.next().getVertices();
+
+        assertSame(first[0].getNormal(), second[2].getNormal());
+        assertSame(first[0].getTextureCoordinate(), second[2].getTextureCoordinate());
+        assertSame(first[1].getTextureCoordinate(), second[1].getTextureCoordinate());
+    }
+
+    /**
+     * Parses the given model, with all faces in the group Test.
+     */
+    private static SmithsCoreOBJParser parse(String model) throws Exception
+    {
+        IResource resource = mock(IResource.class);
+        when(resource.getResourceLocation()).thenReturn(new ResourceLocation("smithscore", "models/test.obj"));
+        when(resource.getInputStream()).thenReturn(new ByteArrayInputStream(("o Test\n" + model).getBytes(StandardCharsets.UTF_8)));
+
+        SmithsCoreOBJParser parser = new SmithsCoreOBJParser(resource, mock(IResourceManager.class));
+        parser.parse();
+
+        return parser;
+    }
+
+    /**
+     * Formats the value in one of the forms exporters write, or with an exponent to cover the fallback.
+     */
+    private static String formatFloat(Random random, float value)
+    {
+        switch (random.nextInt(5))
+        {
+            case 0:
+                return String.format(Locale.ROOT, "%.6f", value);
+            case 1:
+                return String.format(Locale.ROOT, "%.4f", value);
+            case 2:
+                return Integer.toString((int) value);
+            case 3:
+                return Float.toString(value);
+            default:
+                return Float.toString(value / 100000);
+        }
+    }
+
+    private static void assertBits(float expected, float actual)
+    {
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(actual));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ldtteam.smithscore.client.textures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TextureProcessingTest
+{
+    private static final int[][] SIZES = {{16, 16}, {32, 32}, {64, 64}, {16, 256}, {512, 512}};
+
+    @Test
+    public void holographicFrameMatchesColorPixel()
+    {
+        Random random = new Random(16);
+
+        for (int[] size : SIZES)
+        {
+            TextureAnalysis analysis = TextureAnalysis.analyse(createPixels(random, size[0] * size[1]), size[0], size[1]);
+
+            HolographicTexture singleLoop = new HolographicTexture("smithscore:test", "smithscore:test_single");
+            HolographicTexture perPixel = new PerPixelHolographicTexture();
+
+            singleLoop.prepare(analysis);
+            perPixel.prepare(analysis);
+
+            assertArrayEquals(size[0] + "x" + size[1], perPixel.getPreparedData()[0], singleLoop.getPreparedData()[0]);
+        }
+    }
+
+    @Test
+    public void holographicFrameUsesOverriddenColorPixel()
+    {
+        TextureAnalysis analysis = TextureAnalysis.analyse(createPixels(new Random(3), 16 * 16), 16, 16);
+
+        HolographicTexture texture = new HolographicTexture("smithscore:test", "smithscore:test_constant")
+        {
+            @Override
+            protected int colorPixel(int pixel, int mipmap, int pxCoord)
+            {
+                return 0xFF00FF00;
+            }
+        };
+        texture.prepare(analysis);
+
+        for (int pixel : texture.getPreparedData()[0])
+        {
+            assertEquals(0xFF00FF00, pixel);
+        }
+    }
+
+    @Test
+    public void brightnessTablesMatchTheFormula()
+    {
+        int[] colors = new int[1 << 12];
+        int[] brightness = new int[colors.length];
+
+        for (int rgb = 0; rgb < 1 << 24; rgb += colors.length)
+        {
+            for (int i = 0; i < colors.length; i++)
+            {
+                colors[i] = 0xFF000000 | (rgb + i);
+            }
+
+            AbstractColoredTexture.getPerceptualBrightness(colors, brightness);
+
+            for (int i = 0; i < colors.length; i++)
+            {
+                int col = colors[i];
+                int expected = AbstractColoredTexture.getPerceptualBrightness(
+                  AbstractColoredTexture.red(col) / 255.0, AbstractColoredTexture.green(col) / 255.0, AbstractColoredTexture.blue(col) / 255.0);
+
+                assertEquals(expected, AbstractColoredTexture.getPerceptualBrightness(col));
+                assertEquals(expected, brightness[i]);
+            }
+        }
+    }
+
+    /**
+     * Creates pixels with a mix of opaque, translucent and transparent areas, so that the masks have edges inside
+     * the texture as well.
+     */
+    private static int[] createPixels(Random random, int count)
+    {
+        int[] pixels = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            int alpha = random.nextInt(4) == 0 ? random.nextInt(256) : 255;
+            pixels[i] = alpha << 24 | random.nextInt(1 << 24);
+        }
+
+        return pixels;
+    }
+
+    /**
+     * Forces the per pixel path, by overriding colorPixel without changing it.
+     */
+    private static final class PerPixelHolographicTexture extends HolographicTexture
+    {
+        private PerPixelHolographicTexture()
+        {
+            super("smithscore:test", "smithscore:test_per_pixel");
+        }
+
+        @Override
+        protected int colorPixel(int pixel, int mipmap, int pxCoord)
+        {
+            return super.colorPixel(pixel, mipmap, pxCoord);
+        }
+    }
+}
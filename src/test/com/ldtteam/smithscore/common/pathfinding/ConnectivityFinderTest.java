@@ -0,0 +1,120 @@
+package com.ldtteam.smithscore.common.pathfinding;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectivityFinderTest
+{
+    @Test
+    public void connectedGraphIsASingleComponent()
+    {
+        List<TestPathComponent> nodes = TestPathComponent.components(TestPathComponent.openGrid(8, 8));
+
+        List<LinkedHashSet<TestPathComponent>> components = ConnectivityFinder.findConnectedComponents(nodes, null);
+
+        assertEquals(1, components.size());
+        assertEquals(64, components.get(0).size());
+        assertSame(nodes.get(0), components.get(0).iterator().next());
+    }
+
+    @Test
+    public void separatedPartsAreSplit()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(
+          "...#...",
+          "...#...",
+          "...#...",
+          "#######",
+          "......#");
+
+        List<LinkedHashSet<TestPathComponent>> components = ConnectivityFinder.findConnectedComponents(TestPathComponent.components(grid), null);
+
+        assertEquals(3, components.size());
+        assertEquals(9, components.get(0).size());
+        assertEquals(9, components.get(1).size());
+        assertEquals(6, components.get(2).size());
+
+        //The components are returned in the order in which their seeds appear in the nodes.
+        assertSame(grid[0][0], components.get(0).iterator().next());
+        assertSame(grid[0][4], components.get(1).iterator().next());
+        assertSame(grid[4][0], components.get(2).iterator().next());
+        assertTrue(components.get(0).contains(grid[2][2]));
+        assertTrue(components.get(1).contains(grid[2][6]));
+    }
+
+    @Test
+    public void skippableComponentSplitsTheGraph()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(".....");
+
+        List<LinkedHashSet<TestPathComponent>> components = ConnectivityFinder.findConnectedComponents(TestPathComponent.components(grid), grid[0][2]);
+
+        assertEquals(2, components.size());
+        assertEquals(new LinkedHashSet<>(Arrays.asList(grid[0][0], grid[0][1])), components.get(0));
+        assertEquals(new LinkedHashSet<>(Arrays.asList(grid[0][3], grid[0][4])), components.get(1));
+    }
+
+    @Test
+    public void neighborsOutsideTheNodesAreNotFollowed()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(".....");
+        List<TestPathComponent> nodes = Arrays.asList(grid[0][0], grid[0][1], grid[0][3], grid[0][4]);
+
+        List<LinkedHashSet<TestPathComponent>> components = ConnectivityFinder.findConnectedComponents(nodes, null);
+
+        assertEquals(2, components.size());
+        assertFalse(components.get(0).contains(grid[0][2]));
+        assertFalse(components.get(1).contains(grid[0][2]));
+    }
+
+    @Test
+    public void componentsMatchThePathFinder()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(
+          "..#....#",
+          "..#.##.#",
+          "###.#..#",
+          "....#.##",
+          ".####...",
+          "......#.");
+        List<TestPathComponent> nodes = TestPathComponent.components(grid);
+        TestPathComponent skipped = grid[3][3];
+
+        List<LinkedHashSet<TestPathComponent>> components = ConnectivityFinder.findConnectedComponents(nodes, skipped);
+
+        //Checking the connectivity with a search from the seed of every component to every node gives the same result.
+        List<TestPathComponent> seeds = new ArrayList<>();
+        for (LinkedHashSet<TestPathComponent> component : components)
+        {
+            seeds.add(component.iterator().next());
+        }
+
+        int visited = 0;
+        for (int i = 0; i < components.size(); i++)
+        {
+            for (TestPathComponent node : nodes)
+            {
+                if (node == skipped)
+                {
+                    continue;
+                }
+
+                boolean connected = new PathFinder(seeds.get(i), node, skipped, IPathHeuristic.MANHATTAN, PathFinder.UNLIMITED_EXPANSIONS).isConnected();
+                assertEquals(components.get(i).contains(node), connected);
+            }
+
+            visited += components.get(i).size();
+        }
+
+        assertEquals(nodes.size() - 1, visited);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ldtteam.smithscore.common.pathfinding;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PathFinderTest
+{
+    @Test
+    public void findsShortestPathOnOpenGrid()
+    {
+        TestPathComponent[][] grid = TestPathComponent.openGrid(10, 10);
+
+        PathFinder finder = new PathFinder(grid[0][0], grid[9][9], null, IPathHeuristic.MANHATTAN, PathFinder.UNLIMITED_EXPANSIONS);
+
+        assertTrue(finder.isConnected());
+        assertFalse(finder.isBudgetExceeded());
+        assertPath(finder.getPath(), grid[0][0], grid[9][9], 18);
+    }
+
+    @Test
+    public void findsShortestPathAroundWalls()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(
+          ".....#....",
+          ".....#....",
+          ".....#....",
+          ".....#....",
+          "..........");
+
+        PathFinder finder = new PathFinder(grid[0][0], grid[0][9], null, IPathHeuristic.MANHATTAN, PathFinder.UNLIMITED_EXPANSIONS);
+
+        assertTrue(finder.isConnected());
+        //Down to the gap in the wall and back up again.
+        assertPath(finder.getPath(), grid[0][0], grid[0][9], 4 + 5 + 4 + 4);
+    }
+
+    @Test
+    public void heuristicsFindPathsOfTheSameLength()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(
+          "..........",
+          ".########.",
+          ".#......#.",
+          ".#.####.#.",
+          "...#....#.",
+          "####.####.",
+          "..........");
+
+        PathFinder manhattan = new PathFinder(grid[0][0], grid[4][4], null, IPathHeuristic.MANHATTAN, PathFinder.UNLIMITED_EXPANSIONS);
+        PathFinder euclidean = new PathFinder(grid[0][0], grid[4][4], null, IPathHeuristic.EUCLIDEAN, PathFinder.UNLIMITED_EXPANSIONS);
+
+        assertTrue(manhattan.isConnected());
+        assertTrue(euclidean.isConnected());
+        assertEquals(manhattan.getPath().getComponents().size(), euclidean.getPath().getComponents().size());
+    }
+
+    @Test
+    public void separatedNodesAreNotConnected()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(
+          "..#..",
+          "..#..",
+          "..#..");
+
+        PathFinder finder = new PathFinder(grid[0][0], grid[2][4], null, IPathHeuristic.MANHATTAN, PathFinder.UNLIMITED_EXPANSIONS);
+
+        assertFalse(finder.isConnected());
+        assertFalse(finder.isBudgetExceeded());
+        assertEquals(6, finder.getExpandedNodes());
+    }
+
+    @Test
+    public void skippableComponentBlocksThePath()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(".....");
+
+        assertTrue(new PathFinder(grid[0][0], grid[0][4], null, IPathHeuristic.MANHATTAN, PathFinder.UNLIMITED_EXPANSIONS).isConnected());
+        assertFalse(new PathFinder(grid[0][0], grid[0][4], grid[0][2]).isConnected());
+    }
+
+    @Test
+    public void expansionBudgetAbortsTheSearch()
+    {
+        TestPathComponent[][] grid = TestPathComponent.grid(
+          "..........#.",
+          "..........#.",
+          "..........#.",
+          "..........#.");
+
+        PathFinder finder = new PathFinder(grid[0][0], grid[0][11], null, IPathHeuristic.MANHATTAN, 5);
+
+        assertFalse(finder.isConnected());
+        assertTrue(finder.isBudgetExceeded());
+        assertEquals(5, finder.getExpandedNodes());
+    }
+
+    @Test
+    public void startEqualsEnd()
+    {
+        TestPathComponent[][] grid = TestPathComponent.openGrid(3, 3);
+
+        PathFinder finder = new PathFinder(grid[1][1], grid[1][1], null, IPathHeuristic.MANHATTAN, PathFinder.UNLIMITED_EXPANSIONS);
+
+        assertTrue(finder.isConnected());
+        assertEquals(1, finder.getPath().getComponents().size());
+        assertEquals(0, finder.getExpandedNodes());
+    }
+
+    private static void assertPath(Path path, TestPathComponent start, TestPathComponent end, int steps)
+    {
+        List<IPathComponent> components = path.getComponents();
+
+        //The path is stored from the end back to the start.
+        assertEquals(steps + 1, components.size());
+        assertSame(end, components.get(0));
+        assertSame(start, components.get(components.size() - 1));
+
+        for (int i = 1; i < components.size(); i++)
+        {
+            assertTrue(TestPathComponent.areNeighbors(components.get(i - 1), components.get(i)));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ldtteam.smithscore.common.pathfinding;
+
+import com.ldtteam.smithscore.util.common.positioning.Coordinate3D;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+
+/**
+ * A path component on a flat grid, used to build test graphs.
+ */
+final class TestPathComponent implements IPathComponent
+{
+    private final Coordinate3D              location;
+    private final ArrayList<IPathComponent> neighbors = new ArrayList<>();
+
+    TestPathComponent(int x, int z)
+    {
+        this.location = new Coordinate3D(x, 0, z);
+    }
+
+    /**
+     * Creates a grid from the given rows, in which every '.' is a component and every other character a wall.
+     * Components are connected to the components directly next to them.
+     *
+     * @param rows The rows of the grid, the index of the row is the z coordinate.
+     * @return The components, indexed by [z][x], null for walls.
+     */
+    @Nonnull
+    static TestPathComponent[][] grid(@Nonnull String... rows)
+    {
+        TestPathComponent[][] grid = new TestPathComponent[rows.length][];
+        for (int z = 0; z < rows.length; z++)
+        {
+            grid[z] = new TestPathComponent[rows[z].length()];
+            for (int x = 0; x < rows[z].length(); x++)
+            {
+                if (rows[z].charAt(x) == '.')
+                {
+                    grid[z][x] = new TestPathComponent(x, z);
+                }
+            }
+        }
+
+        for (int z = 0; z < grid.length; z++)
+        {
+            for (int x = 0; x < grid[z].length; x++)
+            {
+                if (grid[z][x] == null)
+                {
+                    continue;
+                }
+
+                connect(grid[z][x], get(grid, x + 1, z));
+                connect(grid[z][x], get(grid, x, z + 1));
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Creates an open grid without walls.
+     *
+     * @param width The size of the grid along the x axis.
+     * @param depth The size of the grid along the z axis.
+     * @return The components, indexed by [z][x].
+     */
+    @Nonnull
+    static TestPathComponent[][] openGrid(int width, int depth)
+    {
+        String[] rows = new String[depth];
+        StringBuilder row = new StringBuilder();
+        for (int x = 0; x < width; x++)
+        {
+            row.append('.');
+        }
+
+        for (int z = 0; z < depth; z++)
+        {
+            rows[z] = row.toString();
+        }
+
+        return grid(rows);
+    }
+
+    @Nonnull
+    static ArrayList<TestPathComponent> components(@Nonnull TestPathComponent[][] grid)
+    {
+        ArrayList<TestPathComponent> components = new ArrayList<>();
+        for (TestPathComponent[] row : grid)
+        {
+            for (TestPathComponent component : row)
+            {
+                if (component != null)
+                {
+                    components.add(component);
+                }
+            }
+        }
+
+        return components;
+    }
+
+    static boolean areNeighbors(@Nonnull IPathComponent first, @Nonnull IPathComponent second)
+    {
+        return first.getValidPathableNeighborComponents().contains(second);
+    }
+
+    @Nullable
+    private static TestPathComponent get(@Nonnull TestPathComponent[][] grid, int x, int z)
+    {
+        if (z >= grid.length || x >= grid[z].length)
+        {
+            return null;
+        }
+
+        return grid[z][x];
+    }
+
+    private static void connect(@Nonnull TestPathComponent first, @Nullable TestPathComponent second)
+    {
+        if (second == null)
+        {
+            return;
+        }
+
+        first.neighbors.add(second);
+        second.neighbors.add(first);
+    }
+
+    @Nonnull
+    @Override
+    public Coordinate3D getLocation()
+    {
+        return location;
+    }
+
+    @Nonnull
+    @Override
+    public ArrayList<IPathComponent> getValidPathableNeighborComponents()
+    {
+        return neighbors;
+    }
+
+    @Override
+    public String toString()
+    {
+        return location.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.ldtteam.smithscore.network.event;
+
+import com.ldtteam.smithscore.common.events.network.StandardNetworkableEvent;
+import com.ldtteam.smithscore.network.event.messages.StandardNetworkableEventSyncMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.launchwrapper.Launch;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkableEventCodecRegistryTest
+{
+    @BeforeClass
+    public static void setUpLogger()
+    {
+        //The logger of SmithsCore reads the environment from the blackboard when the class is loaded.
+        if (Launch.blackboard == null)
+        {
+            Launch.blackboard = new HashMap<>();
+        }
+        Launch.blackboard.putIfAbsent("fml.deobfuscatedEnvironment", true);
+    }
+
+    @After
+    public void resetRegistry()
+    {
+        NetworkableEventCodecRegistry.getInstance().reset();
+    }
+
+    @Test
+    public void registeredEventsRoundTripWithAnId()
+    {
+        NetworkableEventCodecRegistry registry = NetworkableEventCodecRegistry.getInstance();
+        registry.register(RegisteredEvent.class, RegisteredEvent::new);
+        registry.freeze();
+
+        ByteBuf buffer = Unpooled.buffer();
+        new StandardNetworkableEventSyncMessage(new RegisteredEvent(42)).toBytes(buffer);
+
+        //A one byte ID followed by the payload, instead of the class name.
+        assertEquals(1 + 4, buffer.readableBytes());
+
+        StandardNetworkableEventSyncMessage message = new StandardNetworkableEventSyncMessage();
+        message.fromBytes(buffer);
+
+        assertTrue(message.EVENT instanceof RegisteredEvent);
+        assertEquals(42, ((RegisteredEvent) message.EVENT).value);
+    }
+
+    @Test
+    public void unregisteredEventsRoundTripWithTheirClassName()
+    {
+        NetworkableEventCodecRegistry.getInstance().freeze();
+
+        ByteBuf buffer = Unpooled.buffer();
+        new StandardNetworkableEventSyncMessage(new RegisteredEvent(7)).toBytes(buffer);
+
+        StandardNetworkableEventSyncMessage message = new StandardNetworkableEventSyncMessage();
+        message.fromBytes(buffer);
+
+        assertTrue(message.EVENT instanceof RegisteredEvent);
+        assertEquals(7, ((RegisteredEvent) message.EVENT).value);
+        assertEquals(1, NetworkableEventCodecRegistry.getInstance().getCachedUnregisteredCount());
+    }
+
+    @Test
+    public void unknownIdsAreRejected()
+    {
+        NetworkableEventCodecRegistry registry = NetworkableEventCodecRegistry.getInstance();
+        registry.register(RegisteredEvent.class, RegisteredEvent::new);
+        registry.freeze();
+
+        assertNull(registry.create(NetworkableEventCodecRegistry.UNREGISTERED_ID));
+        assertNull(registry.create(2));
+        assertNull(registry.create(-1));
+    }
+
+    @Test
+    public void remoteIdTablesReorderTheIds()
+    {
+        NetworkableEventCodecRegistry registry = NetworkableEventCodecRegistry.getInstance();
+        registry.register(RegisteredEvent.class, RegisteredEvent::new);
+        registry.freeze();
+
+        int mismatches = registry.applyRemoteIdTable(Arrays.asList("some.server.OnlyEvent", RegisteredEvent.class.getName()));
+
+        assertEquals(1, mismatches);
+        assertEquals(2, registry.getId(new RegisteredEvent(0)));
+        assertNull(registry.create(1));
+
+        registry.restoreLocalIdTable();
+
+        assertEquals(1, registry.getId(new RegisteredEvent(0)));
+    }
+
+    @Test
+    public void failedLookupsAreNotCached()
+    {
+        NetworkableEventCodecRegistry registry = NetworkableEventCodecRegistry.getInstance();
+
+        for (int i = 0; i < 10; i++)
+        {
+            assertNull(registry.createUnregistered("some.missing.Event" + i));
+        }
+        assertNull(registry.createUnregistered(String.class.getName()));
+        assertNull(registry.createUnregistered(StandardNetworkableEvent.class.getName()));
+
+        assertEquals(0, registry.getCachedUnregisteredCount());
+    }
+
+    public static class RegisteredEvent extends StandardNetworkableEvent
+    {
+        int value;
+
+        public RegisteredEvent()
+        {
+        }
+
+        RegisteredEvent(int value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public void readFromMessageBuffer(@Nonnull ByteBuf pMessageBuffer)
+        {
+            value = pMessageBuffer.readInt();
+        }
+
+        @Override
+        public void writeToMessageBuffer(@Nonnull ByteBuf pMessageBuffer)
+        {
+            pMessageBuffer.writeInt(value);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ldtteam.smithscore.util.common.positioning;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlockCoordinateTest
+{
+    private static final int MIN_HORIZONTAL = -(1 << 25);
+    private static final int MAX_HORIZONTAL = (1 << 25) - 1;
+    private static final int MIN_Y          = -(1 << 11);
+    private static final int MAX_Y          = (1 << 11) - 1;
+
+    private static final int[] HORIZONTAL_VALUES = {0, 1, -1, 15, -16, 30000000, -30000000, MIN_HORIZONTAL, MAX_HORIZONTAL};
+    private static final int[] Y_VALUES          = {0, 1, -1, 255, 256, MIN_Y, MAX_Y};
+
+    @Test
+    public void packRoundTrips()
+    {
+        for (int x : HORIZONTAL_VALUES)
+        {
+            for (int y : Y_VALUES)
+            {
+                for (int z : HORIZONTAL_VALUES)
+                {
+                    long packed = BlockCoordinate.pack(x, y, z);
+
+                    assertEquals(x, BlockCoordinate.unpackX(packed));
+                    assertEquals(y, BlockCoordinate.unpackY(packed));
+                    assertEquals(z, BlockCoordinate.unpackZ(packed));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void packMatchesBlockPos()
+    {
+        for (int x : HORIZONTAL_VALUES)
+        {
+            for (int y : Y_VALUES)
+            {
+                for (int z : HORIZONTAL_VALUES)
+                {
+                    BlockPos pos = new BlockPos(x, y, z);
+
+                    assertEquals(pos.toLong(), BlockCoordinate.pack(x, y, z));
+                    assertEquals(pos, BlockCoordinate.fromLong(pos.toLong()).toBlockPos());
+                    assertEquals(BlockCoordinate.fromBlockPos(pos), BlockCoordinate.of(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinateRoundTripsThroughPackedValue()
+    {
+        Coordinate3D coordinate = new Coordinate3D(-17, 64, -123456);
+        BlockCoordinate blockCoordinate = BlockCoordinate.fromCoordinate(coordinate);
+
+        assertEquals(-17, blockCoordinate.getX());
+        assertEquals(64, blockCoordinate.getY());
+        assertEquals(-123456, blockCoordinate.getZ());
+        assertEquals(coordinate, blockCoordinate.toCoordinate());
+        assertEquals(new BlockPos(-17, 64, -123456).toLong(), coordinate.toLong());
+    }
+
+    @Test
+    public void offsetCrossesZero()
+    {
+        long packed = BlockCoordinate.pack(0, 0, 0);
+
+        assertEquals(BlockCoordinate.pack(0, -1, 0), BlockCoordinate.offset(packed, EnumFacing.DOWN, 1));
+        assertEquals(BlockCoordinate.pack(-3, 0, 0), BlockCoordinate.offset(packed, EnumFacing.WEST, 3));
+        assertEquals(BlockCoordinate.pack(0, 0, -2), BlockCoordinate.offset(packed, EnumFacing.NORTH, 2));
+        assertEquals(BlockCoordinate.of(1, 0, 0), BlockCoordinate.of(0, 0, 0).offset(EnumFacing.EAST, 1));
+    }
+
+    @Test
+    public void equalCoordinatesHashEqually()
+    {
+        assertEquals(BlockCoordinate.of(-5, 10, 7), BlockCoordinate.of(-5, 10, 7));
+        assertEquals(BlockCoordinate.of(-5, 10, 7).hashCode(), BlockCoordinate.of(-5, 10, 7).hashCode());
+        assertNotEquals(BlockCoordinate.of(-5, 10, 7), BlockCoordinate.of(7, 10, -5));
+
+        assertEquals(new Coordinate3D(-5, 10, 7), new Coordinate3D(-5, 10, 7));
+        assertEquals(new Coordinate3D(-5, 10, 7).hashCode(), new Coordinate3D(-5, 10, 7).hashCode());
+    }
+
+    @Test
+    public void diagonalCoordinatesDoNotCollide()
+    {
+        Set<Integer> blockHashes = new HashSet<>();
+        Set<Integer> coordinateHashes = new HashSet<>();
+        int count = 0;
+
+        for (int x = -8; x <= 8; x++)
+        {
+            for (int y = 0; y <= 16; y++)
+            {
+                //All coordinates lie on the plane x + y + z = 0, which a summing hash maps onto a single value.
+                int z = -x - y;
+
+                blockHashes.add(BlockCoordinate.hash(BlockCoordinate.pack(x, y, z)));
+                coordinateHashes.add(new Coordinate3D(x, y, z).hashCode());
+                count++;
+            }
+        }
+
+        assertEquals(count, blockHashes.size());
+        assertEquals(count, coordinateHashes.size());
+    }
+
+    @Test
+    public void setKeepsInsertionOrder()
+    {
+        BlockCoordinateSet set = new BlockCoordinateSet();
+
+        assertTrue(set.add(new Coordinate3D(3, 0, -3)));
+        assertTrue(set.add(BlockCoordinate.pack(-1, MIN_Y, MAX_HORIZONTAL)));
+        assertTrue(set.add(new BlockPos(MIN_HORIZONTAL, MAX_Y, 0)));
+        assertFalse(set.add(new Coordinate3D(3, 0, -3)));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(-1, MIN_Y, MAX_HORIZONTAL));
+        assertFalse(set.contains(-1, MAX_Y, MAX_HORIZONTAL));
+
+        LongIterator iterator = set.iterator();
+        assertEquals(BlockCoordinate.pack(3, 0, -3), iterator.nextLong());
+        assertEquals(BlockCoordinate.pack(-1, MIN_Y, MAX_HORIZONTAL), iterator.nextLong());
+        assertEquals(BlockCoordinate.pack(MIN_HORIZONTAL, MAX_Y, 0), iterator.nextLong());
+        assertFalse(iterator.hasNext());
+
+        assertEquals(BlockCoordinate.pack(3, 0, -3), set.removeFirst());
+        assertTrue(set.remove(BlockCoordinate.pack(-1, MIN_Y, MAX_HORIZONTAL)));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void mapLooksUpNegativeCoordinates()
+    {
+        BlockCoordinateMap<String> map = new BlockCoordinateMap<>();
+
+        map.put(new Coordinate3D(-1, 0, -1), "first");
+        map.put(new BlockPos(-1, 1, -1), "second");
+
+        assertEquals("first", map.get(new Coordinate3D(-1, 0, -1)));
+        assertEquals("second", map.get(BlockCoordinate.pack(-1, 1, -1)));
+        assertTrue(map.containsKey(new Coordinate3D(-1, 1, -1)));
+        assertFalse(map.containsKey(new Coordinate3D(1, 1, 1)));
+        assertEquals("first", map.remove(new Coordinate3D(-1, 0, -1)));
+        assertEquals(1, map.size());
+    }
+}